@@ -0,0 +1,81 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/** Shared data sets for the server benchmarks. */
+final class BenchmarkFixtures {
+    /** Game catalog shipped with the server. */
+    static final String GAMES_PATH = "src/main/resources/data/games.json";
+
+
+    private BenchmarkFixtures() { }
+
+
+    /** @return the bundled game catalog */
+    static GameRepository games() { return new GameRepository(GAMES_PATH); }
+
+
+    /**
+     * Builds a session manager holding a play history for many players.
+     *
+     * <p>Every player has {@code historyDepth} states on consecutive games:
+     * all but the last are finished (alternating wins and losses), the last
+     * one is still in progress.
+     *
+     * @param games game catalog
+     * @param players number of players, with userIds 1..players
+     * @param historyDepth number of game states per player
+     * @return populated session manager without active sessions
+     */
+    static SessionManager sessions(GameRepository games, int players, int historyDepth) {
+        List<SessionManager.GameStateSnapshot> snapshots =
+            new ArrayList<>(players * historyDepth);
+
+        for (int userId = 1; userId <= players; userId++) {
+            for (int depth = 0; depth < historyDepth; depth++) {
+                int gameId = games.getGameIdByIndex(depth % games.size());
+                List<String> words = games.getMatcher(gameId).getWords();
+
+                boolean current = depth == historyDepth - 1;
+                PlayerGameState.GameResult result = current
+                    ? PlayerGameState.GameResult.NOT_FINISHED
+                    : (userId + depth) % 2 == 0
+                        ? PlayerGameState.GameResult.WON
+                        : PlayerGameState.GameResult.LOST;
+
+                snapshots.add(
+                    new SessionManager.GameStateSnapshot(
+                        userId,
+                        gameId,
+                        result == PlayerGameState.GameResult.WON ? 3 : 1,
+                        result == PlayerGameState.GameResult.LOST ? 4 : 1,
+                        result == PlayerGameState.GameResult.WON ? 14 : -10,
+                        current ? words : List.of(),
+                        List.of(),
+                        result
+                    )
+                );
+            }
+        }
+
+        SessionManager sessionManager = new SessionManager();
+        sessionManager.importSnapshots(snapshots, games);
+        return sessionManager;
+    }
+
+
+    /**
+     * Returns the words of one group of a game.
+     *
+     * @param game game definition
+     * @param index group index
+     * @return group words
+     */
+    static List<String> groupWords(Game game, int index) {
+        return game.getGroups().get(index).getWords();
+    }
+}
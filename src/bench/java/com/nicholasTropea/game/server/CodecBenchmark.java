@@ -0,0 +1,141 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.model.LeaderboardRecord;
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.requests.LoginRequest;
+import com.nicholasTropea.game.net.requests.SubmitProposalRequest;
+import com.nicholasTropea.game.net.responses.GameInfoResponse;
+import com.nicholasTropea.game.net.responses.LeaderboardResponse;
+
+/**
+ * Request decoding and response encoding with the server's shared JSON
+ * codec and with the binary protocol.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+    private static final String LOGIN =
+        "{\"operation\":\"login\",\"username\":\"player1\",\"psw\":\"secret\","
+        + "\"udpPort\":40000}";
+
+    /** Number of records in the encoded leaderboard. */
+    @Param({"10", "1000"})
+    private int players;
+
+    /** Guessed groups in the encoded game info (0-3). */
+    @Param({"0", "3"})
+    private int historyDepth;
+
+    private String submitProposal;
+    private byte[] loginFrame;
+    private byte[] submitProposalFrame;
+    private LeaderboardResponse leaderboard;
+    private GameInfoResponse gameInfo;
+
+
+    @Setup
+    public void setUp() {
+        GameRepository games = BenchmarkFixtures.games();
+        Game game = games.getGameById(games.getGameIdByIndex(0));
+
+        this.submitProposal = "{\"operation\":\"submitProposal\",\"words\":"
+            + ClientHandler.GSON.toJson(BenchmarkFixtures.groupWords(game, 0)) + "}";
+        this.loginFrame = payload(
+            BinaryProtocol.encodeRequest(new LoginRequest("player1", "secret", 40000))
+        );
+        this.submitProposalFrame = payload(
+            BinaryProtocol.encodeRequest(
+                new SubmitProposalRequest(BenchmarkFixtures.groupWords(game, 0))
+            )
+        );
+
+        List<LeaderboardRecord> records = new ArrayList<>(this.players);
+        for (int i = 0; i < this.players; i++) {
+            records.add(new LeaderboardRecord("player" + i, i + 1, 1000 - i));
+        }
+        this.leaderboard = LeaderboardResponse.success(records);
+
+        List<List<String>> guessed = new ArrayList<>();
+        List<String> remaining = new ArrayList<>(games.getMatcher(game.getId()).getWords());
+        for (int i = 0; i < Math.min(this.historyDepth, 3); i++) {
+            List<String> group = BenchmarkFixtures.groupWords(game, i);
+            guessed.add(group);
+            remaining.removeAll(group);
+        }
+        this.gameInfo = GameInfoResponse.success(
+            true,
+            120_000L,
+            remaining,
+            null,
+            guessed,
+            1,
+            guessed.size() * 6 - 4
+        );
+    }
+
+
+    @Benchmark
+    public Request decodeLogin() {
+        return ClientHandler.GSON.fromJson(LOGIN, Request.class);
+    }
+
+
+    @Benchmark
+    public Request decodeSubmitProposal() {
+        return ClientHandler.GSON.fromJson(this.submitProposal, Request.class);
+    }
+
+
+    @Benchmark
+    public String encodeLeaderboard() {
+        return ClientHandler.GSON.toJson(this.leaderboard);
+    }
+
+
+    @Benchmark
+    public String encodeGameInfo() { return ClientHandler.GSON.toJson(this.gameInfo); }
+
+
+    @Benchmark
+    public Request decodeLoginBinary() { return BinaryProtocol.decodeRequest(this.loginFrame); }
+
+
+    @Benchmark
+    public Request decodeSubmitProposalBinary() {
+        return BinaryProtocol.decodeRequest(this.submitProposalFrame);
+    }
+
+
+    @Benchmark
+    public byte[] encodeLeaderboardBinary() {
+        return BinaryProtocol.encodeResponse(this.leaderboard);
+    }
+
+
+    @Benchmark
+    public byte[] encodeGameInfoBinary() { return BinaryProtocol.encodeResponse(this.gameInfo); }
+
+
+    /** Strips the one or two byte length prefix of a small frame. */
+    private static byte[] payload(byte[] frame) {
+        int header = (frame[0] & 0x80) == 0 ? 1 : 2;
+        return Arrays.copyOfRange(frame, header, frame.length);
+    }
+}
@@ -0,0 +1,83 @@
+package com.nicholasTropea.game.server;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nicholasTropea.game.model.LeaderboardRecord;
+
+/** Leaderboard construction at startup and the per-request queries. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardBenchmark {
+    @Param({"1000", "50000"})
+    private int players;
+
+    @Param({"1", "20"})
+    private int historyDepth;
+
+    private SessionManager sessionManager;
+    private LeaderboardIndex leaderboard;
+
+
+    @Setup
+    public void setUp() {
+        GameRepository games = BenchmarkFixtures.games();
+        this.sessionManager = BenchmarkFixtures.sessions(
+            games,
+            this.players,
+            this.historyDepth
+        );
+        this.leaderboard = build();
+    }
+
+
+    /** Same work as {@code ServerRuntime.buildLeaderboardIndex}. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LeaderboardIndex build() {
+        LeaderboardIndex index = new LeaderboardIndex();
+
+        for (int userId = 1; userId <= this.players; userId++) {
+            int totalScore = this.sessionManager.getHistoryForUser(userId).getTotalScore();
+            index.put(userId, "player" + userId, totalScore);
+        }
+
+        return index;
+    }
+
+
+    @Benchmark
+    public List<LeaderboardRecord> top10() { return this.leaderboard.top(10); }
+
+
+    @Benchmark
+    public List<LeaderboardRecord> fullRanking() {
+        return this.leaderboard.top(Integer.MAX_VALUE);
+    }
+
+
+    @Benchmark
+    public LeaderboardRecord findPlayer() {
+        int userId = 1 + ThreadLocalRandom.current().nextInt(this.players);
+        return this.leaderboard.find("player" + userId);
+    }
+
+
+    @Benchmark
+    public void addScore() {
+        int userId = 1 + ThreadLocalRandom.current().nextInt(this.players);
+        int delta = ThreadLocalRandom.current().nextBoolean() ? 4 : -4;
+        this.leaderboard.addScore(userId, delta);
+    }
+}
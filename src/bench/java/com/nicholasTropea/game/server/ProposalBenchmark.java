@@ -0,0 +1,79 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * Proposal checking as done by {@code handleSubmitProposal}: encoding the
+ * proposal as a mask, validation against the remaining mask and group lookup,
+ * without mutating the state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProposalBenchmark {
+    private ProposalMatcher matcher;
+    private PlayerGameState state;
+    private List<String> correctProposal;
+    private List<String> wrongProposal;
+    private List<String> malformedProposal;
+
+
+    @Setup
+    public void setUp() {
+        GameRepository games = BenchmarkFixtures.games();
+        Game game = games.getGameById(games.getGameIdByIndex(0));
+        this.matcher = games.getMatcher(game.getId());
+        this.state = new PlayerGameState(
+            1,
+            game.getId(),
+            PlayerGameState.packWordOrder(IntStream.range(0, 16).toArray())
+        );
+
+        this.correctProposal = BenchmarkFixtures.groupWords(game, 2);
+
+        List<String> first = BenchmarkFixtures.groupWords(game, 0);
+        List<String> second = BenchmarkFixtures.groupWords(game, 1);
+        this.wrongProposal = new ArrayList<>(first.subList(0, 2));
+        this.wrongProposal.addAll(second.subList(0, 2));
+
+        this.malformedProposal = new ArrayList<>(first.subList(0, 3));
+        this.malformedProposal.add(first.get(0));
+    }
+
+
+    @Benchmark
+    public int correctProposal() { return check(this.correctProposal); }
+
+
+    @Benchmark
+    public int wrongProposal() { return check(this.wrongProposal); }
+
+
+    @Benchmark
+    public int malformedProposal() { return check(this.malformedProposal); }
+
+
+    private int check(List<String> words) {
+        int proposalMask = this.matcher.proposalMask(words);
+        int remainingMask = this.state.getRemainingMask();
+        if (ClientHandler.validateProposal(proposalMask, remainingMask) != null) {
+            return -1;
+        }
+
+        return this.matcher.groupOf(proposalMask);
+    }
+}
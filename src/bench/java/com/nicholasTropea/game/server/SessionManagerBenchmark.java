@@ -0,0 +1,96 @@
+package com.nicholasTropea.game.server;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * SessionManager reads, exports and proposal transitions.
+ *
+ * <p>{@link #applyWrongProposal} runs one player per benchmark thread; run
+ * it with increasing {@code -t} to see how proposal throughput scales with
+ * cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SessionManagerBenchmark {
+    /** Per-thread player with an open session on the current game. */
+    @State(Scope.Thread)
+    public static class Player {
+        private PlayerGameState state;
+
+
+        @Setup
+        public void setUp(SessionManagerBenchmark benchmark) {
+            int userId = benchmark.players + benchmark.nextThreadUser.incrementAndGet();
+            benchmark.sessionManager.openSessionForCurrentGame(
+                userId,
+                benchmark.currentGameId
+            );
+            this.state = benchmark.sessionManager.getSession(userId);
+        }
+    }
+
+
+    @Param({"1000", "50000"})
+    private int players;
+
+    @Param({"1", "20"})
+    private int historyDepth;
+
+    private GameRepository games;
+    private SessionManager sessionManager;
+    private int currentGameId;
+    private final AtomicInteger nextThreadUser = new AtomicInteger();
+
+
+    @Setup
+    public void setUp() {
+        this.games = BenchmarkFixtures.games();
+        this.sessionManager = BenchmarkFixtures.sessions(
+            this.games,
+            this.players,
+            this.historyDepth
+        );
+        this.currentGameId = this.games.getGameIdByIndex(0);
+    }
+
+
+    @Benchmark
+    public SessionManager.GameAggregates getGameAggregates() {
+        return this.sessionManager.getGameAggregates(this.currentGameId);
+    }
+
+
+    @Benchmark
+    public FinishedGameStore.PlayerHistory getHistoryForUser() {
+        int userId = 1 + ThreadLocalRandom.current().nextInt(this.players);
+        return this.sessionManager.getHistoryForUser(userId);
+    }
+
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<SessionManager.GameStateSnapshot> exportSnapshots() {
+        return this.sessionManager.exportSnapshots(this.games);
+    }
+
+
+    @Benchmark
+    public int applyWrongProposal(Player player) {
+        return this.sessionManager.applyWrongProposal(player.state, -4, false);
+    }
+}
@@ -2,12 +2,8 @@ package com.nicholasTropea.game.client;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
-import java.net.Socket;
 
 import java.io.IOException; 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -28,7 +24,9 @@ import com.google.gson.GsonBuilder;
 import com.nicholasTropea.game.config.ClientConfig;
 import com.nicholasTropea.game.net.Request;
 import com.nicholasTropea.game.net.Response;
-import com.nicholasTropea.game.net.ResponseDeserializer;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+import com.nicholasTropea.game.net.WireProtocol;
 
 import com.nicholasTropea.game.net.requests.*;
 import com.nicholasTropea.game.net.responses.*;
@@ -102,28 +100,28 @@ public class ClientMain {
         // OPEN CONNECTION
         try (
             DatagramSocket udpSocket = new DatagramSocket(udpListenPort);
-            Socket socket = new Socket(host, port);
-            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
-            BufferedReader in = new BufferedReader(
-                                new InputStreamReader(socket.getInputStream())
-            );
+            ServerConnection connection = connect(host, port, config.getWireProtocol());
             Scanner scan = new Scanner(System.in)
         ) {
             printConnectionMessage(host, port, udpSocket);
             startUdpListener(udpSocket);
 
             Gson gson = new GsonBuilder()
-                        .registerTypeAdapter(
+                        .registerTypeHierarchyAdapter(
+                            Request.class,
+                            new RequestTypeAdapter()
+                        )
+                        .registerTypeHierarchyAdapter(
                             Response.class,
-                            new ResponseDeserializer()
+                            new ResponseTypeAdapter()
                         ).create();
             
             Request req;
 
             while ((req = getRequest(scan, loggedIn, udpSocket)) != null) {  
-                sendRequest(req, gson, out);
+                sendRequest(req, gson, connection);
 
-                Response resp = awaitResponse(in, gson);
+                Response resp = awaitResponse(connection, gson);
                 if (resp == null) { break; }
                 
                 loggedIn = handleResponse(resp, loggedIn);
@@ -245,18 +243,6 @@ public class ClientMain {
     }
 
 
-    /**
-     * Parses the JSON response into the appropriate Response subclass.
-     * 
-     * @param jsonResp The JSON response string
-     * @param gson The Gson instance for deserialization
-     * @return The parsed Response object
-     */
-    private static Response parseResponse(String jsonResp, Gson gson) {
-        return gson.fromJson(jsonResp, Response.class);
-    }
-
-
     /**
      * Displays additional details from the response based on its type.
      * 
@@ -612,54 +598,82 @@ public class ClientMain {
 
 
     /**
-     * Serializes the given {@link Request} object to JSON and sends it to the server.
-     * Logs the operation and the serialized request for debugging purposes.
+     * Opens the server connection in the preferred wire protocol, falling
+     * back to JSON if the server does not acknowledge the binary preface.
+     *
+     * @param host server host
+     * @param port server TCP port
+     * @param protocol preferred wire protocol
+     * @return open connection
+     * @throws IOException if the server cannot be reached
+     */
+    private static ServerConnection connect(
+        String host,
+        int port,
+        WireProtocol protocol
+    ) throws IOException {
+        if (protocol == WireProtocol.BINARY) {
+            try { return ServerConnection.open(host, port, WireProtocol.BINARY, 0); }
+            catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Binary protocol refused, using JSON.", e);
+            }
+        }
+
+        return ServerConnection.open(host, port, WireProtocol.JSON, 0);
+    }
+
+
+    /**
+     * Sends the given {@link Request} to the server in the connection's
+     * wire protocol. Logs the operation and the request, rendered as JSON,
+     * for debugging purposes.
      *
-     * @param req   the request object to be sent
-     * @param gson  the Gson instance used for serialization
-     * @param out   the PrintWriter used to send the request to the server
+     * @param req        the request object to be sent
+     * @param gson       the Gson instance used to render the log entry
+     * @param connection the server connection
+     * @throws IOException if the request cannot be written
      */
-    private static void sendRequest(Request req, Gson gson, PrintWriter out) {
-        String jsonReq = gson.toJson(req);
-        LOGGER.info("SENDING REQUEST " + req.getOperation() + " -> " + jsonReq);
-        out.println(jsonReq);
+    private static void sendRequest(
+        Request req,
+        Gson gson,
+        ServerConnection connection
+    ) throws IOException {
+        LOGGER.info("SENDING REQUEST " + req.getOperation() + " -> " + gson.toJson(req));
+        connection.send(req);
     }
 
 
     /**
-     * Waits for a response from the server by reading a line
-     * from the provided BufferedReader.
-     * If the server closes the connection (i.e., the read line is null),
-     * logs a warning and returns null.
-     * Otherwise, logs the received response and parses it into a
-     * Response object using the provided Gson instance.
+     * Waits for a response from the server.
+     * If the server closes the connection, logs a warning and returns null.
+     * Otherwise, logs the received response, rendered as JSON.
      *
-     * @param in   the BufferedReader to read the server response from
-     * @param gson the Gson instance used to parse the response
-     * @return     the parsed Response object, or null if the server closed the connection
+     * @param connection the server connection
+     * @param gson       the Gson instance used to render the log entry
+     * @return           the parsed Response object, or null if the server
+     *                   closed the connection or sent an invalid response
      */
-    private static Response awaitResponse(BufferedReader in, Gson gson) {
-        String respLine = null;
+    private static Response awaitResponse(ServerConnection connection, Gson gson) {
+        Response resp;
 
-        try { respLine = in.readLine(); }
+        try { resp = connection.receive(); }
         catch (IOException e) {
             LOGGER.log(Level.WARNING, "Failed to read server response.", e);
             return null;
         }
+        catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Invalid response payload.", e);
+            return null;
+        }
 
-        if (respLine == null) {
+        if (resp == null) {
             System.out.println("\nServer closed the connection. Exiting client.");
             LOGGER.warning("Server closed TCP connection.");
             return null;
         }
 
-        LOGGER.info("RESPONSE: " + respLine);
-
-        try { return parseResponse(respLine, gson); }
-        catch (RuntimeException e) {
-            LOGGER.log(Level.WARNING, "Invalid response payload: " + respLine, e);
-            return null;
-        }
+        LOGGER.info("RESPONSE: " + gson.toJson(resp));
+        return resp;
     }
 
 
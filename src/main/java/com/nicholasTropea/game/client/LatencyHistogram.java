@@ -0,0 +1,136 @@
+package com.nicholasTropea.game.client;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Concurrent latency histogram with microsecond resolution.
+ *
+ * <p>Values below 64 µs get one bucket each; above that every power of two
+ * is split into 32 buckets, so any reported percentile is within about 3%
+ * of the recorded value. Recording is a single atomic increment and never
+ * allocates, which keeps the load generator off its own latency numbers.
+ */
+public final class LatencyHistogram {
+    /** Values below this bound are stored exactly. */
+    private static final int LINEAR_BUCKETS = 64;
+
+    /** Buckets per power of two above the linear range. */
+    private static final int SUB_BUCKETS = 32;
+
+    /** Largest tracked value in microseconds (about 12 days). */
+    private static final long MAX_MICROS = (1L << 40) - 1;
+
+    private static final int BUCKET_COUNT = indexOf(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAdder sumMicros = new LongAdder();
+
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos elapsed time in nanoseconds, negative values count as zero
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0L, nanos / 1_000L));
+        this.counts.incrementAndGet(indexOf(micros));
+        this.total.increment();
+        this.sumMicros.add(micros);
+        this.maxMicros.accumulate(micros);
+    }
+
+
+    /**
+     * Moves every sample of this histogram into {@code target} and resets
+     * this one. Samples recorded concurrently end up in exactly one of the
+     * two, so a reporter can drain an interval histogram into a cumulative
+     * one while players keep recording.
+     *
+     * @param target histogram receiving the samples
+     */
+    public void drainInto(LatencyHistogram target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = this.counts.getAndSet(i, 0L);
+            if (count != 0L) { target.counts.addAndGet(i, count); }
+        }
+
+        target.total.add(this.total.sumThenReset());
+        target.sumMicros.add(this.sumMicros.sumThenReset());
+        target.maxMicros.accumulate(this.maxMicros.getThenReset());
+    }
+
+
+    /** @return number of recorded samples */
+    public long getCount() { return this.total.sum(); }
+
+
+    /** @return largest recorded value in microseconds */
+    public long getMaxMicros() { return this.maxMicros.get(); }
+
+
+    /** @return mean recorded value in microseconds, 0 when empty */
+    public double getMeanMicros() {
+        long count = this.total.sum();
+        return count == 0L ? 0.0 : (double) this.sumMicros.sum() / count;
+    }
+
+
+    /**
+     * Returns the value below which the given fraction of samples fall.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the matching bucket in microseconds, 0 when empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        long count = 0L;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = this.counts.get(i);
+            count += snapshot[i];
+        }
+
+        if (count == 0L) { return 0L; }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), this.maxMicros.get());
+            }
+        }
+
+        return this.maxMicros.get();
+    }
+
+
+    private static int indexOf(long micros) {
+        if (micros < LINEAR_BUCKETS) { return (int) micros; }
+
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - 5;
+        int sub = (int) (micros >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + sub;
+    }
+
+
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR_BUCKETS) { return index; }
+
+        int offset = index - LINEAR_BUCKETS;
+        int shift = offset / SUB_BUCKETS + 1;
+        long sub = SUB_BUCKETS + offset % SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
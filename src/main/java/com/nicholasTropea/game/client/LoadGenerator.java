@@ -0,0 +1,803 @@
+package com.nicholasTropea.game.client;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nicholasTropea.game.config.LoadGeneratorConfig;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.Response;
+
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+
+
+/**
+ * Headless closed-loop load generator for the Connections server.
+ *
+ * <p>Simulates many players, each on its own virtual thread with its own TCP
+ * connection and UDP listener. A player registers, logs in, then repeatedly
+ * waits a think time and issues one operation drawn from the configured mix,
+ * always waiting for the response before thinking again. A
+ * {@code reconnect} operation drops the connection without logging out and
+ * logs in again; with {@code refreshOnRoundEnd} every player fetches the new
+ * board as soon as the round-ended datagram arrives. Together they reproduce
+ * reconnect storms and round-rotation spikes. A {@code dashboard} operation
+ * pipelines the four read-only requests on one connection and is timed until
+ * the last reply arrives, while a {@code batch} operation sends a proposal
+ * and the follow-up queries as a single batch request.
+ *
+ * <p>Latencies are recorded per operation and reported as percentiles along
+ * with throughput, both per interval and for the whole run. Configuration is
+ * read from {@code config/loadgen.properties}, see {@link LoadGeneratorConfig}.
+ */
+public final class LoadGenerator {
+    /** Socket read timeout, so a stalled server cannot hang the run. */
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    /** Pause before a player retries after losing its connection. */
+    private static final long RETRY_BACKOFF_MILLIS = 1_000L;
+
+    /** How many games before the login game a history request may reach. */
+    private static final int HISTORY_DEPTH = 8;
+
+    /** Operations timed by the generator, named as on the wire. */
+    private enum Operation {
+        REGISTER("register"),
+        LOGIN("login"),
+        LOGOUT("logout"),
+        REQUEST_GAME_INFO("requestGameInfo"),
+        REQUEST_GAME_STATS("requestGameStats"),
+        REQUEST_LEADERBOARD("requestLeaderboard"),
+        REQUEST_PLAYER_STATS("requestPlayerStats"),
+        SUBMIT_PROPOSAL("submitProposal"),
+        RECONNECT("reconnect"),
+        DASHBOARD("dashboard"),
+        BATCH("batch"),
+        HISTORY("history");
+
+        private final String wireName;
+
+
+        Operation(String wireName) { this.wireName = wireName; }
+
+
+        public String getWireName() { return this.wireName; }
+
+
+        static Operation fromWireName(String name) {
+            for (Operation operation : values()) {
+                if (operation.wireName.equals(name)) { return operation; }
+            }
+
+            throw new IllegalStateException("Unknown operation in mix: " + name);
+        }
+    }
+
+
+    /** Latency and outcome counters of one operation. */
+    private static final class OperationStats {
+        /** Samples since the last interval report. */
+        private final LatencyHistogram interval = new LatencyHistogram();
+
+        /** Samples of all completed intervals, owned by the reporter. */
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        /** Responses with {@code success=false}. */
+        private final LongAdder rejected = new LongAdder();
+
+        /** Connect, write or read failures, including timeouts. */
+        private final LongAdder transportErrors = new LongAdder();
+    }
+
+
+    private final LoadGeneratorConfig config;
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    /** Mix operations and their cumulative weights, for weighted draws. */
+    private final Operation[] mixOperations;
+    private final int[] mixCumulativeWeights;
+
+    private final AtomicInteger loggedInPlayers = new AtomicInteger();
+
+    private final LongAdder roundNotifications = new LongAdder();
+
+    private volatile boolean running = true;
+
+    private volatile long deadlineNanos;
+
+
+    /**
+     * Creates a load generator.
+     *
+     * @param config load generator configuration
+     * @throws IllegalStateException if the operation mix is unknown or empty
+     */
+    public LoadGenerator(LoadGeneratorConfig config) {
+        this.config = config;
+
+        for (Operation operation : Operation.values()) {
+            this.stats.put(operation, new OperationStats());
+        }
+
+        List<Operation> operations = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int totalWeight = 0;
+
+        for (Map.Entry<String, Integer> entry : config.getOperationMix().entrySet()) {
+            Operation operation = Operation.fromWireName(entry.getKey());
+            if (operation == Operation.REGISTER
+                || operation == Operation.LOGIN
+                || operation == Operation.LOGOUT) {
+                throw new IllegalStateException(
+                    "Operation not allowed in mix: " + entry.getKey()
+                );
+            }
+
+            if (entry.getValue() > 0) {
+                totalWeight = Math.addExact(totalWeight, entry.getValue());
+                operations.add(operation);
+                cumulative.add(totalWeight);
+            }
+        }
+
+        if (totalWeight == 0) {
+            throw new IllegalStateException("Operation mix has no positive weight");
+        }
+
+        this.mixOperations = operations.toArray(new Operation[0]);
+        this.mixCumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+
+    /**
+     * Main entry point for the load generator.
+     *
+     * @param args Command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        LoadGeneratorConfig config = LoadGeneratorConfig.loadDefault();
+
+        System.out.println(
+            "Load: " + config.getPlayers() + " players against "
+            + config.getServerHost() + ":" + config.getServerPort()
+            + " for " + config.getDurationSeconds() + " s over "
+            + config.getWireProtocol() + ", mix " + config.getOperationMix()
+        );
+
+        new LoadGenerator(config).run();
+    }
+
+
+    /**
+     * Runs all simulated players until the configured duration has elapsed,
+     * printing interval reports meanwhile and the final report at the end.
+     */
+    public void run() {
+        long startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos
+            + TimeUnit.SECONDS.toNanos(this.config.getDurationSeconds());
+
+        int players = this.config.getPlayers();
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+
+        for (int i = 0; i < players; i++) {
+            int index = i;
+            long startDelay = this.config.getRampUpMillis() * i / players;
+            pool.submit(() -> runPlayer(index, startDelay));
+        }
+
+        reportUntilDeadline(startNanos);
+
+        this.running = false;
+        pool.close();
+
+        drainIntervals();
+        printFinalReport(System.nanoTime() - startNanos);
+    }
+
+
+    /**
+     * Life cycle of one simulated player. Lost connections are counted and
+     * retried after a short backoff until the run ends.
+     *
+     * @param index player number, used to derive the username
+     * @param startDelayMillis ramp-up delay before the first connection
+     */
+    private void runPlayer(int index, long startDelayMillis) {
+        if (!pause(startDelayMillis)) { return; }
+
+        String username = this.config.getUsernamePrefix() + index;
+        boolean registered = false;
+        boolean everLoggedIn = false;
+
+        try (DatagramSocket udpSocket = new DatagramSocket(0)) {
+            Semaphore roundEnded = new Semaphore(0);
+            startUdpListener(udpSocket, roundEnded);
+
+            while (this.running) {
+                ServerConnection connection = null;
+                boolean loggedIn = false;
+
+                try {
+                    connection = connect();
+
+                    if (!registered) {
+                        call(
+                            connection,
+                            Operation.REGISTER,
+                            new RegisterRequest(username, this.config.getPassword())
+                        );
+                        // Rejected as already in use on reruns, which is fine
+                        registered = true;
+                    }
+
+                    long start = System.nanoTime();
+                    LoginResponse login = login(
+                        connection,
+                        Operation.LOGIN,
+                        username,
+                        udpSocket.getLocalPort(),
+                        start
+                    );
+                    if (login == null) {
+                        if (!everLoggedIn) {
+                            System.err.println("Player " + username + " cannot log in, giving up");
+                            return;
+                        }
+
+                        // Old session not released yet after a dropped connection
+                        if (!pause(RETRY_BACKOFF_MILLIS)) { return; }
+                        continue;
+                    }
+
+                    everLoggedIn = true;
+                    loggedIn = true;
+                    this.loggedInPlayers.incrementAndGet();
+
+                    connection = play(
+                        connection,
+                        username,
+                        udpSocket.getLocalPort(),
+                        roundEnded,
+                        login.getGameId(),
+                        copyWords(login.getWords())
+                    );
+
+                    call(connection, Operation.LOGOUT, new LogoutRequest());
+                }
+                catch (IOException ex) {
+                    if (!pause(RETRY_BACKOFF_MILLIS)) { return; }
+                }
+                finally {
+                    if (loggedIn) { this.loggedInPlayers.decrementAndGet(); }
+                    if (connection != null) { connection.close(); }
+                }
+            }
+        }
+        catch (IOException ex) {
+            System.err.println("Player " + index + " cannot open UDP socket: " + ex.getMessage());
+        }
+    }
+
+
+    /**
+     * Issues operations from the mix until the run ends.
+     *
+     * @param connection logged-in connection
+     * @param username player username
+     * @param udpPort local UDP port announced at login
+     * @param roundEnded released by the UDP listener on each notification
+     * @param loginGameId game that was current at login
+     * @param words words of the current board not yet grouped
+     * @return connection in use at the end, which a reconnect may have replaced
+     * @throws IOException on transport failure
+     */
+    private ServerConnection play(
+        ServerConnection connection,
+        String username,
+        int udpPort,
+        Semaphore roundEnded,
+        int loginGameId,
+        List<String> words
+    ) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (this.running) {
+            boolean notified = think(roundEnded, random);
+            if (!this.running) { break; }
+
+            Operation operation = notified && this.config.isRefreshOnRoundEnd()
+                ? Operation.REQUEST_GAME_INFO
+                : drawOperation(random);
+
+            switch (operation) {
+                case REQUEST_GAME_INFO -> {
+                    Response resp = call(connection, operation, new GameInfoRequest(true));
+                    if (resp instanceof GameInfoResponse info && info.isSuccess()) {
+                        words = copyWords(info.getWordsLeft());
+                    }
+                }
+                case REQUEST_GAME_STATS -> call(
+                    connection,
+                    operation,
+                    new GameStatsRequest(true)
+                );
+                case REQUEST_LEADERBOARD -> call(
+                    connection,
+                    operation,
+                    new LeaderboardRequest(10)
+                );
+                case REQUEST_PLAYER_STATS -> call(
+                    connection,
+                    operation,
+                    new PlayerStatsRequest()
+                );
+                case SUBMIT_PROPOSAL -> {
+                    if (words.size() < 4) {
+                        // Board exhausted or game over, wait for the next round
+                        continue;
+                    }
+
+                    List<String> proposal = pickProposal(words, random);
+                    Response resp = call(
+                        connection,
+                        operation,
+                        new SubmitProposalRequest(proposal)
+                    );
+                    if (resp instanceof SubmitProposalResponse result
+                        && Boolean.TRUE.equals(result.getResult())) {
+                        words.removeAll(proposal);
+                    }
+                }
+                case DASHBOARD -> {
+                    List<Response> replies = pipeline(
+                        connection,
+                        operation,
+                        List.of(
+                            new GameInfoRequest(true),
+                            new GameStatsRequest(true),
+                            new LeaderboardRequest(10),
+                            new PlayerStatsRequest()
+                        )
+                    );
+                    if (replies.get(0) instanceof GameInfoResponse info && info.isSuccess()) {
+                        words = copyWords(info.getWordsLeft());
+                    }
+                }
+                case BATCH -> {
+                    List<Request> requests = new ArrayList<>(3);
+                    if (words.size() >= 4) {
+                        requests.add(new SubmitProposalRequest(pickProposal(words, random)));
+                    }
+                    requests.add(new GameInfoRequest(true));
+                    requests.add(new PlayerStatsRequest());
+
+                    Response resp = call(connection, operation, new BatchRequest(requests));
+                    if (resp instanceof BatchResponse batch && batch.isSuccess()) {
+                        List<Response> replies = batch.getResponses();
+                        Response info = replies.get(replies.size() - 2);
+                        if (info instanceof GameInfoResponse board && board.isSuccess()) {
+                            words = copyWords(board.getWordsLeft());
+                        }
+                    }
+                }
+                case HISTORY -> call(
+                    connection,
+                    operation,
+                    random.nextBoolean()
+                        ? new GameInfoRequest(loginGameId)
+                        : new GameStatsRequest(
+                            Math.max(0, loginGameId - random.nextInt(HISTORY_DEPTH))
+                        )
+                );
+                case RECONNECT -> {
+                    connection.close();
+                    long start = System.nanoTime();
+                    try {
+                        connection = connect();
+                    }
+                    catch (IOException ex) {
+                        this.stats.get(operation).transportErrors.increment();
+                        throw ex;
+                    }
+
+                    LoginResponse login = login(
+                        connection,
+                        operation,
+                        username,
+                        udpPort,
+                        start
+                    );
+                    if (login == null) {
+                        throw new EOFException("re-login rejected");
+                    }
+                    loginGameId = login.getGameId();
+                    words = copyWords(login.getWords());
+                }
+                default -> throw new IllegalStateException(
+                    "Operation not allowed in mix: " + operation
+                );
+            }
+        }
+
+        return connection;
+    }
+
+
+    /**
+     * Sends a login request and records it under {@code operation}, measured
+     * from {@code startNanos} so a reconnect includes the TCP handshake.
+     *
+     * @return successful login response, or null if the server rejected it
+     */
+    private LoginResponse login(
+        ServerConnection connection,
+        Operation operation,
+        String username,
+        int udpPort,
+        long startNanos
+    ) throws IOException {
+        Response resp = exchange(
+            connection,
+            operation,
+            new LoginRequest(username, this.config.getPassword(), udpPort),
+            startNanos
+        );
+
+        if (!(resp instanceof LoginResponse login) || !login.isSuccess()) {
+            return null;
+        }
+
+        return login;
+    }
+
+
+    /**
+     * Opens a player connection in the configured wire protocol.
+     *
+     * @return connected, handshaken connection
+     * @throws IOException if the server cannot be reached
+     */
+    private ServerConnection connect() throws IOException {
+        return ServerConnection.open(
+            this.config.getServerHost(),
+            this.config.getServerPort(),
+            this.config.getWireProtocol(),
+            READ_TIMEOUT_MILLIS
+        );
+    }
+
+
+    /**
+     * Sends one request, waits for its response and records the latency.
+     *
+     * @param connection player connection
+     * @param operation operation the sample is recorded under
+     * @param req request to send
+     * @return parsed response
+     * @throws IOException on transport failure, also counted in the stats
+     */
+    private Response call(
+        ServerConnection connection,
+        Operation operation,
+        Request req
+    ) throws IOException {
+        return exchange(connection, operation, req, System.nanoTime());
+    }
+
+
+    /**
+     * Pipelines a batch of requests and records the time until the last
+     * response as one sample, rejected if any response failed.
+     *
+     * @param connection player connection
+     * @param operation operation the sample is recorded under
+     * @param requests requests to send together
+     * @return responses in request order
+     * @throws IOException on transport failure, also counted in the stats
+     */
+    private List<Response> pipeline(
+        ServerConnection connection,
+        Operation operation,
+        List<Request> requests
+    ) throws IOException {
+        OperationStats opStats = this.stats.get(operation);
+        long startNanos = System.nanoTime();
+        List<Response> responses;
+
+        try { responses = connection.pipeline(requests); }
+        catch (IOException ex) {
+            opStats.transportErrors.increment();
+            throw ex;
+        }
+
+        opStats.interval.recordNanos(System.nanoTime() - startNanos);
+        if (responses.stream().anyMatch(resp -> !resp.isSuccess())) {
+            opStats.rejected.increment();
+        }
+
+        return responses;
+    }
+
+
+    private Response exchange(
+        ServerConnection connection,
+        Operation operation,
+        Request req,
+        long startNanos
+    ) throws IOException {
+        OperationStats opStats = this.stats.get(operation);
+        Response resp;
+
+        try {
+            connection.send(req);
+
+            resp = connection.receive();
+            if (resp == null) {
+                throw new EOFException("server closed the connection");
+            }
+        }
+        catch (IOException ex) {
+            opStats.transportErrors.increment();
+            throw ex;
+        }
+
+        long elapsed = System.nanoTime() - startNanos;
+        opStats.interval.recordNanos(elapsed);
+        if (!resp.isSuccess()) { opStats.rejected.increment(); }
+
+        return resp;
+    }
+
+
+    /**
+     * Waits the think time, returning early if a round-ended notification
+     * arrives or the run ends.
+     *
+     * @return true if a round-ended notification interrupted the wait
+     */
+    private boolean think(Semaphore roundEnded, ThreadLocalRandom random) {
+        long jitter = this.config.getThinkTimeJitterMillis();
+        long thinkMillis = this.config.getThinkTimeMillis()
+            + (jitter > 0L ? random.nextLong(jitter + 1L) : 0L);
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(
+            this.deadlineNanos - System.nanoTime()
+        );
+
+        try {
+            if (roundEnded.tryAcquire(
+                    Math.max(0L, Math.min(thinkMillis, remainingMillis)),
+                    TimeUnit.MILLISECONDS
+            )) {
+                roundEnded.drainPermits();
+                return true;
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.running = false;
+        }
+
+        return false;
+    }
+
+
+    private Operation drawOperation(ThreadLocalRandom random) {
+        int total = this.mixCumulativeWeights[this.mixCumulativeWeights.length - 1];
+        int draw = random.nextInt(total);
+
+        for (int i = 0; i < this.mixOperations.length; i++) {
+            if (draw < this.mixCumulativeWeights[i]) { return this.mixOperations[i]; }
+        }
+
+        return this.mixOperations[this.mixOperations.length - 1];
+    }
+
+
+    /**
+     * Picks four distinct random words from the board.
+     *
+     * @param words ungrouped words, at least four
+     * @return proposal of four words
+     */
+    private static List<String> pickProposal(List<String> words, ThreadLocalRandom random) {
+        List<String> pool = new ArrayList<>(words);
+        List<String> proposal = new ArrayList<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            int pick = i + random.nextInt(pool.size() - i);
+            String word = pool.get(pick);
+            pool.set(pick, pool.get(i));
+            pool.set(i, word);
+            proposal.add(word);
+        }
+
+        return proposal;
+    }
+
+
+    private static List<String> copyWords(List<String> words) {
+        return words == null ? new ArrayList<>() : new ArrayList<>(words);
+    }
+
+
+    /**
+     * Starts a virtual thread counting round-ended datagrams for one player.
+     *
+     * @param udpSocket socket announced at login
+     * @param roundEnded released once per received datagram
+     */
+    private void startUdpListener(DatagramSocket udpSocket, Semaphore roundEnded) {
+        Thread.ofVirtual().name("loadgen-udp-" + udpSocket.getLocalPort()).start(() -> {
+            byte[] buffer = new byte[2048];
+
+            while (!udpSocket.isClosed()) {
+                try {
+                    udpSocket.receive(new DatagramPacket(buffer, buffer.length));
+                    this.roundNotifications.increment();
+                    roundEnded.release();
+                }
+                catch (IOException ex) {
+                    break;
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Sleeps unless the run ends first.
+     *
+     * @return false if the run ended or the thread was interrupted
+     */
+    private boolean pause(long millis) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(
+            this.deadlineNanos - System.nanoTime()
+        );
+
+        try { Thread.sleep(Math.max(0L, Math.min(millis, remainingMillis))); }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return this.running && System.nanoTime() < this.deadlineNanos;
+    }
+
+
+    /**
+     * Prints one line per report interval until the deadline, then returns.
+     *
+     * @param startNanos run start time
+     */
+    private void reportUntilDeadline(long startNanos) {
+        long intervalMillis = TimeUnit.SECONDS.toMillis(
+            this.config.getReportIntervalSeconds()
+        );
+
+        while (true) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(
+                this.deadlineNanos - System.nanoTime()
+            );
+            if (remainingMillis <= 0L) { return; }
+
+            long sleepMillis = intervalMillis > 0L
+                ? Math.min(intervalMillis, remainingMillis)
+                : remainingMillis;
+            long intervalStart = System.nanoTime();
+
+            try { Thread.sleep(sleepMillis); }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (intervalMillis > 0L) {
+                printIntervalReport(startNanos, System.nanoTime() - intervalStart);
+            }
+        }
+    }
+
+
+    private void printIntervalReport(long startNanos, long intervalNanos) {
+        StringBuilder line = new StringBuilder();
+        long count = 0L;
+
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram interval = this.stats.get(operation).interval;
+            long samples = interval.getCount();
+            if (samples == 0L) { continue; }
+
+            count += samples;
+            line.append(" | ")
+                .append(operation.getWireName())
+                .append(" p99=")
+                .append(formatMillis(interval.getValueAtPercentile(99.0)));
+        }
+
+        drainIntervals();
+
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+        System.out.printf(
+            "[%4ds] %8.1f ops/s, %d logged in, %d round notifications%s%n",
+            elapsedSeconds,
+            count * 1e9 / Math.max(1L, intervalNanos),
+            this.loggedInPlayers.get(),
+            this.roundNotifications.sum(),
+            line
+        );
+    }
+
+
+    private void drainIntervals() {
+        for (OperationStats opStats : this.stats.values()) {
+            opStats.interval.drainInto(opStats.total);
+        }
+    }
+
+
+    private void printFinalReport(long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long totalCount = 0L;
+
+        System.out.println();
+        System.out.printf(
+            "%-20s %9s %8s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "rejected", "errors", "ops/s",
+            "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"
+        );
+
+        for (Operation operation : Operation.values()) {
+            OperationStats opStats = this.stats.get(operation);
+            LatencyHistogram total = opStats.total;
+            long count = total.getCount();
+            long errors = opStats.transportErrors.sum();
+            if (count == 0L && errors == 0L) { continue; }
+
+            totalCount += count;
+            System.out.printf(
+                "%-20s %9d %8d %8d %10.1f %9.2f %9s %9s %9s %9s %9s%n",
+                operation.getWireName(),
+                count,
+                opStats.rejected.sum(),
+                errors,
+                count / elapsedSeconds,
+                total.getMeanMicros() / 1_000.0,
+                formatMillis(total.getValueAtPercentile(50.0)),
+                formatMillis(total.getValueAtPercentile(90.0)),
+                formatMillis(total.getValueAtPercentile(99.0)),
+                formatMillis(total.getValueAtPercentile(99.9)),
+                formatMillis(total.getMaxMicros())
+            );
+        }
+
+        System.out.printf(
+            "%nTotal: %d operations in %.1f s (%.1f ops/s), %d round notifications%n",
+            totalCount,
+            elapsedSeconds,
+            totalCount / elapsedSeconds,
+            this.roundNotifications.sum()
+        );
+    }
+
+
+    private static String formatMillis(long micros) {
+        return String.format("%.2f", micros / 1_000.0);
+    }
+}
@@ -0,0 +1,233 @@
+package com.nicholasTropea.game.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+import com.nicholasTropea.game.net.WireProtocol;
+
+/**
+ * Client TCP connection speaking either wire protocol.
+ *
+ * <p>Binary connections send the {@link BinaryProtocol} preface on open and
+ * fail with an {@link IOException} if the server does not acknowledge it,
+ * so callers can fall back to {@link WireProtocol#JSON}. Not thread-safe:
+ * each connection carries one request, or one {@link #pipeline} batch, at a
+ * time.
+ */
+public final class ServerConnection implements AutoCloseable {
+    /** Shared streaming JSON codec for messages (thread-safe). */
+    private static final Gson GSON = new GsonBuilder()
+                             .registerTypeHierarchyAdapter(
+                                 Request.class,
+                                 new RequestTypeAdapter()
+                             )
+                             .registerTypeHierarchyAdapter(
+                                 Response.class,
+                                 new ResponseTypeAdapter()
+                             ).create();
+
+    private final Socket socket;
+    private final WireProtocol protocol;
+    private final BufferedInputStream in;
+    private final BufferedOutputStream out;
+
+    /** Line reader over {@link #in}, null in binary mode. */
+    private final BufferedReader lines;
+
+    /** Negotiated binary protocol version, 0 in JSON mode. */
+    private int version;
+
+    /** Next correlation id handed out by {@link #pipeline}. */
+    private int nextId;
+
+
+    private ServerConnection(Socket socket, WireProtocol protocol) throws IOException {
+        this.socket = socket;
+        this.protocol = protocol;
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+        this.lines = protocol == WireProtocol.JSON
+            ? new BufferedReader(new InputStreamReader(this.in, StandardCharsets.UTF_8))
+            : null;
+        this.version = 0;
+        this.nextId = 1;
+    }
+
+
+    /**
+     * Connects and, in binary mode, runs the protocol handshake.
+     *
+     * @param host server host
+     * @param port server TCP port
+     * @param protocol wire protocol to use
+     * @param readTimeoutMillis socket read timeout, 0 for none
+     * @return open connection
+     * @throws IOException if the connection or the handshake fails
+     */
+    public static ServerConnection open(
+        String host,
+        int port,
+        WireProtocol protocol,
+        int readTimeoutMillis
+    ) throws IOException {
+        Socket socket = new Socket();
+
+        try {
+            socket.connect(new InetSocketAddress(host, port));
+            socket.setSoTimeout(readTimeoutMillis);
+            socket.setTcpNoDelay(true);
+
+            ServerConnection connection = new ServerConnection(socket, protocol);
+            if (protocol == WireProtocol.BINARY) {
+                connection.version = BinaryProtocol.negotiate(connection.in, connection.out);
+            }
+
+            return connection;
+        }
+        catch (IOException ex) {
+            socket.close();
+            throw ex;
+        }
+    }
+
+
+    /** @return protocol spoken on this connection */
+    public WireProtocol getProtocol() { return this.protocol; }
+
+
+    /**
+     * @return true if requests can carry correlation ids: always in JSON,
+     *         where servers without pipelining ignore the id, and from
+     *         {@link BinaryProtocol#PIPELINING_VERSION} in binary
+     */
+    public boolean supportsPipelining() {
+        return this.protocol == WireProtocol.JSON
+            || this.version >= BinaryProtocol.PIPELINING_VERSION;
+    }
+
+
+    /**
+     * Encodes and sends one request.
+     *
+     * @param req request to send
+     * @throws IOException on write failure
+     */
+    public void send(Request req) throws IOException {
+        write(req);
+        this.out.flush();
+    }
+
+
+    /** Encodes one request into the output buffer without flushing. */
+    private void write(Request req) throws IOException {
+        if (this.protocol == WireProtocol.BINARY) {
+            this.out.write(BinaryProtocol.encodeRequest(req));
+        }
+        else {
+            this.out.write(GSON.toJson(req).getBytes(StandardCharsets.UTF_8));
+            this.out.write('\n');
+        }
+    }
+
+
+    /**
+     * Waits for the next response.
+     *
+     * @return decoded response, or null if the server closed the connection
+     * @throws IOException on read failure or timeout
+     * @throws RuntimeException if the response cannot be decoded
+     */
+    public Response receive() throws IOException {
+        if (this.protocol == WireProtocol.BINARY) {
+            byte[] payload = BinaryProtocol.readFrame(
+                this.in,
+                BinaryProtocol.MAX_RESPONSE_BYTES
+            );
+            return payload == null ? null : BinaryProtocol.decodeResponse(payload);
+        }
+
+        String line = this.lines.readLine();
+        return line == null ? null : GSON.fromJson(line, Response.class);
+    }
+
+
+    /**
+     * Sends a batch of requests before reading any reply.
+     *
+     * <p>Each request is tagged with a fresh id and all of them go out in a
+     * single flush; the server may run read-only ones concurrently and
+     * answer in any order. Replies are matched back by id, and replies
+     * without one (servers that do not pipeline answer in order) fill the
+     * oldest unanswered slot. Without {@link #supportsPipelining()} the
+     * requests are sent untagged and answered in order.
+     *
+     * @param requests requests to send; their ids are overwritten
+     * @return responses in request order
+     * @throws IOException on transport failure, timeout, or if the server
+     *         closes the connection before answering every request
+     * @throws RuntimeException if a response cannot be decoded
+     */
+    public List<Response> pipeline(List<? extends Request> requests) throws IOException {
+        boolean tagged = supportsPipelining();
+        Map<Integer, Integer> slots = new HashMap<>();
+        Queue<Integer> unanswered = new ArrayDeque<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Request req = requests.get(i);
+            Integer id = tagged ? this.nextId++ : null;
+            req.setId(id);
+            if (id != null) { slots.put(id, i); }
+            unanswered.add(i);
+            write(req);
+        }
+        this.out.flush();
+
+        Response[] responses = new Response[requests.size()];
+        for (int received = 0; received < responses.length; received++) {
+            Response resp = receive();
+            if (resp == null) {
+                throw new IOException("server closed the connection mid-pipeline");
+            }
+
+            Integer slot = resp.getId() == null ? null : slots.remove(resp.getId());
+            if (slot == null) { slot = unanswered.peek(); }
+            if (slot == null || responses[slot] != null) {
+                throw new IOException("unexpected pipelined response id " + resp.getId());
+            }
+
+            unanswered.remove(slot);
+            responses[slot] = resp;
+        }
+
+        return Arrays.asList(responses);
+    }
+
+
+    @Override
+    public void close() {
+        try { this.socket.close(); }
+        catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+}
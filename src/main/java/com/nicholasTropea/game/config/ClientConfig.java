@@ -2,6 +2,8 @@ package com.nicholasTropea.game.config;
 
 import java.util.Properties;
 
+import com.nicholasTropea.game.net.WireProtocol;
+
 /**
  * Client runtime configuration loaded from properties.
  */
@@ -11,12 +13,19 @@ public final class ClientConfig {
     private final String serverHost;
     private final int serverPort;
     private final int udpListenPort;
+    private final WireProtocol wireProtocol;
 
 
-    private ClientConfig(String serverHost, int serverPort, int udpListenPort) {
+    private ClientConfig(
+        String serverHost,
+        int serverPort,
+        int udpListenPort,
+        WireProtocol wireProtocol
+    ) {
         this.serverHost = serverHost;
         this.serverPort = serverPort;
         this.udpListenPort = udpListenPort;
+        this.wireProtocol = wireProtocol;
     }
 
 
@@ -37,7 +46,19 @@ public final class ClientConfig {
 
         int port = parseInt(properties, "serverPort", 1, 65535);
         int udpPort = parseInt(properties, "clientUDPPort", 0, 65535);
-        return new ClientConfig(host.trim(), port, udpPort);
+
+        String protocol = properties.getProperty("wireProtocol");
+        if (protocol == null) {
+            throw new IllegalStateException("Missing required property: wireProtocol");
+        }
+
+        WireProtocol wireProtocol;
+        try { wireProtocol = WireProtocol.fromName(protocol); }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid wire protocol property: wireProtocol", ex);
+        }
+
+        return new ClientConfig(host.trim(), port, udpPort, wireProtocol);
     }
 
 
@@ -50,6 +71,9 @@ public final class ClientConfig {
     /** @return client UDP listening port (0 means ephemeral) */
     public int getUdpListenPort() { return this.udpListenPort; }
 
+    /** @return preferred wire protocol (JSON is used if the server refuses binary) */
+    public WireProtocol getWireProtocol() { return this.wireProtocol; }
+
 
     private static int parseInt(
         Properties properties,
@@ -0,0 +1,284 @@
+package com.nicholasTropea.game.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import com.nicholasTropea.game.net.WireProtocol;
+
+/**
+ * Load generator configuration loaded from properties.
+ *
+ * <p>Every key of the resource can be overridden with a system property of
+ * the same name prefixed by {@code loadgen.}, e.g.
+ * {@code -Dloadgen.players=5000} or {@code -Dloadgen.mix.reconnect=20}.
+ */
+public final class LoadGeneratorConfig {
+    private static final String RESOURCE = "config/loadgen.properties";
+
+    private static final String OVERRIDE_PREFIX = "loadgen.";
+
+    private static final String MIX_PREFIX = "mix.";
+
+    private final String serverHost;
+    private final int serverPort;
+    private final WireProtocol wireProtocol;
+    private final int players;
+    private final long durationSeconds;
+    private final long rampUpMillis;
+    private final String usernamePrefix;
+    private final String password;
+    private final long thinkTimeMillis;
+    private final long thinkTimeJitterMillis;
+    private final Map<String, Integer> operationMix;
+    private final boolean refreshOnRoundEnd;
+    private final long reportIntervalSeconds;
+
+
+    private LoadGeneratorConfig(
+        String serverHost,
+        int serverPort,
+        WireProtocol wireProtocol,
+        int players,
+        long durationSeconds,
+        long rampUpMillis,
+        String usernamePrefix,
+        String password,
+        long thinkTimeMillis,
+        long thinkTimeJitterMillis,
+        Map<String, Integer> operationMix,
+        boolean refreshOnRoundEnd,
+        long reportIntervalSeconds
+    ) {
+        this.serverHost = serverHost;
+        this.serverPort = serverPort;
+        this.wireProtocol = wireProtocol;
+        this.players = players;
+        this.durationSeconds = durationSeconds;
+        this.rampUpMillis = rampUpMillis;
+        this.usernamePrefix = usernamePrefix;
+        this.password = password;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.thinkTimeJitterMillis = thinkTimeJitterMillis;
+        this.operationMix = operationMix;
+        this.refreshOnRoundEnd = refreshOnRoundEnd;
+        this.reportIntervalSeconds = reportIntervalSeconds;
+    }
+
+
+    /**
+     * Loads load generator configuration from classpath default resource,
+     * applying {@code loadgen.*} system property overrides.
+     *
+     * @return loaded load generator config
+     */
+    public static LoadGeneratorConfig loadDefault() {
+        Properties properties = PropertiesLoader.loadFromClasspath(RESOURCE);
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(OVERRIDE_PREFIX)) {
+                properties.setProperty(
+                    name.substring(OVERRIDE_PREFIX.length()),
+                    System.getProperty(name)
+                );
+            }
+        }
+
+        String host = parseString(properties, "serverIP");
+        int port = parseInt(properties, "serverPort", 1, 65535);
+        WireProtocol wireProtocol = parseWireProtocol(properties, "wireProtocol");
+        int players = parseInt(properties, "players", 1, 1_000_000);
+        long durationSeconds = parseLong(
+            properties,
+            "durationSeconds",
+            1,
+            Long.MAX_VALUE
+        );
+        long rampUpMillis = parseLong(
+            properties,
+            "rampUpMilliseconds",
+            0,
+            Long.MAX_VALUE
+        );
+        String usernamePrefix = parseString(properties, "usernamePrefix");
+        String password = parseString(properties, "password");
+        if (usernamePrefix.isEmpty()) {
+            throw new IllegalStateException("Property out of range: usernamePrefix");
+        }
+        if (password.length() < 6) {
+            throw new IllegalStateException("Property out of range: password");
+        }
+
+        long thinkTimeMillis = parseLong(
+            properties,
+            "thinkTimeMilliseconds",
+            0,
+            Long.MAX_VALUE
+        );
+        long thinkTimeJitterMillis = parseLong(
+            properties,
+            "thinkTimeJitterMilliseconds",
+            0,
+            Long.MAX_VALUE
+        );
+
+        Map<String, Integer> operationMix = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (key.startsWith(MIX_PREFIX)) {
+                operationMix.put(
+                    key.substring(MIX_PREFIX.length()),
+                    parseInt(properties, key, 0, Integer.MAX_VALUE)
+                );
+            }
+        }
+
+        boolean refreshOnRoundEnd = parseBoolean(properties, "refreshOnRoundEnd");
+        long reportIntervalSeconds = parseLong(
+            properties,
+            "reportIntervalSeconds",
+            0,
+            Long.MAX_VALUE
+        );
+
+        return new LoadGeneratorConfig(
+            host,
+            port,
+            wireProtocol,
+            players,
+            durationSeconds,
+            rampUpMillis,
+            usernamePrefix,
+            password,
+            thinkTimeMillis,
+            thinkTimeJitterMillis,
+            Collections.unmodifiableMap(operationMix),
+            refreshOnRoundEnd,
+            reportIntervalSeconds
+        );
+    }
+
+
+    /** @return server IP */
+    public String getServerHost() { return this.serverHost; }
+
+    /** @return server TCP port */
+    public int getServerPort() { return this.serverPort; }
+
+    /** @return wire protocol spoken by every simulated player */
+    public WireProtocol getWireProtocol() { return this.wireProtocol; }
+
+    /** @return number of simulated players */
+    public int getPlayers() { return this.players; }
+
+    /** @return measured run length in seconds */
+    public long getDurationSeconds() { return this.durationSeconds; }
+
+    /** @return window over which player start times are spread */
+    public long getRampUpMillis() { return this.rampUpMillis; }
+
+    /** @return prefix of simulated player usernames */
+    public String getUsernamePrefix() { return this.usernamePrefix; }
+
+    /** @return password shared by all simulated players */
+    public String getPassword() { return this.password; }
+
+    /** @return fixed part of the think time between operations */
+    public long getThinkTimeMillis() { return this.thinkTimeMillis; }
+
+    /** @return upper bound of the random part of the think time */
+    public long getThinkTimeJitterMillis() { return this.thinkTimeJitterMillis; }
+
+    /** @return relative weight per operation name, from {@code mix.*} keys */
+    public Map<String, Integer> getOperationMix() { return this.operationMix; }
+
+    /** @return whether players refresh the board on round-ended notifications */
+    public boolean isRefreshOnRoundEnd() { return this.refreshOnRoundEnd; }
+
+    /** @return seconds between interval reports, 0 when disabled */
+    public long getReportIntervalSeconds() { return this.reportIntervalSeconds; }
+
+
+    private static int parseInt(
+        Properties properties,
+        String key,
+        int min,
+        int max
+    ) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing required property: " + key);
+        }
+
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < min || parsed > max) {
+                throw new IllegalStateException("Property out of range: " + key);
+            }
+            return parsed;
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalStateException("Invalid integer property: " + key, ex);
+        }
+    }
+
+
+    private static long parseLong(
+        Properties properties,
+        String key,
+        long min,
+        long max
+    ) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing required property: " + key);
+        }
+
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < min || parsed > max) {
+                throw new IllegalStateException("Property out of range: " + key);
+            }
+            return parsed;
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalStateException("Invalid long property: " + key, ex);
+        }
+    }
+
+
+    private static String parseString(
+        Properties properties,
+        String key
+    ) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing required property: " + key);
+        }
+        return value.trim();
+    }
+
+
+    private static WireProtocol parseWireProtocol(
+        Properties properties,
+        String key
+    ) {
+        try { return WireProtocol.fromName(parseString(properties, key)); }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid wire protocol property: " + key, ex);
+        }
+    }
+
+
+    private static boolean parseBoolean(
+        Properties properties,
+        String key
+    ) {
+        String value = parseString(properties, key);
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalStateException("Invalid boolean property: " + key);
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
@@ -1,38 +1,92 @@
 package com.nicholasTropea.game.config;
 
+import java.util.Locale;
 import java.util.Properties;
 
 /**
  * Server runtime configuration loaded from properties.
  */
 public final class ServerConfig {
+    /** Connection handling strategy used by the TCP listener. */
+    public enum NetworkMode {
+        /** One blocking handler per connection on a cached thread pool. */
+        CLASSIC,
+
+        /** One blocking handler per connection, each on a virtual thread. */
+        VIRTUAL,
+
+        /** Selector-based event loop with a few non-blocking reactor threads. */
+        NIO
+    }
+
+
+    /** Storage behind the player, game-state and round-state repositories. */
+    public enum StorageEngine {
+        /** JSON snapshot files, with journals for players and game states. */
+        JSON,
+
+        /** Embedded log-structured key-value store in a single file. */
+        LOG
+    }
+
+
     private static final String RESOURCE = "config/server.properties";
 
     private final int tcpPort;
     private final long roundDurationMillis;
     private final long sessionAutosaveSeconds;
+    private final long journalCheckpointBytes;
     private final String gamesFilePath;
+    private final String gamesCatalogFilePath;
     private final String playersFilePath;
     private final String gameStatesFilePath;
     private final String gameRoundStateFilePath;
+    private final NetworkMode networkMode;
+    private final int nioReactorThreads;
+    private final int nioWorkerThreads;
+    private final int udpSenderChannels;
+    private final int responseCacheEntries;
+    private final StorageEngine storageEngine;
+    private final String storeFilePath;
+    private final int residentHistoryUsers;
 
 
     private ServerConfig(
         int tcpPort,
         long roundDurationMillis,
         long sessionAutosaveSeconds,
+        long journalCheckpointBytes,
         String gamesFilePath,
+        String gamesCatalogFilePath,
         String playersFilePath,
         String gameStatesFilePath,
-        String gameRoundStateFilePath
+        String gameRoundStateFilePath,
+        NetworkMode networkMode,
+        int nioReactorThreads,
+        int nioWorkerThreads,
+        int udpSenderChannels,
+        int responseCacheEntries,
+        StorageEngine storageEngine,
+        String storeFilePath,
+        int residentHistoryUsers
     ) {
         this.tcpPort = tcpPort;
         this.roundDurationMillis = roundDurationMillis;
         this.sessionAutosaveSeconds = sessionAutosaveSeconds;
+        this.journalCheckpointBytes = journalCheckpointBytes;
         this.gamesFilePath = gamesFilePath;
+        this.gamesCatalogFilePath = gamesCatalogFilePath;
         this.playersFilePath = playersFilePath;
         this.gameStatesFilePath = gameStatesFilePath;
         this.gameRoundStateFilePath = gameRoundStateFilePath;
+        this.networkMode = networkMode;
+        this.nioReactorThreads = nioReactorThreads;
+        this.nioWorkerThreads = nioWorkerThreads;
+        this.udpSenderChannels = udpSenderChannels;
+        this.responseCacheEntries = responseCacheEntries;
+        this.storageEngine = storageEngine;
+        this.storeFilePath = storeFilePath;
+        this.residentHistoryUsers = residentHistoryUsers;
     }
 
 
@@ -56,22 +110,65 @@ public final class ServerConfig {
             1,
             Long.MAX_VALUE
         );
+        long journalCheckpointBytes = parseLong(
+            properties,
+            "journalCheckpointBytes",
+            1,
+            Long.MAX_VALUE
+        );
         String gamesFilePath = parseString(properties, "gamesFilePath");
+        String gamesCatalogFilePath = parseString(properties, "gamesCatalogFilePath");
         String playersFilePath = parseString(properties, "playersFilePath");
         String gameStatesFilePath = parseString(properties, "gameStatesFilePath");
         String gameRoundStateFilePath = parseString(
             properties,
             "gameRoundStateFilePath"
         );
+        NetworkMode networkMode = parseEnum(
+            properties,
+            "networkMode",
+            NetworkMode.class
+        );
+        int nioReactorThreads = parseInt(properties, "nioReactorThreads", 1, 256);
+        int nioWorkerThreads = parseInt(properties, "nioWorkerThreads", 1, 4096);
+        int udpSenderChannels = parseInt(properties, "udpSenderChannels", 1, 64);
+        int responseCacheEntries = parseInt(
+            properties,
+            "responseCacheEntries",
+            0,
+            Integer.MAX_VALUE
+        );
+        StorageEngine storageEngine = parseEnum(
+            properties,
+            "storageEngine",
+            StorageEngine.class
+        );
+        String storeFilePath = parseString(properties, "storeFilePath");
+        int residentHistoryUsers = parseInt(
+            properties,
+            "residentHistoryUsers",
+            1,
+            Integer.MAX_VALUE
+        );
 
         return new ServerConfig(
             tcpPort,
             roundDurationMillis,
             sessionAutosaveSeconds,
+            journalCheckpointBytes,
             gamesFilePath,
+            gamesCatalogFilePath,
             playersFilePath,
             gameStatesFilePath,
-            gameRoundStateFilePath
+            gameRoundStateFilePath,
+            networkMode,
+            nioReactorThreads,
+            nioWorkerThreads,
+            udpSenderChannels,
+            responseCacheEntries,
+            storageEngine,
+            storeFilePath,
+            residentHistoryUsers
         );
     }
 
@@ -87,9 +184,15 @@ public final class ServerConfig {
         return this.sessionAutosaveSeconds;
     }
 
+    /** @return journal size, or store garbage, that triggers a checkpoint */
+    public long getJournalCheckpointBytes() { return this.journalCheckpointBytes; }
+
     /** @return file path for games JSON data */
     public String getGamesFilePath() { return this.gamesFilePath; }
 
+    /** @return file path for the binary game catalog */
+    public String getGamesCatalogFilePath() { return this.gamesCatalogFilePath; }
+
     /** @return file path for players JSON data */
     public String getPlayersFilePath() { return this.playersFilePath; }
 
@@ -99,6 +202,30 @@ public final class ServerConfig {
     /** @return file path for game round state JSON data */
     public String getGameRoundStateFilePath() { return this.gameRoundStateFilePath; }
 
+    /** @return connection handling strategy */
+    public NetworkMode getNetworkMode() { return this.networkMode; }
+
+    /** @return number of selector threads in NIO mode */
+    public int getNioReactorThreads() { return this.nioReactorThreads; }
+
+    /** @return number of request-processing threads in NIO mode */
+    public int getNioWorkerThreads() { return this.nioWorkerThreads; }
+
+    /** @return number of datagram channels used for UDP fan-out */
+    public int getUdpSenderChannels() { return this.udpSenderChannels; }
+
+    /** @return largest number of cached finished-game responses */
+    public int getResponseCacheEntries() { return this.responseCacheEntries; }
+
+    /** @return storage behind the persistent repositories */
+    public StorageEngine getStorageEngine() { return this.storageEngine; }
+
+    /** @return file path of the embedded store */
+    public String getStoreFilePath() { return this.storeFilePath; }
+
+    /** @return largest number of users whose game history stays in memory */
+    public int getResidentHistoryUsers() { return this.residentHistoryUsers; }
+
 
     private static int parseInt(
         Properties properties,
@@ -158,4 +285,18 @@ public final class ServerConfig {
         }
         return value.trim();
     }
+
+
+    private static <E extends Enum<E>> E parseEnum(
+        Properties properties,
+        String key,
+        Class<E> type
+    ) {
+        String value = parseString(properties, key);
+
+        try { return Enum.valueOf(type, value.toUpperCase(Locale.ROOT)); }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid value for property: " + key, ex);
+        }
+    }
 }
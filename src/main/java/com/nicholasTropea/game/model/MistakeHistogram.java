@@ -3,10 +3,21 @@ package com.nicholasTropea.game.model;
 import java.util.Map;
 import java.util.LinkedHashMap;
 import java.util.Collections;
+import java.util.List;
 import com.google.gson.annotations.SerializedName;
 
 /** Rappresenta l'istogramma delle partite di un giocatore */
 public class MistakeHistogram {
+    /** Bucket labels, in {@link #getCounts()} order */
+    public static final List<String> LABELS = List.of(
+        "Perfect",
+        "1 Mistake",
+        "2 Mistakes",
+        "3 Mistakes",
+        "Failed",
+        "Unfinished"
+    );
+
     /** Mappa chiave-valore delle partite */
     @SerializedName("values")
     private final Map<String, Integer> values;
@@ -29,13 +40,17 @@ public class MistakeHistogram {
             unfinished < 0
         ) { throw new IllegalArgumentException("Values must be >= 0"); }
 
+        int[] counts = {perfect, oneMistake, twoMistakes, threeMistakes, failed, unfinished};
+
         this.values = new LinkedHashMap<String, Integer>();
-        this.values.put("Perfect", perfect);
-        this.values.put("1 Mistake", oneMistake);
-        this.values.put("2 Mistakes", twoMistakes);
-        this.values.put("3 Mistakes", threeMistakes);
-        this.values.put("Failed", failed);
-        this.values.put("Unfinished", unfinished);
+        for (int i = 0; i < counts.length; i++) {
+            this.values.put(LABELS.get(i), counts[i]);
+        }
+    }
+
+    /** @return counts in constructor argument order */
+    public int[] getCounts() {
+        return this.values.values().stream().mapToInt(Integer::intValue).toArray();
     }
 
     /** Stampa l'istogramma */
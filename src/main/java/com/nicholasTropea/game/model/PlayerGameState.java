@@ -1,33 +1,54 @@
 package com.nicholasTropea.game.model;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 
 /**
  * Represents the state of a player for a specific game.
+ *
+ * <p>Words are not stored. The 16 words of a game are identified by IDs
+ * 0..15 in catalog order, so group {@code g} owns IDs {@code 4g..4g+3}; the
+ * state keeps the ungrouped words as a 16-bit mask, the player's shuffled
+ * word order as 16 packed nibbles and the guessed groups as packed 2-bit
+ * group indices. Word lists are built from the game only when needed.
  */
 public class PlayerGameState {
+    /** Mask with one bit per game word. */
+    public static final int ALL_WORDS = 0xFFFF;
+
+    /** Number of groups, and of words per group. */
+    private static final int GROUP_SIZE = 4;
+
+    /** Bits of {@link #guessedGroups} holding the guessed-group count. */
+    private static final int COUNT_BITS = 3;
+
+    private static final GameResult[] RESULTS = GameResult.values();
+
     /** Player user ID this state belongs to. */
     private final int userId;
 
     /** Game identifier this state refers to. */
     private final int gameId;
-    
-    /** Number of correct proposals made by the player. */
-    private int correctProposals;
 
-    /** List of words that still need to be grouped. */
-    private List<String> remainingWords;
+    /** Word ID shown at each position, one nibble per position. */
+    private final long wordOrder;
+
+    /** Score accumulated in this game. */
+    private int score;
+
+    /** IDs of the words that still need to be grouped. */
+    private char remainingMask;
+
+    /** Guessed-group count in the low bits, then group indices in guess order. */
+    private char guessedGroups;
 
-    /** Correctly guessed groups for this game. */
-    private List<List<String>> guessedGroups;
+    /** Number of correct proposals made by the player. */
+    private byte correctProposals;
 
     /** Number of mistakes made by the player. */
-    private int errorCount;
+    private byte errorCount;
 
-    /** Score accumulated in this game. */
-    private int score;
+    /** Ordinal of the current {@link GameResult}. */
+    private byte finalState;
 
     /** Final game state for the player. */
     public enum GameResult {
@@ -36,20 +57,18 @@ public class PlayerGameState {
         NOT_FINISHED
     }
 
-    /** Current final state for this game session. */
-    private GameResult finalState;
-
 
     /**
-     * Creates a new state object for a player's game session.
+     * Creates a new state object for a player's game session, with every
+     * word still to be grouped.
      *
      * @param userId unique player identifier
      * @param gameId game identifier
-     * @param initialWords words initially available in the game
-     * @throws NullPointerException if initialWords is null
-     * @throws IllegalArgumentException if userId is negative or gameId is out of range
+     * @param wordOrder word IDs in display order, see {@link #packWordOrder}
+     * @throws IllegalArgumentException if userId is negative, gameId is out of
+     *         range or wordOrder is not a permutation of the 16 word IDs
      */
-    public PlayerGameState(int userId, int gameId, List<String> initialWords) {
+    public PlayerGameState(int userId, int gameId, long wordOrder) {
         if (userId < 0) {
             throw new IllegalArgumentException("userId must be non-negative");
         }
@@ -57,17 +76,54 @@ public class PlayerGameState {
             throw new IllegalArgumentException("gameId must be between 0 and 911");
         }
 
+        int seen = 0;
+        for (int position = 0; position < 16; position++) {
+            seen |= 1 << wordIdAt(wordOrder, position);
+        }
+        if (seen != ALL_WORDS) {
+            throw new IllegalArgumentException("wordOrder must contain every word once");
+        }
+
         this.userId = userId;
         this.gameId = gameId;
+        this.wordOrder = wordOrder;
+        this.remainingMask = (char) ALL_WORDS;
+        this.guessedGroups = 0;
         this.correctProposals = 0;
-        this.remainingWords = new ArrayList<>(Objects.requireNonNull(initialWords));
-        this.guessedGroups = new ArrayList<>();
         this.errorCount = 0;
         this.score = 0;
-        this.finalState = GameResult.NOT_FINISHED;
+        this.finalState = (byte) GameResult.NOT_FINISHED.ordinal();
+    }
+
+
+    /**
+     * Packs word IDs listed in display order.
+     *
+     * @param wordIds the 16 word IDs, each once
+     * @return packed word order
+     */
+    public static long packWordOrder(int[] wordIds) {
+        if (wordIds.length != 16) {
+            throw new IllegalArgumentException("Exactly 16 word IDs are required");
+        }
+
+        long order = 0L;
+        for (int position = 0; position < 16; position++) {
+            order |= (long) (wordIds[position] & 0xF) << (position * 4);
+        }
+        return order;
     }
 
 
+    /**
+     * Returns the mask of the words of a group.
+     *
+     * @param group group index, 0 to 3
+     * @return mask of IDs {@code 4g..4g+3}
+     */
+    public static int groupMask(int group) { return 0xF << (group * GROUP_SIZE); }
+
+
     /** @return player user ID */
     public int getUserId() { return this.userId; }
 
@@ -80,17 +136,34 @@ public class PlayerGameState {
     public int getCorrectProposals() { return this.correctProposals; }
 
 
-    /** @return immutable copy of remaining words */
-    public List<String> getRemainingWords() { return List.copyOf(this.remainingWords); }
+    /** @return IDs of the words not yet grouped, as a 16-bit mask */
+    public int getRemainingMask() { return this.remainingMask; }
 
 
-    /** @return immutable deep copy of guessed groups */
-    public List<List<String>> getGuessedGroups() {
-        List<List<String>> copy = new ArrayList<>();
-        for (List<String> group : this.guessedGroups) {
-            copy.add(List.copyOf(group));
-        }
-        return List.copyOf(copy);
+    /** @return packed word order of this player */
+    public long getWordOrder() { return this.wordOrder; }
+
+
+    /**
+     * @param position display position, 0 to 15
+     * @return ID of the word shown at that position
+     */
+    public int getWordIdAt(int position) { return wordIdAt(this.wordOrder, position); }
+
+
+    /** @return number of correctly guessed groups */
+    public int getGuessedGroupCount() {
+        return this.guessedGroups & ((1 << COUNT_BITS) - 1);
+    }
+
+
+    /**
+     * @param index guess number, 0 for the first guessed group
+     * @return group index of that guess
+     */
+    public int getGuessedGroup(int index) {
+        Objects.checkIndex(index, getGuessedGroupCount());
+        return (this.guessedGroups >>> (COUNT_BITS + index * 2)) & 0x3;
     }
 
 
@@ -103,15 +176,19 @@ public class PlayerGameState {
 
 
     /** @return final state */
-    public GameResult getFinalState() { return this.finalState; }
+    public GameResult getFinalState() { return RESULTS[this.finalState]; }
 
 
     /** Increments the number of correct proposals by one. */
-    public void incrementCorrectProposals() { this.correctProposals++; }
+    public void incrementCorrectProposals() {
+        this.correctProposals = (byte) checkCounter(this.correctProposals + 1);
+    }
 
 
     /** Increments the number of errors by one. */
-    public void incrementErrorCount() { this.errorCount++; }
+    public void incrementErrorCount() {
+        this.errorCount = (byte) checkCounter(this.errorCount + 1);
+    }
 
 
     /**
@@ -123,47 +200,41 @@ public class PlayerGameState {
 
 
     /**
-     * Removes a collection of guessed words from remaining words.
+     * Records a correctly guessed group and removes its words from the
+     * remaining ones. A group already guessed is ignored.
      *
-     * @param guessedWords guessed words to remove
-     * @throws NullPointerException if guessedWords is null
+     * @param group group index, 0 to 3
+     * @throws IllegalArgumentException if group is out of range
      */
-    public void removeWords(List<String> guessedWords) {
-        this.remainingWords.removeAll(Objects.requireNonNull(guessedWords));
-    }
+    public void addGuessedGroup(int group) {
+        if (group < 0 || group >= GROUP_SIZE) {
+            throw new IllegalArgumentException("group must be between 0 and 3");
+        }
 
+        int count = getGuessedGroupCount();
+        for (int i = 0; i < count; i++) {
+            if (getGuessedGroup(i) == group) { return; }
+        }
 
-    /**
-     * Adds a correctly guessed group.
-     *
-     * @param guessedGroup guessed group words
-     */
-    public void addGuessedGroup(List<String> guessedGroup) {
-        this.guessedGroups.add(List.copyOf(Objects.requireNonNull(guessedGroup)));
+        this.guessedGroups = (char) (
+            (this.guessedGroups & ~((1 << COUNT_BITS) - 1))
+            | (group << (COUNT_BITS + count * 2))
+            | (count + 1)
+        );
+        this.remainingMask = (char) (this.remainingMask & ~groupMask(group));
     }
 
 
     /** Marks the game as won for this player. */
-    public void completeAsWon() { this.finalState = GameResult.WON; }
+    public void completeAsWon() { this.finalState = (byte) GameResult.WON.ordinal(); }
 
 
     /** Marks the game as lost for this player. */
-    public void completeAsLost() { this.finalState = GameResult.LOST; }
+    public void completeAsLost() { this.finalState = (byte) GameResult.LOST.ordinal(); }
 
 
     /** @return true if final state is WON or LOST */
-    public boolean isFinished() { return this.finalState != GameResult.NOT_FINISHED; }
-
-
-    /**
-     * Replaces remaining words with a new set.
-     *
-     * @param remainingWords new remaining words list
-     * @throws NullPointerException if remainingWords is null
-     */
-    public void setRemainingWords(List<String> remainingWords) {
-        this.remainingWords = new ArrayList<>(Objects.requireNonNull(remainingWords));
-    }
+    public boolean isFinished() { return getFinalState() != GameResult.NOT_FINISHED; }
 
 
     /**
@@ -172,15 +243,16 @@ public class PlayerGameState {
      * @param correctProposals number of correct proposals
      * @param errorCount number of wrong proposals
      * @param score stored game score
-     * @param remainingWords words not yet grouped
+     * @param remainingMask IDs of the words not yet grouped
+     * @param guessedGroups guessed group indices in guess order
      * @param finalState final game state
      */
     public void restoreProgress(
         int correctProposals,
         int errorCount,
         int score,
-        List<String> remainingWords,
-        List<List<String>> guessedGroups,
+        int remainingMask,
+        int[] guessedGroups,
         GameResult finalState
     ) {
         if (correctProposals < 0) {
@@ -190,18 +262,27 @@ public class PlayerGameState {
             throw new IllegalArgumentException("errorCount must be >= 0");
         }
 
-        this.correctProposals = correctProposals;
-        this.errorCount = errorCount;
+        this.correctProposals = (byte) checkCounter(correctProposals);
+        this.errorCount = (byte) checkCounter(errorCount);
         this.score = score;
-        this.remainingWords = new ArrayList<>(Objects.requireNonNull(remainingWords));
-        this.guessedGroups = new ArrayList<>();
+        this.guessedGroups = 0;
         if (guessedGroups != null) {
-            for (List<String> group : guessedGroups) {
-                if (group != null) {
-                    this.guessedGroups.add(List.copyOf(group));
-                }
-            }
+            for (int group : guessedGroups) { addGuessedGroup(group); }
+        }
+        this.remainingMask = (char) (remainingMask & ALL_WORDS);
+        this.finalState = (byte) Objects.requireNonNull(finalState).ordinal();
+    }
+
+
+    private static int wordIdAt(long wordOrder, int position) {
+        return (int) (wordOrder >>> (position * 4)) & 0xF;
+    }
+
+
+    private static int checkCounter(int value) {
+        if (value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("counter out of range: " + value);
         }
-        this.finalState = Objects.requireNonNull(finalState);
+        return value;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,928 @@
+package com.nicholasTropea.game.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nicholasTropea.game.model.LeaderboardRecord;
+import com.nicholasTropea.game.model.MistakeHistogram;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+
+/**
+ * Compact binary encoding of requests and responses.
+ *
+ * <p>A client selects it by sending {@link #PREFACE} as the first bytes of
+ * the connection. The server answers with the same magic followed by the
+ * accepted version, and from then on both sides exchange frames:
+ * <pre>
+ * frame     length (varint), then length payload bytes
+ * payload   opcode (1 byte), then the fields of that message
+ * response  opcode, success flag, then the error string or the fields
+ * </pre>
+ *
+ * <p>Since version 2 the high bit of the opcode marks a pipelined message:
+ * a varint correlation id follows the opcode, see {@link Request#getId()}.
+ * Version 3 adds the batch message, whose fields are a count followed by
+ * that many complete request or response frames.
+ *
+ * <p>Integers are zigzag varints, strings and lists are prefixed by a varint
+ * count. Every field may be absent: its count or value is stored plus one,
+ * with 0 meaning null, so decoded messages carry the same nulls the JSON
+ * ones do. Messages are rebuilt through their public constructors and
+ * factories, so invalid field values are rejected like on the sending side.
+ *
+ * <p>The preface starts with a zero byte and ends with a newline. A server
+ * that only speaks JSON reads it as one malformed line and closes the
+ * connection, which lets the client fall back to JSON.
+ */
+public final class BinaryProtocol {
+    /** Highest protocol version spoken by this build. */
+    public static final int VERSION = 3;
+
+    /** First version carrying correlation ids. */
+    public static final int PIPELINING_VERSION = 2;
+
+    /** First version carrying batch messages. */
+    public static final int BATCH_VERSION = 3;
+
+    /** Client preface: magic, requested version, newline. */
+    public static final byte[] PREFACE = {0, 'C', 'N', 'B', VERSION, '\n'};
+
+    /** Bytes of the preface preceding the version. */
+    private static final int MAGIC_BYTES = 4;
+
+    /** Largest response frame a client accepts. */
+    public static final int MAX_RESPONSE_BYTES = 64 * 1024 * 1024;
+
+    static final int OP_LOGIN = 1;
+    static final int OP_LOGOUT = 2;
+    static final int OP_REGISTER = 3;
+    static final int OP_GAME_INFO = 4;
+    static final int OP_GAME_STATS = 5;
+    static final int OP_LEADERBOARD = 6;
+    static final int OP_PLAYER_STATS = 7;
+    static final int OP_SUBMIT_PROPOSAL = 8;
+    static final int OP_UPDATE_CREDENTIALS = 9;
+    static final int OP_BATCH = 10;
+
+    /** Opcode bit announcing a correlation id. */
+    private static final int TAGGED = 0x80;
+
+    /** Histogram buckets, in {@link MistakeHistogram} constructor order. */
+    private static final int HISTOGRAM_BUCKETS = 6;
+
+
+    private BinaryProtocol() {}
+
+
+    /**
+     * Checks whether a byte can start the preface. JSON text never starts
+     * with a zero byte.
+     *
+     * @param first first byte received on a connection
+     * @return true if the client is requesting the binary protocol
+     */
+    public static boolean isPrefaceStart(int first) { return first == PREFACE[0]; }
+
+
+    /**
+     * Validates a received preface and builds the server acknowledgement.
+     *
+     * @param preface the {@link #PREFACE}-sized bytes received
+     * @return acknowledgement to send back
+     * @throws IllegalArgumentException if the preface is malformed
+     */
+    public static byte[] acknowledge(byte[] preface) {
+        if (
+            preface.length != PREFACE.length
+            || !Arrays.equals(preface, 0, MAGIC_BYTES, PREFACE, 0, MAGIC_BYTES)
+            || preface[MAGIC_BYTES] < 1
+            || preface[PREFACE.length - 1] != '\n'
+        ) {
+            throw new IllegalArgumentException("malformed binary protocol preface");
+        }
+
+        byte[] ack = Arrays.copyOf(PREFACE, MAGIC_BYTES + 1);
+        ack[MAGIC_BYTES] = (byte) Math.min(preface[MAGIC_BYTES], VERSION);
+        return ack;
+    }
+
+
+    /**
+     * Runs the client side of the handshake on a blocking connection.
+     *
+     * @param in connection input
+     * @param out connection output
+     * @return version accepted by the server, at most {@link #VERSION}
+     * @throws IOException if the server closes the connection or does not
+     *         acknowledge a supported version
+     */
+    public static int negotiate(InputStream in, OutputStream out) throws IOException {
+        out.write(PREFACE);
+        out.flush();
+
+        byte[] ack = in.readNBytes(MAGIC_BYTES + 1);
+        if (ack.length < MAGIC_BYTES + 1) {
+            throw new EOFException("server closed the connection during handshake");
+        }
+        if (
+            !Arrays.equals(ack, 0, MAGIC_BYTES, PREFACE, 0, MAGIC_BYTES)
+            || ack[MAGIC_BYTES] < 1
+            || ack[MAGIC_BYTES] > VERSION
+        ) {
+            throw new IOException("server did not accept the binary protocol");
+        }
+
+        return ack[MAGIC_BYTES];
+    }
+
+
+    /**
+     * Reads one frame from a blocking stream.
+     *
+     * @param in connection input
+     * @param maxBytes largest accepted payload
+     * @return payload, or null if the stream ended between frames
+     * @throws IOException on read failure, truncation or an oversized frame
+     */
+    public static byte[] readFrame(InputStream in, int maxBytes) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) { return null; }
+                throw new EOFException("connection closed inside a frame header");
+            }
+            // The fifth byte carries bits 28-30 only: no sign bit, no continuation
+            if (shift == 28 && (b & 0xF8) != 0) {
+                throw new IOException("malformed frame length");
+            }
+
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) { break; }
+        }
+
+        if (length < 0) { throw new IOException("malformed frame length"); }
+        if (length > maxBytes) { throw new IOException("frame too large: " + length); }
+
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException("connection closed inside a frame");
+        }
+
+        return payload;
+    }
+
+
+    /**
+     * Incrementally decodes frame lengths for non-blocking readers.
+     *
+     * <p>Feed header bytes to {@link #accept(byte)} until it returns true,
+     * then read {@link #length()} payload bytes and {@link #reset()}.
+     */
+    public static final class LengthDecoder {
+        private int value;
+        private int shift;
+
+
+        /**
+         * Consumes one header byte.
+         *
+         * @param b next byte
+         * @return true once the length is complete
+         * @throws IllegalArgumentException if the header exceeds 5 bytes or
+         *         encodes a negative length
+         */
+        public boolean accept(byte b) {
+            if (this.shift == 28 && (b & 0xF8) != 0) {
+                throw new IllegalArgumentException("malformed frame length");
+            }
+
+            this.value |= (b & 0x7F) << this.shift;
+            this.shift += 7;
+            if ((b & 0x80) != 0) { return false; }
+
+            if (this.value < 0) {
+                throw new IllegalArgumentException("malformed frame length");
+            }
+            return true;
+        }
+
+
+        /** @return decoded payload length */
+        public int length() { return this.value; }
+
+
+        /** Prepares for the next frame. */
+        public void reset() {
+            this.value = 0;
+            this.shift = 0;
+        }
+    }
+
+
+    /**
+     * Encodes a request as a complete frame.
+     *
+     * @param req request to encode
+     * @return length-prefixed frame
+     * @throws IllegalArgumentException if the request type is unknown
+     */
+    public static byte[] encodeRequest(Request req) {
+        Writer w = new Writer(req.getId());
+
+        switch (req) {
+            case LoginRequest r -> {
+                w.op(OP_LOGIN);
+                w.string(r.getUsername());
+                w.string(r.getPassword());
+                w.optionalInt(r.getUdpPort());
+            }
+            case LogoutRequest r -> w.op(OP_LOGOUT);
+            case RegisterRequest r -> {
+                w.op(OP_REGISTER);
+                w.string(r.getUsername());
+                w.string(r.getPassword());
+            }
+            case GameInfoRequest r -> {
+                w.op(OP_GAME_INFO);
+                w.optionalInt(r.getGameId());
+                w.bool(r.isCurrent());
+            }
+            case GameStatsRequest r -> {
+                w.op(OP_GAME_STATS);
+                w.optionalInt(r.getGameId());
+                w.bool(r.isCurrent());
+            }
+            case LeaderboardRequest r -> {
+                w.op(OP_LEADERBOARD);
+                w.string(r.getPlayerUsername());
+                w.optionalInt(r.getKTopPlayers());
+                w.bool(r.isAll());
+            }
+            case PlayerStatsRequest r -> w.op(OP_PLAYER_STATS);
+            case SubmitProposalRequest r -> {
+                w.op(OP_SUBMIT_PROPOSAL);
+                w.strings(r.getWords());
+            }
+            case UpdateCredentialsRequest r -> {
+                w.op(OP_UPDATE_CREDENTIALS);
+                w.string(r.getOldUsername());
+                w.string(r.getOldPassword());
+                w.string(r.getNewUsername());
+                w.string(r.getNewPassword());
+            }
+            case BatchRequest r -> {
+                w.op(OP_BATCH);
+                w.count(r.getRequests());
+                for (Request sub : r.getRequests()) { w.frame(encodeRequest(sub)); }
+            }
+            default -> throw new IllegalArgumentException(
+                "Unknown request type: " + req.getOperation()
+            );
+        }
+
+        return w.toFrame();
+    }
+
+
+    /**
+     * Decodes a request frame payload.
+     *
+     * @param payload frame content without the length prefix
+     * @return decoded request
+     * @throws IllegalArgumentException if the payload is malformed or its
+     *         values fail request validation
+     */
+    public static Request decodeRequest(byte[] payload) {
+        return decodeRequest(payload, false);
+    }
+
+
+    private static Request decodeRequest(byte[] payload, boolean nested) {
+        Reader r = new Reader(payload);
+        int op = r.op();
+        if (nested && op == OP_BATCH) {
+            throw new IllegalArgumentException("nested batch");
+        }
+
+        Request req = switch (op) {
+            case OP_LOGIN -> new LoginRequest(r.string(), r.string(), r.optionalInt());
+            case OP_LOGOUT -> new LogoutRequest();
+            case OP_REGISTER -> new RegisterRequest(r.string(), r.string());
+            case OP_GAME_INFO -> {
+                Integer gameId = r.optionalInt();
+                yield r.bool() ? new GameInfoRequest(true) : new GameInfoRequest(gameId);
+            }
+            case OP_GAME_STATS -> {
+                Integer gameId = r.optionalInt();
+                yield r.bool() ? new GameStatsRequest(true) : new GameStatsRequest(gameId);
+            }
+            case OP_LEADERBOARD -> {
+                String username = r.string();
+                Integer k = r.optionalInt();
+                boolean all = r.bool();
+
+                if (username != null) { yield new LeaderboardRequest(username); }
+                if (k != null) { yield new LeaderboardRequest(k); }
+                yield new LeaderboardRequest(all);
+            }
+            case OP_PLAYER_STATS -> new PlayerStatsRequest();
+            case OP_SUBMIT_PROPOSAL -> new SubmitProposalRequest(r.strings());
+            case OP_UPDATE_CREDENTIALS -> new UpdateCredentialsRequest(
+                r.string(),
+                r.string(),
+                r.string(),
+                r.string()
+            );
+            case OP_BATCH -> {
+                int count = r.count();
+                List<Request> requests = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) { requests.add(decodeRequest(r.frame(), true)); }
+                yield new BatchRequest(requests);
+            }
+            default -> throw new IllegalArgumentException("Unknown request opcode: " + op);
+        };
+
+        r.end();
+        req.setId(r.id);
+        return req;
+    }
+
+
+    /**
+     * Encodes a response as a complete frame.
+     *
+     * @param resp response to encode
+     * @return length-prefixed frame
+     * @throws IllegalArgumentException if the response type is unknown
+     */
+    public static byte[] encodeResponse(Response resp) {
+        return encodeResponse(resp, resp.getId());
+    }
+
+
+    /**
+     * Encodes a response as a complete frame tagged with the given id
+     * instead of its own, so a response shared between requests is never
+     * mutated.
+     *
+     * @param resp response to encode
+     * @param id correlation id to write, or null for an untagged frame
+     * @return length-prefixed frame
+     * @throws IllegalArgumentException if the response type is unknown
+     */
+    public static byte[] encodeResponse(Response resp, Integer id) {
+        Writer w = new Writer(id);
+        w.op(opcodeOf(resp));
+        w.bool(resp.isSuccess());
+
+        if (!resp.isSuccess()) {
+            w.string(resp.getError());
+            return w.toFrame();
+        }
+
+        switch (resp) {
+            case LoginResponse r -> {
+                w.optionalInt(r.getGameId());
+                w.strings(r.getWords());
+                w.groups(r.getGuessedGroups());
+                w.optionalLong(r.getTimeLeft());
+                w.optionalInt(r.getErrors());
+                w.optionalInt(r.getScore());
+            }
+            case GameInfoResponse r -> {
+                w.bool(r.isActive());
+                w.optionalLong(r.getTimeLeft());
+                w.strings(r.getWordsLeft());
+                w.groups(r.getSolution());
+                w.groups(r.getGuessedGroups());
+                w.optionalInt(r.getErrors());
+                w.optionalInt(r.getScore());
+            }
+            case GameStatsResponse r -> {
+                w.bool(r.isActive());
+                w.optionalLong(r.getTimeLeft());
+                w.optionalInt(r.getActivePlayers());
+                w.optionalInt(r.getFinishedPlayers());
+                w.optionalInt(r.getWonPlayers());
+                w.optionalInt(r.getTotalPlayers());
+                w.optionalFloat(r.getAverageScore());
+            }
+            case LeaderboardResponse r -> {
+                List<LeaderboardRecord> records = r.getRecords();
+                w.count(records);
+                for (LeaderboardRecord record : records) {
+                    w.string(record.getUsername());
+                    w.varint(record.getPosition());
+                    w.varint(record.getPoints());
+                }
+            }
+            case PlayerStatsResponse r -> {
+                w.optionalInt(r.getSolvedPuzzles());
+                w.optionalInt(r.getFailedPuzzles());
+                w.optionalInt(r.getUnfinishedPuzzles());
+                w.optionalInt(r.getPerfectPuzzles());
+                w.optionalFloat(r.getWinRate());
+                w.optionalFloat(r.getLossRate());
+                w.optionalInt(r.getCurrentStreak());
+                w.optionalInt(r.getMaxStreak());
+
+                MistakeHistogram histogram = r.getHistogram();
+                w.bool(histogram != null);
+                if (histogram != null) {
+                    for (int count : histogram.getCounts()) { w.varint(count); }
+                }
+            }
+            case SubmitProposalResponse r -> {
+                w.bool(Boolean.TRUE.equals(r.getResult()));
+                w.string(r.getGroupName());
+            }
+            case BatchResponse r -> {
+                w.count(r.getResponses());
+                for (Response sub : r.getResponses()) { w.frame(encodeResponse(sub)); }
+            }
+            default -> {
+                // logout, register and updateCredentials carry no fields
+            }
+        }
+
+        return w.toFrame();
+    }
+
+
+    /**
+     * Decodes a response frame payload.
+     *
+     * @param payload frame content without the length prefix
+     * @return decoded response
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static Response decodeResponse(byte[] payload) {
+        return decodeResponse(payload, false);
+    }
+
+
+    private static Response decodeResponse(byte[] payload, boolean nested) {
+        Reader r = new Reader(payload);
+        int op = r.op();
+        if (nested && op == OP_BATCH) {
+            throw new IllegalArgumentException("nested batch");
+        }
+
+        Response resp = r.bool() ? decodeSuccess(op, r) : decodeError(op, r.string());
+        r.end();
+        resp.setId(r.id);
+        return resp;
+    }
+
+
+    private static Response decodeSuccess(int op, Reader r) {
+        return switch (op) {
+            case OP_LOGIN -> LoginResponse.success(
+                r.optionalInt(),
+                r.strings(),
+                r.groups(),
+                r.optionalLong(),
+                r.optionalInt(),
+                r.optionalInt()
+            );
+            case OP_LOGOUT -> LogoutResponse.success();
+            case OP_REGISTER -> RegisterResponse.success();
+            case OP_GAME_INFO -> GameInfoResponse.success(
+                r.bool(),
+                r.optionalLong(),
+                r.strings(),
+                r.groups(),
+                r.groups(),
+                r.optionalInt(),
+                r.optionalInt()
+            );
+            case OP_GAME_STATS -> GameStatsResponse.success(
+                r.bool(),
+                r.optionalLong(),
+                r.optionalInt(),
+                r.optionalInt(),
+                r.optionalInt(),
+                r.optionalInt(),
+                r.optionalFloat()
+            );
+            case OP_LEADERBOARD -> {
+                int count = r.count();
+                List<LeaderboardRecord> records = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    records.add(new LeaderboardRecord(r.string(), r.varint(), r.varint()));
+                }
+                yield LeaderboardResponse.success(records);
+            }
+            case OP_PLAYER_STATS -> PlayerStatsResponse.success(
+                r.optionalInt(),
+                r.optionalInt(),
+                r.optionalInt(),
+                r.optionalInt(),
+                r.optionalFloat(),
+                r.optionalFloat(),
+                r.optionalInt(),
+                r.optionalInt(),
+                r.bool() ? histogram(r) : null
+            );
+            case OP_SUBMIT_PROPOSAL -> SubmitProposalResponse.success(r.bool(), r.string());
+            case OP_UPDATE_CREDENTIALS -> UpdateCredentialsResponse.success();
+            case OP_BATCH -> {
+                int count = r.count();
+                List<Response> responses = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) { responses.add(decodeResponse(r.frame(), true)); }
+                yield BatchResponse.success(responses);
+            }
+            default -> throw new IllegalArgumentException("Unknown response opcode: " + op);
+        };
+    }
+
+
+    private static Response decodeError(int op, String error) {
+        return switch (op) {
+            case OP_LOGIN -> LoginResponse.error(error);
+            case OP_LOGOUT -> LogoutResponse.error(error);
+            case OP_REGISTER -> RegisterResponse.error(error);
+            case OP_GAME_INFO -> GameInfoResponse.error(error);
+            case OP_GAME_STATS -> GameStatsResponse.error(error);
+            case OP_LEADERBOARD -> LeaderboardResponse.error(error);
+            case OP_PLAYER_STATS -> PlayerStatsResponse.error(error);
+            case OP_SUBMIT_PROPOSAL -> SubmitProposalResponse.error(error);
+            case OP_UPDATE_CREDENTIALS -> UpdateCredentialsResponse.error(error);
+            case OP_BATCH -> BatchResponse.error(error);
+            default -> throw new IllegalArgumentException("Unknown response opcode: " + op);
+        };
+    }
+
+
+    private static MistakeHistogram histogram(Reader r) {
+        int[] counts = new int[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < counts.length; i++) { counts[i] = r.varint(); }
+
+        return new MistakeHistogram(
+            counts[0],
+            counts[1],
+            counts[2],
+            counts[3],
+            counts[4],
+            counts[5]
+        );
+    }
+
+
+    private static int opcodeOf(Response resp) {
+        return switch (resp) {
+            case LoginResponse r -> OP_LOGIN;
+            case LogoutResponse r -> OP_LOGOUT;
+            case RegisterResponse r -> OP_REGISTER;
+            case GameInfoResponse r -> OP_GAME_INFO;
+            case GameStatsResponse r -> OP_GAME_STATS;
+            case LeaderboardResponse r -> OP_LEADERBOARD;
+            case PlayerStatsResponse r -> OP_PLAYER_STATS;
+            case SubmitProposalResponse r -> OP_SUBMIT_PROPOSAL;
+            case UpdateCredentialsResponse r -> OP_UPDATE_CREDENTIALS;
+            case BatchResponse r -> OP_BATCH;
+            default -> throw new IllegalArgumentException(
+                "Unknown response type: " + resp.getOperation()
+            );
+        };
+    }
+
+
+    /**
+     * Growable payload buffer with a reserved slot for the length prefix.
+     * Shared with {@link BoardEncoding}, which splices pre-encoded fields.
+     */
+    static final class Writer {
+        /** Largest varint encoding of an int. */
+        private static final int HEADER_BYTES = 5;
+
+        private byte[] bytes = new byte[128];
+        private int position = HEADER_BYTES;
+
+        /** Correlation id written after the opcode, or null. */
+        private final Integer id;
+
+
+        Writer(Integer id) { this.id = id; }
+
+
+        void op(int opcode) {
+            if (this.id == null) {
+                put((byte) opcode);
+                return;
+            }
+
+            put((byte) (opcode | TAGGED));
+            unsigned(this.id);
+        }
+
+
+        void bool(boolean value) { put((byte) (value ? 1 : 0)); }
+
+
+        void varint(int value) { unsigned((value << 1) ^ (value >> 31)); }
+
+
+        void optionalInt(Integer value) {
+            if (value == null) { put((byte) 0); }
+            else { unsignedLong(zigzag(value) + 1); }
+        }
+
+
+        void optionalLong(Long value) {
+            if (value == null) { put((byte) 0); }
+            else { unsignedLong(zigzag(value) + 1); }
+        }
+
+
+        void optionalFloat(Float value) {
+            bool(value != null);
+            if (value != null) {
+                int bits = Float.floatToIntBits(value);
+                ensure(Integer.BYTES);
+                for (int shift = 24; shift >= 0; shift -= 8) {
+                    this.bytes[this.position++] = (byte) (bits >>> shift);
+                }
+            }
+        }
+
+
+        void string(String value) {
+            if (value == null) {
+                put((byte) 0);
+                return;
+            }
+
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            unsigned(utf8.length + 1);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, this.bytes, this.position, utf8.length);
+            this.position += utf8.length;
+        }
+
+
+        void count(List<?> list) { unsigned(list == null ? 0 : list.size() + 1); }
+
+
+        void strings(List<String> values) {
+            count(values);
+            if (values != null) {
+                for (String value : values) { string(value); }
+            }
+        }
+
+
+        void groups(List<List<String>> groups) {
+            count(groups);
+            if (groups != null) {
+                for (List<String> group : groups) { strings(group); }
+            }
+        }
+
+
+        /** Appends fields encoded earlier by {@link #toBytes()}. */
+        void encoded(byte[] fields) {
+            ensure(fields.length);
+            System.arraycopy(fields, 0, this.bytes, this.position, fields.length);
+            this.position += fields.length;
+        }
+
+
+        /** Appends a complete nested frame, length prefix included. */
+        void frame(byte[] frame) {
+            ensure(frame.length);
+            System.arraycopy(frame, 0, this.bytes, this.position, frame.length);
+            this.position += frame.length;
+        }
+
+
+        private void unsigned(int value) { unsignedLong(value & 0xFFFFFFFFL); }
+
+
+        private void unsignedLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                this.bytes[this.position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.bytes[this.position++] = (byte) value;
+        }
+
+
+        private void put(byte value) {
+            ensure(1);
+            this.bytes[this.position++] = value;
+        }
+
+
+        private void ensure(int extra) {
+            if (this.position + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(
+                    this.bytes,
+                    Math.max(this.bytes.length * 2, this.position + extra)
+                );
+            }
+        }
+
+
+        /** @return fields written so far, without opcode framing */
+        byte[] toBytes() { return Arrays.copyOfRange(this.bytes, HEADER_BYTES, this.position); }
+
+
+        /**
+         * Writes the length prefix right before the payload.
+         *
+         * @return frame bytes
+         */
+        byte[] toFrame() {
+            int length = this.position - HEADER_BYTES;
+            int headerBytes = 1;
+            for (int rest = length >>> 7; rest != 0; rest >>>= 7) { headerBytes++; }
+
+            int start = HEADER_BYTES - headerBytes;
+            int value = length;
+            for (int i = start; i < HEADER_BYTES; i++) {
+                this.bytes[i] = (byte) (i == HEADER_BYTES - 1
+                    ? value
+                    : (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            return Arrays.copyOfRange(this.bytes, start, this.position);
+        }
+    }
+
+
+    /** Cursor over a received payload. */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+
+        /** Correlation id read after the opcode, or null. */
+        Integer id;
+
+
+        Reader(byte[] bytes) { this.bytes = bytes; }
+
+
+        int op() {
+            int op = next() & 0xFF;
+            if ((op & TAGGED) == 0) { return op; }
+
+            this.id = (int) unsigned(5);
+            return op & ~TAGGED;
+        }
+
+
+        boolean bool() {
+            int value = next();
+            if (value != 0 && value != 1) {
+                throw new IllegalArgumentException("malformed boolean");
+            }
+            return value == 1;
+        }
+
+
+        int varint() {
+            int raw = (int) unsigned(5);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+
+        Integer optionalInt() {
+            long raw = unsigned(5);
+            if (raw == 0) { return null; }
+
+            long value = unzigzag(raw - 1);
+            if (value != (int) value) {
+                throw new IllegalArgumentException("integer out of range");
+            }
+            return (int) value;
+        }
+
+
+        Long optionalLong() {
+            long raw = unsigned(10);
+            return raw == 0 ? null : unzigzag(raw - 1);
+        }
+
+
+        Float optionalFloat() {
+            if (!bool()) { return null; }
+
+            int bits = 0;
+            for (int i = 0; i < Integer.BYTES; i++) { bits = (bits << 8) | (next() & 0xFF); }
+            return Float.intBitsToFloat(bits);
+        }
+
+
+        String string() {
+            int length = lengthPlusOne();
+            if (length < 0) { return null; }
+
+            String value = new String(this.bytes, this.position, length, StandardCharsets.UTF_8);
+            this.position += length;
+            return value;
+        }
+
+
+        int count() {
+            int count = lengthPlusOne();
+            if (count < 0) {
+                throw new IllegalArgumentException("missing list");
+            }
+            return count;
+        }
+
+
+        List<String> strings() {
+            int count = lengthPlusOne();
+            if (count < 0) { return null; }
+
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) { values.add(string()); }
+            return values;
+        }
+
+
+        List<List<String>> groups() {
+            int count = lengthPlusOne();
+            if (count < 0) { return null; }
+
+            List<List<String>> groups = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) { groups.add(strings()); }
+            return groups;
+        }
+
+
+        /** @return payload of a nested frame */
+        byte[] frame() {
+            long length = unsigned(5);
+            if (length > this.bytes.length - this.position) {
+                throw new IllegalArgumentException("truncated frame");
+            }
+
+            int start = this.position;
+            this.position += (int) length;
+            return Arrays.copyOfRange(this.bytes, start, this.position);
+        }
+
+
+        /** Fails if bytes are left over after the last field. */
+        void end() {
+            if (this.position != this.bytes.length) {
+                throw new IllegalArgumentException("trailing bytes in frame");
+            }
+        }
+
+
+        /**
+         * Reads a count stored plus one and checks it against the bytes left,
+         * since every element takes at least one byte.
+         *
+         * @return count, or -1 for null
+         */
+        private int lengthPlusOne() {
+            long raw = unsigned(5);
+            if (raw > this.bytes.length - this.position + 1L) {
+                throw new IllegalArgumentException("truncated frame");
+            }
+            return (int) raw - 1;
+        }
+
+
+        private long unsigned(int maxBytes) {
+            long value = 0;
+            for (int i = 0; i < maxBytes; i++) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << (7 * i);
+                if ((b & 0x80) == 0) { return value; }
+            }
+
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+
+        private byte next() {
+            if (this.position >= this.bytes.length) {
+                throw new IllegalArgumentException("truncated frame");
+            }
+            return this.bytes[this.position++];
+        }
+    }
+
+
+    private static long zigzag(long value) { return (value << 1) ^ (value >> 63); }
+
+
+    private static long unzigzag(long raw) { return (raw >>> 1) ^ -(raw & 1); }
+}
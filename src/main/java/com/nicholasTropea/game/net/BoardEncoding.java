@@ -0,0 +1,340 @@
+package com.nicholasTropea.game.net;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.gson.stream.JsonWriter;
+
+import com.nicholasTropea.game.net.responses.GameInfoResponse;
+import com.nicholasTropea.game.net.responses.LoginResponse;
+
+
+/**
+ * Words and groups of one game, encoded once for both wire protocols.
+ *
+ * <p>Every player of a round receives the same 16 words and the same groups,
+ * only in a different order and with different counters. Login and game
+ * info replies are spliced together from the pre-encoded fragments, so only
+ * the ids, counters and time left are encoded per player. The bytes are
+ * identical to what the {@link MessageAdapter} and {@link BinaryProtocol}
+ * codecs produce for the same response.
+ *
+ * <p>Instances are immutable and shared by all connections.
+ */
+public final class BoardEncoding {
+    /** Index of the JSON fragment in an encoded pair. */
+    private static final int JSON = 0;
+
+    /** Index of the binary fragment in an encoded pair. */
+    private static final int BINARY = 1;
+
+    /** Game the board belongs to. */
+    private final int gameId;
+
+    /** Quoted JSON string and binary string field of each word, see {@link #JSON}. */
+    private final Map<String, byte[][]> words;
+
+    /** JSON array and binary string list of each group, see {@link #JSON}. */
+    private final Map<List<String>, byte[][]> groups;
+
+
+    /**
+     * @param gameId game the board belongs to
+     * @param groups the game's groups, four words each
+     */
+    public BoardEncoding(int gameId, List<List<String>> groups) {
+        this.gameId = gameId;
+        this.words = new HashMap<>();
+        this.groups = new HashMap<>();
+
+        for (List<String> group : Objects.requireNonNull(groups, "groups are required")) {
+            StringBuilder json = new StringBuilder("[");
+            for (String word : group) {
+                byte[][] encoded = new byte[][] { jsonString(word), binaryString(word) };
+                this.words.put(word, encoded);
+
+                if (json.length() > 1) { json.append(','); }
+                json.append(new String(encoded[JSON], StandardCharsets.UTF_8));
+            }
+
+            BinaryProtocol.Writer binary = new BinaryProtocol.Writer(null);
+            binary.strings(group);
+            this.groups.put(
+                List.copyOf(group),
+                new byte[][] {
+                    json.append(']').toString().getBytes(StandardCharsets.UTF_8),
+                    binary.toBytes()
+                }
+            );
+        }
+    }
+
+
+    /** @return game the board belongs to */
+    public int getGameId() { return this.gameId; }
+
+
+    /**
+     * Encodes a reply for the newline-delimited protocol.
+     *
+     * @param resp response to encode
+     * @param id correlation id to write, or null
+     * @return newline-terminated JSON, or null if the response is not a
+     *         successful login or game info about this board
+     */
+    public byte[] line(Response resp, Integer id) {
+        if (resp instanceof LoginResponse login && fits(login)) {
+            return loginLine(login, id);
+        }
+        if (resp instanceof GameInfoResponse info && fits(info)) {
+            return gameInfoLine(info, id);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Encodes a reply for the binary protocol.
+     *
+     * @param resp response to encode
+     * @param id correlation id to write, or null
+     * @return length-prefixed frame, or null if the response is not a
+     *         successful login or game info about this board
+     */
+    public byte[] frame(Response resp, Integer id) {
+        if (resp instanceof LoginResponse login && fits(login)) {
+            return loginFrame(login, id);
+        }
+        if (resp instanceof GameInfoResponse info && fits(info)) {
+            return gameInfoFrame(info, id);
+        }
+
+        return null;
+    }
+
+
+    private boolean fits(LoginResponse resp) {
+        return resp.isSuccess()
+            && Objects.equals(resp.getGameId(), this.gameId)
+            && known(resp.getWords())
+            && knownGroups(resp.getGuessedGroups());
+    }
+
+
+    private boolean fits(GameInfoResponse resp) {
+        return resp.isSuccess()
+            && known(resp.getWordsLeft())
+            && knownGroups(resp.getSolution())
+            && knownGroups(resp.getGuessedGroups());
+    }
+
+
+    private boolean known(List<String> values) {
+        if (values == null) { return true; }
+
+        for (String word : values) {
+            if (!this.words.containsKey(word)) { return false; }
+        }
+        return true;
+    }
+
+
+    private boolean knownGroups(List<List<String>> values) {
+        if (values == null) { return true; }
+
+        for (List<String> group : values) {
+            if (group == null || !this.groups.containsKey(group)) { return false; }
+        }
+        return true;
+    }
+
+
+    private byte[] loginLine(LoginResponse resp, Integer id) {
+        JsonLine out = new JsonLine("login", id);
+        out.name("gameId").number(resp.getGameId());
+        out.array("words", resp.getWords(), this.words);
+        out.array("guessedGroups", resp.getGuessedGroups(), this.groups);
+        out.name("timeLeft").number(resp.getTimeLeft());
+        out.name("errors").number(resp.getErrors());
+        out.name("score").number(resp.getScore());
+        return out.toLine();
+    }
+
+
+    private byte[] loginFrame(LoginResponse resp, Integer id) {
+        BinaryProtocol.Writer w = new BinaryProtocol.Writer(id);
+        w.op(BinaryProtocol.OP_LOGIN);
+        w.bool(true);
+        w.optionalInt(resp.getGameId());
+        list(w, resp.getWords(), this.words);
+        list(w, resp.getGuessedGroups(), this.groups);
+        w.optionalLong(resp.getTimeLeft());
+        w.optionalInt(resp.getErrors());
+        w.optionalInt(resp.getScore());
+        return w.toFrame();
+    }
+
+
+    private byte[] gameInfoLine(GameInfoResponse resp, Integer id) {
+        JsonLine out = new JsonLine("requestGameInfo", id);
+        out.name("active").bool(resp.isActive());
+        out.name("timeLeft").number(resp.getTimeLeft());
+        out.array("wordsLeft", resp.getWordsLeft(), this.words);
+        out.array("solution", resp.getSolution(), this.groups);
+        out.array("guessedGroups", resp.getGuessedGroups(), this.groups);
+        out.name("errors").number(resp.getErrors());
+        out.name("score").number(resp.getScore());
+        return out.toLine();
+    }
+
+
+    private byte[] gameInfoFrame(GameInfoResponse resp, Integer id) {
+        BinaryProtocol.Writer w = new BinaryProtocol.Writer(id);
+        w.op(BinaryProtocol.OP_GAME_INFO);
+        w.bool(true);
+        w.bool(resp.isActive());
+        w.optionalLong(resp.getTimeLeft());
+        list(w, resp.getWordsLeft(), this.words);
+        list(w, resp.getSolution(), this.groups);
+        list(w, resp.getGuessedGroups(), this.groups);
+        w.optionalInt(resp.getErrors());
+        w.optionalInt(resp.getScore());
+        return w.toFrame();
+    }
+
+
+    /** Writes a counted list of pre-encoded values, null for a missing list. */
+    private static <K> void list(
+        BinaryProtocol.Writer w,
+        List<K> values,
+        Map<K, byte[][]> encoded
+    ) {
+        w.count(values);
+        if (values != null) {
+            for (K value : values) { w.encoded(encoded.get(value)[BINARY]); }
+        }
+    }
+
+
+    private static byte[] jsonString(String value) {
+        StringWriter buffer = new StringWriter();
+        try {
+            // Same escaping as the Gson writers behind MessageAdapter
+            JsonWriter json = new JsonWriter(buffer);
+            json.setHtmlSafe(true);
+            json.value(value);
+            json.flush();
+        }
+        catch (IOException ex) { throw new UncheckedIOException(ex); }
+
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    private static byte[] binaryString(String value) {
+        BinaryProtocol.Writer w = new BinaryProtocol.Writer(null);
+        w.string(value);
+        return w.toBytes();
+    }
+
+
+    /**
+     * JSON object built by appending pre-encoded fragments, in the field
+     * order {@link MessageAdapter#write} uses. Null values are omitted.
+     */
+    private static final class JsonLine {
+        private byte[] bytes = new byte[256];
+        private int position;
+
+        /** Name written by {@link #name}, pending until its value arrives. */
+        private String pendingName;
+
+
+        JsonLine(String operation, Integer id) {
+            ascii("{\"operation\":\"").ascii(operation).ascii("\"");
+            name("id").number(id);
+            name("success").bool(true);
+        }
+
+
+        JsonLine name(String name) {
+            this.pendingName = name;
+            return this;
+        }
+
+
+        void bool(boolean value) {
+            writeName();
+            ascii(Boolean.toString(value));
+        }
+
+
+        void number(Number value) {
+            if (value == null) { return; }
+
+            writeName();
+            ascii(value.toString());
+        }
+
+
+        <K> void array(String name, List<K> values, Map<K, byte[][]> encoded) {
+            if (values == null) { return; }
+
+            name(name).writeName();
+            put((byte) '[');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) { put((byte) ','); }
+                byte[] value = encoded.get(values.get(i))[JSON];
+                ensure(value.length);
+                System.arraycopy(value, 0, this.bytes, this.position, value.length);
+                this.position += value.length;
+            }
+            put((byte) ']');
+        }
+
+
+        byte[] toLine() {
+            ascii("}\n");
+            return Arrays.copyOf(this.bytes, this.position);
+        }
+
+
+        private void writeName() {
+            ascii(",\"").ascii(this.pendingName).ascii("\":");
+        }
+
+
+        /** Appends a value known to be plain ASCII. */
+        private JsonLine ascii(String value) {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                this.bytes[this.position++] = (byte) value.charAt(i);
+            }
+            return this;
+        }
+
+
+        private void put(byte value) {
+            ensure(1);
+            this.bytes[this.position++] = value;
+        }
+
+
+        private void ensure(int extra) {
+            if (this.position + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(
+                    this.bytes,
+                    Math.max(this.bytes.length * 2, this.position + extra)
+                );
+            }
+        }
+    }
+}
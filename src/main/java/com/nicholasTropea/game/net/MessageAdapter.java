@@ -0,0 +1,277 @@
+package com.nicholasTropea.game.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Streaming JSON codec for one request or response class.
+ *
+ * <p>Fields are read straight from the token stream into constructor
+ * arguments, without building a tree or going through reflection. Like the
+ * reflective codec it replaces, decoding does not run constructor
+ * validation: the handlers validate request contents themselves and answer
+ * bad input with an error response. Unknown names are skipped and nulls are
+ * omitted on output, so the JSON accepted and produced is unchanged.
+ *
+ * <p>{@link #write} puts {@code "operation"} first, followed by the optional
+ * correlation {@code "id"}, which lets {@link RequestTypeAdapter} and
+ * {@link ResponseTypeAdapter} pick the subclass from the first token.
+ *
+ * @param <T> message type
+ */
+public abstract class MessageAdapter<T> extends TypeAdapter<T> {
+    /** Operation name written ahead of the fields. */
+    private final String operation;
+
+
+    /**
+     * @param operation operation name of the messages this adapter handles
+     */
+    protected MessageAdapter(String operation) {
+        this.operation = Objects.requireNonNull(operation);
+    }
+
+
+    /** @return operation name of the messages this adapter handles */
+    public String getOperation() { return this.operation; }
+
+
+    /**
+     * Reads the remaining name/value pairs of an object whose opening brace
+     * has been consumed, stopping before the closing brace. An
+     * {@code "operation"} name is skipped like any unknown one, an
+     * {@code "id"} is set on the decoded message.
+     *
+     * @param in reader positioned inside an object
+     * @return decoded message
+     * @throws IOException on malformed JSON
+     */
+    public abstract T readFields(JsonReader in) throws IOException;
+
+
+    /**
+     * Writes the message fields, without the operation, into an open object.
+     *
+     * @param out writer positioned inside an object
+     * @param value message to write
+     * @throws IOException on write failure
+     */
+    protected abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        in.beginObject();
+        T value = readFields(in);
+        in.endObject();
+        return value;
+    }
+
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        write(out, value, value == null ? null : idOf(value));
+    }
+
+
+    /**
+     * Writes the message with the given correlation id instead of its own.
+     *
+     * @param out writer
+     * @param value message to write
+     * @param id correlation id to write, or null to omit it
+     * @throws IOException on write failure
+     */
+    public void write(JsonWriter out, T value, Integer id) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("operation").value(this.operation);
+        out.name("id").value(id);
+        writeFields(out, value);
+        out.endObject();
+    }
+
+
+    private static Integer idOf(Object message) {
+        return switch (message) {
+            case Request req -> req.getId();
+            case Response resp -> resp.getId();
+            default -> null;
+        };
+    }
+
+
+    /** Sets the decoded correlation id on a request. */
+    protected static <M extends Request> M withId(M message, Integer id) {
+        message.setId(id);
+        return message;
+    }
+
+
+    /** Sets the decoded correlation id on a response. */
+    protected static <M extends Response> M withId(M message, Integer id) {
+        message.setId(id);
+        return message;
+    }
+
+
+    /** Writes the status fields every response carries. */
+    protected static void writeStatus(JsonWriter out, Response resp) throws IOException {
+        out.name("success").value(resp.isSuccess());
+        out.name("error").value(resp.getError());
+    }
+
+
+    // Value readers accept the same token shapes as Gson's built-in adapters
+
+    protected static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return token == JsonToken.BOOLEAN ? Boolean.toString(in.nextBoolean()) : in.nextString();
+    }
+
+
+    protected static Boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return token == JsonToken.STRING
+            ? Boolean.parseBoolean(in.nextString())
+            : in.nextBoolean();
+    }
+
+
+    protected static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextInt();
+    }
+
+
+    protected static Long nextLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextLong();
+    }
+
+
+    protected static Float nextFloat(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return (float) in.nextDouble();
+    }
+
+
+    protected static List<String> nextStrings(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<String> values = new ArrayList<>(4);
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(nextString(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+
+    protected static List<List<String>> nextGroups(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<List<String>> groups = new ArrayList<>(4);
+        in.beginArray();
+        while (in.hasNext()) {
+            groups.add(nextStrings(in));
+        }
+        in.endArray();
+        return groups;
+    }
+
+
+    /** Writes a named string array, or nothing when the list is null. */
+    protected static void writeStrings(
+        JsonWriter out,
+        String name,
+        List<String> values
+    ) throws IOException {
+        if (values == null) {
+            return;
+        }
+
+        out.name(name);
+        writeArray(out, values);
+    }
+
+
+    /** Writes a named array of string arrays, or nothing when the list is null. */
+    protected static void writeGroups(
+        JsonWriter out,
+        String name,
+        List<List<String>> groups
+    ) throws IOException {
+        if (groups == null) {
+            return;
+        }
+
+        out.name(name).beginArray();
+        for (List<String> group : groups) {
+            if (group == null) {
+                out.nullValue();
+            }
+            else {
+                writeArray(out, group);
+            }
+        }
+        out.endArray();
+    }
+
+
+    private static void writeArray(JsonWriter out, List<String> values) throws IOException {
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+}
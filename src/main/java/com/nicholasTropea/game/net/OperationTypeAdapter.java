@@ -0,0 +1,127 @@
+package com.nicholasTropea.game.net;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Gson adapter mapping the "operation" field of a message to the
+ * {@link MessageAdapter} of its subclass.
+ *
+ * <p>When "operation" is the first name, as this codec writes it, the
+ * subclass adapter streams the rest of the object directly. Senders that put
+ * it elsewhere (the reflective codec wrote it last) are still accepted: the
+ * object is buffered as a tree and decoded from there.
+ *
+ * @param <T> message base type
+ */
+abstract class OperationTypeAdapter<T> extends TypeAdapter<T> {
+    /** Subclass adapters keyed by operation. */
+    private final Map<String, MessageAdapter<? extends T>> adapters = new HashMap<>();
+
+    /** "request" or "response", for error messages. */
+    private final String kind;
+
+
+    /**
+     * @param kind message kind used in error messages
+     * @param adapters one adapter per operation
+     */
+    OperationTypeAdapter(String kind, List<MessageAdapter<? extends T>> adapters) {
+        this.kind = kind;
+        for (MessageAdapter<? extends T> adapter : adapters) {
+            this.adapters.put(adapter.getOperation(), adapter);
+        }
+    }
+
+
+    /** @return operation of the message */
+    abstract String operationOf(T value);
+
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        in.beginObject();
+        if (!in.hasNext()) {
+            throw new JsonParseException("Missing " + this.kind + " operation");
+        }
+
+        String name = in.nextName();
+        if (name.equals("operation")) {
+            T value = adapterFor(in.nextString()).readFields(in);
+            in.endObject();
+            return value;
+        }
+
+        JsonObject obj = new JsonObject();
+        obj.add(name, JsonParser.parseReader(in));
+        while (in.hasNext()) {
+            obj.add(in.nextName(), JsonParser.parseReader(in));
+        }
+        in.endObject();
+
+        JsonElement operation = obj.get("operation");
+        if (operation == null || !operation.isJsonPrimitive()) {
+            throw new JsonParseException("Missing " + this.kind + " operation");
+        }
+
+        return adapterFor(operation.getAsString()).fromJsonTree(obj);
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        ((MessageAdapter<T>) adapterFor(operationOf(value))).write(out, value);
+    }
+
+
+    /**
+     * Writes a message with the given correlation id instead of its own.
+     *
+     * @param out writer
+     * @param value message to write
+     * @param id correlation id to write, or null to omit it
+     * @throws IOException on write failure
+     */
+    @SuppressWarnings("unchecked")
+    public void write(JsonWriter out, T value, Integer id) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        ((MessageAdapter<T>) adapterFor(operationOf(value))).write(out, value, id);
+    }
+
+
+    private MessageAdapter<? extends T> adapterFor(String operation) {
+        MessageAdapter<? extends T> adapter = this.adapters.get(operation);
+        if (adapter == null) {
+            throw new JsonParseException("Unknown " + this.kind + " type: " + operation);
+        }
+
+        return adapter;
+    }
+}
@@ -15,6 +15,14 @@ public abstract class Request {
     @SerializedName("operation")
     protected final String operation;
 
+    /**
+     * Optional client-chosen id. Tagged requests may be pipelined: the
+     * server copies the id onto the response, which can then arrive out of
+     * order. Null for the classic one request, one response exchange.
+     */
+    @SerializedName("id")
+    private Integer id;
+
 
     /**
      * Constructs a Request with the specified operation type
@@ -42,4 +50,20 @@ public abstract class Request {
      * @return the operation type
      */
     public String getOperation() { return this.operation; }
+
+
+    /**
+     * Gets the correlation id of this request.
+     *
+     * @return the id, or null if the request is untagged
+     */
+    public Integer getId() { return this.id; }
+
+
+    /**
+     * Tags this request for pipelining, before it is sent.
+     *
+     * @param id correlation id, or null to send it untagged
+     */
+    public void setId(Integer id) { this.id = id; }
 }
\ No newline at end of file
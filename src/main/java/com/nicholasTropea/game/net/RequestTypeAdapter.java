@@ -0,0 +1,37 @@
+package com.nicholasTropea.game.net;
+
+import java.util.List;
+
+import com.nicholasTropea.game.net.requests.*;
+
+
+/**
+ * Streaming JSON codec for {@link Request} objects.
+ *
+ * <p>Register it with {@code registerTypeHierarchyAdapter(Request.class, ...)}
+ * so that both decoding and encoding of every subclass go through it.
+ */
+public class RequestTypeAdapter extends OperationTypeAdapter<Request> {
+    /** Creates the codec over the adapters of every request type. */
+    public RequestTypeAdapter() {
+        super(
+            "request",
+            List.of(
+                BatchRequest.JSON,
+                GameInfoRequest.JSON,
+                GameStatsRequest.JSON,
+                LeaderboardRequest.JSON,
+                LoginRequest.JSON,
+                LogoutRequest.JSON,
+                PlayerStatsRequest.JSON,
+                RegisterRequest.JSON,
+                SubmitProposalRequest.JSON,
+                UpdateCredentialsRequest.JSON
+            )
+        );
+    }
+
+
+    @Override
+    String operationOf(Request value) { return value.getOperation(); }
+}
@@ -35,6 +35,12 @@ public abstract class Response {
     @SerializedName("error")
     protected final String error;
 
+    /**
+     * Id of the request this response answers, null if it was untagged.
+     */
+    @SerializedName("id")
+    private Integer id;
+
 
     /**
      * Constructs a Response with the specified success status and error message.
@@ -76,4 +82,20 @@ public abstract class Response {
      * @return Error message or null if successful
      */
     public String getError() { return this.error; }
+
+
+    /**
+     * Gets the id of the request this response answers.
+     *
+     * @return the request id, or null if the request was untagged
+     */
+    public Integer getId() { return this.id; }
+
+
+    /**
+     * Correlates this response with its request.
+     *
+     * @param id the request id, or null
+     */
+    public void setId(Integer id) { this.id = id; }
 }
\ No newline at end of file
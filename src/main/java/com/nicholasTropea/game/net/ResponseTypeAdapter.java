@@ -0,0 +1,37 @@
+package com.nicholasTropea.game.net;
+
+import java.util.List;
+
+import com.nicholasTropea.game.net.responses.*;
+
+
+/**
+ * Streaming JSON codec for {@link Response} objects.
+ *
+ * <p>Register it with {@code registerTypeHierarchyAdapter(Response.class, ...)}
+ * so that both decoding and encoding of every subclass go through it.
+ */
+public class ResponseTypeAdapter extends OperationTypeAdapter<Response> {
+    /** Creates the codec over the adapters of every response type. */
+    public ResponseTypeAdapter() {
+        super(
+            "response",
+            List.of(
+                BatchResponse.JSON,
+                GameInfoResponse.JSON,
+                GameStatsResponse.JSON,
+                LeaderboardResponse.JSON,
+                LoginResponse.JSON,
+                LogoutResponse.JSON,
+                PlayerStatsResponse.JSON,
+                RegisterResponse.JSON,
+                SubmitProposalResponse.JSON,
+                UpdateCredentialsResponse.JSON
+            )
+        );
+    }
+
+
+    @Override
+    String operationOf(Response value) { return value.getOperation(); }
+}
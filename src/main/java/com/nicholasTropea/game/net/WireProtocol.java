@@ -0,0 +1,30 @@
+package com.nicholasTropea.game.net;
+
+import java.util.Locale;
+
+/**
+ * Encoding used on a client TCP connection.
+ *
+ * <p>The server accepts both on the same port: a connection that starts
+ * with the {@link BinaryProtocol} preface switches to binary frames, any
+ * other connection is served newline-delimited JSON.
+ */
+public enum WireProtocol {
+    /** One JSON object per line, the original protocol. */
+    JSON,
+
+    /** Length-prefixed binary frames, see {@link BinaryProtocol}. */
+    BINARY;
+
+
+    /**
+     * Parses a configuration value.
+     *
+     * @param name "json" or "binary", case-insensitive
+     * @return matching protocol
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static WireProtocol fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,169 @@
+package com.nicholasTropea.game.net.requests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+
+
+/**
+ * Request carrying several sub-requests answered in one round trip.
+ *
+ * <p>The server runs the sub-requests in order against one view of the
+ * current round and answers with a {@link BatchResponse} holding one
+ * response per sub-request. Only game play and query operations may be
+ * batched, see {@link #BATCHABLE_OPERATIONS}.
+ *
+ * Expected JSON format:
+ * <pre>{@code
+ * {
+ *    "operation": "batch",
+ *    "requests": [ REQUEST, ... ]
+ * }
+ * }</pre>
+ *
+ * @see BatchResponse for the server response
+ */
+public class BatchRequest extends Request {
+    /** Largest number of sub-requests in one batch. */
+    public static final int MAX_REQUESTS = 16;
+
+    /** Operations allowed inside a batch. */
+    public static final List<String> BATCHABLE_OPERATIONS = List.of(
+        "requestGameInfo",
+        "requestGameStats",
+        "requestLeaderboard",
+        "requestPlayerStats",
+        "submitProposal"
+    );
+
+    /** Sub-requests, in execution order. */
+    @SerializedName("requests")
+    private final List<Request> requests;
+
+    /** Streaming JSON codec; the batch handler validates decoded values. */
+    public static final MessageAdapter<BatchRequest> JSON =
+        new MessageAdapter<>("batch") {
+            @Override
+            public BatchRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                List<Request> requests = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "requests" -> requests = nextRequests(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new BatchRequest(requests, true), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, BatchRequest req) throws IOException {
+                if (req.requests == null) {
+                    return;
+                }
+
+                out.name("requests").beginArray();
+                for (Request sub : req.requests) {
+                    Codec.REQUESTS.write(out, sub);
+                }
+                out.endArray();
+            }
+        };
+
+
+    /** Codec for the sub-requests, created on first use to avoid a cycle. */
+    private static final class Codec {
+        private static final RequestTypeAdapter REQUESTS = new RequestTypeAdapter();
+    }
+
+
+    private static List<Request> nextRequests(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<Request> requests = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            requests.add(Codec.REQUESTS.read(in));
+        }
+        in.endArray();
+        return requests;
+    }
+
+
+    /**
+     * Creates a batch of sub-requests.
+     *
+     * @param requests sub-requests to run in order
+     * @throws IllegalArgumentException if the list is empty, larger than
+     *         {@link #MAX_REQUESTS}, or holds an operation that cannot be
+     *         batched
+     */
+    public BatchRequest(List<? extends Request> requests) {
+        super("batch");
+
+        Objects.requireNonNull(requests, "Requests are required");
+        String error = validate(requests);
+        if (error != null) { throw new IllegalArgumentException(error); }
+
+        this.requests = List.copyOf(requests);
+    }
+
+
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private BatchRequest(List<Request> requests, boolean decoded) {
+        super("batch");
+        this.requests = requests;
+    }
+
+
+    /**
+     * Checks the shape of a batch.
+     *
+     * @param requests sub-requests, possibly decoded without validation
+     * @return null if the batch is valid, otherwise an error message
+     */
+    public static String validate(List<? extends Request> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return "batch must contain at least one request";
+        }
+        if (requests.size() > MAX_REQUESTS) {
+            return "batch cannot contain more than " + MAX_REQUESTS + " requests";
+        }
+
+        for (Request sub : requests) {
+            if (sub == null || !BATCHABLE_OPERATIONS.contains(sub.getOperation())) {
+                return "operation not allowed in batch: "
+                    + (sub == null ? null : sub.getOperation());
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Gets the sub-requests.
+     *
+     * @return sub-requests in execution order, null if missing from the JSON
+     */
+    public List<Request> getRequests() { return this.requests; }
+}
@@ -1,7 +1,11 @@
 package com.nicholasTropea.game.net.requests;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
+import java.io.IOException;
 import java.util.Scanner;
 
 
@@ -39,6 +43,34 @@ public class GameInfoRequest extends Request {
     @SerializedName("current")
     private final Boolean current;
 
+    /** Streaming JSON codec; the game info handler validates decoded values. */
+    public static final MessageAdapter<GameInfoRequest> JSON =
+        new MessageAdapter<>("requestGameInfo") {
+            @Override
+            public GameInfoRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                Integer gameId = null;
+                Boolean current = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "gameId" -> gameId = nextInteger(in);
+                        case "current" -> current = nextBoolean(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new GameInfoRequest(gameId, current, true), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, GameInfoRequest req) throws IOException {
+                out.name("gameId").value(req.gameId);
+                out.name("current").value(req.current);
+            }
+        };
+
 
     /**
      * Private constructor enforcing at least one parameter is specified.
@@ -71,6 +103,18 @@ public class GameInfoRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private GameInfoRequest(Integer gameId, Boolean current, boolean decoded) {
+        super("requestGameInfo");
+        this.gameId = gameId;
+        this.current = current;
+    }
+
+
     /**
      * Factory method that prompts the user to select a game info query type
      * and collects the necessary parameters interactively.
@@ -1,7 +1,11 @@
 package com.nicholasTropea.game.net.requests;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
+import java.io.IOException;
 import java.util.Scanner;
 
 
@@ -36,6 +40,34 @@ public class GameStatsRequest extends Request {
     @SerializedName("current")
     private final Boolean current;
 
+    /** Streaming JSON codec; the game stats handler validates decoded values. */
+    public static final MessageAdapter<GameStatsRequest> JSON =
+        new MessageAdapter<>("requestGameStats") {
+            @Override
+            public GameStatsRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                Integer gameId = null;
+                Boolean current = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "gameId" -> gameId = nextInteger(in);
+                        case "current" -> current = nextBoolean(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new GameStatsRequest(gameId, current, true), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, GameStatsRequest req) throws IOException {
+                out.name("gameId").value(req.gameId);
+                out.name("current").value(req.current);
+            }
+        };
+
 
     /**
      * Private constructor enforcing at least one parameter is specified.
@@ -68,6 +100,18 @@ public class GameStatsRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private GameStatsRequest(Integer gameId, Boolean current, boolean decoded) {
+        super("requestGameStats");
+        this.gameId = gameId;
+        this.current = current;
+    }
+
+
     /**
      * Factory method that prompts the user to select a game stats query type
      * and collects the necessary parameters interactively.
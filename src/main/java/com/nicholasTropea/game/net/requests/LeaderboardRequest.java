@@ -1,7 +1,11 @@
 package com.nicholasTropea.game.net.requests;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
+import java.io.IOException;
 import java.util.Scanner;
 
 
@@ -34,6 +38,37 @@ public class LeaderboardRequest extends Request {
     @SerializedName("all")
     private final Boolean all;
 
+    /** Streaming JSON codec; the leaderboard handler validates decoded values. */
+    public static final MessageAdapter<LeaderboardRequest> JSON =
+        new MessageAdapter<>("requestLeaderboard") {
+            @Override
+            public LeaderboardRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                String playerUsername = null;
+                Integer kTopUsers = null;
+                Boolean all = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "playerName" -> playerUsername = nextString(in);
+                        case "topPlayers" -> kTopUsers = nextInteger(in);
+                        case "all" -> all = nextBoolean(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new LeaderboardRequest(playerUsername, kTopUsers, all, true), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, LeaderboardRequest req) throws IOException {
+                out.name("playerName").value(req.playerUsername);
+                out.name("topPlayers").value(req.kTopUsers);
+                out.name("all").value(req.all);
+            }
+        };
+
 
     /**
      * Private constructor enforcing at least one parameter is specified.
@@ -63,6 +98,24 @@ public class LeaderboardRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private LeaderboardRequest(
+        String playerUsername,
+        Integer kTopUsers,
+        Boolean all,
+        boolean decoded
+    ) {
+        super("requestLeaderboard");
+        this.playerUsername = playerUsername;
+        this.kTopUsers = kTopUsers;
+        this.all = all;
+    }
+
+
     /**
      * Factory method that prompts the user to select a leaderboard query type
      * and collects the necessary parameters interactively.
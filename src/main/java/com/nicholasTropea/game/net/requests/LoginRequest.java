@@ -1,9 +1,13 @@
 package com.nicholasTropea.game.net.requests;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Scanner;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
 
 
@@ -36,6 +40,36 @@ public class LoginRequest extends Request {
     @SerializedName("udpPort")
     private final Integer udpPort;
 
+    /** Streaming JSON codec; the login handler validates decoded values. */
+    public static final MessageAdapter<LoginRequest> JSON = new MessageAdapter<>("login") {
+        @Override
+        public LoginRequest readFields(JsonReader in) throws IOException {
+            Integer id = null;
+            String username = null;
+            String password = null;
+            Integer udpPort = null;
+
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "username" -> username = nextString(in);
+                    case "psw" -> password = nextString(in);
+                    case "udpPort" -> udpPort = nextInteger(in);
+                    case "id" -> id = nextInteger(in);
+                    default -> in.skipValue();
+                }
+            }
+
+            return withId(new LoginRequest(username, password, udpPort, true), id);
+        }
+
+        @Override
+        protected void writeFields(JsonWriter out, LoginRequest req) throws IOException {
+            out.name("username").value(req.username);
+            out.name("psw").value(req.password);
+            out.name("udpPort").value(req.udpPort);
+        }
+    };
+
 
     /**
      * Constructs a login request with the provided credentials.
@@ -79,6 +113,19 @@ public class LoginRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private LoginRequest(String username, String password, Integer udpPort, boolean decoded) {
+        super("login");
+        this.username = username;
+        this.password = password;
+        this.udpPort = udpPort;
+    }
+
+
     /**
      * Prompts the user to enter login credentials (username and password).
      * Validates input and re-prompts on blank entries.
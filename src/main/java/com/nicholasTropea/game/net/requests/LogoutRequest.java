@@ -1,5 +1,10 @@
 package com.nicholasTropea.game.net.requests;
 
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
 
 
@@ -19,6 +24,29 @@ import com.nicholasTropea.game.net.Request;
  * @see LogoutResponse for the server response
  */
 public class LogoutRequest extends Request {
+    /** Streaming JSON codec; the request carries no fields. */
+    public static final MessageAdapter<LogoutRequest> JSON = new MessageAdapter<>("logout") {
+        @Override
+        public LogoutRequest readFields(JsonReader in) throws IOException {
+            Integer id = null;
+
+            while (in.hasNext()) {
+                if (in.nextName().equals("id")) {
+                    id = nextInteger(in);
+                }
+                else {
+                    in.skipValue();
+                }
+            }
+
+            return withId(new LogoutRequest(), id);
+        }
+
+        @Override
+        protected void writeFields(JsonWriter out, LogoutRequest req) {}
+    };
+
+
     /**
      * Constructs a LogoutRequest with the logout operation type.
      */
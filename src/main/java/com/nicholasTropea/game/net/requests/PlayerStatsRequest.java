@@ -1,5 +1,10 @@
 package com.nicholasTropea.game.net.requests;
 
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
 
 
@@ -16,6 +21,30 @@ import com.nicholasTropea.game.net.Request;
  * @see PlayerStatsResponse for the server response
  */
 public class PlayerStatsRequest extends Request {
+    /** Streaming JSON codec; the request carries no fields. */
+    public static final MessageAdapter<PlayerStatsRequest> JSON =
+        new MessageAdapter<>("requestPlayerStats") {
+            @Override
+            public PlayerStatsRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+
+                while (in.hasNext()) {
+                    if (in.nextName().equals("id")) {
+                        id = nextInteger(in);
+                    }
+                    else {
+                        in.skipValue();
+                    }
+                }
+
+                return withId(new PlayerStatsRequest(), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, PlayerStatsRequest req) {}
+        };
+
+
     /**
      * Constructs a PlayerStatsRequest with the requestPlayerStats operation type.
      */
@@ -1,9 +1,13 @@
 package com.nicholasTropea.game.net.requests;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Scanner;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
 
 
@@ -36,6 +40,33 @@ public class RegisterRequest extends Request {
     @SerializedName("psw")
     private final String password;
 
+    /** Streaming JSON codec; the register handler validates decoded values. */
+    public static final MessageAdapter<RegisterRequest> JSON = new MessageAdapter<>("register") {
+        @Override
+        public RegisterRequest readFields(JsonReader in) throws IOException {
+            Integer id = null;
+            String username = null;
+            String password = null;
+
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "username" -> username = nextString(in);
+                    case "psw" -> password = nextString(in);
+                    case "id" -> id = nextInteger(in);
+                    default -> in.skipValue();
+                }
+            }
+
+            return withId(new RegisterRequest(username, password, true), id);
+        }
+
+        @Override
+        protected void writeFields(JsonWriter out, RegisterRequest req) throws IOException {
+            out.name("username").value(req.username);
+            out.name("psw").value(req.password);
+        }
+    };
+
 
     /**
      * Constructs a register request with the provided credentials.
@@ -62,6 +93,18 @@ public class RegisterRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private RegisterRequest(String username, String password, boolean decoded) {
+        super("register");
+        this.username = username;
+        this.password = password;
+    }
+
+
     /**
      * Prompts the user to enter registration credentials (username and password).
      * Validates input and re-prompts on blank entries.
@@ -1,11 +1,15 @@
 package com.nicholasTropea.game.net.requests;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
 
 
@@ -27,6 +31,39 @@ public class SubmitProposalRequest extends Request {
     @SerializedName("words")
     private final List<String> words;
 
+    /** Streaming JSON codec; the proposal handler validates decoded words. */
+    public static final MessageAdapter<SubmitProposalRequest> JSON =
+        new MessageAdapter<>("submitProposal") {
+            @Override
+            public SubmitProposalRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                List<String> words = null;
+
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (name.equals("words")) {
+                        words = nextStrings(in);
+                    }
+                    else if (name.equals("id")) {
+                        id = nextInteger(in);
+                    }
+                    else {
+                        in.skipValue();
+                    }
+                }
+
+                return withId(new SubmitProposalRequest(words, true), id);
+            }
+
+            @Override
+            protected void writeFields(
+                JsonWriter out,
+                SubmitProposalRequest req
+            ) throws IOException {
+                writeStrings(out, "words", req.words);
+            }
+        };
+
 
     /**
      * Constructs a SubmitProposalRequest with the provided words.
@@ -45,6 +82,17 @@ public class SubmitProposalRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the list as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private SubmitProposalRequest(List<String> words, boolean decoded) {
+        super("submitProposal");
+        this.words = words;
+    }
+
+
     /**
      * Validates the provided words list.
      *
@@ -1,9 +1,13 @@
 package com.nicholasTropea.game.net.requests;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Scanner;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Request;
 
 
@@ -39,6 +43,52 @@ public class UpdateCredentialsRequest extends Request {
     @SerializedName("newPsw")
     private final String newPassword;
 
+    /** Streaming JSON codec; the update handler validates decoded values. */
+    public static final MessageAdapter<UpdateCredentialsRequest> JSON =
+        new MessageAdapter<>("updateCredentials") {
+            @Override
+            public UpdateCredentialsRequest readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                String oldUsername = null;
+                String oldPassword = null;
+                String newUsername = null;
+                String newPassword = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "oldUsername" -> oldUsername = nextString(in);
+                        case "oldPsw" -> oldPassword = nextString(in);
+                        case "newUsername" -> newUsername = nextString(in);
+                        case "newPsw" -> newPassword = nextString(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(
+                    new UpdateCredentialsRequest(
+                        oldUsername,
+                        oldPassword,
+                        newUsername,
+                        newPassword,
+                        true
+                    ),
+                    id
+                );
+            }
+
+            @Override
+            protected void writeFields(
+                JsonWriter out,
+                UpdateCredentialsRequest req
+            ) throws IOException {
+                out.name("oldUsername").value(req.oldUsername);
+                out.name("oldPsw").value(req.oldPassword);
+                out.name("newUsername").value(req.newUsername);
+                out.name("newPsw").value(req.newPassword);
+            }
+        };
+
 
     /**
      * Full constructor.
@@ -65,6 +115,26 @@ public class UpdateCredentialsRequest extends Request {
     }
 
 
+    /**
+     * Decoding constructor: keeps the values as received, unvalidated.
+     *
+     * @param decoded marker distinguishing this constructor
+     */
+    private UpdateCredentialsRequest(
+        String oldUsername,
+        String oldPassword,
+        String newUsername,
+        String newPassword,
+        boolean decoded
+    ) {
+        super("updateCredentials");
+        this.oldUsername = oldUsername;
+        this.oldPassword = oldPassword;
+        this.newUsername = newUsername;
+        this.newPassword = newPassword;
+    }
+
+
     /**
      * Prompts the user for required inputs and returns a new request.
      * Both old username and old password are required. At least one of
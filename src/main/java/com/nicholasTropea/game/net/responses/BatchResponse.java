@@ -0,0 +1,153 @@
+package com.nicholasTropea.game.net.responses;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nicholasTropea.game.net.MessageAdapter;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+
+/**
+ * Response to a {@link BatchRequest}.
+ *
+ * <p>A successful batch holds one response per sub-request, in request
+ * order; each of them reports its own success or error.
+ *
+ * Expected JSON format:
+ * <pre>{@code
+ * {
+ *    "success" : BOOLEAN,
+ *    "error" : STRING,
+ *    "responses" : [ RESPONSE, ... ]
+ * }
+ * }</pre>
+ *
+ * Possible errors: "batch must contain at least one request",
+ * "operation not allowed in batch: ..."
+ */
+public class BatchResponse extends Response {
+    /** Sub-responses, in request order */
+    @SerializedName("responses")
+    private final List<Response> responses;
+
+
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<BatchResponse> JSON =
+        new MessageAdapter<>("batch") {
+            @Override
+            public BatchResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                List<Response> responses = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "responses" -> responses = nextResponses(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new BatchResponse(success, error, responses), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, BatchResponse resp) throws IOException {
+                writeStatus(out, resp);
+
+                if (resp.responses == null) {
+                    return;
+                }
+
+                out.name("responses").beginArray();
+                for (Response sub : resp.responses) {
+                    Codec.RESPONSES.write(out, sub);
+                }
+                out.endArray();
+            }
+        };
+
+
+    /** Codec for the sub-responses, created on first use to avoid a cycle. */
+    private static final class Codec {
+        private static final ResponseTypeAdapter RESPONSES = new ResponseTypeAdapter();
+    }
+
+
+    private static List<Response> nextResponses(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<Response> responses = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            responses.add(Codec.RESPONSES.read(in));
+        }
+        in.endArray();
+        return responses;
+    }
+
+
+    /**
+     * Private constructor for creating batch responses.
+     *
+     * @param success Whether the batch was accepted
+     * @param error Error message if unsuccessful
+     * @param responses Responses of the sub-requests
+     */
+    private BatchResponse(boolean success, String error, List<Response> responses) {
+        super("batch", success, error);
+        this.responses = responses;
+    }
+
+
+    /**
+     * Creates a successful batch response.
+     *
+     * @param responses One response per sub-request, in request order
+     * @return Instance with success=true and error=null
+     * @throws IllegalArgumentException if responses is null
+     */
+    public static BatchResponse success(List<Response> responses) {
+        if (responses == null) {
+            throw new IllegalArgumentException("responses cannot be null");
+        }
+
+        return new BatchResponse(true, null, responses);
+    }
+
+
+    /**
+     * Creates an error batch response, sent when the batch itself is
+     * rejected and none of its sub-requests ran.
+     *
+     * @param errorMsg Descriptive error message
+     * @return Instance with success=false, error=errorMsg and responses=null
+     * @throws IllegalArgumentException if errorMsg is null or empty
+     */
+    public static BatchResponse error(String errorMsg) {
+        if (errorMsg == null || errorMsg.trim().isEmpty()) {
+            throw new IllegalArgumentException("Error message must be provided");
+        }
+
+        return new BatchResponse(false, errorMsg, null);
+    }
+
+
+    /**
+     * Gets the sub-responses.
+     *
+     * @return Responses in request order, or null if the batch was rejected
+     */
+    public List<Response> getResponses() { return this.responses; }
+}
@@ -1,8 +1,12 @@
 package com.nicholasTropea.game.net.responses;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.List;
 
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
 
 /**
@@ -58,6 +62,68 @@ public class GameInfoResponse extends Response {
     private final Integer score;
 
 
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<GameInfoResponse> JSON =
+        new MessageAdapter<>("requestGameInfo") {
+            @Override
+            public GameInfoResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                boolean active = false;
+                Long timeLeft = null;
+                List<String> wordsLeft = null;
+                List<List<String>> solution = null;
+                List<List<String>> guessedGroups = null;
+                Integer errors = null;
+                Integer score = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "active" -> active = Boolean.TRUE.equals(nextBoolean(in));
+                        case "timeLeft" -> timeLeft = nextLong(in);
+                        case "wordsLeft" -> wordsLeft = nextStrings(in);
+                        case "solution" -> solution = nextGroups(in);
+                        case "guessedGroups" -> guessedGroups = nextGroups(in);
+                        case "errors" -> errors = nextInteger(in);
+                        case "score" -> score = nextInteger(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(
+                    new GameInfoResponse(
+                        success,
+                        error,
+                        active,
+                        timeLeft,
+                        wordsLeft,
+                        solution,
+                        guessedGroups,
+                        errors,
+                        score
+                    ),
+                    id
+                );
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, GameInfoResponse resp) throws IOException {
+                writeStatus(out, resp);
+                out.name("active").value(resp.active);
+                out.name("timeLeft").value(resp.timeLeft);
+                writeStrings(out, "wordsLeft", resp.wordsLeft);
+                writeGroups(out, "solution", resp.solution);
+                writeGroups(out, "guessedGroups", resp.guessedGroups);
+                out.name("errors").value(resp.errors);
+                out.name("score").value(resp.score);
+            }
+        };
+
+
     /**
      * Private constructor for creating game info responses.
      *
@@ -1,7 +1,11 @@
 package com.nicholasTropea.game.net.responses;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
+import java.io.IOException;
 
 /**
  * Response to a {@link GameStatsRequest}.
@@ -54,6 +58,68 @@ public class GameStatsResponse extends Response {
     private final Float averageScore;
 
 
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<GameStatsResponse> JSON =
+        new MessageAdapter<>("requestGameStats") {
+            @Override
+            public GameStatsResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                boolean active = false;
+                Long timeLeft = null;
+                Integer activePlayers = null;
+                Integer finishedPlayers = null;
+                Integer wonPlayers = null;
+                Integer totalPlayers = null;
+                Float averageScore = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "active" -> active = Boolean.TRUE.equals(nextBoolean(in));
+                        case "timeLeft" -> timeLeft = nextLong(in);
+                        case "activePlayers" -> activePlayers = nextInteger(in);
+                        case "finishedPlayers" -> finishedPlayers = nextInteger(in);
+                        case "wonPlayers" -> wonPlayers = nextInteger(in);
+                        case "totalPlayers" -> totalPlayers = nextInteger(in);
+                        case "averageScore" -> averageScore = nextFloat(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(
+                    new GameStatsResponse(
+                        success,
+                        error,
+                        active,
+                        timeLeft,
+                        activePlayers,
+                        finishedPlayers,
+                        wonPlayers,
+                        totalPlayers,
+                        averageScore
+                    ),
+                    id
+                );
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, GameStatsResponse resp) throws IOException {
+                writeStatus(out, resp);
+                out.name("active").value(resp.active);
+                out.name("timeLeft").value(resp.timeLeft);
+                out.name("activePlayers").value(resp.activePlayers);
+                out.name("finishedPlayers").value(resp.finishedPlayers);
+                out.name("wonPlayers").value(resp.wonPlayers);
+                out.name("totalPlayers").value(resp.totalPlayers);
+                out.name("averageScore").value(resp.averageScore);
+            }
+        };
+
+
     /**
      * Private constructor for creating game stats responses.
      *
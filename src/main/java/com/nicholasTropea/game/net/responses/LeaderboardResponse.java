@@ -1,9 +1,15 @@
 package com.nicholasTropea.game.net.responses;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.nicholasTropea.game.model.LeaderboardRecord;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
 
 /**
@@ -27,6 +33,93 @@ public class LeaderboardResponse extends Response {
     private final List<LeaderboardRecord> records;
 
 
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<LeaderboardResponse> JSON =
+        new MessageAdapter<>("requestLeaderboard") {
+            @Override
+            public LeaderboardResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                List<LeaderboardRecord> records = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "records" -> records = nextRecords(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new LeaderboardResponse(success, error, records), id);
+            }
+
+            @Override
+            protected void writeFields(
+                JsonWriter out,
+                LeaderboardResponse resp
+            ) throws IOException {
+                writeStatus(out, resp);
+                writeRecords(out, resp.records);
+            }
+        };
+
+
+    private static List<LeaderboardRecord> nextRecords(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<LeaderboardRecord> records = new ArrayList<>();
+
+        in.beginArray();
+        while (in.hasNext()) {
+            String username = null;
+            int position = 0;
+            int points = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "username" -> username = in.nextString();
+                    case "position" -> position = in.nextInt();
+                    case "points" -> points = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            records.add(new LeaderboardRecord(username, position, points));
+        }
+        in.endArray();
+
+        return records;
+    }
+
+
+    private static void writeRecords(
+        JsonWriter out,
+        List<LeaderboardRecord> records
+    ) throws IOException {
+        if (records == null) {
+            return;
+        }
+
+        out.name("records").beginArray();
+        for (LeaderboardRecord record : records) {
+            out.beginObject();
+            out.name("username").value(record.getUsername());
+            out.name("position").value(record.getPosition());
+            out.name("points").value(record.getPoints());
+            out.endObject();
+        }
+        out.endArray();
+    }
+
+
     /**
      * Private constructor for creating leaderboard responses.
      *
@@ -1,8 +1,12 @@
 package com.nicholasTropea.game.net.responses;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.List;
 
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
 
 /**
@@ -53,6 +57,64 @@ public class LoginResponse extends Response {
     private final Integer score;
 
 
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<LoginResponse> JSON =
+        new MessageAdapter<>("login") {
+            @Override
+            public LoginResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                Integer gameId = null;
+                List<String> words = null;
+                List<List<String>> guessedGroups = null;
+                Long timeLeft = null;
+                Integer errors = null;
+                Integer score = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "gameId" -> gameId = nextInteger(in);
+                        case "words" -> words = nextStrings(in);
+                        case "guessedGroups" -> guessedGroups = nextGroups(in);
+                        case "timeLeft" -> timeLeft = nextLong(in);
+                        case "errors" -> errors = nextInteger(in);
+                        case "score" -> score = nextInteger(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(
+                    new LoginResponse(
+                        success,
+                        error,
+                        gameId,
+                        words,
+                        guessedGroups,
+                        timeLeft,
+                        errors,
+                        score
+                    ),
+                    id
+                );
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, LoginResponse resp) throws IOException {
+                writeStatus(out, resp);
+                out.name("gameId").value(resp.gameId);
+                writeStrings(out, "words", resp.words);
+                writeGroups(out, "guessedGroups", resp.guessedGroups);
+                out.name("timeLeft").value(resp.timeLeft);
+                out.name("errors").value(resp.errors);
+                out.name("score").value(resp.score);
+            }
+        };
+
+
     /**
      * Private constructor for creating login responses.
      *
@@ -1,6 +1,10 @@
 package com.nicholasTropea.game.net.responses;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
+import java.io.IOException;
 
 /**
  * Response to a {@link LogoutRequest}.
@@ -16,6 +20,32 @@ import com.nicholasTropea.game.net.Response;
  * Possible errors: "user not logged in"
  */
 public class LogoutResponse extends Response {
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<LogoutResponse> JSON =
+        new MessageAdapter<>("logout") {
+            @Override
+            public LogoutResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new LogoutResponse(success, error), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, LogoutResponse resp) throws IOException {
+                writeStatus(out, resp);
+            }
+        };
 
 
     /**
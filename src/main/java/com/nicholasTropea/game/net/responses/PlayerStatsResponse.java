@@ -1,8 +1,13 @@
 package com.nicholasTropea.game.net.responses;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.nicholasTropea.game.model.MistakeHistogram;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
+import java.io.IOException;
 
 /**
  * Response to a {@link PlayerStatsRequest}.
@@ -65,6 +70,135 @@ public class PlayerStatsResponse extends Response {
     private final MistakeHistogram histogram;
 
 
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<PlayerStatsResponse> JSON =
+        new MessageAdapter<>("requestPlayerStats") {
+            @Override
+            public PlayerStatsResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                Integer solved = null;
+                Integer failed = null;
+                Integer unfinished = null;
+                Integer perfect = null;
+                Float winRate = null;
+                Float lossRate = null;
+                Integer currentStreak = null;
+                Integer maxStreak = null;
+                MistakeHistogram histogram = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "solvedPuzzles" -> solved = nextInteger(in);
+                        case "failedPuzzles" -> failed = nextInteger(in);
+                        case "unfinishedPuzzles" -> unfinished = nextInteger(in);
+                        case "perfectPuzzles" -> perfect = nextInteger(in);
+                        case "winRate" -> winRate = nextFloat(in);
+                        case "lossRate" -> lossRate = nextFloat(in);
+                        case "currentStreak" -> currentStreak = nextInteger(in);
+                        case "maxStreak" -> maxStreak = nextInteger(in);
+                        case "histogram" -> histogram = nextHistogram(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(
+                    new PlayerStatsResponse(
+                        success,
+                        error,
+                        solved,
+                        failed,
+                        unfinished,
+                        perfect,
+                        winRate,
+                        lossRate,
+                        currentStreak,
+                        maxStreak,
+                        histogram
+                    ),
+                    id
+                );
+            }
+
+            @Override
+            protected void writeFields(
+                JsonWriter out,
+                PlayerStatsResponse resp
+            ) throws IOException {
+                writeStatus(out, resp);
+                out.name("solvedPuzzles").value(resp.solved);
+                out.name("failedPuzzles").value(resp.failed);
+                out.name("unfinishedPuzzles").value(resp.unfinished);
+                out.name("perfectPuzzles").value(resp.perfect);
+                out.name("winRate").value(resp.winRate);
+                out.name("lossRate").value(resp.lossRate);
+                out.name("currentStreak").value(resp.currentStreak);
+                out.name("maxStreak").value(resp.maxStreak);
+                writeHistogram(out, resp.histogram);
+            }
+        };
+
+
+    /** Reads a histogram in its {@code {"values": {label: count}}} form. */
+    private static MistakeHistogram nextHistogram(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        int[] counts = new int[MistakeHistogram.LABELS.size()];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals("values")) {
+                in.skipValue();
+                continue;
+            }
+
+            in.beginObject();
+            while (in.hasNext()) {
+                int bucket = MistakeHistogram.LABELS.indexOf(in.nextName());
+                if (bucket >= 0) {
+                    counts[bucket] = in.nextInt();
+                }
+                else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+        in.endObject();
+
+        return new MistakeHistogram(
+            counts[0], counts[1], counts[2], counts[3], counts[4], counts[5]
+        );
+    }
+
+
+    private static void writeHistogram(
+        JsonWriter out,
+        MistakeHistogram histogram
+    ) throws IOException {
+        if (histogram == null) {
+            return;
+        }
+
+        int[] counts = histogram.getCounts();
+
+        out.name("histogram").beginObject();
+        out.name("values").beginObject();
+        for (int i = 0; i < counts.length; i++) {
+            out.name(MistakeHistogram.LABELS.get(i)).value(counts[i]);
+        }
+        out.endObject();
+        out.endObject();
+    }
+
+
     /**
      * Private constructor for creating player stats responses.
      *
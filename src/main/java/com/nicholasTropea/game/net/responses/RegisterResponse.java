@@ -1,6 +1,10 @@
 package com.nicholasTropea.game.net.responses;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
+import java.io.IOException;
 
 /**
  * Response to a {@link RegisterRequest}.
@@ -18,6 +22,32 @@ import com.nicholasTropea.game.net.Response;
  * @see LoginResponse for the login format
  */
 public class RegisterResponse extends Response {
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<RegisterResponse> JSON =
+        new MessageAdapter<>("register") {
+            @Override
+            public RegisterResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new RegisterResponse(success, error), id);
+            }
+
+            @Override
+            protected void writeFields(JsonWriter out, RegisterResponse resp) throws IOException {
+                writeStatus(out, resp);
+            }
+        };
 
 
     /**
@@ -1,7 +1,11 @@
 package com.nicholasTropea.game.net.responses;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
+import java.io.IOException;
 
 /**
  * Response to a {@link SubmitProposalRequest}.
@@ -29,6 +33,43 @@ public class SubmitProposalResponse extends Response {
     private final String groupName;
 
 
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<SubmitProposalResponse> JSON =
+        new MessageAdapter<>("submitProposal") {
+            @Override
+            public SubmitProposalResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+                Boolean result = null;
+                String groupName = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "result" -> result = nextBoolean(in);
+                        case "groupName" -> groupName = nextString(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new SubmitProposalResponse(success, error, result, groupName), id);
+            }
+
+            @Override
+            protected void writeFields(
+                JsonWriter out,
+                SubmitProposalResponse resp
+            ) throws IOException {
+                writeStatus(out, resp);
+                out.name("result").value(resp.result);
+                out.name("groupName").value(resp.groupName);
+            }
+        };
+
+
     /**
      * Private constructor for creating submit proposal responses.
      *
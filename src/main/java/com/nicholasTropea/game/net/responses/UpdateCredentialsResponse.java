@@ -1,6 +1,10 @@
 package com.nicholasTropea.game.net.responses;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nicholasTropea.game.net.MessageAdapter;
 import com.nicholasTropea.game.net.Response;
+import java.io.IOException;
 
 /**
  * Response to an {@link UpdateCredentialsRequest}.
@@ -16,6 +20,35 @@ import com.nicholasTropea.game.net.Response;
  * Possible errors: "oldPsw not valid", "user not found", "newName already registered"
  */
 public class UpdateCredentialsResponse extends Response {
+    /** Streaming JSON codec. */
+    public static final MessageAdapter<UpdateCredentialsResponse> JSON =
+        new MessageAdapter<>("updateCredentials") {
+            @Override
+            public UpdateCredentialsResponse readFields(JsonReader in) throws IOException {
+                Integer id = null;
+                boolean success = false;
+                String error = null;
+
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "success" -> success = Boolean.TRUE.equals(nextBoolean(in));
+                        case "error" -> error = nextString(in);
+                        case "id" -> id = nextInteger(in);
+                        default -> in.skipValue();
+                    }
+                }
+
+                return withId(new UpdateCredentialsResponse(success, error), id);
+            }
+
+            @Override
+            protected void writeFields(
+                JsonWriter out,
+                UpdateCredentialsResponse resp
+            ) throws IOException {
+                writeStatus(out, resp);
+            }
+        };
 
 
     /**
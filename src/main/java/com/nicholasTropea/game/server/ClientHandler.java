@@ -1,33 +1,46 @@
 package com.nicholasTropea.game.server;
 
+import java.net.InetAddress;
 import java.net.Socket;
 
 import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.BufferedReader;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
+import com.nicholasTropea.game.net.BinaryProtocol;
 import com.nicholasTropea.game.net.Request;
 import com.nicholasTropea.game.net.Response;
-import com.nicholasTropea.game.net.RequestDeserializer;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
 
 import com.nicholasTropea.game.net.requests.*;
 import com.nicholasTropea.game.net.responses.*;
 
-import com.nicholasTropea.game.model.Game;
 import com.nicholasTropea.game.model.LeaderboardRecord;
 import com.nicholasTropea.game.model.MistakeHistogram;
 import com.nicholasTropea.game.model.Player;
@@ -38,12 +51,45 @@ import com.nicholasTropea.game.model.PlayerGameState;
  * Handles communication with a single connected client.
  * 
  * Parses incoming JSON messages and sends responses.
- * Each instance runs in a separate thread from the
- * {@link NetworkManager} pool.
+ * In classic mode each instance runs in a separate thread from the
+ * {@link NetworkManager} pool; in non-blocking mode the
+ * {@link NioNetworkManager} decodes lines through {@link #decodeLine(String)},
+ * or frames through {@link #decodeFrame(byte[])} on connections that
+ * negotiated the {@link BinaryProtocol}, and hands the requests to
+ * {@link #dispatch} instead.
+ *
+ * <p>Requests of one connection go through a {@link RequestPipeline}.
+ * Read-only requests the client tagged with an id ({@link #SHARED_OPERATIONS})
+ * may run concurrently and answer out of order; everything else runs alone,
+ * in arrival order, exactly as before pipelining.
+ *
+ * <p>Game info and stats about games that left the rotation are answered
+ * from the shared {@link ResponseCache}; handlers that change a player's
+ * state invalidate it when that state belongs to such a game.
  * 
  * @author Nicholas Riccardo Tropea
  */
 public class ClientHandler implements Runnable {
+    /** Streaming codec for responses, usable with an explicit correlation id. */
+    private static final ResponseTypeAdapter RESPONSES = new ResponseTypeAdapter();
+
+    /** Shared streaming JSON codec for the newline-delimited protocol (thread-safe). */
+    static final Gson GSON = new GsonBuilder()
+        .registerTypeHierarchyAdapter(Request.class, new RequestTypeAdapter())
+        .registerTypeHierarchyAdapter(Response.class, RESPONSES)
+        .create();
+
+    /** Largest accepted binary request frame. */
+    static final int MAX_FRAME_BYTES = 64 * 1024;
+
+    /** Operations that only read state and may overlap when tagged with an id. */
+    static final Set<String> SHARED_OPERATIONS = Set.of(
+        "requestGameInfo",
+        "requestGameStats",
+        "requestLeaderboard",
+        "requestPlayerStats"
+    );
+
     /** Shared repository for registered player persistence. */
     private final PlayerRepository playerRepository;
 
@@ -59,24 +105,105 @@ public class ClientHandler implements Runnable {
     /** Service used to register async UDP notification endpoints. */
     private final UdpNotificationService udpNotificationService;
 
-    /** TCP socket of the connected client. */
-    private Socket clientSocket;
+    /** Shared global ranking updated on every score change. */
+    private final LeaderboardIndex leaderboardIndex;
+
+    /** Shared cache of responses about games that left the rotation. */
+    private final ResponseCache responseCache;
+
+    /** TCP socket of the connected client (null in non-blocking mode). */
+    private final Socket clientSocket;
+
+    /** Remote address of the connected client. */
+    private final InetAddress clientAddress;
 
     /** User ID of the currently logged-in player (null if not logged in). */
     private Integer loggedInUserId;
 
-    /** Operation handlers registry keyed by request operation. */
-    private final Map<String, Function<Request, Response>> handlers;
+    /**
+     * Operation handlers registry keyed by request operation. Handlers get
+     * the scope of the request, shared by all sub-requests of a batch.
+     */
+    private final Map<String, BiFunction<Request, RequestScope, Response>> handlers;
+
+    /** Orders this connection's requests, overlapping only shared ones. */
+    private final RequestPipeline pipeline;
+
+    /**
+     * Serializes reply writes of the blocking transport. A lock rather than
+     * a monitor, so a virtual thread blocked on a slow reader unmounts.
+     */
+    private final ReentrantLock writeLock;
 
 
     /**
      * Creates a handler for the specified client.
+     *
+     * <p>Pipelined read-only requests run on the connection thread, one
+     * after the other.
      * 
      * @param clientSocket Socket of the newly accepted client
      * @param runtime Shared server runtime dependencies
      */
     public ClientHandler(Socket clientSocket, ServerRuntime runtime) {
+        this(clientSocket, runtime, Runnable::run);
+    }
+
+
+    /**
+     * Creates a handler for the specified client.
+     *
+     * @param clientSocket Socket of the newly accepted client
+     * @param runtime Shared server runtime dependencies
+     * @param executor runs pipelined read-only requests concurrently
+     */
+    public ClientHandler(Socket clientSocket, ServerRuntime runtime, Executor executor) {
+        this(clientSocket, clientSocket.getInetAddress(), runtime, executor, () -> { });
+    }
+
+
+    /**
+     * Creates a socket-less handler driven by a non-blocking event loop.
+     *
+     * @param clientAddress remote address of the connected client
+     * @param runtime Shared server runtime dependencies
+     * @param executor runs pipelined read-only requests concurrently
+     * @param onCapacity called when a full pipeline accepts requests again,
+     *        see {@link #hasCapacity()}
+     */
+    ClientHandler(
+        InetAddress clientAddress,
+        ServerRuntime runtime,
+        Executor executor,
+        Runnable onCapacity
+    ) {
+        this(null, clientAddress, runtime, executor, onCapacity);
+    }
+
+
+    /**
+     * Creates a handler bound to the given transport.
+     *
+     * @param clientSocket blocking socket, or null for non-blocking mode
+     * @param clientAddress remote address of the connected client
+     * @param runtime Shared server runtime dependencies
+     * @param executor runs pipelined read-only requests concurrently
+     * @param onCapacity called when a full pipeline accepts requests again
+     */
+    private ClientHandler(
+        Socket clientSocket,
+        InetAddress clientAddress,
+        ServerRuntime runtime,
+        Executor executor,
+        Runnable onCapacity
+    ) {
         this.clientSocket = clientSocket;
+        this.pipeline = new RequestPipeline(executor, onCapacity);
+        this.writeLock = new ReentrantLock();
+        this.clientAddress = Objects.requireNonNull(
+            clientAddress,
+            "clientAddress is required"
+        );
 
         this.playerRepository = Objects.requireNonNull(
             runtime,
@@ -87,6 +214,8 @@ public class ClientHandler implements Runnable {
         this.sessionManager = runtime.getSessionManager();
         this.gameRoundCoordinator = runtime.getGameRoundCoordinator();
         this.udpNotificationService = runtime.getUdpNotificationService();
+        this.leaderboardIndex = runtime.getLeaderboardIndex();
+        this.responseCache = runtime.getResponseCache();
         this.loggedInUserId = null;
 
         this.handlers = new HashMap<>();
@@ -96,83 +225,72 @@ public class ClientHandler implements Runnable {
 
     /** Registers operation handlers in a command-style registry. */
     private void registerHandlers() {
-        handlers.put("login", req -> handleLogin((LoginRequest) req));
-        handlers.put("logout", req -> handleLogout((LogoutRequest) req));
-        handlers.put("register", req -> handleRegister((RegisterRequest) req));
-        handlers.put("requestGameInfo", req -> handleGameInfo((GameInfoRequest) req));
-        handlers.put("requestGameStats", req -> handleGameStats((GameStatsRequest) req));
+        handlers.put("login", (req, scope) -> handleLogin((LoginRequest) req, scope));
+        handlers.put("logout", (req, scope) -> handleLogout((LogoutRequest) req));
+        handlers.put("register", (req, scope) -> handleRegister((RegisterRequest) req));
+        handlers.put(
+            "requestGameInfo",
+            (req, scope) -> handleGameInfo((GameInfoRequest) req, scope)
+        );
+        handlers.put(
+            "requestGameStats",
+            (req, scope) -> handleGameStats((GameStatsRequest) req, scope)
+        );
         handlers.put(
             "requestLeaderboard",
-            req -> handleLeaderboard((LeaderboardRequest) req)
+            (req, scope) -> handleLeaderboard((LeaderboardRequest) req)
         );
         handlers.put(
             "requestPlayerStats",
-            req -> handlePlayerStats((PlayerStatsRequest) req)
+            (req, scope) -> handlePlayerStats((PlayerStatsRequest) req)
         );
         handlers.put(
             "submitProposal",
-            req -> handleSubmitProposal((SubmitProposalRequest) req)
+            (req, scope) -> handleSubmitProposal((SubmitProposalRequest) req, scope)
         );
         handlers.put(
             "updateCredentials",
-            req -> handleUpdateCredentials((UpdateCredentialsRequest) req)
+            (req, scope) -> handleUpdateCredentials((UpdateCredentialsRequest) req)
         );
+        handlers.put("batch", (req, scope) -> handleBatch((BatchRequest) req, scope));
     }
 
 
     /**
      * Manages the lifecycle of the connection with the client.
      * 
-     * Reads JSON messages in a loop until disconnection and
-     * sends appropriate responses.
+     * Detects the wire protocol from the first byte, then reads requests in
+     * a loop until disconnection and sends appropriate responses.
      */
     @Override
     public void run() {
+        if (this.clientSocket == null) {
+            throw new IllegalStateException("handler has no blocking socket");
+        }
+
         System.out.println("\n" + "-".repeat(60));
-        System.out.println("New client connected: " + clientSocket.getInetAddress());
+        System.out.println("New client connected: " + this.clientAddress);
         
         try (
-            BufferedReader in = new BufferedReader(
-                new InputStreamReader(clientSocket.getInputStream())
-            );
-            PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)
+            BufferedInputStream in = new BufferedInputStream(clientSocket.getInputStream());
+            OutputStream out = clientSocket.getOutputStream()
         ) {
-            Gson gson = new GsonBuilder()
-                        .registerTypeAdapter(Request.class, new RequestDeserializer())
-                        .create();
-
-            String line;
-            
-            while ((line = in.readLine()) != null) {
-                try {
-                    Request req = gson.fromJson(line, Request.class);
-                    if (req == null) {
-                        System.err.println("Received null request after JSON parsing.");
-                        break;
-                    }
-
-                    Response resp = handleRequest(req);
-                    String jsonResp = gson.toJson(resp);
-                    out.println(jsonResp);
-                }
-                catch (RuntimeException ex) {
-                    System.err.println(
-                        "Protocol/processing error for client "
-                        + clientSocket.getInetAddress()
-                        + ": "
-                        + ex.getMessage()
-                    );
-                    
-                    break;
-                }
-            }
-
-            System.out.println("Client disconnected: " + clientSocket.getInetAddress());
+            in.mark(1);
+            int first = in.read();
+            in.reset();
 
-            if (this.loggedInUserId != null) {
-                this.udpNotificationService.unregisterEndpoint(this.loggedInUserId);
-                this.sessionManager.removeSession(this.loggedInUserId);
-                this.loggedInUserId = null;
+            try {
+                if (BinaryProtocol.isPrefaceStart(first)) { serveFrames(in, out); }
+                else if (first >= 0) { serveLines(in, out); }
+            }
+            catch (RuntimeException ex) { reportProtocolError(ex); }
+            finally {
+                // Let pipelined requests answer before the streams close
+                try { this.pipeline.awaitIdle(); }
+                catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+
+                System.out.println("Client disconnected: " + this.clientAddress);
+                handleDisconnect();
             }
         }
         catch (IOException e) { 
@@ -181,21 +299,366 @@ public class ClientHandler implements Runnable {
     }
 
 
+    /**
+     * Serves newline-delimited JSON requests.
+     *
+     * @param in buffered connection input
+     * @param out connection output
+     * @throws IOException on transport failure
+     */
+    private void serveLines(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(in, StandardCharsets.UTF_8)
+        );
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            Request req = decodeLine(line);
+            if (req == null) { break; }
+
+            awaitCapacity();
+            dispatch(req, reply -> send(out, reply.line()), this::abort);
+        }
+    }
+
+
+    /**
+     * Acknowledges the binary preface, then serves binary frames.
+     *
+     * @param in buffered connection input
+     * @param out connection output
+     * @throws IOException on transport failure
+     */
+    private void serveFrames(InputStream in, OutputStream out) throws IOException {
+        out.write(BinaryProtocol.acknowledge(in.readNBytes(BinaryProtocol.PREFACE.length)));
+        out.flush();
+
+        byte[] payload;
+        while ((payload = BinaryProtocol.readFrame(in, MAX_FRAME_BYTES)) != null) {
+            Request req = decodeFrame(payload);
+
+            awaitCapacity();
+            dispatch(req, reply -> send(out, reply.frame()), this::abort);
+        }
+    }
+
+
+    /**
+     * Writes one encoded reply, closing the connection if the write fails.
+     *
+     * @param out connection output, shared by concurrent replies
+     * @param bytes complete JSON line or frame
+     */
+    private void send(OutputStream out, byte[] bytes) {
+        this.writeLock.lock();
+        try {
+            out.write(bytes);
+            out.flush();
+        }
+        catch (IOException ex) { closeSocket(); }
+        finally { this.writeLock.unlock(); }
+    }
+
+
+    /**
+     * Blocks the reading thread while the pipeline is full.
+     *
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    private void awaitCapacity() throws InterruptedIOException {
+        try { this.pipeline.awaitCapacity(); }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for pipeline capacity");
+        }
+    }
+
+
+    /**
+     * Logs a failed request and closes the blocking connection.
+     *
+     * @param ex failure raised while handling the request
+     */
+    private void abort(RuntimeException ex) {
+        reportProtocolError(ex);
+        closeSocket();
+    }
+
+
+    private void reportProtocolError(RuntimeException ex) {
+        System.err.println(
+            "Protocol/processing error for client "
+            + this.clientAddress
+            + ": "
+            + ex.getMessage()
+        );
+    }
+
+
+    private void closeSocket() {
+        try { this.clientSocket.close(); }
+        catch (IOException ignored) {
+            // Connection is being discarded anyway
+        }
+    }
+
+
+    /**
+     * Decodes one protocol line.
+     *
+     * @param line newline-stripped JSON request
+     * @return decoded request, or null if the connection should be closed
+     * @throws RuntimeException if the line is malformed
+     */
+    Request decodeLine(String line) {
+        Request req = GSON.fromJson(line, Request.class);
+        if (req == null) {
+            System.err.println("Received null request after JSON parsing.");
+        }
+
+        return req;
+    }
+
+
+    /**
+     * Decodes one binary request frame.
+     *
+     * @param payload frame content without the length prefix
+     * @return decoded request
+     * @throws RuntimeException if the frame is malformed
+     */
+    Request decodeFrame(byte[] payload) {
+        return BinaryProtocol.decodeRequest(payload);
+    }
+
+
+    /**
+     * Encodes a reply for the newline-delimited protocol.
+     *
+     * @param resp response to encode
+     * @param id correlation id to write instead of the response's own
+     * @return newline-terminated UTF-8 JSON
+     */
+    static byte[] encodeLine(Response resp, Integer id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+
+        try {
+            // Encoded straight to UTF-8, with no buffer outliving the call
+            Writer utf8 = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+            JsonWriter json = GSON.newJsonWriter(utf8);
+            RESPONSES.write(json, resp, id);
+            json.flush();
+            utf8.write('\n');
+            utf8.flush();
+        }
+        catch (IOException ex) { throw new UncheckedIOException(ex); }
+
+        return bytes.toByteArray();
+    }
+
+
+    /**
+     * Schedules a request behind the ones received before it.
+     *
+     * <p>Tagged read-only requests may run concurrently with each other on
+     * the handler's executor; any other request runs alone once all earlier
+     * ones have finished, often on the calling thread.
+     *
+     * @param req decoded request
+     * @param reply receives the response with the request id
+     * @param failure receives the error if the request cannot be handled
+     */
+    void dispatch(Request req, Consumer<Reply> reply, Consumer<RuntimeException> failure) {
+        this.pipeline.submit(
+            () -> {
+                Reply resp;
+                try { resp = handleRequest(req); }
+                catch (RuntimeException ex) {
+                    failure.accept(ex);
+                    return;
+                }
+
+                reply.accept(resp);
+            },
+            isShared(req)
+        );
+    }
+
+
+    /**
+     * Lets an event loop hold requests back instead of queueing them without
+     * bound. Once this returned false, the handler's {@code onCapacity}
+     * callback runs when requests may be dispatched again.
+     *
+     * @return true if {@link #dispatch} may be called without growing a full
+     *         pipeline
+     */
+    boolean hasCapacity() { return this.pipeline.hasCapacity(); }
+
+
+    /**
+     * Releases the session once every request dispatched so far has finished.
+     */
+    void release() {
+        this.pipeline.submit(this::handleDisconnect, false);
+    }
+
+
+    /**
+     * @param req decoded request
+     * @return true if the request may run concurrently with other shared
+     *         ones: a tagged read-only request, or a tagged batch of them
+     */
+    static boolean isShared(Request req) {
+        if (req.getId() == null) { return false; }
+
+        if (req instanceof BatchRequest batch) {
+            return batch.getRequests() != null
+                && batch.getRequests().stream().allMatch(
+                    sub -> sub != null && SHARED_OPERATIONS.contains(sub.getOperation())
+                );
+        }
+
+        return SHARED_OPERATIONS.contains(req.getOperation());
+    }
+
+
+    /**
+     * Releases the session bound to this connection on logout or disconnect.
+     *
+     * <p>Safe to call more than once.
+     */
+    private void handleDisconnect() {
+        if (this.loggedInUserId != null) {
+            this.udpNotificationService.unregisterEndpoint(this.loggedInUserId);
+            this.sessionManager.removeSession(this.loggedInUserId);
+            this.loggedInUserId = null;
+        }
+    }
+
+
     /**
      * Routes the request to the appropriate handler and returns its response.
      *
      * @param req the request to handle
      * @return the response produced by the matching request handler
      */
-    private Response handleRequest(Request req) {
-        Function<Request, Response> handler = handlers.get(req.getOperation());
+    private Reply handleRequest(Request req) {
+        return respond(req, new RequestScope(), req.getId());
+    }
+
+
+    /**
+     * Answers a request from the response cache when it asks about a game
+     * that left the rotation, running its handler otherwise. Successful
+     * answers about such games are cached for the next caller.
+     *
+     * @param req the request to handle
+     * @param scope round and session state of the request
+     * @param id correlation id of the reply, or null
+     * @return reply holding the response
+     */
+    private Reply respond(Request req, RequestScope scope, Integer id) {
+        Integer gameId = finishedGameOf(req, scope);
+        if (gameId == null) {
+            // Logins and current boards splice the round's pre-encoded words
+            boolean board = req instanceof LoginRequest || req instanceof GameInfoRequest;
+            return new Reply(
+                handlerFor(req).apply(req, scope),
+                id,
+                board ? scope.round.getBoard() : null
+            );
+        }
+
+        String operation = req.getOperation();
+        int userId = req instanceof GameInfoRequest ? this.loggedInUserId : ResponseCache.ANY_USER;
+
+        ResponseCache.Entry cached = this.responseCache.get(operation, gameId, userId);
+        if (cached == null) {
+            long generation = this.responseCache.generation(gameId);
+            Response resp = handlerFor(req).apply(req, scope);
+            if (!resp.isSuccess()) { return new Reply(resp, id, null); }
+
+            cached = this.responseCache.put(operation, gameId, userId, resp, generation);
+        }
+
+        return new Reply(cached, id);
+    }
+
+
+    /**
+     * @param req the request to handle
+     * @param scope round and session state of the request
+     * @return id of the game the request asks about if its response can be
+     *         cached, that is a logged-in game info or stats request about a
+     *         game other than the scope's round, otherwise null
+     */
+    private Integer finishedGameOf(Request req, RequestScope scope) {
+        if (this.loggedInUserId == null) { return null; }
+
+        Integer gameId = switch (req) {
+            case GameInfoRequest info -> info.isCurrent() ? null : info.getGameId();
+            case GameStatsRequest stats -> stats.isCurrent() ? null : stats.getGameId();
+            default -> null;
+        };
+
+        return gameId == null || gameId == scope.round.getGameId() ? null : gameId;
+    }
+
+
+    /**
+     * Drops cached responses about a game whose state just changed, unless
+     * the game is still in rotation and therefore not cached. Checked after
+     * the change, so a rotation racing with it is covered either here or by
+     * the round transition invalidation.
+     *
+     * @param gameId game of the changed state
+     */
+    private void stateChanged(int gameId) {
+        if (!this.gameRoundCoordinator.isCurrentGame(gameId)) {
+            this.responseCache.invalidate(gameId);
+        }
+    }
+
+
+    private BiFunction<Request, RequestScope, Response> handlerFor(Request req) {
+        BiFunction<Request, RequestScope, Response> handler = handlers.get(req.getOperation());
         if (handler == null) {
             throw new IllegalArgumentException(
                 "Unknown request operation: " + req.getOperation()
             );
         }
 
-        return handler.apply(req);
+        return handler;
+    }
+
+
+    /**
+     * Handles a batch by running its sub-requests in order.
+     *
+     * <p>All sub-requests share the caller's scope, so the current round and
+     * the player's session state are resolved once for the whole batch
+     * instead of once per operation, and a proposal is visible to the
+     * queries that follow it. A rejected sub-request does not stop the
+     * batch: its error response takes its slot.
+     *
+     * @param req the batch request
+     * @param scope round and session state shared by the sub-requests
+     * @return a BatchResponse with one response per sub-request, or an
+     *         error if the batch is empty, too large, or holds an operation
+     *         that cannot be batched
+     */
+    private BatchResponse handleBatch(BatchRequest req, RequestScope scope) {
+        List<Request> requests = req.getRequests();
+        String batchError = BatchRequest.validate(requests);
+        if (batchError != null) { return BatchResponse.error(batchError); }
+
+        List<Response> responses = new ArrayList<>(requests.size());
+        for (Request sub : requests) {
+            responses.add(respond(sub, scope, null).getResponse());
+        }
+
+        return BatchResponse.success(responses);
     }
 
 
@@ -209,12 +672,13 @@ public class ClientHandler implements Runnable {
      * or setup step fails, returns an error response describing the failure.
      *
      * @param req the login request containing credentials and UDP port
+     * @param scope round the player joins
      * @return a LoginResponse containing the initial player game state, or an
      *         error message if credentials are invalid, the connection is
-     *         already authenticated, the current game is unavailable, the UDP
-     *         port is missing, or login session setup fails
+     *         already authenticated, the UDP port is missing, or login
+     *         session setup fails
      */
-    private LoginResponse handleLogin(LoginRequest req) {
+    private LoginResponse handleLogin(LoginRequest req, RequestScope scope) {
         if (this.loggedInUserId != null) {
             return LoginResponse.error(
                 "user already logged in on this connection"
@@ -232,14 +696,10 @@ public class ClientHandler implements Runnable {
             return LoginResponse.error("username not found");
         }
 
-        Game game = this.gameRoundCoordinator.getCurrentGame();
-        if (game == null) {
-            return LoginResponse.error("active game not found");
-        }
-
+        GameRoundCoordinator.RoundState round = scope.round;
         int userId = player.getUserId();
-        int gameId = game.getId();
-        List<String> gameWords = extractWords(game);
+        int gameId = round.getGameId();
+        ProposalMatcher matcher = round.getMatcher();
         Integer udpPort = req.getUdpPort();
 
         if (udpPort == null) {
@@ -248,10 +708,10 @@ public class ClientHandler implements Runnable {
 
         String sessionError = this.sessionManager.openSessionForCurrentGame(
             userId,
-            gameId,
-            gameWords
+            gameId
         );
         if (sessionError != null) { return LoginResponse.error(sessionError); }
+        stateChanged(gameId);
 
         PlayerGameState gameState = this.sessionManager.getSession(userId);
         if (gameState == null) {
@@ -262,7 +722,7 @@ public class ClientHandler implements Runnable {
         try {
             this.udpNotificationService.registerEndpoint(
                 userId,
-                this.clientSocket.getInetAddress(),
+                this.clientAddress,
                 udpPort
             );
         }
@@ -274,32 +734,16 @@ public class ClientHandler implements Runnable {
         this.loggedInUserId = userId;
 
         return LoginResponse.success(
-            game.getId(),
-            gameState.getRemainingWords(),
-            gameState.getGuessedGroups(),
-            this.gameRoundCoordinator.getRemainingTimeMillis(),
+            gameId,
+            matcher.remainingWords(gameState),
+            matcher.guessedGroups(gameState),
+            round.getRemainingTimeMillis(),
             gameState.getErrorCount(),
             gameState.getScore()
         );
     }
 
 
-    /**
-     * Extracts all words from a game by flattening its groups.
-     *
-     * @param game game definition
-     * @return list of 16 words
-     */
-    private List<String> extractWords(Game game) {
-        List<String> words = new ArrayList<>();
-        for (Game.Group group : game.getGroups()) {
-            words.addAll(group.getWords());
-        }
-
-        return words;
-    }
-
-
     /**
      * Handles logout request by clearing the active client session.
      *
@@ -313,11 +757,7 @@ public class ClientHandler implements Runnable {
      *         successfully
      */
     private LogoutResponse handleLogout(LogoutRequest req) {
-        if (this.loggedInUserId != null) {
-            this.udpNotificationService.unregisterEndpoint(this.loggedInUserId);
-            this.sessionManager.removeSession(this.loggedInUserId);
-            this.loggedInUserId = null;
-        }
+        handleDisconnect();
 
         return LogoutResponse.success();
     }
@@ -345,6 +785,11 @@ public class ClientHandler implements Runnable {
             return RegisterResponse.error(registerError);
         }
 
+        Player player = this.playerRepository.getPlayerByUsername(req.getUsername());
+        if (player != null) {
+            this.leaderboardIndex.put(player.getUserId(), player.getNickname(), 0);
+        }
+
         return RegisterResponse.success();
     }
 
@@ -358,19 +803,20 @@ public class ClientHandler implements Runnable {
      * full solution with guessed groups, error count, and score.
      *
      * @param req the game info request containing current flag or game id
+     * @param scope round and session state of the request
      * @return a GameInfoResponse containing player-specific game details, or an
      *         error message if the user is not logged in, gameId is missing,
      *         requested game does not exist, or user did not play that game
      */
-    private GameInfoResponse handleGameInfo(GameInfoRequest req) {
+    private GameInfoResponse handleGameInfo(GameInfoRequest req, RequestScope scope) {
         if (this.loggedInUserId == null) {
             return GameInfoResponse.error("user not logged in");
         }
 
+        GameRoundCoordinator.RoundState round = scope.round;
+
         int requestedGameId;
-        if (req.isCurrent()) {
-            requestedGameId = this.gameRoundCoordinator.getCurrentGameId();
-        }
+        if (req.isCurrent()) { requestedGameId = round.getGameId(); }
         else {
             Integer gameId = req.getGameId();
             if (gameId == null) {
@@ -382,9 +828,11 @@ public class ClientHandler implements Runnable {
             requestedGameId = gameId;
         }
 
+        boolean isCurrentGame = round.getGameId() == requestedGameId;
+
         PlayerGameState gameState;
-        if (this.gameRoundCoordinator.isCurrentGame(requestedGameId)) {
-            gameState = getCurrentGameStateForLoggedUser();
+        if (isCurrentGame) {
+            gameState = scope.currentState();
         }
         else {
             gameState = this.sessionManager.getStateForGame(
@@ -399,25 +847,19 @@ public class ClientHandler implements Runnable {
             );
         }
 
-        boolean isActive = !gameState.isFinished();
-        boolean isCurrentGame = this.gameRoundCoordinator.isCurrentGame(requestedGameId);
-        List<List<String>> solution = null;
-
-        if (!isActive) {
-            Game game = this.gameRepository.getGameById(gameState.getGameId());
-            if (game != null) {
-                solution = game.getGroups().stream()
-                    .map(Game.Group::getWords)
-                    .collect(java.util.stream.Collectors.toList());
-            }
+        ProposalMatcher matcher = this.gameRepository.getMatcher(gameState.getGameId());
+        if (matcher == null) {
+            return GameInfoResponse.error("game not found");
         }
 
+        boolean isActive = !gameState.isFinished();
+
         return GameInfoResponse.success(
             isActive,
-            isCurrentGame ? this.gameRoundCoordinator.getRemainingTimeMillis() : null,
-            isActive ? gameState.getRemainingWords() : null,
-            solution,
-            gameState.getGuessedGroups(),
+            isCurrentGame ? round.getRemainingTimeMillis() : null,
+            isActive ? matcher.remainingWords(gameState) : null,
+            isActive ? null : matcher.getSolution(),
+            matcher.guessedGroups(gameState),
             gameState.getErrorCount(),
             gameState.getScore()
         );
@@ -433,19 +875,20 @@ public class ClientHandler implements Runnable {
      * while finished games return participant count and average score.
      *
      * @param req the game stats request containing current flag or game id
+     * @param scope round and session state of the request
      * @return a GameStatsResponse containing aggregated statistics, or an
      *         error message if the user is not logged in, gameId is missing,
      *         or the requested game does not exist
      */
-    private GameStatsResponse handleGameStats(GameStatsRequest req) {
+    private GameStatsResponse handleGameStats(GameStatsRequest req, RequestScope scope) {
         if (this.loggedInUserId == null) {
             return GameStatsResponse.error("user not logged in");
         }
 
+        GameRoundCoordinator.RoundState round = scope.round;
+
         int requestedGameId;
-        if (req.isCurrent()) {
-            requestedGameId = this.gameRoundCoordinator.getCurrentGameId();
-        }
+        if (req.isCurrent()) { requestedGameId = round.getGameId(); }
         else {
             Integer gameId = req.getGameId();
             if (gameId == null) {
@@ -459,12 +902,12 @@ public class ClientHandler implements Runnable {
 
         SessionManager.GameAggregates aggregates =
             this.sessionManager.getGameAggregates(requestedGameId);
-        boolean isActive = this.gameRoundCoordinator.isCurrentGame(requestedGameId);
+        boolean isActive = round.getGameId() == requestedGameId;
 
         if (isActive) {
             return GameStatsResponse.success(
                 true,
-                this.gameRoundCoordinator.getRemainingTimeMillis(),
+                round.getRemainingTimeMillis(),
                 aggregates.getActivePlayers(),
                 aggregates.getFinishedPlayers(),
                 aggregates.getWonPlayers(),
@@ -502,20 +945,26 @@ public class ClientHandler implements Runnable {
             return LeaderboardResponse.error("user not logged in");
         }
 
-        List<LeaderboardEntry> ranking = buildLeaderboardRanking();
-        if (ranking.isEmpty()) {
-            return LeaderboardResponse.success(List.of());
-        }
-
         if (req.getPlayerUsername() != null) {
-            return leaderboardForSinglePlayer(ranking, req.getPlayerUsername());
+            LeaderboardRecord record = this.leaderboardIndex.find(
+                req.getPlayerUsername()
+            );
+            if (record != null) { return LeaderboardResponse.success(List.of(record)); }
+
+            return this.leaderboardIndex.size() == 0
+                ? LeaderboardResponse.success(List.of())
+                : LeaderboardResponse.error("player not found");
         }
 
         if (req.getKTopPlayers() != null) {
-            return leaderboardForTopK(ranking, req.getKTopPlayers());
+            return LeaderboardResponse.success(
+                this.leaderboardIndex.top(req.getKTopPlayers())
+            );
         }
 
-        return LeaderboardResponse.success(toRecords(ranking));
+        return LeaderboardResponse.success(
+            this.leaderboardIndex.top(Integer.MAX_VALUE)
+        );
     }
 
 
@@ -531,77 +980,32 @@ public class ClientHandler implements Runnable {
             return PlayerStatsResponse.error("user not logged in");
         }
 
-        List<PlayerGameState> states = this.sessionManager.getStatesForUser(
-            this.loggedInUserId
-        );
-        if (states.isEmpty()) {
-            return PlayerStatsResponse.success(
-                0,
-                0,
-                0,
-                0,
-                0.0f,
-                0.0f,
-                0,
-                0,
-                new MistakeHistogram(0, 0, 0, 0, 0, 0)
-            );
-        }
+        PlayerSummary summary = this.sessionManager.getSummary(this.loggedInUserId);
 
-        int solved = 0;
-        int failed = 0;
-        int unfinished = 0;
-        int perfect = 0;
-        int win0 = 0;
-        int win1 = 0;
-        int win2 = 0;
-        int win3 = 0;
-
-        for (PlayerGameState state : states) {
-            switch (state.getFinalState()) {
-                case WON -> {
-                    solved++;
-                    int errors = state.getErrorCount();
-                    if (errors <= 0) {
-                        perfect++;
-                        win0++;
-                    }
-                    else if (errors == 1) { win1++; }
-                    else if (errors == 2) { win2++; }
-                    else { win3++; }
-                }
-                case LOST -> failed++;
-                case NOT_FINISHED -> unfinished++;
-                default -> {
-                    // exhaustive by enum, no-op fallback
-                }
-            }
-        }
-
-        int played = solved + failed + unfinished;
+        int solved = summary.getSolved();
+        int failed = summary.getFailed();
+        int played = summary.getPlayed();
         float winRate = played == 0 ? 0.0f : (solved * 100.0f) / played;
         float lossRate = played == 0 ? 0.0f : (failed * 100.0f) / played;
 
-        int currentStreak = computeCurrentWinStreak(states);
-        int maxStreak = computeMaxWinStreak(states);
         MistakeHistogram histogram = new MistakeHistogram(
-            win0,
-            win1,
-            win2,
-            win3,
+            summary.getWonWithNoErrors(),
+            summary.getWonWithOneError(),
+            summary.getWonWithTwoErrors(),
+            summary.getWonWithThreeErrors(),
             failed,
-            unfinished
+            summary.getUnfinished()
         );
 
         return PlayerStatsResponse.success(
             solved,
             failed,
-            unfinished,
-            perfect,
+            summary.getUnfinished(),
+            summary.getWonWithNoErrors(),
             winRate,
             lossRate,
-            currentStreak,
-            maxStreak,
+            summary.getCurrentStreak(),
+            summary.getMaxStreak(),
             histogram
         );
     }
@@ -616,11 +1020,15 @@ public class ClientHandler implements Runnable {
      * increments error count and checks for loss condition.
      *
      * @param req the submit proposal request containing the proposed words
+     * @param scope round and session state of the request
      * @return a SubmitProposalResponse indicating success, theme if correct,
      *         or error message if invalid
      */
-    private SubmitProposalResponse handleSubmitProposal(SubmitProposalRequest req) {
-        PlayerGameState gameState = getCurrentGameStateForLoggedUser();
+    private SubmitProposalResponse handleSubmitProposal(
+        SubmitProposalRequest req,
+        RequestScope scope
+    ) {
+        PlayerGameState gameState = scope.currentState();
         if (gameState == null) {
             return SubmitProposalResponse.error("user not logged in");
         }
@@ -629,42 +1037,42 @@ public class ClientHandler implements Runnable {
             return SubmitProposalResponse.error("game already finished");
         }
 
-        Game game = this.gameRepository.getGameById(gameState.getGameId());
-        if (game == null) {
+        ProposalMatcher matcher = this.gameRepository.getMatcher(gameState.getGameId());
+        if (matcher == null) {
             return SubmitProposalResponse.error("game not found");
         }
 
-        List<String> proposedWords = 
-            req.getWords().stream()
-                          .map(word -> word.trim().toUpperCase())
-                          .collect(java.util.stream.Collectors.toList());
-
-        String malformedError = validateProposal(gameState, game, proposedWords);
+        int proposalMask = matcher.proposalMask(req.getWords());
+        String malformedError =
+            validateProposal(proposalMask, gameState.getRemainingMask());
         if (malformedError != null) {
             return SubmitProposalResponse.error(malformedError);
         }
 
-        Game.Group matchedGroup = findMatchingGroup(game, proposedWords);
-
-        if (matchedGroup != null) {
-            gameState.removeWords(proposedWords);
-            gameState.addGuessedGroup(matchedGroup.getWords());
-            gameState.incrementCorrectProposals();
-            recalculateScore(gameState);
+        int matchedGroup = matcher.groupOf(proposalMask);
 
-            if (gameState.getCorrectProposals() >= 3) {
-                gameState.completeAsWon();
-            }
+        if (matchedGroup >= 0) {
+            int correctProposals = gameState.getCorrectProposals() + 1;
+            int scoreDelta = this.sessionManager.applyCorrectProposal(
+                gameState,
+                matchedGroup,
+                calculateScore(correctProposals, gameState.getErrorCount()),
+                correctProposals >= 3
+            );
+            this.leaderboardIndex.addScore(gameState.getUserId(), scoreDelta);
+            stateChanged(gameState.getGameId());
 
-            return SubmitProposalResponse.success(true, matchedGroup.getTheme());
+            return SubmitProposalResponse.success(true, matcher.getTheme(matchedGroup));
         }
 
-        gameState.incrementErrorCount();
-        recalculateScore(gameState);
-
-        if (gameState.getErrorCount() >= 4) {
-            gameState.completeAsLost();
-        }
+        int errors = gameState.getErrorCount() + 1;
+        int scoreDelta = this.sessionManager.applyWrongProposal(
+            gameState,
+            calculateScore(gameState.getCorrectProposals(), errors),
+            errors >= 4
+        );
+        this.leaderboardIndex.addScore(gameState.getUserId(), scoreDelta);
+        stateChanged(gameState.getGameId());
 
         return SubmitProposalResponse.success(false, null);
     }
@@ -677,51 +1085,22 @@ public class ClientHandler implements Runnable {
      * errors. A proposal is malformed if it has duplicated words, contains
      * words outside the game, or contains words already assigned to a group.
      *
-     * @param gameState player state for current game
-     * @param game current game definition
-     * @param proposedWords submitted words
+     * @param proposalMask result of {@link ProposalMatcher#proposalMask}
+     * @param remainingMask mask of the player's ungrouped words
      * @return null if valid, otherwise error message
      */
-    private String validateProposal(
-        PlayerGameState gameState,
-        Game game,
-        List<String> proposedWords
-    ) {
-        if (proposedWords == null || proposedWords.size() != 4) {
-            return "malformed proposal: exactly 4 words are required";
-        }
-
-        Set<String> uniqueWords = new HashSet<>(proposedWords);
-        if (uniqueWords.size() != 4) {
-            return "malformed proposal: duplicated words are not allowed";
-        }
-
-        Set<String> allGameWords = new HashSet<>(extractWords(game));
-        if (!allGameWords.containsAll(uniqueWords)) {
-            return "malformed proposal: words not in current game";
-        }
-
-        Set<String> remainingWords = new HashSet<>(gameState.getRemainingWords());
-        if (!remainingWords.containsAll(uniqueWords)) {
-            return "malformed proposal: one or more words already assigned";
-        }
-
-        return null;
-    }
-
-
-    /**
-     * Recomputes score from correct and wrong proposal counts.
-     *
-     * @param gameState state to update
-     */
-    private void recalculateScore(PlayerGameState gameState) {
-        int score = calculateScore(
-            gameState.getCorrectProposals(),
-            gameState.getErrorCount()
-        );
-
-        gameState.setScore(score);
+    static String validateProposal(int proposalMask, int remainingMask) {
+        return switch (proposalMask) {
+            case ProposalMatcher.WRONG_SIZE ->
+                "malformed proposal: exactly 4 words are required";
+            case ProposalMatcher.DUPLICATED_WORD ->
+                "malformed proposal: duplicated words are not allowed";
+            case ProposalMatcher.UNKNOWN_WORD ->
+                "malformed proposal: words not in current game";
+            default -> (proposalMask & ~remainingMask) != 0
+                ? "malformed proposal: one or more words already assigned"
+                : null;
+        };
     }
 
 
@@ -744,26 +1123,6 @@ public class ClientHandler implements Runnable {
     }
 
 
-    /**
-     * Finds a group that matches all proposed words.
-     *
-     * @param game game definition
-     * @param proposedWords words to match
-     * @return matching group or null if no match
-     */
-    private Game.Group findMatchingGroup(Game game, List<String> proposedWords) {
-        Set<String> proposedSet = new HashSet<>(proposedWords);
-
-        for (Game.Group group : game.getGroups()) {
-            Set<String> groupWords = new HashSet<>(group.getWords());
-
-            if (groupWords.equals(proposedSet)) { return group; }
-        }
-
-        return null;
-    }
-
-
     /** Handles update credentials request.
      * 
      * @param req the update credentials request containing the credential information
@@ -782,6 +1141,15 @@ public class ClientHandler implements Runnable {
         if (updateError != null) {
             return UpdateCredentialsResponse.error(updateError);
         }
+
+        if (!req.getNewUsername().isEmpty()) {
+            Player player = this.playerRepository.getPlayerByUsername(
+                req.getNewUsername()
+            );
+            if (player != null) {
+                this.leaderboardIndex.rename(player.getUserId(), player.getNickname());
+            }
+        }
         
         System.out.println(
             "Information updated correctly: " +
@@ -796,175 +1164,51 @@ public class ClientHandler implements Runnable {
 
     /**
      * Returns the session state for the logged-in user, synchronized with the
-     * current global round.
+     * given global round.
      *
+     * @param round round the request runs against
      * @return current round state for logged user, or null if not logged in
      */
-    private PlayerGameState getCurrentGameStateForLoggedUser() {
+    private PlayerGameState getCurrentGameStateForLoggedUser(
+        GameRoundCoordinator.RoundState round
+    ) {
         if (this.loggedInUserId == null) { return null; }
 
-        Game currentGame = this.gameRoundCoordinator.getCurrentGame();
-        List<String> currentWords = extractWords(currentGame);
-
         return this.sessionManager.ensureCurrentGameSession(
             this.loggedInUserId,
-            currentGame.getId(),
-            currentWords
+            round.getGameId()
         );
     }
 
 
-    /** Internal leaderboard entry with precomputed total score. */
-    private static final class LeaderboardEntry {
-        private final String username;
-        private final int score;
-
-
-        private LeaderboardEntry(String username, int score) {
-            this.username = username;
-            this.score = score;
-        }
-    }
-
-
     /**
-     * Builds global leaderboard ranking ordered by score descending.
+     * Round and session state a request runs against.
      *
-     * @return sorted ranking entries
+     * <p>Resolved once per request, or once per batch so that every
+     * sub-request sees the same round and reuses the same session lookup.
      */
-    private List<LeaderboardEntry> buildLeaderboardRanking() {
-        List<LeaderboardEntry> ranking = new ArrayList<>();
-
-        for (Player player : this.playerRepository.getAllPlayers()) {
-            int totalScore = 0;
+    private final class RequestScope {
+        /** Round snapshot taken when the request started. */
+        private final GameRoundCoordinator.RoundState round;
 
-            List<PlayerGameState> states = this.sessionManager.getStatesForUser(
-                player.getUserId()
-            );
+        /** Logged-in player's state in {@link #round}, resolved on first use. */
+        private PlayerGameState currentState;
 
-            for (PlayerGameState state : states) {
-                totalScore += state.getScore();
-            }
 
-            ranking.add(new LeaderboardEntry(player.getNickname(), totalScore));
+        private RequestScope() {
+            this.round = ClientHandler.this.gameRoundCoordinator.getCurrentRound();
         }
 
-        ranking.sort(
-            Comparator
-                .comparingInt((LeaderboardEntry entry) -> entry.score)
-                .reversed()
-                .thenComparing(entry -> entry.username)
-        );
 
-        return ranking;
-    }
-
-
-    /**
-     * Returns leaderboard response containing all ranking entries.
-     *
-     * @param ranking sorted ranking entries
-     * @return response with all records
-     */
-    private List<LeaderboardRecord> toRecords(List<LeaderboardEntry> ranking) {
-        List<LeaderboardRecord> records = new ArrayList<>();
-
-        for (int i = 0; i < ranking.size(); i++) {
-            LeaderboardEntry entry = ranking.get(i);
-            records.add(new LeaderboardRecord(entry.username, i + 1, entry.score));
-        }
-
-        return records;
-    }
-
-
-    /**
-     * Builds leaderboard response for top-k players.
-     *
-     * @param ranking sorted ranking entries
-     * @param topK requested top players count
-     * @return response containing top-k records
-     */
-    private LeaderboardResponse leaderboardForTopK(
-        List<LeaderboardEntry> ranking,
-        int topK
-    ) {
-        int count = Math.min(topK, ranking.size());
-
-        List<LeaderboardRecord> records = new ArrayList<>();
-
-        for (int i = 0; i < count; i++) {
-            LeaderboardEntry entry = ranking.get(i);
-            records.add(new LeaderboardRecord(entry.username, i + 1, entry.score));
-        }
-
-        return LeaderboardResponse.success(records);
-    }
-
-
-    /**
-     * Builds leaderboard response for one player.
-     *
-     * @param ranking sorted ranking entries
-     * @param username username to search
-     * @return response containing single player rank, or error if missing
-     */
-    private LeaderboardResponse leaderboardForSinglePlayer(
-        List<LeaderboardEntry> ranking,
-        String username
-    ) {
-        for (int i = 0; i < ranking.size(); i++) {
-            LeaderboardEntry entry = ranking.get(i);
-
-            if (entry.username.equals(username)) {
-                return LeaderboardResponse.success(
-                    List.of(new LeaderboardRecord(entry.username, i + 1, entry.score))
-                );
+        /** @return the player's state in this round, or null if not logged in */
+        private PlayerGameState currentState() {
+            if (this.currentState == null) {
+                this.currentState = getCurrentGameStateForLoggedUser(this.round);
+                // May have opened a state in a round that just ended
+                if (this.currentState != null) { stateChanged(this.round.getGameId()); }
             }
-        }
-
-        return LeaderboardResponse.error("player not found");
-    }
-
 
-    /**
-     * Computes the current streak from the end of ordered states.
-     *
-     * @param orderedStates states sorted by game id
-     * @return number of trailing wins
-     */
-    private int computeCurrentWinStreak(List<PlayerGameState> orderedStates) {
-        int streak = 0;
-
-        for (int i = orderedStates.size() - 1; i >= 0; i--) {
-            if (orderedStates.get(i).getFinalState() == PlayerGameState.GameResult.WON) {
-                streak++;
-            }
-            else { break; }
+            return this.currentState;
         }
-
-        return streak;
-    }
-
-
-    /**
-     * Computes the maximum consecutive win streak across states.
-     *
-     * @param orderedStates states sorted by game id
-     * @return maximum consecutive wins
-     */
-    private int computeMaxWinStreak(List<PlayerGameState> orderedStates) {
-        int current = 0;
-        int max = 0;
-
-        for (PlayerGameState state : orderedStates) {
-            if (state.getFinalState() == PlayerGameState.GameResult.WON) {
-                current++;
-                if (current > max) { max = current; }
-            }
-            else { current = 0; }
-        }
-
-        return max;
     }
 }
\ No newline at end of file
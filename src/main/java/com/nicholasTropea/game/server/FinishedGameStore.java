@@ -0,0 +1,436 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * Append-only columnar store of finished player game states.
+ *
+ * <p>A finished state never changes again, so instead of keeping the object
+ * in a map it is appended as one row of parallel primitive arrays: userId,
+ * gameId, score, correct proposals, errors, result and the solved groups in
+ * guess order (which also gives the solved mask). Each row links to the
+ * previous row of the same user and a per-user index, addressed directly by
+ * userId, points at the user's latest row, so per-user scans walk primitive
+ * arrays without boxing or map lookups. A row costs 21 bytes.
+ *
+ * <p>Appends and per-user reads of a user must hold that user's
+ * {@link SessionManager} stripe. Appends of different users are ordered by
+ * an internal lock; the arrays are republished when they grow, and a grown
+ * copy always contains every row appended before it.
+ */
+public final class FinishedGameStore {
+    /**
+     * Immutable per-user view of game results, ordered by ascending gameId.
+     *
+     * <p>Built by {@link SessionManager#getHistoryForUser} from the finished
+     * rows of a user plus the states still in progress.
+     */
+    public static final class PlayerHistory {
+        private static final PlayerGameState.GameResult[] RESULTS =
+            PlayerGameState.GameResult.values();
+
+        private final int[] gameIds;
+        private final int[] scores;
+        private final byte[] errorCounts;
+        private final byte[] results;
+
+
+        private PlayerHistory(
+            int[] gameIds,
+            int[] scores,
+            byte[] errorCounts,
+            byte[] results
+        ) {
+            this.gameIds = gameIds;
+            this.scores = scores;
+            this.errorCounts = errorCounts;
+            this.results = results;
+        }
+
+
+        /** @return number of games in the history */
+        public int size() { return this.gameIds.length; }
+
+        /** @return true if the user has no game state */
+        public boolean isEmpty() { return this.gameIds.length == 0; }
+
+        /**
+         * @param index position, 0 for the lowest gameId
+         * @return game identifier
+         */
+        public int getGameId(int index) { return this.gameIds[index]; }
+
+        /**
+         * @param index position, 0 for the lowest gameId
+         * @return game score
+         */
+        public int getScore(int index) { return this.scores[index]; }
+
+        /**
+         * @param index position, 0 for the lowest gameId
+         * @return number of wrong proposals
+         */
+        public int getErrorCount(int index) { return this.errorCounts[index]; }
+
+        /**
+         * @param index position, 0 for the lowest gameId
+         * @return game result
+         */
+        public PlayerGameState.GameResult getResult(int index) {
+            return RESULTS[this.results[index]];
+        }
+
+
+        /** @return sum of all game scores */
+        public int getTotalScore() {
+            int total = 0;
+            for (int score : this.scores) { total += score; }
+            return total;
+        }
+    }
+
+
+    /** One generation of the column arrays, replaced when it fills up. */
+    private static final class Columns {
+        private final int[] userIds;
+        private final int[] gameIds;
+        private final int[] scores;
+        private final byte[] correctProposals;
+        private final byte[] errorCounts;
+        private final byte[] results;
+        private final char[] solvedGroups;
+        private final int[] previousRowOfUser;
+
+
+        private Columns(int capacity) {
+            this.userIds = new int[capacity];
+            this.gameIds = new int[capacity];
+            this.scores = new int[capacity];
+            this.correctProposals = new byte[capacity];
+            this.errorCounts = new byte[capacity];
+            this.results = new byte[capacity];
+            this.solvedGroups = new char[capacity];
+            this.previousRowOfUser = new int[capacity];
+        }
+
+
+        private Columns(Columns source, int capacity) {
+            this.userIds = Arrays.copyOf(source.userIds, capacity);
+            this.gameIds = Arrays.copyOf(source.gameIds, capacity);
+            this.scores = Arrays.copyOf(source.scores, capacity);
+            this.correctProposals = Arrays.copyOf(source.correctProposals, capacity);
+            this.errorCounts = Arrays.copyOf(source.errorCounts, capacity);
+            this.results = Arrays.copyOf(source.results, capacity);
+            this.solvedGroups = Arrays.copyOf(source.solvedGroups, capacity);
+            this.previousRowOfUser = Arrays.copyOf(source.previousRowOfUser, capacity);
+        }
+
+
+        private int capacity() { return this.userIds.length; }
+    }
+
+
+    private static final int INITIAL_ROWS = 1024;
+
+    private static final int INITIAL_USERS = 256;
+
+    /** Bits of a solved-groups value holding the group count. */
+    private static final int COUNT_BITS = 3;
+
+    /** Word order given to materialized states; finished games show no words. */
+    private static final long IDENTITY_ORDER = 0xFEDCBA9876543210L;
+
+    private static final PlayerGameState.GameResult[] RESULTS =
+        PlayerGameState.GameResult.values();
+
+    /** Orders appends of different users and guards {@link #size}. */
+    private final ReentrantLock appendLock;
+
+    /** Current column arrays. */
+    private volatile Columns columns;
+
+    /** Latest row of each user, indexed by userId, -1 if none. */
+    private volatile int[] lastRowByUser;
+
+    /** Number of appended rows. */
+    private int size;
+
+
+    /** Creates an empty store. */
+    public FinishedGameStore() {
+        this.appendLock = new ReentrantLock();
+        this.columns = new Columns(INITIAL_ROWS);
+        this.lastRowByUser = emptyUserIndex(INITIAL_USERS);
+        this.size = 0;
+    }
+
+
+    /**
+     * Appends a finished state.
+     *
+     * <p>The caller holds the stripe of the state's user.
+     *
+     * @param state finished state
+     * @throws IllegalArgumentException if the state is not finished
+     */
+    public void append(PlayerGameState state) {
+        appendAll(List.of(state));
+    }
+
+
+    /**
+     * Appends finished states under a single acquisition of the append lock.
+     *
+     * <p>The caller holds the stripes of all the states' users.
+     *
+     * @param states finished states
+     * @throws IllegalArgumentException if a state is not finished
+     */
+    public void appendAll(Collection<PlayerGameState> states) {
+        int maxUserId = -1;
+        for (PlayerGameState state : states) {
+            if (!state.isFinished()) {
+                throw new IllegalArgumentException("only finished states can be stored");
+            }
+            maxUserId = Math.max(maxUserId, state.getUserId());
+        }
+        if (maxUserId < 0) { return; }
+
+        this.appendLock.lock();
+        try {
+            Columns target = this.columns;
+            if (this.size + states.size() > target.capacity()) {
+                int capacity = Math.max(target.capacity() * 2, this.size + states.size());
+                target = new Columns(target, capacity);
+                this.columns = target;
+            }
+
+            int[] index = this.lastRowByUser;
+            if (maxUserId >= index.length) {
+                int[] grown = emptyUserIndex(Math.max(maxUserId + 1, index.length * 2));
+                System.arraycopy(index, 0, grown, 0, index.length);
+                index = grown;
+                this.lastRowByUser = index;
+            }
+
+            for (PlayerGameState state : states) {
+                int userId = state.getUserId();
+                int row = this.size;
+                target.userIds[row] = userId;
+                target.gameIds[row] = state.getGameId();
+                target.scores[row] = state.getScore();
+                target.correctProposals[row] = (byte) state.getCorrectProposals();
+                target.errorCounts[row] = (byte) state.getErrorCount();
+                target.results[row] = (byte) state.getFinalState().ordinal();
+                target.solvedGroups[row] = packSolvedGroups(state);
+                target.previousRowOfUser[row] = index[userId];
+
+                index[userId] = row;
+                this.size = row + 1;
+            }
+        }
+        finally { this.appendLock.unlock(); }
+    }
+
+
+    /**
+     * Looks up the finished state of a user/game pair.
+     *
+     * <p>The caller holds the stripe of the user.
+     *
+     * @param userId player user identifier
+     * @param gameId game identifier
+     * @return new state object rebuilt from the row, or null if absent
+     */
+    public PlayerGameState find(int userId, int gameId) {
+        Columns view = this.columns;
+
+        for (int row = lastRowOf(userId); row >= 0; row = view.previousRowOfUser[row]) {
+            if (view.gameIds[row] == gameId) { return materialize(view, row); }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Builds the history of a user from the stored rows plus their
+     * unfinished states.
+     *
+     * <p>The caller holds the stripe of the user.
+     *
+     * @param userId player user identifier
+     * @param unfinished states of the user still in progress
+     * @return history ordered by ascending gameId
+     */
+    public PlayerHistory historyOf(int userId, Collection<PlayerGameState> unfinished) {
+        Columns view = this.columns;
+        int first = lastRowOf(userId);
+
+        int count = unfinished.size();
+        for (int row = first; row >= 0; row = view.previousRowOfUser[row]) { count++; }
+
+        int[] gameIds = new int[count];
+        int[] scores = new int[count];
+        byte[] errorCounts = new byte[count];
+        byte[] results = new byte[count];
+        int filled = 0;
+
+        for (int row = first; row >= 0; row = view.previousRowOfUser[row]) {
+            gameIds[filled] = view.gameIds[row];
+            scores[filled] = view.scores[row];
+            errorCounts[filled] = view.errorCounts[row];
+            results[filled] = view.results[row];
+            filled++;
+        }
+
+        for (PlayerGameState state : unfinished) {
+            gameIds[filled] = state.getGameId();
+            scores[filled] = state.getScore();
+            errorCounts[filled] = (byte) state.getErrorCount();
+            results[filled] = (byte) state.getFinalState().ordinal();
+            filled++;
+        }
+
+        return sortedHistory(gameIds, scores, errorCounts, results, filled);
+    }
+
+
+    /**
+     * Rebuilds every stored row as a state object, for export.
+     *
+     * <p>Rows are immutable once appended, so no user stripe is needed.
+     *
+     * @return states in append order
+     */
+    public List<PlayerGameState> materializeAll() {
+        Columns view;
+        int rows;
+
+        this.appendLock.lock();
+        try {
+            view = this.columns;
+            rows = this.size;
+        }
+        finally { this.appendLock.unlock(); }
+
+        List<PlayerGameState> states = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) { states.add(materialize(view, row)); }
+        return states;
+    }
+
+
+    /**
+     * @return number of stored rows
+     */
+    public int size() {
+        this.appendLock.lock();
+        try { return this.size; }
+        finally { this.appendLock.unlock(); }
+    }
+
+
+    /**
+     * Removes every row.
+     *
+     * <p>Meant for startup import, with every user stripe held.
+     */
+    public void clear() {
+        this.appendLock.lock();
+        try {
+            this.columns = new Columns(INITIAL_ROWS);
+            this.lastRowByUser = emptyUserIndex(INITIAL_USERS);
+            this.size = 0;
+        }
+        finally { this.appendLock.unlock(); }
+    }
+
+
+    private int lastRowOf(int userId) {
+        int[] index = this.lastRowByUser;
+        return userId < index.length ? index[userId] : -1;
+    }
+
+
+    private static PlayerGameState materialize(Columns view, int row) {
+        char solved = view.solvedGroups[row];
+        int[] groups = new int[solved & ((1 << COUNT_BITS) - 1)];
+        int remainingMask = PlayerGameState.ALL_WORDS;
+
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = (solved >>> (COUNT_BITS + i * 2)) & 0x3;
+            remainingMask &= ~PlayerGameState.groupMask(groups[i]);
+        }
+
+        PlayerGameState state = new PlayerGameState(
+            view.userIds[row],
+            view.gameIds[row],
+            IDENTITY_ORDER
+        );
+        state.restoreProgress(
+            view.correctProposals[row],
+            view.errorCounts[row],
+            view.scores[row],
+            remainingMask,
+            groups,
+            RESULTS[view.results[row]]
+        );
+
+        return state;
+    }
+
+
+    private static char packSolvedGroups(PlayerGameState state) {
+        int count = state.getGuessedGroupCount();
+        int packed = count;
+        for (int i = 0; i < count; i++) {
+            packed |= state.getGuessedGroup(i) << (COUNT_BITS + i * 2);
+        }
+
+        return (char) packed;
+    }
+
+
+    /**
+     * Sorts history columns by gameId, carrying the other columns along.
+     */
+    private static PlayerHistory sortedHistory(
+        int[] gameIds,
+        int[] scores,
+        byte[] errorCounts,
+        byte[] results,
+        int count
+    ) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) { keys[i] = (long) gameIds[i] << 32 | i; }
+        Arrays.sort(keys);
+
+        int[] sortedGameIds = new int[count];
+        int[] sortedScores = new int[count];
+        byte[] sortedErrors = new byte[count];
+        byte[] sortedResults = new byte[count];
+
+        for (int i = 0; i < count; i++) {
+            int source = (int) keys[i];
+            sortedGameIds[i] = gameIds[source];
+            sortedScores[i] = scores[source];
+            sortedErrors[i] = errorCounts[source];
+            sortedResults[i] = results[source];
+        }
+
+        return new PlayerHistory(sortedGameIds, sortedScores, sortedErrors, sortedResults);
+    }
+
+
+    private static int[] emptyUserIndex(int users) {
+        int[] index = new int[users];
+        Arrays.fill(index, -1);
+        return index;
+    }
+}
@@ -0,0 +1,128 @@
+package com.nicholasTropea.game.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * Running per-game counters backing {@code requestGameStats}.
+ *
+ * <p>Counters are {@link LongAdder}s, so concurrent state transitions from
+ * many connections update striped cells instead of contending on one lock,
+ * and reads are O(1) per game. The individual counters are read one after
+ * the other, so a snapshot taken during heavy traffic may mix values from
+ * adjacent transitions; that is acceptable for statistics.
+ */
+public class GameAggregateIndex {
+    /** Counters for a single game. */
+    private static final class Counters {
+        private final LongAdder participants = new LongAdder();
+        private final LongAdder finished = new LongAdder();
+        private final LongAdder won = new LongAdder();
+        private final LongAdder totalScore = new LongAdder();
+    }
+
+
+    /** Counters keyed by gameId, created on first participation. */
+    private final Map<Integer, Counters> countersByGame;
+
+
+    /** Creates an empty index. */
+    public GameAggregateIndex() {
+        this.countersByGame = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Records a new player state for a game.
+     *
+     * @param gameId game identifier
+     */
+    public void recordParticipant(int gameId) {
+        countersFor(gameId).participants.increment();
+    }
+
+
+    /**
+     * Records a change of one player's score for a game.
+     *
+     * @param gameId game identifier
+     * @param delta score difference
+     */
+    public void recordScoreChange(int gameId, int delta) {
+        if (delta != 0) { countersFor(gameId).totalScore.add(delta); }
+    }
+
+
+    /**
+     * Records a player finishing a game.
+     *
+     * @param gameId game identifier
+     * @param won true if the player won
+     */
+    public void recordFinished(int gameId, boolean won) {
+        Counters counters = countersFor(gameId);
+        counters.finished.increment();
+        if (won) { counters.won.increment(); }
+    }
+
+
+    /**
+     * Adds an already existing state to the counters.
+     *
+     * <p>Used to rebuild the index from restored snapshots at startup.
+     *
+     * @param state restored player state
+     */
+    public void recordRestored(PlayerGameState state) {
+        Counters counters = countersFor(state.getGameId());
+        counters.participants.increment();
+        counters.totalScore.add(state.getScore());
+
+        if (state.isFinished()) { counters.finished.increment(); }
+        if (state.getFinalState() == PlayerGameState.GameResult.WON) {
+            counters.won.increment();
+        }
+    }
+
+
+    /** Drops every counter, before a rebuild. */
+    public void clear() { this.countersByGame.clear(); }
+
+
+    /**
+     * Reads the current aggregates for a game.
+     *
+     * @param gameId game identifier
+     * @return aggregate snapshot, all zero if nobody played the game
+     */
+    public SessionManager.GameAggregates snapshot(int gameId) {
+        Counters counters = this.countersByGame.get(gameId);
+        if (counters == null) {
+            return new SessionManager.GameAggregates(0, 0, 0, 0, 0.0f);
+        }
+
+        int participants = counters.participants.intValue();
+        int finished = counters.finished.intValue();
+        long totalScore = counters.totalScore.sum();
+
+        float averageScore = participants == 0
+            ? 0.0f
+            : (float) totalScore / participants;
+
+        return new SessionManager.GameAggregates(
+            participants,
+            Math.max(0, participants - finished),
+            finished,
+            counters.won.intValue(),
+            averageScore
+        );
+    }
+
+
+    private Counters countersFor(int gameId) {
+        return this.countersByGame.computeIfAbsent(gameId, key -> new Counters());
+    }
+}
@@ -0,0 +1,292 @@
+package com.nicholasTropea.game.server;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nicholasTropea.game.model.Game;
+
+/**
+ * Binary game catalog, memory-mapped read-only and decoded on demand.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ * header   magic, version, gameCount, stringCount (ints),
+ *          sourceLength, sourceModified (longs)
+ * games    gameCount fixed-size records sorted by gameId:
+ *          gameId, then per group a theme string id and 4 word string ids
+ * strings  stringCount + 1 offsets into the data, then the UTF-8 data
+ * </pre>
+ *
+ * <p>Words and themes are interned in the string table, so a word shared by
+ * many puzzles is stored once. Game {@code i} is at a fixed offset, lookups
+ * by gameId binary-search the records, and nothing is decoded until a game
+ * is asked for, so opening the catalog costs the same for any size.
+ *
+ * <p>Instances only use absolute reads on the mapped buffer and are safe to
+ * share between threads.
+ */
+public final class GameCatalogFile {
+    private static final int MAGIC = 0x43474331;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int GROUPS = 4;
+    private static final int WORDS = 4;
+
+    /** gameId, then theme and words for each group. */
+    private static final int RECORD_INTS = 1 + GROUPS * (1 + WORDS);
+    private static final int RECORD_BYTES = RECORD_INTS * Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int gameCount;
+    private final long sourceLength;
+    private final long sourceModified;
+    private final int stringIndexOffset;
+    private final int stringDataOffset;
+
+
+    private GameCatalogFile(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a game catalog file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported game catalog version " + buffer.getInt(4));
+        }
+
+        int games = buffer.getInt(8);
+        int strings = buffer.getInt(12);
+        long indexOffset = HEADER_BYTES + (long) games * RECORD_BYTES;
+        long dataOffset = indexOffset + (strings + 1L) * Integer.BYTES;
+
+        if (games < 0 || strings < 0 || dataOffset > buffer.capacity()) {
+            throw new IOException("truncated game catalog file");
+        }
+
+        int lastOffset = (int) indexOffset + strings * Integer.BYTES;
+        if (dataOffset + buffer.getInt(lastOffset) != buffer.capacity()) {
+            throw new IOException("truncated game catalog file");
+        }
+
+        this.buffer = buffer;
+        this.gameCount = games;
+        this.sourceLength = buffer.getLong(16);
+        this.sourceModified = buffer.getLong(24);
+        this.stringIndexOffset = (int) indexOffset;
+        this.stringDataOffset = (int) dataOffset;
+    }
+
+
+    /**
+     * Maps an existing catalog file.
+     *
+     * @param path catalog path
+     * @return opened catalog
+     * @throws IOException if the file cannot be mapped or is not a valid catalog
+     */
+    public static GameCatalogFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new GameCatalogFile(
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+            );
+        }
+    }
+
+
+    /**
+     * Writes a catalog for validated games, replacing the target atomically.
+     *
+     * @param games games with unique ids, 4 groups of 4 words each
+     * @param target catalog path
+     * @param sourceLength length of the JSON the games come from
+     * @param sourceModified modification time of that JSON, epoch millis
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(
+        List<Game> games,
+        Path target,
+        long sourceLength,
+        long sourceModified
+    ) throws IOException {
+        List<Game> sorted = new ArrayList<>(games);
+        sorted.sort(Comparator.comparingInt(Game::getId));
+
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        int[] records = new int[sorted.size() * RECORD_INTS];
+        int position = 0;
+
+        for (Game game : sorted) {
+            records[position++] = game.getId();
+            for (Game.Group group : game.getGroups()) {
+                records[position++] = intern(stringIds, group.getTheme());
+                for (String word : group.getWords()) {
+                    records[position++] = intern(stringIds, word);
+                }
+            }
+        }
+
+        List<byte[]> strings = new ArrayList<>(stringIds.size());
+        long dataBytes = 0;
+        for (String string : stringIds.keySet()) {
+            byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+            strings.add(encoded);
+            dataBytes += encoded.length;
+        }
+
+        long totalBytes = HEADER_BYTES
+            + (long) records.length * Integer.BYTES
+            + (strings.size() + 1L) * Integer.BYTES
+            + dataBytes;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IOException("game catalog exceeds 2 GB");
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(parent, "games", ".tmp");
+        try {
+            try (
+                DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)
+                )
+            ) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sorted.size());
+                out.writeInt(strings.size());
+                out.writeLong(sourceLength);
+                out.writeLong(sourceModified);
+
+                for (int value : records) { out.writeInt(value); }
+
+                int offset = 0;
+                for (byte[] string : strings) {
+                    out.writeInt(offset);
+                    offset += string.length;
+                }
+                out.writeInt(offset);
+
+                for (byte[] string : strings) { out.write(string); }
+            }
+
+            Files.move(
+                temporary,
+                target,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        }
+        finally { Files.deleteIfExists(temporary); }
+    }
+
+
+    /**
+     * Checks whether the catalog was built from a given JSON file version.
+     *
+     * @param length JSON file length
+     * @param modified JSON modification time, epoch millis
+     * @return true if both match the recorded values
+     */
+    public boolean isBuiltFrom(long length, long modified) {
+        return this.sourceLength == length && this.sourceModified == modified;
+    }
+
+
+    /** @return number of games */
+    public int size() { return this.gameCount; }
+
+
+    /**
+     * @param index position in ascending gameId order
+     * @return game identifier
+     */
+    public int gameIdAt(int index) {
+        return this.buffer.getInt(recordOffset(index));
+    }
+
+
+    /**
+     * Finds the position of a game.
+     *
+     * @param gameId game identifier
+     * @return position in ascending gameId order, or -1 if absent
+     */
+    public int indexOf(int gameId) {
+        int low = 0;
+        int high = this.gameCount - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int candidate = gameIdAt(middle);
+            if (candidate < gameId) { low = middle + 1; }
+            else if (candidate > gameId) { high = middle - 1; }
+            else { return middle; }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Decodes a game.
+     *
+     * @param index position in ascending gameId order
+     * @return new game instance
+     */
+    public Game decode(int index) {
+        int offset = recordOffset(index);
+        int gameId = this.buffer.getInt(offset);
+        offset += Integer.BYTES;
+
+        List<Game.Group> groups = new ArrayList<>(GROUPS);
+        for (int g = 0; g < GROUPS; g++) {
+            String theme = string(this.buffer.getInt(offset));
+            offset += Integer.BYTES;
+
+            List<String> words = new ArrayList<>(WORDS);
+            for (int w = 0; w < WORDS; w++) {
+                words.add(string(this.buffer.getInt(offset)));
+                offset += Integer.BYTES;
+            }
+
+            groups.add(new Game.Group(theme, words));
+        }
+
+        return new Game(gameId, groups);
+    }
+
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= this.gameCount) {
+            throw new IndexOutOfBoundsException("game index " + index);
+        }
+
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+
+    private String string(int id) {
+        int entry = this.stringIndexOffset + id * Integer.BYTES;
+        int start = this.buffer.getInt(entry);
+        int end = this.buffer.getInt(entry + Integer.BYTES);
+
+        byte[] bytes = new byte[end - start];
+        this.buffer.get(this.stringDataOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static int intern(Map<String, Integer> stringIds, String string) {
+        return stringIds.computeIfAbsent(string, key -> stringIds.size());
+    }
+}
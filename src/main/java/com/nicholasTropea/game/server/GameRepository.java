@@ -2,117 +2,189 @@ package com.nicholasTropea.game.server;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.nicholasTropea.game.model.Game;
 
 /**
- * Loads and provides access to game definitions from JSON storage.
+ * Provides access to game definitions.
+ *
+ * <p>Games are served from a binary {@link GameCatalogFile} mapped into
+ * memory. The catalog is converted from the JSON definitions on first run
+ * and again whenever the JSON file changes; otherwise startup never reads
+ * the JSON. A game and its proposal matcher are decoded on first access and
+ * cached, so the heap only holds games that have actually been requested.
  */
 public class GameRepository {
-    /** Parsed games indexed by gameId for O(1) lookup. */
+    /** Mapped catalog of every game, sorted by gameId. */
+    private final GameCatalogFile catalog;
+
+    /** Games decoded so far, indexed by gameId. */
     private final Map<Integer, Game> gamesById;
 
-    /** Sorted game ids to allow deterministic selection by index. */
-    private final List<Integer> gameIds;
+    /** Proposal matchers compiled so far, indexed by gameId. */
+    private final Map<Integer, ProposalMatcher> matchersById;
 
 
     /**
-     * Creates a game repository loading from the provided file path.
+     * Creates a game repository whose catalog sits next to the JSON file,
+     * with a {@code .bin} extension.
      *
      * @param gamesPath JSON file path containing game definitions
      */
     public GameRepository(String gamesPath) {
-        this.gamesById = new HashMap<>();
-        this.gameIds = new ArrayList<>();
-        loadGames(Path.of(gamesPath));
+        this(gamesPath, gamesPath.replaceFirst("\\.json$", "") + ".bin");
     }
 
 
     /**
-     * Returns a game by its identifier.
+     * Creates a game repository, building the binary catalog if it is
+     * missing or older than the JSON definitions.
+     *
+     * @param gamesPath JSON file path containing game definitions
+     * @param catalogPath binary catalog path
+     */
+    public GameRepository(String gamesPath, String catalogPath) {
+        this.gamesById = new ConcurrentHashMap<>();
+        this.matchersById = new ConcurrentHashMap<>();
+        this.catalog = openCatalog(Path.of(gamesPath), Path.of(catalogPath));
+    }
+
+
+    /**
+     * Returns a game by its identifier, decoding it on first access.
      *
      * @param gameId game identifier
      * @return game instance, or null if not found
      */
     public Game getGameById(int gameId) {
-        return this.gamesById.get(gameId);
+        Game game = this.gamesById.get(gameId);
+        if (game != null) { return game; }
+
+        int index = this.catalog.indexOf(gameId);
+        if (index < 0) { return null; }
+
+        return this.gamesById.computeIfAbsent(gameId, key -> this.catalog.decode(index));
     }
 
 
     /**
-     * Returns the total number of loaded games.
+     * Returns the compiled proposal matcher of a game, compiling it on first
+     * access.
      *
-     * @return total loaded games
+     * @param gameId game identifier
+     * @return matcher, or null if the game is not found
      */
-    public int size() { return this.gamesById.size(); }
+    public ProposalMatcher getMatcher(int gameId) {
+        ProposalMatcher matcher = this.matchersById.get(gameId);
+        if (matcher != null) { return matcher; }
+
+        Game game = getGameById(gameId);
+        if (game == null) { return null; }
+
+        return this.matchersById.computeIfAbsent(
+            gameId,
+            key -> ProposalMatcher.compile(game)
+        );
+    }
 
 
     /**
-     * Returns an immutable copy of all loaded game ids.
+     * Returns the total number of games in the catalog.
      *
-     * @return list of game ids
+     * @return total games
      */
-    public List<Integer> getGameIds() { return List.copyOf(this.gameIds); }
+    public int size() { return this.catalog.size(); }
 
 
     /**
-     * Returns game identifier by index position in the sorted game-id list.
+     * Returns game identifier by index position in ascending gameId order.
      *
      * @param index zero-based index in available game ids
      * @return game identifier
      * @throws IllegalArgumentException if index is out of bounds
      */
     public int getGameIdByIndex(int index) {
-        if (index < 0 || index >= this.gameIds.size()) {
+        if (index < 0 || index >= this.catalog.size()) {
             throw new IllegalArgumentException("index out of range");
         }
 
-        return this.gameIds.get(index);
+        return this.catalog.gameIdAt(index);
     }
 
 
     /**
-     * Loads and validates games from the provided JSON path.
+     * Returns the index position of a game in ascending gameId order.
      *
-     * @param gamesPath games JSON path
+     * @param gameId game identifier
+     * @return zero-based index, or -1 if the game is not found
      */
-    private void loadGames(Path gamesPath) {
-        try {
-            String json = loadGamesJson(gamesPath);
-            Type listType = new TypeToken<List<Game>>() { }.getType();
-            List<Game> loadedGames = new Gson().fromJson(json, listType);
+    public int getIndexOfGameId(int gameId) { return this.catalog.indexOf(gameId); }
 
-            if (loadedGames == null || loadedGames.isEmpty()) {
-                throw new IllegalStateException("No games found in games.json");
-            }
 
-            for (Game game : loadedGames) {
-                validateGame(game);
+    /**
+     * Maps the catalog, converting the JSON definitions first if needed.
+     *
+     * <p>A catalog is reused when it records the length and modification
+     * time of the current JSON file, or when the JSON is only available on
+     * the classpath. If the catalog path is not writable the conversion goes
+     * to a temporary file.
+     *
+     * @param gamesPath configured games JSON path
+     * @param catalogPath configured catalog path
+     * @return mapped catalog
+     */
+    private static GameCatalogFile openCatalog(Path gamesPath, Path catalogPath) {
+        Path source = gamesPath;
+        Path target = catalogPath;
+        if (!Files.exists(source)) {
+            source = Path.of("..").resolve(gamesPath).normalize();
+            target = Path.of("..").resolve(catalogPath).normalize();
+        }
+        if (!Files.exists(source)) {
+            source = null;
+            target = catalogPath;
+        }
 
-                int gameId = game.getId();
-                if (this.gamesById.containsKey(gameId)) {
-                    throw new IllegalStateException("Duplicate gameId found: " + gameId);
+        try {
+            long sourceLength = source == null ? -1L : Files.size(source);
+            long sourceModified = source == null
+                ? -1L
+                : Files.getLastModifiedTime(source).toMillis();
+
+            if (Files.exists(target)) {
+                try {
+                    GameCatalogFile existing = GameCatalogFile.open(target);
+                    if (source == null || existing.isBuiltFrom(sourceLength, sourceModified)) {
+                        return existing;
+                    }
+                }
+                catch (IOException ex) {
+                    System.err.println("Rebuilding unreadable game catalog: " + ex.getMessage());
                 }
+            }
 
-                this.gamesById.put(gameId, game);
+            List<Game> games = loadGames(gamesPath);
+
+            try { GameCatalogFile.write(games, target, sourceLength, sourceModified); }
+            catch (IOException ex) {
+                target = Files.createTempFile("games", ".bin");
+                target.toFile().deleteOnExit();
+                GameCatalogFile.write(games, target, sourceLength, sourceModified);
             }
 
-            this.gameIds.addAll(this.gamesById.keySet());
-            Collections.sort(this.gameIds);
+            System.out.println("Built game catalog " + target + " (" + games.size() + " games)");
+            return GameCatalogFile.open(target);
         }
         catch (IOException ex) {
             throw new IllegalStateException(
@@ -120,6 +192,47 @@ public class GameRepository {
                 ex
             );
         }
+    }
+
+
+    /**
+     * Streams and validates games JSON, one game at a time.
+     *
+     * @param gamesPath configured games file path
+     * @return validated games
+     * @throws IOException if the JSON cannot be found or read
+     */
+    private static List<Game> loadGames(Path gamesPath) throws IOException {
+        try (StreamingJsonLoader loader = openGamesJson(gamesPath)) {
+            Gson gson = new Gson();
+            JsonReader reader = loader.reader();
+            List<Game> games = new ArrayList<>();
+            Set<Integer> gameIds = new HashSet<>();
+
+            if (!loader.isBlank()) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    Game game = gson.fromJson(reader, Game.class);
+                    validateGame(game);
+
+                    if (!gameIds.add(game.getId())) {
+                        throw new IllegalStateException(
+                            "Duplicate gameId found: " + game.getId()
+                        );
+                    }
+
+                    games.add(game);
+                    loader.recordLoaded();
+                }
+                reader.endArray();
+            }
+
+            if (games.isEmpty()) {
+                throw new IllegalStateException("No games found in games.json");
+            }
+
+            return games;
+        }
         catch (RuntimeException ex) {
             throw new IllegalStateException("Failed to parse games.json", ex);
         }
@@ -127,7 +240,7 @@ public class GameRepository {
 
 
     /**
-     * Loads games JSON trying filesystem and classpath fallbacks.
+     * Opens games JSON trying filesystem and classpath fallbacks.
      *
      * <p>Resolution order:
      * 1) configured path as-is
@@ -135,19 +248,19 @@ public class GameRepository {
      * 3) classpath resource (strip src/main/resources/ prefix)
      *
      * @param configuredPath configured games file path
-     * @return JSON content
+     * @return streaming loader over the JSON content
      * @throws IOException if resource cannot be found/read in any location
      */
-    private static String loadGamesJson(Path configuredPath) throws IOException {
+    private static StreamingJsonLoader openGamesJson(Path configuredPath) throws IOException {
         if (Files.exists(configuredPath)) {
-            return Files.readString(configuredPath, StandardCharsets.UTF_8);
+            return StreamingJsonLoader.open(configuredPath);
         }
 
         Path parentRelativePath = Path.of("..")
             .resolve(configuredPath)
             .normalize();
         if (Files.exists(parentRelativePath)) {
-            return Files.readString(parentRelativePath, StandardCharsets.UTF_8);
+            return StreamingJsonLoader.open(parentRelativePath);
         }
 
         String resourcePath = configuredPath.toString().replace('\\', '/');
@@ -156,12 +269,11 @@ public class GameRepository {
             resourcePath = resourcePath.substring(resourcesPrefix.length());
         }
 
-        try (InputStream inputStream = GameRepository.class
+        InputStream inputStream = GameRepository.class
             .getClassLoader()
-            .getResourceAsStream(resourcePath)) {
-            if (inputStream != null) {
-                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            }
+            .getResourceAsStream(resourcePath);
+        if (inputStream != null) {
+            return StreamingJsonLoader.open(inputStream, resourcePath);
         }
 
         throw new IOException("games.json not found in filesystem or classpath");
@@ -4,16 +4,28 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.net.BoardEncoding;
 
 /**
  * Coordinates the globally active game round lifecycle.
  *
  * <p>At any moment there is exactly one active global game. The coordinator
  * rotates to the next game after a fixed duration.
+ *
+ * <p>The active round is an immutable {@link RoundState} published through an
+ * {@link AtomicReference}: readers perform a single volatile read and never
+ * block. Only the scheduler thread rotates rounds, with a compare-and-set,
+ * and it wakes up exactly when the current round ends.
+ *
+ * <p>Each round also carries its game's proposal matcher and board, encoded
+ * once when the round is created instead of once per login or board refresh
+ * in the burst of requests that follows a rotation.
  */
 public class GameRoundCoordinator implements AutoCloseable {
     /** Immutable snapshot of global round state for persistence. */
@@ -52,6 +64,54 @@ public class GameRoundCoordinator implements AutoCloseable {
     }
 
 
+    /** Immutable state of the active round. */
+    public static final class RoundState {
+        private final int gameIndex;
+        private final int gameId;
+        private final long roundNumber;
+        private final long endMillis;
+        private final ProposalMatcher matcher;
+        private final BoardEncoding board;
+
+
+        private RoundState(
+            int gameIndex,
+            int gameId,
+            long roundNumber,
+            long endMillis,
+            ProposalMatcher matcher
+        ) {
+            this.gameIndex = gameIndex;
+            this.gameId = gameId;
+            this.roundNumber = roundNumber;
+            this.endMillis = endMillis;
+            this.matcher = Objects.requireNonNull(matcher, "matcher is required");
+            this.board = new BoardEncoding(gameId, matcher.getSolution());
+        }
+
+
+        /** @return active game id */
+        public int getGameId() { return this.gameId; }
+
+        /** @return global round number */
+        public long getRoundNumber() { return this.roundNumber; }
+
+        /** @return end timestamp of the round in epoch milliseconds */
+        public long getEndMillis() { return this.endMillis; }
+
+        /** @return proposal matcher of the active game */
+        public ProposalMatcher getMatcher() { return this.matcher; }
+
+        /** @return words and groups of the active game, pre-encoded */
+        public BoardEncoding getBoard() { return this.board; }
+
+        /** @return remaining time of the round in milliseconds, never negative */
+        public long getRemainingTimeMillis() {
+            return Math.max(0L, this.endMillis - System.currentTimeMillis());
+        }
+    }
+
+
     /** Listener for round transitions. */
     @FunctionalInterface
     public interface RoundTransitionListener {
@@ -66,32 +126,20 @@ public class GameRoundCoordinator implements AutoCloseable {
     }
 
 
-    /** Polling interval used to check whether the round expired. */
-    private static final long ROTATION_CHECK_INTERVAL_MS = 1000L;
+    /** Delay before retrying a rotation that failed. */
+    private static final long ROTATION_RETRY_MS = 1000L;
 
     /** Repository containing all available game definitions. */
     private final GameRepository gameRepository;
 
-    /** Sorted game IDs used for deterministic round rotation. */
-    private final List<Integer> gameIds;
-
     /** Duration of one global round in milliseconds. */
     private final long roundDurationMillis;
 
-    /** Lock guarding round state transitions. */
-    private final Object lock;
-
-    /** Background scheduler that rotates rounds when expired. */
+    /** Background scheduler that rotates rounds when they expire. */
     private final ScheduledExecutorService scheduler;
 
-    /** Index of the active game in {@code gameIds}. */
-    private int currentGameIndex;
-
-    /** End timestamp (epoch ms) of current round. */
-    private long currentRoundEndMillis;
-
-    /** Round counter. */
-    private long roundNumber;
+    /** Currently active round, replaced as a whole on rotation. */
+    private final AtomicReference<RoundState> round;
 
     /** Registered listeners notified on round rotation. */
     private final List<RoundTransitionListener> listeners;
@@ -127,8 +175,7 @@ public class GameRoundCoordinator implements AutoCloseable {
             gameRepository,
             "gameRepository is required"
         );
-        this.gameIds = this.gameRepository.getGameIds();
-        if (this.gameIds.isEmpty()) {
+        if (this.gameRepository.size() == 0) {
             throw new IllegalStateException("At least one game is required");
         }
 
@@ -137,7 +184,6 @@ public class GameRoundCoordinator implements AutoCloseable {
         }
 
         this.roundDurationMillis = roundDurationMillis;
-        this.lock = new Object();
         this.listeners = new CopyOnWriteArrayList<>();
         this.scheduler = Executors.newSingleThreadScheduledExecutor(
             runnable -> {
@@ -148,18 +194,13 @@ public class GameRoundCoordinator implements AutoCloseable {
         );
 
         long now = System.currentTimeMillis();
-        this.currentGameIndex = 0;
-        this.currentRoundEndMillis = now + this.roundDurationMillis;
-        this.roundNumber = 1L;
-
-        restoreFromSnapshotIfValid(initialSnapshot, now);
+        RoundState initial = restoreFromSnapshotIfValid(initialSnapshot, now);
+        if (initial == null) {
+            initial = newRound(0, 1L, now + roundDurationMillis);
+        }
+        this.round = new AtomicReference<>(initial);
 
-        this.scheduler.scheduleAtFixedRate(
-            this::rotateIfExpiredSafely,
-            ROTATION_CHECK_INTERVAL_MS,
-            ROTATION_CHECK_INTERVAL_MS,
-            TimeUnit.MILLISECONDS
-        );
+        scheduleRotation(initial);
     }
 
 
@@ -169,30 +210,33 @@ public class GameRoundCoordinator implements AutoCloseable {
      * @return snapshot of active game and remaining round time
      */
     public RoundStateSnapshot exportSnapshot() {
-        synchronized (this.lock) {
-            long now = System.currentTimeMillis();
-            rotateIfExpiredLocked(now);
-
-            return new RoundStateSnapshot(
-                this.gameIds.get(this.currentGameIndex),
-                this.roundNumber,
-                Math.max(0L, this.currentRoundEndMillis - now)
-            );
-        }
+        RoundState current = this.round.get();
+
+        return new RoundStateSnapshot(
+            current.getGameId(),
+            current.getRoundNumber(),
+            current.getRemainingTimeMillis()
+        );
     }
 
 
+    /**
+     * Gets the active round with a single lock-free read.
+     *
+     * <p>Callers needing several round attributes should read them from one
+     * returned instance, so that they are consistent with each other.
+     *
+     * @return active round state
+     */
+    public RoundState getCurrentRound() { return this.round.get(); }
+
+
     /**
      * Gets the currently active game identifier.
      *
      * @return active game ID
      */
-    public int getCurrentGameId() {
-        synchronized (this.lock) {
-            rotateIfExpiredLocked(System.currentTimeMillis());
-            return this.gameIds.get(this.currentGameIndex);
-        }
-    }
+    public int getCurrentGameId() { return this.round.get().getGameId(); }
 
 
     /**
@@ -217,11 +261,7 @@ public class GameRoundCoordinator implements AutoCloseable {
      * @return remaining time in milliseconds
      */
     public long getRemainingTimeMillis() {
-        synchronized (this.lock) {
-            long now = System.currentTimeMillis();
-            rotateIfExpiredLocked(now);
-            return Math.max(0L, this.currentRoundEndMillis - now);
-        }
+        return this.round.get().getRemainingTimeMillis();
     }
 
 
@@ -239,12 +279,7 @@ public class GameRoundCoordinator implements AutoCloseable {
      *
      * @return current round number
      */
-    public long getRoundNumber() {
-        synchronized (this.lock) {
-            rotateIfExpiredLocked(System.currentTimeMillis());
-            return this.roundNumber;
-        }
-    }
+    public long getRoundNumber() { return this.round.get().getRoundNumber(); }
 
 
     /**
@@ -272,41 +307,92 @@ public class GameRoundCoordinator implements AutoCloseable {
     public void close() { this.scheduler.shutdownNow(); }
 
 
-    /** Wraps rotation checks to avoid scheduler suppression on runtime errors. */
-    private void rotateIfExpiredSafely() {
+    /**
+     * Schedules the next rotation check at the end of a round.
+     *
+     * @param current round to wait for
+     */
+    private void scheduleRotation(RoundState current) {
+        scheduleRotationCheck(
+            Math.max(0L, current.getEndMillis() - System.currentTimeMillis())
+        );
+    }
+
+
+    /**
+     * Schedules a rotation check.
+     *
+     * @param delay milliseconds to wait
+     */
+    private void scheduleRotationCheck(long delay) {
         try {
-            synchronized (this.lock) {
-                rotateIfExpiredLocked(System.currentTimeMillis());
-            }
+            this.scheduler.schedule(
+                this::rotateIfExpiredSafely,
+                delay,
+                TimeUnit.MILLISECONDS
+            );
+        }
+        catch (RejectedExecutionException ex) {
+            // Coordinator closed.
         }
+    }
+
+
+    /**
+     * Wraps rotation so that a failure cannot stop future rotations. The
+     * failed round is still expired, so the retry waits
+     * {@link #ROTATION_RETRY_MS} instead of spinning on a persistent error.
+     */
+    private void rotateIfExpiredSafely() {
+        try { rotateIfExpired(System.currentTimeMillis()); }
         catch (RuntimeException ex) {
             System.err.println("Round rotation error: " + ex.getMessage());
+            scheduleRotationCheck(ROTATION_RETRY_MS);
         }
     }
 
 
     /**
-     * Rotates to next game if current round has expired.
+     * Rotates to the next game if the current round has expired, then
+     * schedules the following check.
+     *
+     * <p>Runs on the scheduler thread only.
      *
      * @param now current epoch milliseconds
      */
-    private void rotateIfExpiredLocked(long now) {
-        if (now < this.currentRoundEndMillis) { return; }
+    private void rotateIfExpired(long now) {
+        RoundState current = this.round.get();
+        if (now < current.getEndMillis()) {
+            scheduleRotation(current);
+            return;
+        }
+
+        int nextIndex = (current.gameIndex + 1) % this.gameRepository.size();
+        RoundState next = newRound(
+            nextIndex,
+            current.getRoundNumber() + 1,
+            now + this.roundDurationMillis
+        );
 
-        int previousGameId = this.gameIds.get(this.currentGameIndex);
-        this.currentGameIndex = (this.currentGameIndex + 1) % this.gameIds.size();
-        this.currentRoundEndMillis = now + this.roundDurationMillis;
-        this.roundNumber++;
+        if (!this.round.compareAndSet(current, next)) {
+            scheduleRotation(this.round.get());
+            return;
+        }
+
+        scheduleRotation(next);
 
-        int nextGameId = this.gameIds.get(this.currentGameIndex);
         System.out.println(
             "Global round rotated to gameId="
-            + nextGameId
+            + next.getGameId()
             + " round="
-            + this.roundNumber
+            + next.getRoundNumber()
         );
 
-        notifyRoundTransition(previousGameId, nextGameId, this.roundNumber);
+        notifyRoundTransition(
+            current.getGameId(),
+            next.getGameId(),
+            next.getRoundNumber()
+        );
     }
 
 
@@ -336,22 +422,25 @@ public class GameRoundCoordinator implements AutoCloseable {
 
 
     /**
-     * Restores coordinator state from snapshot when compatible with game list.
+     * Builds the initial round from a snapshot when compatible with game list.
      *
      * @param snapshot snapshot loaded from persistent storage
      * @param now current epoch milliseconds
+     * @return restored round, or null to start from the first game
      */
-    private void restoreFromSnapshotIfValid(RoundStateSnapshot snapshot, long now) {
-        if (snapshot == null) { return; }
+    private RoundState restoreFromSnapshotIfValid(RoundStateSnapshot snapshot, long now) {
+        if (snapshot == null) { return null; }
 
-        int restoredIndex = this.gameIds.indexOf(snapshot.getCurrentGameId());
+        int restoredIndex = this.gameRepository.getIndexOfGameId(
+            snapshot.getCurrentGameId()
+        );
         if (restoredIndex < 0) {
             System.err.println(
                 "Ignoring persisted round state: gameId not found "
                 + snapshot.getCurrentGameId()
             );
             
-            return;
+            return null;
         }
 
         long restoredRound = snapshot.getRoundNumber();
@@ -359,12 +448,31 @@ public class GameRoundCoordinator implements AutoCloseable {
 
         if (restoredRound < 1L || restoredRemaining <= 0L) {
             System.err.println("Ignoring persisted round state: invalid values");
-            return;
+            return null;
         }
 
         long boundedRemaining = Math.min(restoredRemaining, this.roundDurationMillis);
-        this.currentGameIndex = restoredIndex;
-        this.roundNumber = restoredRound;
-        this.currentRoundEndMillis = now + boundedRemaining;
+        return newRound(restoredIndex, restoredRound, now + boundedRemaining);
+    }
+
+
+    /**
+     * Creates a round, compiling its game's matcher and encoding its board.
+     *
+     * @param gameIndex catalog index of the round's game
+     * @param roundNumber global round number
+     * @param endMillis end timestamp in epoch milliseconds
+     * @return new round state
+     */
+    private RoundState newRound(int gameIndex, long roundNumber, long endMillis) {
+        int gameId = this.gameRepository.getGameIdByIndex(gameIndex);
+
+        return new RoundState(
+            gameIndex,
+            gameId,
+            roundNumber,
+            endMillis,
+            this.gameRepository.getMatcher(gameId)
+        );
     }
 }
@@ -10,14 +10,26 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.SerializedName;
 
-/** Persists and restores the global active round state. */
+/**
+ * Persists and restores the global active round state.
+ *
+ * <p>Given a {@link KeyValueStore}, the state is its {@code round} record,
+ * and the JSON file is only imported into an empty store and written by
+ * {@link #exportSnapshot}.
+ */
 public class GameRoundStateRepository {
+    /** Store key of the round state. */
+    private static final String KEY = "round";
+
     /** JSON serializer/deserializer. */
     private final Gson gson;
 
     /** Storage file location. */
     private final Path storageFile;
 
+    /** Store holding the round state, or null to use the JSON file. */
+    private final KeyValueStore store;
+
 
 
     /**
@@ -25,9 +37,20 @@ public class GameRoundStateRepository {
      *
      * @param storagePath JSON file path
      */
-    public GameRoundStateRepository(String storagePath) {
+    public GameRoundStateRepository(String storagePath) { this(storagePath, null); }
+
+
+    /**
+     * Creates repository backed by a key-value store.
+     *
+     * @param storagePath JSON file imported into an empty store and written
+     *        by exports
+     * @param store store holding the round state, or null to use the JSON file
+     */
+    public GameRoundStateRepository(String storagePath, KeyValueStore store) {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.storageFile = Path.of(storagePath);
+        this.store = store;
     }
 
 
@@ -38,6 +61,13 @@ public class GameRoundStateRepository {
      */
     public synchronized GameRoundCoordinator.RoundStateSnapshot loadSnapshot() {
         try {
+            if (this.store != null) {
+                String stored = this.store.get(KEY);
+                if (stored != null) {
+                    return toSnapshot(this.gson.fromJson(stored, StorageData.class));
+                }
+            }
+
             if (!Files.exists(this.storageFile)) {
                 Path parent = this.storageFile.getParent();
                 if (parent != null) { Files.createDirectories(parent); }
@@ -48,13 +78,12 @@ public class GameRoundStateRepository {
             if (content.trim().isEmpty()) { return null; }
 
             StorageData data = this.gson.fromJson(content, StorageData.class);
-            if (data == null) { return null; }
+            if (data != null && this.store != null) {
+                this.store.put(KEY, this.gson.toJson(data));
+                this.store.sync();
+            }
 
-            return new GameRoundCoordinator.RoundStateSnapshot(
-                data.currentGameId,
-                data.roundNumber,
-                data.remainingTimeMillis
-            );
+            return toSnapshot(data);
         }
         catch (IOException | RuntimeException ex) {
             System.err.println("Failed to load game round state: " + ex.getMessage());
@@ -73,6 +102,26 @@ public class GameRoundStateRepository {
     ) {
         if (snapshot == null) { return; }
 
+        if (this.store != null) {
+            this.store.put(KEY, this.gson.toJson(toStorageData(snapshot)));
+            this.store.sync();
+            return;
+        }
+
+        exportSnapshot(snapshot);
+    }
+
+
+    /**
+     * Writes a round-state snapshot to the JSON file atomically.
+     *
+     * @param snapshot round state snapshot to write
+     */
+    public synchronized void exportSnapshot(
+        GameRoundCoordinator.RoundStateSnapshot snapshot
+    ) {
+        if (snapshot == null) { return; }
+
         try {
             Path parent = this.storageFile.getParent();
             if (parent != null) { Files.createDirectories(parent); }
@@ -81,13 +130,7 @@ public class GameRoundStateRepository {
                 this.storageFile.getFileName() + ".tmp"
             );
 
-            StorageData data = new StorageData(
-                snapshot.getCurrentGameId(),
-                snapshot.getRoundNumber(),
-                snapshot.getRemainingTimeMillis()
-            );
-
-            String json = this.gson.toJson(data);
+            String json = this.gson.toJson(toStorageData(snapshot));
             Files.writeString(tempFile, json, StandardCharsets.UTF_8);
             Files.move(
                 tempFile,
@@ -102,6 +145,28 @@ public class GameRoundStateRepository {
     }
 
 
+    private static GameRoundCoordinator.RoundStateSnapshot toSnapshot(StorageData data) {
+        if (data == null) { return null; }
+
+        return new GameRoundCoordinator.RoundStateSnapshot(
+            data.currentGameId,
+            data.roundNumber,
+            data.remainingTimeMillis
+        );
+    }
+
+
+    private static StorageData toStorageData(
+        GameRoundCoordinator.RoundStateSnapshot snapshot
+    ) {
+        return new StorageData(
+            snapshot.getCurrentGameId(),
+            snapshot.getRoundNumber(),
+            snapshot.getRemainingTimeMillis()
+        );
+    }
+
+
     /** Root JSON structure for storage format. */
     private static final class StorageData {
         @SerializedName("currentGameId")
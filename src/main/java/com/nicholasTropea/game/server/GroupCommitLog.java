@@ -0,0 +1,353 @@
+package com.nicholasTropea.game.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, newline-delimited record log with group commit.
+ *
+ * <p>{@link #append(String)} returns once the record is on stable storage.
+ * A single flusher thread writes every record queued while the previous
+ * {@code fsync} was in progress with one gathering write and one
+ * {@link FileChannel#force(boolean)}, so the number of syncs tracks the
+ * number of batches rather than the number of records.
+ *
+ * <p>For checkpointing the active segment can be {@linkplain #rotate()
+ * rotated} aside: records keep flowing into a fresh segment while the
+ * caller writes a compacted snapshot, after which the rotated segment is
+ * {@linkplain #discardPreviousSegment() discarded}. Both segments are
+ * replayed on startup, so records must be idempotent.
+ */
+public class GroupCommitLog implements AutoCloseable {
+    /** Records appended while the previous batch was being synced. */
+    private static final class Batch {
+        private final List<ByteBuffer> records = new ArrayList<>();
+        private boolean done;
+        private IOException error;
+    }
+
+
+    /** Active segment path. */
+    private final Path file;
+
+    /** Rotated segment awaiting a checkpoint, replayed before {@link #file}. */
+    private final Path previousSegment;
+
+    /** Guards {@link #open} and {@link #closed}. */
+    private final ReentrantLock lock;
+
+    /** Signalled when records are queued or the log is closed. */
+    private final Condition recordsQueued;
+
+    /** Signalled when a batch has been synced. */
+    private final Condition batchCommitted;
+
+    /** Serializes file I/O between the flusher and segment rotation. */
+    private final ReentrantLock ioLock;
+
+    /** Background thread performing writes and syncs. */
+    private final Thread flusher;
+
+    /** Batch currently collecting records. */
+    private Batch open;
+
+    /** True once {@link #close()} was called. */
+    private boolean closed;
+
+    /** Channel of the active segment. */
+    private FileChannel channel;
+
+
+    /**
+     * Opens (or creates) a log and starts its flusher thread.
+     *
+     * @param file active segment path
+     * @param threadName name of the flusher thread
+     */
+    public GroupCommitLog(Path file, String threadName) {
+        this.file = file;
+        this.previousSegment = previousSegmentOf(file);
+        this.lock = new ReentrantLock();
+        this.recordsQueued = this.lock.newCondition();
+        this.batchCommitted = this.lock.newCondition();
+        this.ioLock = new ReentrantLock();
+        this.open = new Batch();
+        this.closed = false;
+
+        try {
+            Path parent = file.getParent();
+            if (parent != null) { Files.createDirectories(parent); }
+            this.channel = openSegment(file);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not open journal " + file, ex);
+        }
+
+        this.flusher = new Thread(this::flushLoop, threadName);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+
+    /**
+     * Appends a record and waits until it is durable.
+     *
+     * @param record single-line record, without trailing newline
+     * @throws IllegalStateException if the log is closed or the write failed
+     */
+    public void append(String record) { enqueue(record).await(); }
+
+
+    /**
+     * Queues a record without waiting for it to be written.
+     *
+     * <p>Records reach the file in the order they are queued, so a caller
+     * can queue while holding its own lock, keeping the log in the order of
+     * its mutations, and {@linkplain Commit#await() wait} after releasing it.
+     *
+     * @param record single-line record, without trailing newline
+     * @return handle completing once the record is durable
+     * @throws IllegalStateException if the log is closed
+     */
+    public Commit enqueue(String record) {
+        byte[] bytes = (record + "\n").getBytes(StandardCharsets.UTF_8);
+
+        this.lock.lock();
+        try {
+            if (this.closed) { throw new IllegalStateException("journal closed"); }
+
+            Batch batch = this.open;
+            batch.records.add(ByteBuffer.wrap(bytes));
+            this.recordsQueued.signal();
+            return new Commit(batch);
+        }
+        finally { this.lock.unlock(); }
+    }
+
+
+    /**
+     * Returns the segments to replay, oldest first.
+     *
+     * @return existing segment paths
+     */
+    public List<Path> segments() { return segmentsOf(this.file); }
+
+
+    /**
+     * Returns the segments of a log that is not open, oldest first.
+     *
+     * @param file active segment path
+     * @return existing segment paths
+     */
+    public static List<Path> segmentsOf(Path file) {
+        Path previousSegment = previousSegmentOf(file);
+
+        List<Path> segments = new ArrayList<>(2);
+        if (Files.exists(previousSegment)) { segments.add(previousSegment); }
+        if (Files.exists(file)) { segments.add(file); }
+        return segments;
+    }
+
+
+    /**
+     * Returns the size of the active segment.
+     *
+     * @return size in bytes
+     */
+    public long size() {
+        this.ioLock.lock();
+        try { return this.channel.size(); }
+        catch (IOException ex) { return 0L; }
+        finally { this.ioLock.unlock(); }
+    }
+
+
+    /**
+     * Moves the active segment aside and starts a new empty one.
+     *
+     * <p>If a previous rotated segment still exists (an earlier checkpoint
+     * failed), the active segment is appended to it instead.
+     */
+    public void rotate() {
+        this.ioLock.lock();
+        try {
+            this.channel.force(true);
+            this.channel.close();
+
+            if (Files.exists(this.previousSegment)) {
+                try (
+                    FileChannel source = FileChannel.open(
+                        this.file,
+                        StandardOpenOption.READ
+                    );
+                    FileChannel target = openSegment(this.previousSegment)
+                ) {
+                    long position = 0L;
+                    long size = source.size();
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                    target.force(true);
+                }
+                Files.delete(this.file);
+            }
+            else {
+                Files.move(
+                    this.file,
+                    this.previousSegment,
+                    StandardCopyOption.ATOMIC_MOVE
+                );
+            }
+
+            this.channel = openSegment(this.file);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not rotate journal " + this.file, ex);
+        }
+        finally { this.ioLock.unlock(); }
+    }
+
+
+    /** Deletes the rotated segment once a checkpoint covering it is durable. */
+    public void discardPreviousSegment() {
+        try { Files.deleteIfExists(this.previousSegment); }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not delete journal segment", ex);
+        }
+    }
+
+
+    /** Flushes queued records, stops the flusher and closes the file. */
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.recordsQueued.signal();
+        }
+        finally { this.lock.unlock(); }
+
+        try { this.flusher.join(); }
+        catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+
+        this.ioLock.lock();
+        try { this.channel.close(); }
+        catch (IOException ex) {
+            System.err.println("Journal close error: " + ex.getMessage());
+        }
+        finally { this.ioLock.unlock(); }
+    }
+
+
+    /** Pending durability of one queued record. */
+    public final class Commit {
+        private final Batch batch;
+
+
+        private Commit(Batch batch) { this.batch = batch; }
+
+
+        /**
+         * Waits until the batch holding the record is synced.
+         *
+         * @throws IllegalStateException if the write failed
+         */
+        public void await() {
+            GroupCommitLog.this.lock.lock();
+            try {
+                while (!this.batch.done) {
+                    GroupCommitLog.this.batchCommitted.awaitUninterruptibly();
+                }
+
+                if (this.batch.error != null) {
+                    throw new IllegalStateException(
+                        "Could not append to journal",
+                        this.batch.error
+                    );
+                }
+            }
+            finally { GroupCommitLog.this.lock.unlock(); }
+        }
+    }
+
+
+    /** Writes and syncs batches until the log is closed and drained. */
+    private void flushLoop() {
+        while (true) {
+            Batch batch;
+
+            this.lock.lock();
+            try {
+                while (this.open.records.isEmpty() && !this.closed) {
+                    this.recordsQueued.awaitUninterruptibly();
+                }
+                if (this.open.records.isEmpty()) { return; }
+
+                batch = this.open;
+                this.open = new Batch();
+            }
+            finally { this.lock.unlock(); }
+
+            IOException error = writeBatch(batch);
+
+            this.lock.lock();
+            try {
+                batch.done = true;
+                batch.error = error;
+                this.batchCommitted.signalAll();
+            }
+            finally { this.lock.unlock(); }
+        }
+    }
+
+
+    /**
+     * Writes one batch with a gathering write and syncs it.
+     *
+     * @param batch batch to write
+     * @return error raised by the file system, or null on success
+     */
+    private IOException writeBatch(Batch batch) {
+        ByteBuffer[] buffers = batch.records.toArray(new ByteBuffer[0]);
+
+        this.ioLock.lock();
+        try {
+            long remaining = 0L;
+            for (ByteBuffer buffer : buffers) { remaining += buffer.remaining(); }
+
+            while (remaining > 0L) { remaining -= this.channel.write(buffers); }
+            this.channel.force(false);
+            return null;
+        }
+        catch (IOException ex) {
+            System.err.println("Journal write error: " + ex.getMessage());
+            return ex;
+        }
+        finally { this.ioLock.unlock(); }
+    }
+
+
+    private static Path previousSegmentOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".1");
+    }
+
+
+    private static FileChannel openSegment(Path path) throws IOException {
+        return FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND
+        );
+    }
+}
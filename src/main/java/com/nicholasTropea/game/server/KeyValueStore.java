@@ -0,0 +1,76 @@
+package com.nicholasTropea.game.server;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Embedded key-value storage behind the persistent repositories.
+ *
+ * <p>Keys are short strings laid out hierarchically with {@code /}, such as
+ * {@code player/<userId>} or {@code state/<userId>/<gameId>}, so all records
+ * of one user can be read with a prefix scan. Values are compact JSON.
+ *
+ * <p>Writes are visible to readers as soon as they return but only durable
+ * after {@link #sync()}. Callers can therefore write while holding their own
+ * lock and sync after releasing it, letting concurrent writers share one
+ * {@code fsync}.
+ */
+public interface KeyValueStore extends AutoCloseable {
+    /**
+     * Reads the value of a key.
+     *
+     * @param key record key
+     * @return stored value, or null if absent
+     */
+    String get(String key);
+
+
+    /**
+     * Stores a value, replacing any previous one.
+     *
+     * @param key record key
+     * @param value value to store
+     * @throws IllegalStateException if the write failed
+     */
+    void put(String key, String value);
+
+
+    /**
+     * Deletes a key; does nothing if it is absent.
+     *
+     * @param key record key
+     * @throws IllegalStateException if the write failed
+     */
+    void remove(String key);
+
+
+    /**
+     * Visits every record whose key starts with a prefix, in key order.
+     *
+     * <p>The action must not write to the store.
+     *
+     * @param prefix key prefix, empty for every record
+     * @param action receives each key and value
+     */
+    void forEach(String prefix, BiConsumer<String, String> action);
+
+
+    /**
+     * Waits until every write that returned before this call is durable.
+     *
+     * @throws IllegalStateException if the sync failed
+     */
+    void sync();
+
+
+    /** @return bytes held by overwritten or deleted records */
+    long getGarbageBytes();
+
+
+    /** Rewrites the store without its garbage, while it stays in use. */
+    void compact();
+
+
+    /** Syncs and closes the store. */
+    @Override
+    void close();
+}
@@ -0,0 +1,350 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.nicholasTropea.game.model.LeaderboardRecord;
+
+/**
+ * Incrementally maintained global leaderboard.
+ *
+ * <p>Players are kept in an order-statistic treap ordered by total score
+ * descending, then username ascending. Every node stores its subtree size,
+ * so the rank of a player is found in O(log P) and the top K entries are
+ * produced by an in-order walk in O(log P + K). Scores are updated in place
+ * whenever a game score changes instead of being recomputed per request.
+ */
+public class LeaderboardIndex {
+    /** Treap node holding one player's ranking key. */
+    private static final class Node {
+        private final int userId;
+        private final String username;
+        private final int score;
+        private final int priority;
+        private int size;
+        private Node left;
+        private Node right;
+
+
+        private Node(int userId, String username, int score) {
+            this.userId = userId;
+            this.username = username;
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+    }
+
+
+    /** Root of the treap, null when empty. */
+    private Node root;
+
+    /** Current node of each ranked player by userId. */
+    private final Map<Integer, Node> nodesByUserId;
+
+    /** Username lookup used by single-player queries. */
+    private final Map<String, Integer> userIdsByUsername;
+
+    /** Readers (queries) share the lock, score updates take it exclusively. */
+    private final ReentrantReadWriteLock lock;
+
+
+    /** Creates an empty leaderboard index. */
+    public LeaderboardIndex() {
+        this.root = null;
+        this.nodesByUserId = new HashMap<>();
+        this.userIdsByUsername = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+
+    /**
+     * Inserts a player or replaces their name and total score.
+     *
+     * @param userId player identifier
+     * @param username current player username
+     * @param totalScore total score across all games
+     */
+    public void put(int userId, String username, int totalScore) {
+        Objects.requireNonNull(username, "username is required");
+
+        this.lock.writeLock().lock();
+        try {
+            Node previous = this.nodesByUserId.get(userId);
+            if (previous != null) {
+                this.root = remove(this.root, previous);
+                this.userIdsByUsername.remove(previous.username);
+            }
+
+            insertNode(new Node(userId, username, totalScore));
+        }
+        finally { this.lock.writeLock().unlock(); }
+    }
+
+
+    /**
+     * Adds a score delta to an already ranked player.
+     *
+     * @param userId player identifier
+     * @param delta score change, may be negative
+     */
+    public void addScore(int userId, int delta) {
+        if (delta == 0) { return; }
+
+        this.lock.writeLock().lock();
+        try {
+            Node previous = this.nodesByUserId.get(userId);
+            if (previous == null) { return; }
+
+            this.root = remove(this.root, previous);
+            insertNode(new Node(userId, previous.username, previous.score + delta));
+        }
+        finally { this.lock.writeLock().unlock(); }
+    }
+
+
+    /**
+     * Changes the username of a ranked player, keeping their score.
+     *
+     * @param userId player identifier
+     * @param newUsername new username
+     */
+    public void rename(int userId, String newUsername) {
+        Objects.requireNonNull(newUsername, "newUsername is required");
+
+        this.lock.writeLock().lock();
+        try {
+            Node previous = this.nodesByUserId.get(userId);
+            if (previous == null || previous.username.equals(newUsername)) { return; }
+
+            this.root = remove(this.root, previous);
+            this.userIdsByUsername.remove(previous.username);
+            insertNode(new Node(userId, newUsername, previous.score));
+        }
+        finally { this.lock.writeLock().unlock(); }
+    }
+
+
+    /** @return number of ranked players */
+    public int size() {
+        this.lock.readLock().lock();
+        try { return size(this.root); }
+        finally { this.lock.readLock().unlock(); }
+    }
+
+
+    /**
+     * Returns the best {@code k} players in ranking order.
+     *
+     * @param k maximum number of records
+     * @return records with 1-based positions
+     */
+    public List<LeaderboardRecord> top(int k) {
+        this.lock.readLock().lock();
+        try {
+            int count = Math.max(0, Math.min(k, size(this.root)));
+            List<LeaderboardRecord> records = new ArrayList<>(count);
+
+            Deque<Node> path = new ArrayDeque<>();
+            Node current = this.root;
+
+            while (records.size() < count && (current != null || !path.isEmpty())) {
+                while (current != null) {
+                    path.push(current);
+                    current = current.left;
+                }
+
+                Node node = path.pop();
+                records.add(
+                    new LeaderboardRecord(node.username, records.size() + 1, node.score)
+                );
+                current = node.right;
+            }
+
+            return records;
+        }
+        finally { this.lock.readLock().unlock(); }
+    }
+
+
+    /**
+     * Returns the ranking record of one player.
+     *
+     * @param username player username
+     * @return record with 1-based position, or null if the player is unknown
+     */
+    public LeaderboardRecord find(String username) {
+        this.lock.readLock().lock();
+        try {
+            Integer userId = this.userIdsByUsername.get(username);
+            if (userId == null) { return null; }
+
+            Node target = this.nodesByUserId.get(userId);
+            return new LeaderboardRecord(
+                target.username,
+                rankOf(target),
+                target.score
+            );
+        }
+        finally { this.lock.readLock().unlock(); }
+    }
+
+
+    /**
+     * Inserts a node and records it in the lookup maps.
+     *
+     * @param node node to insert
+     */
+    private void insertNode(Node node) {
+        this.root = insert(this.root, node);
+        this.nodesByUserId.put(node.userId, node);
+        this.userIdsByUsername.put(node.username, node.userId);
+    }
+
+
+    /**
+     * Computes the 1-based position of a node by descending from the root.
+     *
+     * @param target node present in the treap
+     * @return ranking position
+     */
+    private int rankOf(Node target) {
+        int rank = 1;
+        Node current = this.root;
+
+        while (current != null) {
+            int cmp = compare(target, current);
+            if (cmp < 0) { current = current.left; }
+            else {
+                rank += size(current.left);
+                if (cmp == 0) { return rank; }
+
+                rank++;
+                current = current.right;
+            }
+        }
+
+        throw new IllegalStateException("ranked node not found");
+    }
+
+
+    /**
+     * Inserts a node into a subtree, rotating to keep heap order on priority.
+     *
+     * @param subtree subtree root
+     * @param node node to insert
+     * @return new subtree root
+     */
+    private static Node insert(Node subtree, Node node) {
+        if (subtree == null) { return node; }
+
+        if (compare(node, subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+            if (subtree.left.priority > subtree.priority) {
+                return rotateRight(subtree);
+            }
+        }
+        else {
+            subtree.right = insert(subtree.right, node);
+            if (subtree.right.priority > subtree.priority) {
+                return rotateLeft(subtree);
+            }
+        }
+
+        update(subtree);
+        return subtree;
+    }
+
+
+    /**
+     * Removes a node from a subtree.
+     *
+     * @param subtree subtree root
+     * @param node node to remove
+     * @return new subtree root
+     */
+    private static Node remove(Node subtree, Node node) {
+        if (subtree == null) { return null; }
+
+        int cmp = compare(node, subtree);
+        if (cmp < 0) { subtree.left = remove(subtree.left, node); }
+        else if (cmp > 0) { subtree.right = remove(subtree.right, node); }
+        else { return merge(subtree.left, subtree.right); }
+
+        update(subtree);
+        return subtree;
+    }
+
+
+    /**
+     * Merges two treaps where every key of {@code left} precedes {@code right}.
+     *
+     * @param left lower subtree
+     * @param right upper subtree
+     * @return merged subtree root
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) { return right; }
+        if (right == null) { return left; }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+
+    private static int size(Node node) { return node == null ? 0 : node.size; }
+
+
+    /**
+     * Ranking order: higher score first, then username alphabetically.
+     *
+     * @param a first node
+     * @param b second node
+     * @return negative if {@code a} ranks before {@code b}
+     */
+    private static int compare(Node a, Node b) {
+        int byScore = Integer.compare(b.score, a.score);
+        if (byScore != 0) { return byScore; }
+
+        return a.username.compareTo(b.username);
+    }
+}
@@ -0,0 +1,626 @@
+package com.nicholasTropea.game.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link KeyValueStore} kept in a single append-only file.
+ *
+ * <p>Every write appends one record: a CRC32C checksum, the key and value
+ * lengths, then the UTF-8 key and value; a deletion is a record without a
+ * value. An in-memory index sorted by key points at the latest record of
+ * each key, so a point read is one positional read and a prefix scan walks
+ * a range of the index. The index is rebuilt by scanning the file at
+ * startup, and a torn or corrupt tail, left by a crash during a write, is
+ * cut off.
+ *
+ * <p>Appends are ordered by a short lock and go straight to the file.
+ * {@link #sync()} is a group commit: the first waiting thread forces the
+ * file for everything written so far, and threads whose writes it covered
+ * return without a sync of their own.
+ *
+ * <p>{@link #compact()} copies the live records, in key order, into a new
+ * file while reads and writes go on. It then briefly holds them off to copy
+ * the records appended in the meantime and swap the files. Key order keeps
+ * the records of one user next to each other.
+ */
+public final class LogStructuredStore implements KeyValueStore {
+    /** Checksum, key length and value length. */
+    private static final int HEADER_BYTES = 12;
+
+    /** Value length of a deletion record. */
+    private static final int TOMBSTONE = -1;
+
+    /** Largest accepted key, in bytes. */
+    private static final int MAX_KEY_BYTES = 1 << 16;
+
+    /** Largest accepted value, in bytes. */
+    private static final int MAX_VALUE_BYTES = 1 << 26;
+
+    /** Buffer size used to scan and to compact the file. */
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+
+    /** Store file. */
+    private final Path file;
+
+    /**
+     * Shared by reads, writes and syncs; exclusive while a compaction swaps
+     * the file and on close.
+     */
+    private final ReentrantReadWriteLock lock;
+
+    /** Orders appends; guards {@link #liveBytes} and updates of {@link #end}. */
+    private final ReentrantLock appendLock;
+
+    /** Held by the thread forcing the file in {@link #sync()}. */
+    private final ReentrantLock syncLock;
+
+    /** Serializes compactions. */
+    private final ReentrantLock compactionLock;
+
+    /** Latest record of every live key; replaced by a compaction. */
+    private ConcurrentSkipListMap<String, Location> index;
+
+    /** Open store file. */
+    private FileChannel channel;
+
+    /** Length of the valid part of the file. */
+    private volatile long end;
+
+    /** Length of the part of the file known to be on stable storage. */
+    private volatile long synced;
+
+    /** Bytes of the records the index points at. */
+    private long liveBytes;
+
+    /** True once {@link #close()} was called. */
+    private boolean closed;
+
+
+    /**
+     * Opens (or creates) a store and rebuilds its index.
+     *
+     * @param storagePath store file path
+     * @throws IllegalStateException if the file cannot be opened or read
+     */
+    public LogStructuredStore(String storagePath) {
+        this.file = Path.of(storagePath);
+        this.lock = new ReentrantReadWriteLock();
+        this.appendLock = new ReentrantLock();
+        this.syncLock = new ReentrantLock();
+        this.compactionLock = new ReentrantLock();
+        this.index = new ConcurrentSkipListMap<>();
+        this.closed = false;
+
+        try {
+            Path parent = this.file.getParent();
+            if (parent != null) { Files.createDirectories(parent); }
+
+            this.channel = FileChannel.open(
+                this.file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            recover();
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not open store " + this.file, ex);
+        }
+    }
+
+
+    @Override
+    public String get(String key) {
+        this.lock.readLock().lock();
+        try {
+            ensureOpen();
+            Location location = this.index.get(key);
+            return location == null ? null : readValue(location);
+        }
+        finally { this.lock.readLock().unlock(); }
+    }
+
+
+    @Override
+    public void put(String key, String value) {
+        Objects.requireNonNull(value, "value is required");
+        append(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    @Override
+    public void remove(String key) { append(key, null); }
+
+
+    @Override
+    public void forEach(String prefix, BiConsumer<String, String> action) {
+        this.lock.readLock().lock();
+        try {
+            ensureOpen();
+            for (Map.Entry<String, Location> entry : this.index.tailMap(prefix).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) { break; }
+                action.accept(entry.getKey(), readValue(entry.getValue()));
+            }
+        }
+        finally { this.lock.readLock().unlock(); }
+    }
+
+
+    @Override
+    public void sync() {
+        long target = this.end;
+        if (this.synced >= target) { return; }
+
+        this.syncLock.lock();
+        try {
+            // A sync that finished while this thread waited may cover it
+            if (this.synced >= target) { return; }
+
+            this.lock.readLock().lock();
+            try {
+                ensureOpen();
+                long reached = this.end;
+                this.channel.force(false);
+                this.synced = reached;
+            }
+            finally { this.lock.readLock().unlock(); }
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not sync store " + this.file, ex);
+        }
+        finally { this.syncLock.unlock(); }
+    }
+
+
+    @Override
+    public long getGarbageBytes() {
+        this.lock.readLock().lock();
+        this.appendLock.lock();
+        try { return this.end - this.liveBytes; }
+        finally {
+            this.appendLock.unlock();
+            this.lock.readLock().unlock();
+        }
+    }
+
+
+    @Override
+    public void compact() {
+        Path target = this.file.resolveSibling(this.file.getFileName() + ".compact");
+
+        this.compactionLock.lock();
+        try (
+            FileChannel compacted = FileChannel.open(
+                target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            ConcurrentSkipListMap<String, Location> copied = new ConcurrentSkipListMap<>();
+            long copiedEnd;
+            long snapshotEnd;
+
+            this.lock.readLock().lock();
+            try {
+                ensureOpen();
+
+                List<Map.Entry<String, Location>> entries;
+                this.appendLock.lock();
+                try {
+                    snapshotEnd = this.end;
+                    entries = new ArrayList<>(this.index.entrySet());
+                }
+                finally { this.appendLock.unlock(); }
+
+                copiedEnd = copyRecords(entries, compacted, copied);
+            }
+            finally { this.lock.readLock().unlock(); }
+
+            this.lock.writeLock().lock();
+            try {
+                ensureOpen();
+
+                // Records appended during the copy are taken over as they are
+                long tail = this.end - snapshotEnd;
+                compacted.position(copiedEnd);
+                for (long moved = 0L; moved < tail; ) {
+                    moved += this.channel.transferTo(snapshotEnd + moved, tail - moved, compacted);
+                }
+
+                long live = 0L;
+                for (Location location : copied.values()) { live += location.recordLength(); }
+
+                RecordReader reader = new RecordReader(compacted, copiedEnd, copiedEnd + tail);
+                for (Record record = reader.next(); record != null; record = reader.next()) {
+                    live += apply(copied, record.key, record.location);
+                }
+
+                compacted.force(true);
+                Files.move(
+                    target,
+                    this.file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+                );
+
+                this.channel.close();
+                this.channel = FileChannel.open(
+                    this.file,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+                );
+                this.index = copied;
+                this.end = copiedEnd + tail;
+                this.synced = this.end;
+                this.liveBytes = live;
+            }
+            finally { this.lock.writeLock().unlock(); }
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not compact store " + this.file, ex);
+        }
+        finally {
+            this.compactionLock.unlock();
+
+            try { Files.deleteIfExists(target); }
+            catch (IOException ex) {
+                System.err.println("Could not delete " + target + ": " + ex.getMessage());
+            }
+        }
+    }
+
+
+    @Override
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) { return; }
+
+            this.closed = true;
+            this.channel.force(true);
+            this.channel.close();
+        }
+        catch (IOException ex) {
+            System.err.println("Store close error: " + ex.getMessage());
+        }
+        finally { this.lock.writeLock().unlock(); }
+    }
+
+
+    /** Rebuilds the index from the file and cuts off a torn tail. */
+    private void recover() throws IOException {
+        long size = this.channel.size();
+        RecordReader reader = new RecordReader(this.channel, 0L, size);
+
+        for (Record record = reader.next(); record != null; record = reader.next()) {
+            this.liveBytes += apply(this.index, record.key, record.location);
+        }
+
+        this.end = reader.position;
+        this.synced = this.end;
+
+        if (this.end < size) {
+            System.err.println(
+                "Ignoring torn store record at offset " + this.end + " in " + this.file
+            );
+            this.channel.truncate(this.end);
+            this.channel.force(true);
+        }
+    }
+
+
+    /**
+     * Appends a record and points the index at it.
+     *
+     * @param key record key
+     * @param value UTF-8 value, or null for a deletion
+     */
+    private void append(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length == 0 || keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("invalid key length: " + keyBytes.length);
+        }
+        if (value != null && value.length > MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("value too large: " + value.length);
+        }
+
+        ByteBuffer record = encode(keyBytes, value);
+
+        this.lock.readLock().lock();
+        try {
+            ensureOpen();
+
+            this.appendLock.lock();
+            try {
+                if (value == null && !this.index.containsKey(key)) { return; }
+
+                long position = this.end;
+                writeFully(this.channel, record, position);
+                this.end = position + record.limit();
+
+                Location location = value == null
+                    ? null
+                    : new Location(position, keyBytes.length, value.length);
+                this.liveBytes += apply(this.index, key, location);
+            }
+            finally { this.appendLock.unlock(); }
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not write to store " + this.file, ex);
+        }
+        finally { this.lock.readLock().unlock(); }
+    }
+
+
+    /**
+     * Copies the records of a consistent index snapshot into a new file.
+     *
+     * @param entries index entries, in key order
+     * @param target new store file
+     * @param copied receives the location of each copied record
+     * @return bytes written
+     */
+    private long copyRecords(
+        List<Map.Entry<String, Location>> entries,
+        FileChannel target,
+        Map<String, Location> copied
+    ) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+        long flushed = 0L;
+
+        for (Map.Entry<String, Location> entry : entries) {
+            Location location = entry.getValue();
+            int length = location.recordLength();
+
+            if (buffer.remaining() < length) {
+                buffer.flip();
+                flushed += writeFully(target, buffer, flushed);
+                buffer.clear();
+                if (buffer.capacity() < length) { buffer = ByteBuffer.allocate(length); }
+            }
+
+            ByteBuffer slot = buffer.duplicate();
+            slot.limit(buffer.position() + length);
+            readFully(this.channel, slot, location.position);
+
+            copied.put(entry.getKey(), location.movedTo(flushed + buffer.position()));
+            buffer.position(buffer.position() + length);
+        }
+
+        buffer.flip();
+        return flushed + writeFully(target, buffer, flushed);
+    }
+
+
+    private String readValue(Location location) {
+        ByteBuffer value = ByteBuffer.allocate(location.valueLength);
+        try { readFully(this.channel, value, location.valuePosition()); }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not read from store " + this.file, ex);
+        }
+        return new String(value.array(), StandardCharsets.UTF_8);
+    }
+
+
+    private void ensureOpen() {
+        if (this.closed) { throw new IllegalStateException("store closed"); }
+    }
+
+
+    /**
+     * Points an index at a record.
+     *
+     * @param index index to update
+     * @param key record key
+     * @param location record location, or null for a deletion
+     * @return change in live bytes
+     */
+    private static long apply(
+        Map<String, Location> index,
+        String key,
+        Location location
+    ) {
+        Location previous = location == null ? index.remove(key) : index.put(key, location);
+
+        long added = location == null ? 0L : location.recordLength();
+        return added - (previous == null ? 0L : previous.recordLength());
+    }
+
+
+    private static ByteBuffer encode(byte[] key, byte[] value) {
+        int valueLength = value == null ? TOMBSTONE : value.length;
+        ByteBuffer record = ByteBuffer.allocate(
+            HEADER_BYTES + key.length + Math.max(valueLength, 0)
+        );
+
+        record.putInt(0).putInt(key.length).putInt(valueLength).put(key);
+        if (value != null) { record.put(value); }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.array(), 4, record.capacity() - 4);
+        record.putInt(0, (int) checksum.getValue());
+
+        return record.flip();
+    }
+
+
+    private static int writeFully(
+        FileChannel channel,
+        ByteBuffer buffer,
+        long position
+    ) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+
+    private static void readFully(
+        FileChannel channel,
+        ByteBuffer buffer,
+        long position
+    ) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) { throw new EOFException("store record past end of file"); }
+            offset += read;
+        }
+    }
+
+
+    /** Position and size of one live record. */
+    private static final class Location {
+        private final long position;
+        private final int keyLength;
+        private final int valueLength;
+
+
+        private Location(long position, int keyLength, int valueLength) {
+            this.position = position;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+
+        private long valuePosition() { return this.position + HEADER_BYTES + this.keyLength; }
+
+
+        private int recordLength() { return HEADER_BYTES + this.keyLength + this.valueLength; }
+
+
+        private Location movedTo(long newPosition) {
+            return new Location(newPosition, this.keyLength, this.valueLength);
+        }
+    }
+
+
+    /** Record read back from the file; a null location marks a deletion. */
+    private static final class Record {
+        private final String key;
+        private final Location location;
+
+
+        private Record(String key, Location location) {
+            this.key = key;
+            this.location = location;
+        }
+    }
+
+
+    /** Sequential, buffered reader of the records in a range of a file. */
+    private static final class RecordReader {
+        private final FileChannel channel;
+        private final long limit;
+
+        /** Start of the next record. */
+        private long position;
+
+        /** Bytes of the file starting at {@link #windowStart}. */
+        private ByteBuffer window;
+        private long windowStart;
+
+
+        private RecordReader(FileChannel channel, long start, long limit) {
+            this.channel = channel;
+            this.limit = limit;
+            this.position = start;
+            this.window = ByteBuffer.allocate(IO_BUFFER_BYTES).limit(0);
+            this.windowStart = start;
+        }
+
+
+        /**
+         * Reads the next record.
+         *
+         * @return record, or null at the end of the range or at the first
+         *         torn or corrupt record
+         */
+        private Record next() throws IOException {
+            ByteBuffer header = bytes(this.position, HEADER_BYTES);
+            if (header == null) { return null; }
+
+            int checksum = header.getInt();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            if (
+                keyLength <= 0 || keyLength > MAX_KEY_BYTES
+                || valueLength < TOMBSTONE || valueLength > MAX_VALUE_BYTES
+            ) {
+                return null;
+            }
+
+            int length = HEADER_BYTES + keyLength + Math.max(valueLength, 0);
+            ByteBuffer record = bytes(this.position, length);
+            if (record == null) { return null; }
+
+            CRC32C computed = new CRC32C();
+            computed.update(record.duplicate().position(record.position() + 4));
+            if ((int) computed.getValue() != checksum) { return null; }
+
+            byte[] key = new byte[keyLength];
+            record.position(record.position() + HEADER_BYTES).get(key);
+
+            Location location = valueLength == TOMBSTONE
+                ? null
+                : new Location(this.position, keyLength, valueLength);
+            this.position += length;
+            return new Record(new String(key, StandardCharsets.UTF_8), location);
+        }
+
+
+        /**
+         * Returns a view of a byte range, refilling the window if needed.
+         *
+         * @return view positioned at the first byte, or null past the range
+         */
+        private ByteBuffer bytes(long start, int length) throws IOException {
+            if (start + length > this.limit) { return null; }
+
+            long offset = start - this.windowStart;
+            if (offset < 0 || offset + length > this.window.limit()) {
+                if (this.window.capacity() < length) {
+                    this.window = ByteBuffer.allocate(length);
+                }
+
+                this.window.clear();
+                this.window.limit((int) Math.min(this.window.capacity(), this.limit - start));
+                while (this.window.hasRemaining()) {
+                    int read = this.channel.read(this.window, start + this.window.position());
+                    if (read < 0) { break; }
+                }
+                this.window.flip();
+                this.windowStart = start;
+                offset = 0;
+
+                if (length > this.window.limit()) { return null; }
+            }
+
+            return this.window.duplicate()
+                .position((int) offset)
+                .limit((int) offset + length);
+        }
+    }
+}
@@ -13,7 +13,8 @@ import java.util.Objects;
  * Listens to incoming connections and creates threads to handle single clients.
  *
  * Implements {@link Runnable} so that it can be executed in a separate thread.
- * Uses an {@link ExecutorService} to handle the {@link ClientHandler} in parallel. 
+ * Uses an {@link ExecutorService} to handle the {@link ClientHandler} in parallel,
+ * either on a cached platform thread pool or on one virtual thread per client.
  * 
  * @author Nicholas Riccardo Tropea
  */
@@ -34,8 +35,26 @@ public class NetworkManager implements Runnable {
      * @param port TCP port on which to listen for connections
      */
     public NetworkManager(int port, ServerRuntime runtime) {
+        this(port, runtime, false);
+    }
+
+
+    /**
+     * Creates a new NetworkManager choosing the handler execution model.
+     *
+     * <p>With virtual threads each blocking {@link ClientHandler} parks on
+     * socket reads without holding a platform thread, so idle connections
+     * cost a small heap-allocated stack instead of a full thread.
+     *
+     * @param port TCP port on which to listen for connections
+     * @param runtime shared server runtime dependencies
+     * @param virtualThreads true to run each handler on its own virtual thread
+     */
+    public NetworkManager(int port, ServerRuntime runtime, boolean virtualThreads) {
         this.port = port;
-        this.pool = Executors.newCachedThreadPool();
+        this.pool = virtualThreads
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newCachedThreadPool();
         this.runtime = Objects.requireNonNull(runtime, "runtime is required");
     }
 
@@ -74,9 +93,15 @@ public class NetworkManager implements Runnable {
             try { // No try-with-resources otherwise the socket will close
                 Socket clientSocket = serverSocket.accept();
                 System.out.println("Connessione da: " + clientSocket.getInetAddress());
+                // Pipelined replies are written back to back; do not hold them for ACKs
+                clientSocket.setTcpNoDelay(true);
                 
                 // Create a new client handler thread and execute it
-                ClientHandler handler = new ClientHandler(clientSocket, this.runtime);
+                ClientHandler handler = new ClientHandler(
+                    clientSocket,
+                    this.runtime,
+                    this.pool
+                );
                 this.pool.execute(handler);
             }
             catch (IOException e) { System.err.println("Errore: " + e.getMessage()); }
@@ -0,0 +1,756 @@
+package com.nicholasTropea.game.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Request;
+
+/**
+ * Non-blocking alternative to {@link NetworkManager}.
+ *
+ * <p>The listener thread accepts connections on a {@link ServerSocketChannel}
+ * and hands them round-robin to a small set of reactor threads. Each reactor
+ * owns a {@link Selector}, frames inbound bytes into newline-delimited JSON
+ * lines, or into length-prefixed frames on connections that open with the
+ * {@link BinaryProtocol} preface, and flushes queued replies. Framed requests
+ * are decoded and dispatched to the connection's {@link ClientHandler} on a
+ * bounded worker pool, one drain task at a time per connection. Untagged
+ * requests therefore run one at a time and keep reply order; read-only
+ * requests tagged with an id may overlap on the same pool and answer as soon
+ * as they finish.
+ *
+ * <p>Idle connections therefore cost a selection key and a few buffers
+ * instead of a parked platform thread. A connection whose queued requests
+ * or unwritten replies exceed {@link #MAX_BUFFERED_BYTES} stops being read
+ * until the workers and the socket catch up. Requests stay in that queue,
+ * and keep counting, while the handler's pipeline is full, so a client that
+ * pipelines faster than its requests run or its replies are read is held
+ * back by TCP flow control instead of growing the server's queues.
+ */
+public class NioNetworkManager implements Runnable {
+    /** Largest accepted request line; longer frames close the connection. */
+    private static final int MAX_LINE_BYTES = ClientHandler.MAX_FRAME_BYTES;
+
+    /**
+     * Queued request bytes, or unwritten reply bytes, above which a
+     * connection stops being read. Exceeded by at most one socket read.
+     */
+    private static final int MAX_BUFFERED_BYTES = 4 * MAX_LINE_BYTES;
+
+    /** Size of the per-reactor socket read buffer. */
+    private static final int READ_BUFFER_BYTES = 8 * 1024;
+
+    /** Initial capacity of a connection's partial-line buffer. */
+    private static final int INITIAL_LINE_BYTES = 256;
+
+    /** Listening server port. */
+    private final int port;
+
+    /** Shared runtime containing repositories and coordinators. */
+    private final ServerRuntime runtime;
+
+    /** Selector threads doing socket I/O and framing. */
+    private final Reactor[] reactors;
+
+    /** Pool running request handlers off the reactor threads. */
+    private final ExecutorService workers;
+
+    /** Round-robin cursor used to spread connections across reactors. */
+    private int nextReactor;
+
+
+    /**
+     * Creates a non-blocking network manager.
+     *
+     * @param port TCP port on which to listen for connections
+     * @param reactorThreads number of selector threads
+     * @param workerThreads number of request-processing threads
+     * @param runtime shared server runtime dependencies
+     */
+    public NioNetworkManager(
+        int port,
+        int reactorThreads,
+        int workerThreads,
+        ServerRuntime runtime
+    ) {
+        if (reactorThreads < 1 || workerThreads < 1) {
+            throw new IllegalArgumentException("thread counts must be >= 1");
+        }
+
+        this.port = port;
+        this.runtime = Objects.requireNonNull(runtime, "runtime is required");
+        this.reactors = new Reactor[reactorThreads];
+        this.workers = Executors.newFixedThreadPool(
+            workerThreads,
+            namedDaemonThreads("NIO worker")
+        );
+        this.nextReactor = 0;
+    }
+
+
+    /** Executes the main server listener. */
+    @Override
+    public void run() { this.start(); }
+
+
+    /** Opens the listening channel, starts reactors and accepts connections. */
+    private void start() {
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(this.port));
+            startReactors();
+
+            System.out.println(
+                "Server active on port: "
+                + this.port
+                + " (non-blocking, "
+                + this.reactors.length
+                + " reactors)"
+            );
+
+            this.listenForConnections(serverChannel);
+        }
+        catch (IOException e) {
+            System.err.println("Error when starting the server: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Creates and starts one thread per reactor.
+     *
+     * @throws IOException if a selector cannot be opened
+     */
+    private void startReactors() throws IOException {
+        for (int i = 0; i < this.reactors.length; i++) {
+            this.reactors[i] = new Reactor(Selector.open());
+
+            Thread thread = new Thread(this.reactors[i], "NIO reactor-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+
+    /**
+     * Accepts connections and assigns them to reactors round-robin.
+     *
+     * @param serverChannel open blocking server channel
+     */
+    private void listenForConnections(ServerSocketChannel serverChannel) {
+        while (true) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+
+                Reactor reactor = this.reactors[this.nextReactor];
+                this.nextReactor = (this.nextReactor + 1) % this.reactors.length;
+                reactor.register(channel);
+            }
+            catch (IOException e) { System.err.println("Errore: " + e.getMessage()); }
+        }
+    }
+
+
+    /**
+     * Builds a thread factory producing named daemon threads.
+     *
+     * @param prefix thread name prefix
+     * @return thread factory
+     */
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            String name = prefix + "-" + counter.getAndIncrement();
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+
+    /** Selector loop owning a subset of the connections. */
+    private final class Reactor implements Runnable {
+        /** Selector multiplexing this reactor's channels. */
+        private final Selector selector;
+
+        /** Work submitted by other threads, run on the reactor thread. */
+        private final Queue<Runnable> tasks;
+
+        /** Reusable buffer for socket reads. */
+        private final ByteBuffer readBuffer;
+
+
+        private Reactor(Selector selector) {
+            this.selector = selector;
+            this.tasks = new ConcurrentLinkedQueue<>();
+            this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        }
+
+
+        /**
+         * Registers a freshly accepted channel with this reactor.
+         *
+         * @param channel non-blocking client channel
+         */
+        private void register(SocketChannel channel) {
+            submit(() -> {
+                try {
+                    InetAddress address = channel.socket().getInetAddress();
+                    Connection connection = new Connection(this, channel, address);
+                    connection.key = channel.register(
+                        this.selector,
+                        SelectionKey.OP_READ,
+                        connection
+                    );
+                    System.out.println("Connessione da: " + address);
+                }
+                catch (IOException ex) {
+                    System.err.println("Errore: " + ex.getMessage());
+                    closeQuietly(channel);
+                }
+            });
+        }
+
+
+        /**
+         * Schedules a flush of pending replies for a connection.
+         *
+         * @param connection connection with queued output
+         */
+        private void requestWrite(Connection connection) {
+            submit(() -> flush(connection));
+        }
+
+
+        /**
+         * Queues a task for the reactor thread and wakes the selector.
+         *
+         * @param task task to run on the reactor thread
+         */
+        private void submit(Runnable task) {
+            this.tasks.add(task);
+            this.selector.wakeup();
+        }
+
+
+        /** Runs the selection loop until the thread is interrupted. */
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    this.selector.select();
+                    runPendingTasks();
+                    processSelectedKeys();
+                }
+                catch (IOException | RuntimeException ex) {
+                    System.err.println("Reactor error: " + ex.getMessage());
+                }
+            }
+        }
+
+
+        /** Drains tasks submitted from other threads. */
+        private void runPendingTasks() {
+            Runnable task;
+            while ((task = this.tasks.poll()) != null) { task.run(); }
+        }
+
+
+        /** Handles readiness events reported by the last selection. */
+        private void processSelectedKeys() {
+            Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                Connection connection = (Connection) key.attachment();
+
+                try {
+                    if (key.isValid() && key.isReadable()) { read(connection); }
+                    if (key.isValid() && key.isWritable()) { flush(connection); }
+                }
+                catch (IOException | CancelledKeyException ex) {
+                    connection.close();
+                }
+            }
+        }
+
+
+        /**
+         * Reads available bytes and splits them into protocol requests.
+         *
+         * @param connection readable connection
+         * @throws IOException if the channel read fails
+         */
+        private void read(Connection connection) throws IOException {
+            ByteBuffer buffer = this.readBuffer;
+            buffer.clear();
+
+            int read = connection.channel.read(buffer);
+            if (read < 0) {
+                connection.close();
+                return;
+            }
+
+            buffer.flip();
+            if (!buffer.hasRemaining()) { return; }
+
+            try {
+                if (connection.framing == Framing.UNDECIDED) {
+                    connection.framing = BinaryProtocol.isPrefaceStart(buffer.get(0))
+                        ? Framing.PREFACE
+                        : Framing.LINES;
+                }
+
+                switch (connection.framing) {
+                    case LINES -> connection.splitLines(buffer);
+                    default -> connection.splitFrames(buffer);
+                }
+            }
+            catch (IllegalArgumentException ex) {
+                System.err.println(
+                    "Protocol error from " + connection.address + ": " + ex.getMessage()
+                );
+                connection.close();
+                return;
+            }
+
+            if (connection.isBacklogged()) {
+                updateInterest(connection, !connection.outbound.isEmpty());
+            }
+        }
+
+
+        /**
+         * Writes queued replies until the socket buffer fills up.
+         *
+         * @param connection connection to flush
+         */
+        private void flush(Connection connection) {
+            SelectionKey key = connection.key;
+            if (key == null || !key.isValid()) { return; }
+
+            try {
+                ByteBuffer pending;
+                while ((pending = connection.outbound.peek()) != null) {
+                    connection.channel.write(pending);
+                    if (pending.hasRemaining()) { break; }
+
+                    connection.outbound.poll();
+                    connection.outboundBytes.addAndGet(-pending.limit());
+                }
+
+                updateInterest(connection, pending != null);
+            }
+            catch (IOException | CancelledKeyException ex) {
+                connection.close();
+            }
+        }
+
+
+        /**
+         * Reads from a connection only while its queues are under
+         * {@link #MAX_BUFFERED_BYTES}, and waits for the socket while a
+         * reply is partly written.
+         *
+         * @param connection connection whose queues changed
+         * @param writing true if queued replies are waiting for the socket
+         */
+        private void updateInterest(Connection connection, boolean writing) {
+            int ops = writing ? SelectionKey.OP_WRITE : 0;
+            if (!connection.isBacklogged()) { ops |= SelectionKey.OP_READ; }
+            connection.key.interestOps(ops);
+        }
+    }
+
+
+    /** Inbound framing state of a connection. */
+    private enum Framing {
+        /** Nothing received yet. */
+        UNDECIDED,
+
+        /** Newline-delimited JSON. */
+        LINES,
+
+        /** Collecting the binary protocol preface. */
+        PREFACE,
+
+        /** Length-prefixed binary frames. */
+        FRAMES
+    }
+
+
+    /** Per-connection framing, dispatch and output state. */
+    private final class Connection {
+        /** Reactor owning this connection's channel. */
+        private final Reactor reactor;
+
+        /** Non-blocking client channel. */
+        private final SocketChannel channel;
+
+        /** Remote client address. */
+        private final InetAddress address;
+
+        /** Protocol handler holding this connection's login state. */
+        private final ClientHandler handler;
+
+        /** Complete request lines or frame payloads waiting for a worker. */
+        private final Queue<byte[]> inbound;
+
+        /** Encoded replies waiting to be written by the reactor. */
+        private final Queue<ByteBuffer> outbound;
+
+        /** Total size of the requests in {@link #inbound}. */
+        private final AtomicInteger inboundBytes;
+
+        /** Total size of the replies in {@link #outbound}, written or not. */
+        private final AtomicInteger outboundBytes;
+
+        /** True while a worker is draining {@link #inbound}. */
+        private final AtomicBoolean scheduled;
+
+        /** Set once the channel has been closed. */
+        private final AtomicBoolean closed;
+
+        /** Set once the handler released the session after close. */
+        private volatile boolean released;
+
+        /** Selection key, assigned on the reactor thread after registration. */
+        private SelectionKey key;
+
+        /**
+         * Inbound protocol, decided by the first byte. Written by the reactor
+         * before any request is queued, so workers see the final value.
+         */
+        private Framing framing;
+
+        /** Length of the binary frame being read, -1 while reading its header. */
+        private int frameLength;
+
+        /** Decoder of the binary frame header being read. */
+        private final BinaryProtocol.LengthDecoder frameHeader;
+
+        /** Bytes of the request currently being framed (reactor thread only). */
+        private byte[] lineBytes;
+
+        /** Number of valid bytes in {@link #lineBytes}. */
+        private int lineLength;
+
+
+        private Connection(Reactor reactor, SocketChannel channel, InetAddress address) {
+            this.reactor = reactor;
+            this.channel = channel;
+            this.address = address;
+            this.handler = new ClientHandler(
+                address,
+                NioNetworkManager.this.runtime,
+                NioNetworkManager.this.workers,
+                this::schedule
+            );
+            this.inbound = new ConcurrentLinkedQueue<>();
+            this.outbound = new ConcurrentLinkedQueue<>();
+            this.inboundBytes = new AtomicInteger();
+            this.outboundBytes = new AtomicInteger();
+            this.scheduled = new AtomicBoolean(false);
+            this.closed = new AtomicBoolean(false);
+            this.released = false;
+            this.framing = Framing.UNDECIDED;
+            this.frameLength = -1;
+            this.frameHeader = new BinaryProtocol.LengthDecoder();
+            this.lineBytes = new byte[INITIAL_LINE_BYTES];
+            this.lineLength = 0;
+        }
+
+
+        /**
+         * Splits newline-delimited JSON requests.
+         *
+         * @param buffer bytes just read
+         * @throws IllegalArgumentException if a line exceeds {@link #MAX_LINE_BYTES}
+         */
+        private void splitLines(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte value = buffer.get();
+
+                if (value == '\n') { completeLine(); }
+                else if (!appendByte(value)) {
+                    throw new IllegalArgumentException("request line too long");
+                }
+            }
+        }
+
+
+        /**
+         * Collects the binary preface, then splits length-prefixed frames.
+         *
+         * @param buffer bytes just read
+         * @throws IllegalArgumentException if the preface is malformed or a
+         *         frame exceeds {@link #MAX_LINE_BYTES}
+         */
+        private void splitFrames(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                if (this.framing == Framing.PREFACE) {
+                    appendByte(buffer.get());
+                    if (this.lineLength == BinaryProtocol.PREFACE.length) {
+                        byte[] ack = BinaryProtocol.acknowledge(
+                            Arrays.copyOf(this.lineBytes, this.lineLength)
+                        );
+                        this.lineLength = 0;
+                        this.framing = Framing.FRAMES;
+                        enqueueReply(ByteBuffer.wrap(ack));
+                    }
+                }
+                else if (this.frameLength < 0) {
+                    if (this.frameHeader.accept(buffer.get())) {
+                        this.frameLength = this.frameHeader.length();
+                        this.frameHeader.reset();
+                        if (this.frameLength < 0 || this.frameLength > MAX_LINE_BYTES) {
+                            throw new IllegalArgumentException("request frame too large");
+                        }
+                        if (this.lineBytes.length < this.frameLength) {
+                            this.lineBytes = new byte[this.frameLength];
+                        }
+                    }
+                }
+                else {
+                    int chunk = Math.min(buffer.remaining(), this.frameLength - this.lineLength);
+                    buffer.get(this.lineBytes, this.lineLength, chunk);
+                    this.lineLength += chunk;
+                }
+
+                if (this.frameLength >= 0 && this.lineLength == this.frameLength) {
+                    enqueueRequest(Arrays.copyOf(this.lineBytes, this.lineLength));
+                    this.frameLength = -1;
+                    this.lineLength = 0;
+                }
+            }
+        }
+
+
+        /**
+         * Appends one byte to the current line.
+         *
+         * @param value byte to append
+         * @return false if the line exceeded {@link #MAX_LINE_BYTES}
+         */
+        private boolean appendByte(byte value) {
+            if (this.lineLength == MAX_LINE_BYTES) { return false; }
+
+            if (this.lineLength == this.lineBytes.length) {
+                int grown = Math.min(MAX_LINE_BYTES, this.lineBytes.length * 2);
+                this.lineBytes = Arrays.copyOf(this.lineBytes, grown);
+            }
+
+            this.lineBytes[this.lineLength++] = value;
+            return true;
+        }
+
+
+        /** Hands the buffered line to a worker. */
+        private void completeLine() {
+            int length = this.lineLength;
+            if (length > 0 && this.lineBytes[length - 1] == '\r') { length--; }
+            this.lineLength = 0;
+
+            if (length == 0) { return; }
+
+            enqueueRequest(Arrays.copyOf(this.lineBytes, length));
+        }
+
+
+        /**
+         * Queues a complete request for the workers.
+         *
+         * @param request JSON line or binary frame payload
+         */
+        private void enqueueRequest(byte[] request) {
+            this.inbound.add(request);
+            this.inboundBytes.addAndGet(request.length);
+            schedule();
+        }
+
+
+        /**
+         * Queues encoded bytes for the reactor to write.
+         *
+         * @param reply whole reply, position at zero
+         */
+        private void enqueueReply(ByteBuffer reply) {
+            this.outbound.add(reply);
+            this.outboundBytes.addAndGet(reply.limit());
+            this.reactor.requestWrite(this);
+        }
+
+
+        /** @return true if queued requests or replies exceed {@link #MAX_BUFFERED_BYTES} */
+        private boolean isBacklogged() {
+            return this.inboundBytes.get() > MAX_BUFFERED_BYTES
+                || this.outboundBytes.get() > MAX_BUFFERED_BYTES;
+        }
+
+
+        /** Submits a drain task unless one is already running. */
+        private void schedule() {
+            if (this.scheduled.compareAndSet(false, true)) {
+                NioNetworkManager.this.workers.execute(this::drain);
+            }
+        }
+
+
+        /**
+         * Processes queued lines in order on a worker thread. Stops while
+         * the handler's pipeline is full, leaving the rest counted against
+         * {@link #MAX_BUFFERED_BYTES}; the handler reschedules it once the
+         * pipeline makes room.
+         */
+        private void drain() {
+            try {
+                byte[] request;
+                while (
+                    !this.closed.get()
+                    && this.handler.hasCapacity()
+                    && (request = this.inbound.poll()) != null
+                ) {
+                    int queued = this.inboundBytes.addAndGet(-request.length);
+                    boolean crossed = queued + request.length > MAX_BUFFERED_BYTES;
+                    // Back under the cap: the flush re-arms reading
+                    if (crossed && queued <= MAX_BUFFERED_BYTES) {
+                        this.reactor.requestWrite(this);
+                    }
+                    process(request);
+                }
+
+                if (this.closed.get() && !this.released) {
+                    this.released = true;
+                    this.handler.release();
+                }
+            }
+            finally {
+                this.scheduled.set(false);
+                if (hasPendingWork()) { schedule(); }
+            }
+        }
+
+
+        /**
+         * @return true if a session release, or lines the pipeline has room
+         *         for, are still outstanding
+         */
+        private boolean hasPendingWork() {
+            if (this.closed.get()) { return !this.released; }
+            return !this.inbound.isEmpty() && this.handler.hasCapacity();
+        }
+
+
+        /**
+         * Decodes one request and dispatches it to the handler.
+         *
+         * @param request JSON line or binary frame payload
+         */
+        private void process(byte[] request) {
+            Request req;
+
+            try {
+                req = this.framing == Framing.FRAMES
+                    ? this.handler.decodeFrame(request)
+                    : this.handler.decodeLine(new String(request, StandardCharsets.UTF_8));
+            }
+            catch (RuntimeException ex) {
+                fail(ex);
+                return;
+            }
+
+            if (req == null) {
+                close();
+                return;
+            }
+
+            this.handler.dispatch(req, this::reply, this::fail);
+        }
+
+
+        /**
+         * Encodes a reply and queues it for the reactor. May run on several
+         * workers at once for pipelined requests.
+         *
+         * @param resp handler reply
+         */
+        private void reply(Reply resp) {
+            if (this.closed.get()) { return; }
+
+            ByteBuffer reply;
+            try {
+                reply = ByteBuffer.wrap(
+                    this.framing == Framing.FRAMES ? resp.frame() : resp.line()
+                );
+            }
+            catch (RuntimeException ex) {
+                fail(ex);
+                return;
+            }
+
+            enqueueReply(reply);
+        }
+
+
+        /**
+         * Logs a failed request and closes the connection.
+         *
+         * @param ex failure raised while decoding or handling the request
+         */
+        private void fail(RuntimeException ex) {
+            System.err.println(
+                "Protocol/processing error for client "
+                + this.address
+                + ": "
+                + ex.getMessage()
+            );
+            close();
+        }
+
+
+        /** Closes the channel and schedules session release; idempotent. */
+        private void close() {
+            if (!this.closed.compareAndSet(false, true)) { return; }
+
+            closeQuietly(this.channel);
+            System.out.println("Client disconnected: " + this.address);
+            schedule();
+        }
+    }
+
+
+    /**
+     * Closes a channel ignoring errors.
+     *
+     * @param channel channel to close
+     */
+    private static void closeQuietly(SocketChannel channel) {
+        try { channel.close(); }
+        catch (IOException ignored) {
+            // Connection is being discarded anyway
+        }
+    }
+}
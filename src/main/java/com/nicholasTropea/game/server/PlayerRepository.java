@@ -1,20 +1,27 @@
 package com.nicholasTropea.game.server;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 import com.nicholasTropea.game.model.Player;
 
@@ -22,10 +29,27 @@ import com.nicholasTropea.game.model.Player;
  * Persists and retrieves registered players from a JSON file.
  *
  * <p>Uses integer userId as primary key for stability across nickname changes.
- * All public methods are synchronized to ensure thread-safe access when
- * multiple client handlers operate concurrently.
+ * All public methods are guarded by a read/write lock to ensure thread-safe
+ * access when multiple client handlers operate concurrently; lookups share
+ * the read lock so logins do not serialize behind each other.
+ *
+ * <p>Players are stored as a snapshot file plus a journal next to it
+ * ({@code <storagePath>.journal}). A registration or credential change
+ * appends the player's new record to the journal and returns once it is
+ * synced, but waits for the sync outside the lock, so concurrent mutations
+ * share one {@code fsync} instead of each rewriting the whole file.
+ * {@link #checkpoint()} folds the journal back into the snapshot. Records
+ * carry the whole player, so replaying one already in the snapshot is
+ * harmless.
+ *
+ * <p>Given a {@link KeyValueStore}, each player is instead a
+ * {@code player/<userId>} record of the store, and the JSON file is only
+ * imported into an empty store and exported by {@link #checkpoint()}.
  */
 public class PlayerRepository {
+    /** Store key prefix of player records. */
+    private static final String KEY_PREFIX = "player/";
+
     /** JSON serializer/deserializer for persistence. */
     private final Gson gson;
 
@@ -41,7 +65,23 @@ public class PlayerRepository {
     /** Next userId to assign on registration. */
     private int nextUserId;
 
+    /** Lock guarding the in-memory indexes and the journal order. */
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Serializes checkpoints, held across their file I/O. Separate from
+     * {@link #lock} so logins and registrations proceed meanwhile.
+     */
+    private final ReentrantLock checkpointLock;
+
+    /** Compact serializer for single-line journal records. */
+    private final Gson journalGson;
+
+    /** Journal of player records since the last checkpoint, null with a store. */
+    private final GroupCommitLog journal;
 
+    /** Store holding the player records, or null to use the JSON file. */
+    private final KeyValueStore store;
 
 
     /**
@@ -49,12 +89,29 @@ public class PlayerRepository {
      *
      * @param storagePath path to the JSON storage file
      */
-    public PlayerRepository(String storagePath) {
+    public PlayerRepository(String storagePath) { this(storagePath, null); }
+
+
+    /**
+     * Creates a new repository backed by a key-value store.
+     *
+     * @param storagePath path to the JSON file imported into an empty store
+     *        and exported at checkpoints
+     * @param store store holding the players, or null to use the JSON file
+     */
+    public PlayerRepository(String storagePath, KeyValueStore store) {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.storageFile = Path.of(storagePath);
         this.playersById = new HashMap<>();
         this.nicknameToUserId = new HashMap<>();
         this.nextUserId = 1;
+        this.lock = new ReentrantReadWriteLock();
+        this.checkpointLock = new ReentrantLock();
+        this.journalGson = new Gson();
+        this.store = store;
+        this.journal = store != null
+            ? null
+            : new GroupCommitLog(journalFile(), "Player Journal");
         loadPlayers();
     }
 
@@ -62,23 +119,33 @@ public class PlayerRepository {
     /**
      * Registers a new player with auto-assigned userId.
      *
+     * <p>The registration is accepted once it is in memory; see
+     * {@link #awaitRecord}.
+     *
      * @param username account username
      * @param password account password
      * @return null on success, otherwise an error message
      */
-    public synchronized String registerPlayer(String username, String password) {
-        if (isBlank(username) || isBlank(password)) { return "invalid credentials"; }
+    public String registerPlayer(String username, String password) {
+        Runnable commit;
 
-        if (this.nicknameToUserId.containsKey(username)) {
-            return "username already registered";
-        }
+        this.lock.writeLock().lock();
+        try {
+            if (isBlank(username) || isBlank(password)) { return "invalid credentials"; }
 
-        int userId = this.nextUserId++;
-        Player newPlayer = new Player(userId, username, password);
-        this.playersById.put(userId, newPlayer);
-        this.nicknameToUserId.put(username, userId);
-        persistPlayers();
+            if (this.nicknameToUserId.containsKey(username)) {
+                return "username already registered";
+            }
+
+            int userId = this.nextUserId++;
+            Player newPlayer = new Player(userId, username, password);
+            this.playersById.put(userId, newPlayer);
+            this.nicknameToUserId.put(username, userId);
+            commit = queueRecord(newPlayer);
+        }
+        finally { this.lock.writeLock().unlock(); }
 
+        awaitRecord(commit);
         return null;
     }
 
@@ -90,16 +157,20 @@ public class PlayerRepository {
      * @param password account password
      * @return null if credentials are valid, otherwise an error message
      */
-    public synchronized String validateLogin(String username, String password) {
-        Integer userId = this.nicknameToUserId.get(username);
-        if (userId == null) { return "username not found"; }
+    public String validateLogin(String username, String password) {
+        this.lock.readLock().lock();
+        try {
+            Integer userId = this.nicknameToUserId.get(username);
+            if (userId == null) { return "username not found"; }
 
-        Player player = this.playersById.get(userId);
-        if (player == null) { return "username not found"; }
+            Player player = this.playersById.get(userId);
+            if (player == null) { return "username not found"; }
 
-        if (!player.getPassword().equals(password)) { return "incorrect password"; }
+            if (!player.getPassword().equals(password)) { return "incorrect password"; }
 
-        return null;
+            return null;
+        }
+        finally { this.lock.readLock().unlock(); }
     }
 
 
@@ -109,9 +180,13 @@ public class PlayerRepository {
      * @param username player nickname
      * @return Player object or null if not found
      */
-    public synchronized Player getPlayerByUsername(String username) {
-        Integer userId = this.nicknameToUserId.get(username);
-        return userId != null ? this.playersById.get(userId) : null;
+    public Player getPlayerByUsername(String username) {
+        this.lock.readLock().lock();
+        try {
+            Integer userId = this.nicknameToUserId.get(username);
+            return userId != null ? this.playersById.get(userId) : null;
+        }
+        finally { this.lock.readLock().unlock(); }
     }
 
 
@@ -121,8 +196,12 @@ public class PlayerRepository {
      * @param userId player identifier
      * @return Player object or null if not found
      */
-    public synchronized Player getPlayerById(int userId) {
-        return this.playersById.get(userId);
+    public Player getPlayerById(int userId) {
+        this.lock.readLock().lock();
+        try {
+            return this.playersById.get(userId);
+        }
+        finally { this.lock.readLock().unlock(); }
     }
 
 
@@ -131,59 +210,110 @@ public class PlayerRepository {
      *
      * @return list containing all players at call time
      */
-    public synchronized List<Player> getAllPlayers() {
-        return new ArrayList<>(this.playersById.values());
+    public List<Player> getAllPlayers() {
+        this.lock.readLock().lock();
+        try {
+            return new ArrayList<>(this.playersById.values());
+        }
+        finally { this.lock.readLock().unlock(); }
     }
 
 
     /**
      * Updates account credentials after verifying old credentials.
      *
+     * <p>The change is accepted once it is in memory; see
+     * {@link #awaitRecord}.
+     *
      * @param oldUsername current username
      * @param oldPassword current password
      * @param newUsername new username (blank means unchanged)
      * @param newPassword new password (blank means unchanged)
      * @return null on success, otherwise an error message
      */
-    public synchronized String updateCredentials(
+    public String updateCredentials(
         String oldUsername,
         String oldPassword,
         String newUsername,
         String newPassword
     ) {
-        Integer userId = this.nicknameToUserId.get(oldUsername);
-        if (userId == null) { return "user not found"; }
+        Runnable commit;
 
-        Player player = this.playersById.get(userId);
-        if (player == null) { return "user not found"; }
+        this.lock.writeLock().lock();
+        try {
+            Integer userId = this.nicknameToUserId.get(oldUsername);
+            if (userId == null) { return "user not found"; }
 
-        if (!player.getPassword().equals(oldPassword)) { return "oldPsw not valid"; }
+            Player player = this.playersById.get(userId);
+            if (player == null) { return "user not found"; }
 
-        boolean hasNewUsername = !isBlank(newUsername);
-        boolean hasNewPassword = !isBlank(newPassword);
-        if (!hasNewUsername && !hasNewPassword) {
-            return "Either password, name or both must change";
-        }
+            if (!player.getPassword().equals(oldPassword)) { return "oldPsw not valid"; }
 
-        if (
-            hasNewUsername
-            && !oldUsername.equals(newUsername)
-            && this.nicknameToUserId.containsKey(newUsername)
-        ) {
-            return "newName already registered, choose a different one";
+            boolean hasNewUsername = !isBlank(newUsername);
+            boolean hasNewPassword = !isBlank(newPassword);
+            if (!hasNewUsername && !hasNewPassword) {
+                return "Either password, name or both must change";
+            }
+
+            if (
+                hasNewUsername
+                && !oldUsername.equals(newUsername)
+                && this.nicknameToUserId.containsKey(newUsername)
+            ) {
+                return "newName already registered, choose a different one";
+            }
+
+            if (hasNewUsername && !oldUsername.equals(newUsername)) {
+                this.nicknameToUserId.remove(oldUsername);
+                player.setNickname(newUsername);
+                this.nicknameToUserId.put(newUsername, userId);
+            }
+
+            if (hasNewPassword) { player.setPassword(newPassword); }
+
+            commit = queueRecord(player);
         }
+        finally { this.lock.writeLock().unlock(); }
+
+        awaitRecord(commit);
+        return null;
+    }
+
+
+    /**
+     * Compacts the journal into a new snapshot file.
+     *
+     * <p>The journal is rotated before the players are exported, so every
+     * record is either in the snapshot or in the new journal segment (or
+     * both). The rotated segment is deleted only once the snapshot is synced.
+     * With a store, the players are only exported to the JSON file.
+     */
+    public void checkpoint() {
+        this.checkpointLock.lock();
+        try {
+            if (this.journal != null) { this.journal.rotate(); }
 
-        if (hasNewUsername && !oldUsername.equals(newUsername)) {
-            this.nicknameToUserId.remove(oldUsername);
-            player.setNickname(newUsername);
-            this.nicknameToUserId.put(newUsername, userId);
+            String json;
+            this.lock.readLock().lock();
+            try {
+                json = this.gson.toJson(new StorageData(this.nextUserId, this.playersById));
+            }
+            finally { this.lock.readLock().unlock(); }
+
+            writeSnapshot(json);
+            if (this.journal != null) { this.journal.discardPreviousSegment(); }
         }
+        finally { this.checkpointLock.unlock(); }
+    }
 
-        if (hasNewPassword) { player.setPassword(newPassword); }
 
-        persistPlayers();
+    /** @return bytes journaled since the last checkpoint, 0 with a store */
+    public long getJournalSize() { return this.journal == null ? 0L : this.journal.size(); }
 
-        return null;
+
+    /** Flushes and closes the journal; a store is closed by its owner. */
+    public void close() {
+        if (this.journal != null) { this.journal.close(); }
     }
 
 
@@ -202,37 +332,225 @@ public class PlayerRepository {
     }
 
 
-    /** Loads players from persistent storage into memory. */
+    /**
+     * Loads the snapshot and replays the journal on top of it.
+     *
+     * <p>A torn last line, left by a crash during an append, ends the replay
+     * of its segment. With a store, players are read from the store, and
+     * the snapshot and journal are imported only if it holds none.
+     */
     private void loadPlayers() {
-        try {
-            if (!Files.exists(this.storageFile)) {
-                Path parent = this.storageFile.getParent();
-                if (parent != null) { Files.createDirectories(parent); }
-                return;
+        Map<Integer, Player> players = new HashMap<>();
+        int storedNextId = 1;
+
+        if (this.store != null) {
+            this.store.forEach(KEY_PREFIX, (key, value) -> {
+                Player player = this.journalGson.fromJson(value, Player.class);
+                if (isValid(player)) { players.put(player.getUserId(), player); }
+            });
+        }
+
+        if (players.isEmpty()) {
+            storedNextId = loadSnapshot(players);
+
+            int replayed = 0;
+            for (Path segment : GroupCommitLog.segmentsOf(journalFile())) {
+                replayed += replay(segment, players);
             }
 
-            String content = Files.readString(this.storageFile, StandardCharsets.UTF_8);
-            if (content.trim().isEmpty()) { return; }
+            if (replayed > 0) {
+                System.out.println("Replayed " + replayed + " journaled player records");
+            }
+
+            if (this.store != null && !players.isEmpty()) { importIntoStore(players); }
+        }
 
-            StorageData data = this.gson.fromJson(content, StorageData.class);
-            if (data == null || data.players == null) { return; }
+        int maxUserId = 0;
+        for (Player player : players.values()) {
+            this.playersById.put(player.getUserId(), player);
+            this.nicknameToUserId.put(player.getNickname(), player.getUserId());
+            maxUserId = Math.max(maxUserId, player.getUserId());
+        }
+        this.nextUserId = Math.max(storedNextId, maxUserId + 1);
+    }
 
-            this.nextUserId = data.nextUserId;
-            this.playersById.putAll(data.players);
 
-            // Rebuild nickname index
-            for (Player player : data.players.values()) {
-                this.nicknameToUserId.put(player.getNickname(), player.getUserId());
+    /**
+     * Streams the snapshot file, one player at a time.
+     *
+     * <p>Players are collected aside and handed over only once the whole
+     * file has been read, so a malformed file loads nothing, as before.
+     *
+     * @param players receives the stored players by userId
+     * @return stored next userId, 1 when the file is absent or unreadable
+     */
+    private int loadSnapshot(Map<Integer, Player> players) {
+        if (!Files.exists(this.storageFile)) { return 1; }
+
+        Map<Integer, Player> loaded = new HashMap<>();
+        int storedNextId = 1;
+
+        try (StreamingJsonLoader loader = StreamingJsonLoader.open(this.storageFile)) {
+            if (loader.isBlank()) { return 1; }
+
+            JsonReader reader = loader.reader();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "nextUserId" -> storedNextId = reader.nextInt();
+                    case "players" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            reader.nextName();
+                            Player player = this.gson.fromJson(reader, Player.class);
+                            if (!isValid(player)) {
+                                throw new IllegalStateException("invalid player record");
+                            }
+
+                            loaded.put(player.getUserId(), player);
+                            loader.recordLoaded();
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
             }
+            reader.endObject();
         }
         catch (IOException | RuntimeException ex) {
             System.err.println("Failed to load players: " + ex.getMessage());
+            return 1;
+        }
+
+        players.putAll(loaded);
+        return storedNextId;
+    }
+
+
+    /**
+     * Applies the records of one journal segment.
+     *
+     * @param segment journal segment
+     * @param players players by userId, updated in place
+     * @return number of applied records
+     */
+    private int replay(Path segment, Map<Integer, Player> players) {
+        int applied = 0;
+
+        try (
+            BufferedReader reader = Files.newBufferedReader(
+                segment,
+                StandardCharsets.UTF_8
+            )
+        ) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) { continue; }
+
+                Player player;
+                try { player = this.journalGson.fromJson(line, Player.class); }
+                catch (JsonParseException ex) {
+                    System.err.println("Ignoring torn journal record in " + segment);
+                    break;
+                }
+
+                if (isValid(player)) {
+                    players.put(player.getUserId(), player);
+                    applied++;
+                }
+            }
+        }
+        catch (IOException ex) {
+            System.err.println(
+                "Failed to replay journal " + segment + ": " + ex.getMessage()
+            );
+        }
+
+        return applied;
+    }
+
+
+    /**
+     * Copies players loaded from the JSON file into the empty store.
+     *
+     * <p>The journal is deleted once the store is synced, so a later export
+     * is not overridden by older records if the JSON file is used again.
+     *
+     * @param players players by userId
+     */
+    private void importIntoStore(Map<Integer, Player> players) {
+        for (Player player : players.values()) {
+            this.store.put(KEY_PREFIX + player.getUserId(), this.journalGson.toJson(player));
+        }
+        this.store.sync();
+
+        try {
+            for (Path segment : GroupCommitLog.segmentsOf(journalFile())) {
+                Files.delete(segment);
+            }
+        }
+        catch (IOException ex) {
+            System.err.println("Could not delete imported player journal: " + ex.getMessage());
+        }
+
+        System.out.println("Imported " + players.size() + " players into the store");
+    }
+
+
+    /**
+     * Writes a player's current record; the caller holds the write lock.
+     *
+     * @param player player just registered or changed
+     * @return action waiting until the record is durable, to run once the
+     *         lock is released
+     */
+    private Runnable queueRecord(Player player) {
+        String record = this.journalGson.toJson(player);
+
+        try {
+            if (this.store != null) {
+                this.store.put(KEY_PREFIX + player.getUserId(), record);
+                return this.store::sync;
+            }
+
+            return this.journal.enqueue(record)::await;
+        }
+        catch (RuntimeException ex) {
+            // Surfaces from awaitRecord, after the lock is released
+            return () -> { throw ex; };
+        }
+    }
+
+
+    /**
+     * Waits until a queued record is durable.
+     *
+     * <p>By then the change is visible in memory, where other requests may
+     * already have used it, so a failed write does not fail the request: it
+     * is logged and the change is kept in memory, where the next
+     * checkpoint exports it with the other players.
+     *
+     * @param commit action returned by {@link #queueRecord}
+     */
+    private static void awaitRecord(Runnable commit) {
+        try { commit.run(); }
+        catch (RuntimeException ex) {
+            System.err.println("Player record write error: " + ex.getMessage());
         }
     }
 
 
-    /** Persists current players map to disk atomically. */
-    private void persistPlayers() {
+    private Path journalFile() {
+        return this.storageFile.resolveSibling(this.storageFile.getFileName() + ".journal");
+    }
+
+
+    /**
+     * Replaces the snapshot file atomically with synced content.
+     *
+     * @param json serialized {@link StorageData}
+     */
+    private void writeSnapshot(String json) {
         try {
             Path parent = this.storageFile.getParent();
             if (parent != null) { Files.createDirectories(parent); }
@@ -241,9 +559,10 @@ public class PlayerRepository {
                 this.storageFile.getFileName() + ".tmp"
             );
 
-            StorageData data = new StorageData(this.nextUserId, this.playersById);
-            String json = this.gson.toJson(data);
             Files.writeString(tempFile, json, StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
             Files.move(
                 tempFile,
                 this.storageFile,
@@ -260,6 +579,11 @@ public class PlayerRepository {
     }
 
 
+    private static boolean isValid(Player player) {
+        return player != null && !isBlank(player.getNickname());
+    }
+
+
     /**
      * Checks whether the provided text is null or blank.
      *
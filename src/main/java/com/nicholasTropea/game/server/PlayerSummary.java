@@ -0,0 +1,138 @@
+package com.nicholasTropea.game.server;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * Totals of a player's whole game history: score, results, mistake
+ * histogram and win streaks.
+ *
+ * <p>A few dozen bytes per player, so the summaries of every player stay in
+ * memory when their history itself is paged out of the
+ * {@link SessionManager}. A history only changes while its player is logged
+ * in, and a logged-in player's history is always resident, so a summary
+ * taken at eviction stays valid until the history is loaded again.
+ */
+public final class PlayerSummary {
+    /** Summary of a player without any game. */
+    public static final PlayerSummary EMPTY = new PlayerSummary(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final int totalScore;
+    private final int solved;
+    private final int failed;
+    private final int unfinished;
+    private final int wonWithNoErrors;
+    private final int wonWithOneError;
+    private final int wonWithTwoErrors;
+    private final int wonWithThreeErrors;
+    private final int currentStreak;
+    private final int maxStreak;
+
+
+    private PlayerSummary(
+        int totalScore,
+        int solved,
+        int failed,
+        int unfinished,
+        int wonWithNoErrors,
+        int wonWithOneError,
+        int wonWithTwoErrors,
+        int wonWithThreeErrors,
+        int currentStreak,
+        int maxStreak
+    ) {
+        this.totalScore = totalScore;
+        this.solved = solved;
+        this.failed = failed;
+        this.unfinished = unfinished;
+        this.wonWithNoErrors = wonWithNoErrors;
+        this.wonWithOneError = wonWithOneError;
+        this.wonWithTwoErrors = wonWithTwoErrors;
+        this.wonWithThreeErrors = wonWithThreeErrors;
+        this.currentStreak = currentStreak;
+        this.maxStreak = maxStreak;
+    }
+
+
+    /**
+     * Summarizes a history.
+     *
+     * <p>Streaks count consecutive wins in gameId order; the current streak
+     * ends at the highest gameId.
+     *
+     * @param history results sorted by game id
+     * @return summary of the history
+     */
+    public static PlayerSummary of(FinishedGameStore.PlayerHistory history) {
+        if (history.isEmpty()) { return EMPTY; }
+
+        int solved = 0;
+        int failed = 0;
+        int unfinished = 0;
+        int[] winsByErrors = new int[4];
+        int streak = 0;
+        int maxStreak = 0;
+
+        for (int i = 0; i < history.size(); i++) {
+            PlayerGameState.GameResult result = history.getResult(i);
+
+            if (result == PlayerGameState.GameResult.WON) {
+                solved++;
+                winsByErrors[Math.min(Math.max(history.getErrorCount(i), 0), 3)]++;
+                streak++;
+                if (streak > maxStreak) { maxStreak = streak; }
+            }
+            else {
+                if (result == PlayerGameState.GameResult.LOST) { failed++; }
+                else { unfinished++; }
+                streak = 0;
+            }
+        }
+
+        return new PlayerSummary(
+            history.getTotalScore(),
+            solved,
+            failed,
+            unfinished,
+            winsByErrors[0],
+            winsByErrors[1],
+            winsByErrors[2],
+            winsByErrors[3],
+            streak,
+            maxStreak
+        );
+    }
+
+
+    /** @return sum of all game scores */
+    public int getTotalScore() { return this.totalScore; }
+
+    /** @return games won */
+    public int getSolved() { return this.solved; }
+
+    /** @return games lost */
+    public int getFailed() { return this.failed; }
+
+    /** @return games not finished */
+    public int getUnfinished() { return this.unfinished; }
+
+    /** @return games played, finished or not */
+    public int getPlayed() { return this.solved + this.failed + this.unfinished; }
+
+    /** @return games won without a wrong proposal */
+    public int getWonWithNoErrors() { return this.wonWithNoErrors; }
+
+    /** @return games won with one wrong proposal */
+    public int getWonWithOneError() { return this.wonWithOneError; }
+
+    /** @return games won with two wrong proposals */
+    public int getWonWithTwoErrors() { return this.wonWithTwoErrors; }
+
+    /** @return games won with three or more wrong proposals */
+    public int getWonWithThreeErrors() { return this.wonWithThreeErrors; }
+
+    /** @return consecutive wins ending at the latest game */
+    public int getCurrentStreak() { return this.currentStreak; }
+
+    /** @return longest run of consecutive wins */
+    public int getMaxStreak() { return this.maxStreak; }
+}
@@ -0,0 +1,357 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * Proposal matcher compiled once per game when the catalog is loaded.
+ *
+ * <p>The 16 words get IDs 0..15 in group order, so group {@code g} is the
+ * mask {@code 0xF << 4g} and a set of words is a 16-bit mask. Words are
+ * looked up in a small open-addressing table whose hash is computed on the
+ * trimmed, upper-cased proposal characters, so validating a proposal and
+ * finding its group allocate nothing.
+ *
+ * <p>The matcher also turns the compact {@link PlayerGameState} encoding
+ * back into word lists for responses and persistence, and back again.
+ *
+ * <p>Instances are immutable and shared by all connections.
+ */
+public final class ProposalMatcher {
+    /** Words per group and groups per game. */
+    public static final int GROUP_SIZE = 4;
+
+    /** {@link #proposalMask} result: not exactly four words. */
+    public static final int WRONG_SIZE = -1;
+
+    /** {@link #proposalMask} result: the same word appears twice. */
+    public static final int DUPLICATED_WORD = -2;
+
+    /** {@link #proposalMask} result: a word is not part of this game. */
+    public static final int UNKNOWN_WORD = -3;
+
+    /** Lookup table size, a power of two at least twice the word count. */
+    private static final int TABLE_SIZE = 64;
+
+    /** Words indexed by ID. */
+    private final String[] words;
+
+    /** Open-addressing table of word IDs, -1 for empty slots. */
+    private final byte[] table;
+
+    private final String[] themes;
+
+    private final List<List<String>> groupWords;
+
+    private final List<String> allWords;
+
+
+    private ProposalMatcher(
+        String[] words,
+        String[] themes,
+        List<List<String>> groupWords
+    ) {
+        this.words = words;
+        this.themes = themes;
+        this.groupWords = groupWords;
+        this.allWords = List.of(words);
+        this.table = new byte[TABLE_SIZE];
+        Arrays.fill(this.table, (byte) -1);
+
+        for (int id = 0; id < words.length; id++) {
+            String word = words[id];
+            int slot = hash(word, 0, word.length()) & (TABLE_SIZE - 1);
+            while (this.table[slot] >= 0) { slot = (slot + 1) & (TABLE_SIZE - 1); }
+            this.table[slot] = (byte) id;
+        }
+    }
+
+
+    /**
+     * Compiles a validated game.
+     *
+     * @param game game with 4 groups of 4 unique words
+     * @return matcher for that game
+     */
+    public static ProposalMatcher compile(Game game) {
+        List<Game.Group> groups = game.getGroups();
+        String[] words = new String[GROUP_SIZE * GROUP_SIZE];
+        String[] themes = new String[GROUP_SIZE];
+        List<List<String>> groupWords = new ArrayList<>(GROUP_SIZE);
+
+        for (int g = 0; g < GROUP_SIZE; g++) {
+            Game.Group group = groups.get(g);
+            List<String> members = group.getWords();
+            themes[g] = group.getTheme();
+            groupWords.add(members);
+
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                words[g * GROUP_SIZE + i] = members.get(i);
+            }
+        }
+
+        return new ProposalMatcher(words, themes, List.copyOf(groupWords));
+    }
+
+
+    /** @return the 16 words in ID order, same order as the catalog */
+    public List<String> getWords() { return this.allWords; }
+
+
+    /** @return groups in catalog order, as immutable word lists */
+    public List<List<String>> getSolution() { return this.groupWords; }
+
+
+    /**
+     * Returns the ID of a submitted word.
+     *
+     * <p>The word is compared after trimming and upper-casing, without
+     * building the normalized string.
+     *
+     * @param word submitted word
+     * @return word ID, or -1 if the word is not part of this game
+     */
+    public int idOf(String word) {
+        if (word == null) { return -1; }
+
+        int start = trimStart(word);
+        int end = trimEnd(word, start);
+        int slot = hash(word, start, end) & (TABLE_SIZE - 1);
+
+        for (int id = this.table[slot]; id >= 0; id = this.table[slot]) {
+            if (matches(word, start, end, this.words[id])) { return id; }
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Encodes a proposal as a word mask.
+     *
+     * @param proposal submitted words
+     * @return mask of the four words, or {@link #WRONG_SIZE},
+     *         {@link #DUPLICATED_WORD} or {@link #UNKNOWN_WORD}; duplicates
+     *         are reported before unknown words
+     */
+    public int proposalMask(List<String> proposal) {
+        if (proposal == null || proposal.size() != GROUP_SIZE) { return WRONG_SIZE; }
+
+        int mask = 0;
+        boolean unknown = false;
+
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            String word = proposal.get(i);
+            int id = idOf(word);
+
+            if (id >= 0) {
+                if ((mask & (1 << id)) != 0) { return DUPLICATED_WORD; }
+                mask |= 1 << id;
+                continue;
+            }
+
+            unknown = true;
+            for (int j = 0; j < i; j++) {
+                if (sameWord(word, proposal.get(j))) { return DUPLICATED_WORD; }
+            }
+        }
+
+        return unknown ? UNKNOWN_WORD : mask;
+    }
+
+
+    /**
+     * Encodes a list of game words as a mask.
+     *
+     * @param gameWords words of this game
+     * @return mask of the recognized words
+     */
+    public int maskOf(List<String> gameWords) {
+        int mask = 0;
+        for (int i = 0; i < gameWords.size(); i++) {
+            int id = idOf(gameWords.get(i));
+            if (id >= 0) { mask |= 1 << id; }
+        }
+
+        return mask;
+    }
+
+
+    /**
+     * Finds the group exactly covered by a proposal mask.
+     *
+     * @param mask valid proposal mask
+     * @return group index, or -1 if the words span several groups
+     */
+    public int groupOf(int mask) {
+        int group = Integer.numberOfTrailingZeros(mask) / GROUP_SIZE;
+        return mask == PlayerGameState.groupMask(group) ? group : -1;
+    }
+
+
+    /**
+     * @param group group index
+     * @return theme of the group
+     */
+    public String getTheme(int group) { return this.themes[group]; }
+
+
+    /**
+     * @param group group index
+     * @return immutable words of the group
+     */
+    public List<String> getGroupWords(int group) { return this.groupWords.get(group); }
+
+
+    /**
+     * Builds a player's ungrouped words in their shuffled display order.
+     *
+     * @param state state of this game
+     * @return new list of the remaining words
+     */
+    public List<String> remainingWords(PlayerGameState state) {
+        int remaining = state.getRemainingMask();
+        List<String> selected = new ArrayList<>(Integer.bitCount(remaining));
+
+        for (int position = 0; position < this.words.length; position++) {
+            int id = state.getWordIdAt(position);
+            if ((remaining & (1 << id)) != 0) { selected.add(this.words[id]); }
+        }
+
+        return selected;
+    }
+
+
+    /**
+     * Builds a player's guessed groups in guess order.
+     *
+     * @param state state of this game
+     * @return new list of immutable group word lists
+     */
+    public List<List<String>> guessedGroups(PlayerGameState state) {
+        int count = state.getGuessedGroupCount();
+        List<List<String>> guessed = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            guessed.add(this.groupWords.get(state.getGuessedGroup(i)));
+        }
+
+        return guessed;
+    }
+
+
+    /**
+     * Derives a packed word order from persisted words in display order.
+     * Listed words come first, the others follow in ID order.
+     *
+     * @param displayed words in display order, unknown words are skipped
+     * @return packed word order
+     */
+    public long wordOrderOf(List<String> displayed) {
+        int[] order = new int[this.words.length];
+        int placed = 0;
+        int used = 0;
+
+        for (String word : displayed) {
+            int id = idOf(word);
+            if (id >= 0 && (used & (1 << id)) == 0) {
+                order[placed++] = id;
+                used |= 1 << id;
+            }
+        }
+
+        for (int id = 0; id < this.words.length; id++) {
+            if ((used & (1 << id)) == 0) { order[placed++] = id; }
+        }
+
+        return PlayerGameState.packWordOrder(order);
+    }
+
+
+    /**
+     * Maps persisted guessed groups to group indices.
+     *
+     * @param groups guessed groups as word lists
+     * @return group indices in the same order, unmatched groups are skipped
+     */
+    public int[] groupsOf(List<List<String>> groups) {
+        int[] indices = new int[groups.size()];
+        int count = 0;
+
+        for (List<String> group : groups) {
+            int index = group == null ? -1 : groupOf(maskOf(group));
+            if (index >= 0) { indices[count++] = index; }
+        }
+
+        return Arrays.copyOf(indices, count);
+    }
+
+
+    /**
+     * Compares two submitted words after trimming and upper-casing.
+     */
+    private static boolean sameWord(String a, String b) {
+        if (a == null || b == null) { return false; }
+
+        int aStart = trimStart(a);
+        int aEnd = trimEnd(a, aStart);
+        int bStart = trimStart(b);
+        int bEnd = trimEnd(b, bStart);
+        if (aEnd - aStart != bEnd - bStart) { return false; }
+
+        for (int i = 0; i < aEnd - aStart; i++) {
+            if (Character.toUpperCase(a.charAt(aStart + i))
+                != Character.toUpperCase(b.charAt(bStart + i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Checks whether {@code word[start, end)} upper-cased equals a game word.
+     */
+    private static boolean matches(String word, int start, int end, String gameWord) {
+        if (end - start != gameWord.length()) { return false; }
+
+        for (int i = 0; i < gameWord.length(); i++) {
+            if (Character.toUpperCase(word.charAt(start + i)) != gameWord.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static int hash(String word, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + Character.toUpperCase(word.charAt(i));
+        }
+
+        return h ^ (h >>> 16);
+    }
+
+
+    /** Same whitespace rule as {@link String#trim()}. */
+    private static int trimStart(String word) {
+        int start = 0;
+        while (start < word.length() && word.charAt(start) <= ' ') { start++; }
+        return start;
+    }
+
+
+    private static int trimEnd(String word, int start) {
+        int end = word.length();
+        while (end > start && word.charAt(end - 1) <= ' ') { end--; }
+        return end;
+    }
+}
@@ -0,0 +1,82 @@
+package com.nicholasTropea.game.server;
+
+import java.util.Objects;
+
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.BoardEncoding;
+import com.nicholasTropea.game.net.Response;
+
+
+/**
+ * Handler response on its way back to the client.
+ *
+ * <p>The correlation id of the request travels next to the response instead
+ * of being set on it, so a response shared through the
+ * {@link ResponseCache} is never mutated. An untagged reply to a cached
+ * response reuses the bytes encoded for the first client that asked, and a
+ * reply about the current board is spliced from the round's
+ * {@link BoardEncoding}.
+ */
+final class Reply {
+    private final Response response;
+
+    /** Id of the request answered, or null if it was untagged. */
+    private final Integer id;
+
+    /** Cache entry holding the response, or null if it is not cached. */
+    private final ResponseCache.Entry cached;
+
+    /** Pre-encoded board the response may be spliced from, or null. */
+    private final BoardEncoding board;
+
+
+    /**
+     * @param response freshly computed response
+     * @param id id of the request answered, or null
+     * @param board board of the round the response is about, or null
+     */
+    Reply(Response response, Integer id, BoardEncoding board) {
+        this.response = Objects.requireNonNull(response, "response is required");
+        this.id = id;
+        this.cached = null;
+        this.board = board;
+    }
+
+
+    /**
+     * @param cached cache entry holding the response
+     * @param id id of the request answered, or null
+     */
+    Reply(ResponseCache.Entry cached, Integer id) {
+        this.response = cached.getResponse();
+        this.id = id;
+        this.cached = cached;
+        this.board = null;
+    }
+
+
+    /** @return response, shared and immutable if it came from the cache */
+    Response getResponse() { return this.response; }
+
+
+    /** @return id of the request answered, or null */
+    Integer getId() { return this.id; }
+
+
+    /** @return newline-terminated JSON; callers must not modify it */
+    byte[] line() {
+        if (this.cached != null && this.id == null) { return this.cached.line(); }
+
+        byte[] spliced = this.board == null ? null : this.board.line(this.response, this.id);
+        return spliced != null ? spliced : ClientHandler.encodeLine(this.response, this.id);
+    }
+
+
+    /** @return length-prefixed binary frame; callers must not modify it */
+    byte[] frame() {
+        if (this.cached != null && this.id == null) { return this.cached.frame(); }
+
+        byte[] spliced = this.board == null ? null : this.board.frame(this.response, this.id);
+        return spliced != null ? spliced : BinaryProtocol.encodeResponse(this.response, this.id);
+    }
+}
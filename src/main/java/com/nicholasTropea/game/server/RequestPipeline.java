@@ -0,0 +1,246 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-connection scheduler for pipelined requests.
+ *
+ * <p>Tasks start in submission order. Shared tasks (read-only requests a
+ * client tagged with an id) run concurrently with each other, at most
+ * {@link #MAX_SHARED} at a time. An exclusive task waits until every earlier
+ * task has finished and runs alone, so logins, proposals and untagged
+ * requests keep the strict one-at-a-time order of the classic protocol.
+ *
+ * <p>An exclusive task submitted while the pipeline is idle runs on the
+ * calling thread, so clients that never pipeline pay no extra hand-off.
+ *
+ * <p>Blocking readers wait in {@link #awaitCapacity()} while
+ * {@link #MAX_WAITING} tasks are queued; event loops check
+ * {@link #hasCapacity()} instead and are called back once queued tasks
+ * start and make room.
+ *
+ * <p>State is guarded by a {@link ReentrantLock} rather than a monitor, so
+ * virtual threads waiting for capacity unmount from their carrier instead of
+ * pinning it while the queued tasks need one.
+ */
+final class RequestPipeline {
+    /** Largest number of shared tasks running at once for one connection. */
+    static final int MAX_SHARED = 8;
+
+    /** Queued tasks after which submitters wait or stop reading. */
+    static final int MAX_WAITING = 64;
+
+    /** Runs tasks that cannot start on the submitting thread. */
+    private final Executor executor;
+
+    /** Called when a full queue makes room again. */
+    private final Runnable onCapacity;
+
+    /** Tasks waiting for earlier ones, in submission order. */
+    private final Queue<Task> waiting;
+
+    /** Guards the queue and the counters. */
+    private final ReentrantLock lock;
+
+    /** Signalled when queued tasks start. */
+    private final Condition started;
+
+    /** Signalled when the pipeline becomes idle. */
+    private final Condition idle;
+
+    /** Number of shared tasks currently running. */
+    private int runningShared;
+
+    /** True while an exclusive task is running. */
+    private boolean runningExclusive;
+
+
+    /**
+     * @param executor runs tasks that cannot start on the submitting thread
+     */
+    RequestPipeline(Executor executor) { this(executor, () -> { }); }
+
+
+    /**
+     * @param executor runs tasks that cannot start on the submitting thread
+     * @param onCapacity called, without the lock held, whenever tasks start
+     *        and leave a full queue with room
+     */
+    RequestPipeline(Executor executor, Runnable onCapacity) {
+        this.executor = Objects.requireNonNull(executor, "executor is required");
+        this.onCapacity = Objects.requireNonNull(onCapacity, "onCapacity is required");
+        this.waiting = new ArrayDeque<>();
+        this.lock = new ReentrantLock();
+        this.started = this.lock.newCondition();
+        this.idle = this.lock.newCondition();
+        this.runningShared = 0;
+        this.runningExclusive = false;
+    }
+
+
+    /**
+     * Schedules a task behind every task submitted before it.
+     *
+     * @param body work to run; it must handle its own failures
+     * @param shared true if the task may overlap other shared tasks
+     */
+    void submit(Runnable body, boolean shared) {
+        Task task = new Task(body, shared);
+        List<Task> ready;
+        boolean freed = false;
+
+        this.lock.lock();
+        try {
+            if (!shared && isIdle()) {
+                this.runningExclusive = true;
+                ready = null;
+            }
+            else {
+                boolean full = this.waiting.size() >= MAX_WAITING;
+                this.waiting.add(task);
+                ready = takeReady();
+                freed = full && this.waiting.size() < MAX_WAITING;
+            }
+        }
+        finally { this.lock.unlock(); }
+
+        if (ready == null) { run(task); }
+        else { dispatch(ready); }
+        if (freed) { this.onCapacity.run(); }
+    }
+
+
+    /**
+     * Blocks while too many tasks are queued, so a blocking reader stops
+     * consuming requests it cannot run yet. Event-loop transports must not
+     * call it from a pool thread the queued tasks may need.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitCapacity() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (this.waiting.size() >= MAX_WAITING) { this.started.await(); }
+        }
+        finally { this.lock.unlock(); }
+    }
+
+
+    /**
+     * Non-blocking counterpart of {@link #awaitCapacity()}; when it returns
+     * false the {@code onCapacity} callback fires once room is made.
+     *
+     * @return true if fewer than {@link #MAX_WAITING} tasks are queued
+     */
+    boolean hasCapacity() {
+        this.lock.lock();
+        try { return this.waiting.size() < MAX_WAITING; }
+        finally { this.lock.unlock(); }
+    }
+
+
+    /**
+     * Blocks until every submitted task has finished.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitIdle() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (!isIdle()) { this.idle.await(); }
+        }
+        finally { this.lock.unlock(); }
+    }
+
+
+    private boolean isIdle() {
+        return !this.runningExclusive && this.runningShared == 0 && this.waiting.isEmpty();
+    }
+
+
+    /**
+     * Removes the tasks allowed to start now. Caller holds the lock.
+     *
+     * @return tasks to dispatch, possibly empty
+     */
+    private List<Task> takeReady() {
+        List<Task> ready = new ArrayList<>();
+
+        while (!this.runningExclusive && !this.waiting.isEmpty()) {
+            Task next = this.waiting.peek();
+
+            if (next.shared) {
+                if (this.runningShared == MAX_SHARED) { break; }
+                this.runningShared++;
+            }
+            else {
+                if (this.runningShared > 0) { break; }
+                this.runningExclusive = true;
+            }
+
+            ready.add(this.waiting.poll());
+        }
+
+        if (!ready.isEmpty()) { this.started.signalAll(); }
+        return ready;
+    }
+
+
+    private void dispatch(List<Task> ready) {
+        for (Task task : ready) {
+            try { this.executor.execute(() -> run(task)); }
+            catch (RejectedExecutionException ex) {
+                // Server shutting down: drop the task but keep the counters right
+                finish(task);
+            }
+        }
+    }
+
+
+    private void run(Task task) {
+        try { task.body.run(); }
+        finally { finish(task); }
+    }
+
+
+    private void finish(Task task) {
+        List<Task> ready;
+        boolean freed;
+
+        this.lock.lock();
+        try {
+            if (task.shared) { this.runningShared--; }
+            else { this.runningExclusive = false; }
+
+            boolean full = this.waiting.size() >= MAX_WAITING;
+            ready = takeReady();
+            freed = full && this.waiting.size() < MAX_WAITING;
+            if (isIdle()) { this.idle.signalAll(); }
+        }
+        finally { this.lock.unlock(); }
+
+        dispatch(ready);
+        if (freed) { this.onCapacity.run(); }
+    }
+
+
+    /** Submitted work and its scheduling class. */
+    private static final class Task {
+        private final Runnable body;
+        private final boolean shared;
+
+
+        private Task(Runnable body, boolean shared) {
+            this.body = body;
+            this.shared = shared;
+        }
+    }
+}
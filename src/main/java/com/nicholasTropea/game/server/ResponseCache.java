@@ -0,0 +1,301 @@
+package com.nicholasTropea.game.server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Response;
+
+
+/**
+ * Bounded cache of responses about games that left the rotation.
+ *
+ * <p>Once a game is no longer the current one its statistics, and each
+ * player's view of it, only change if a late request still edits its state.
+ * Entries are grouped in one segment per game, keyed inside it by operation
+ * and optionally user id, and a game's segment is dropped as a whole by
+ * {@link #invalidate} whenever that game may have changed. Each entry keeps
+ * its response encoded for both wire protocols, built on first use, so
+ * repeated history browsing skips both the handler and the encoder.
+ *
+ * <p>A lookup that misses records the game's {@link #generation(int)}
+ * before computing the response and hands it back to {@link #put}; a
+ * response computed across an invalidation of its game is answered but not
+ * stored, so a stale value cannot outlive the change that made it stale.
+ *
+ * <p>Lookups and stores take no lock: segments are concurrent maps and a hit
+ * only stamps its entry with the time of use. Once the cache holds more than
+ * its bound, one thread at a time evicts the least recently used entries in
+ * a batch, down to seven eighths of the bound, so the order is approximate
+ * and the sort is paid once per batch rather than on every access.
+ *
+ * <p>Cached responses are shared between connections and must not be
+ * mutated; replies carry the request id next to them instead.
+ */
+public final class ResponseCache {
+    /** User id of entries shared by every player. */
+    public static final int ANY_USER = 0;
+
+    /** Largest number of entries kept; zero disables caching. */
+    private final int maxEntries;
+
+    /** Segment of each game with cached entries. */
+    private final ConcurrentHashMap<Integer, Segment> segments;
+
+    /** Source of segment generations, unique across games. */
+    private final AtomicLong generations;
+
+    /** Approximate number of entries, corrected by every eviction pass. */
+    private final AtomicInteger count;
+
+    /** Held by the thread running an eviction pass. */
+    private final ReentrantLock evicting;
+
+
+    /**
+     * @param maxEntries largest number of entries kept, zero to disable
+     * @throws IllegalArgumentException if maxEntries is negative
+     */
+    public ResponseCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries cannot be negative");
+        }
+
+        this.maxEntries = maxEntries;
+        this.segments = new ConcurrentHashMap<>();
+        this.generations = new AtomicLong();
+        this.count = new AtomicInteger();
+        this.evicting = new ReentrantLock();
+    }
+
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param operation request operation
+     * @param gameId finished game the response is about
+     * @param userId player the response is for, or {@link #ANY_USER}
+     * @return cached entry, or null on a miss
+     */
+    public Entry get(String operation, int gameId, int userId) {
+        Segment segment = this.segments.get(gameId);
+        if (segment == null) { return null; }
+
+        Entry entry = segment.entries.get(new Key(operation, userId));
+        if (entry != null) { entry.lastUsed = System.nanoTime(); }
+        return entry;
+    }
+
+
+    /**
+     * @param gameId finished game about to be computed
+     * @return current generation of the game, to pass to {@link #put} after
+     *         a miss
+     */
+    public long generation(int gameId) {
+        if (this.maxEntries == 0) { return 0; }
+        return this.segments.computeIfAbsent(gameId, key -> newSegment()).generation;
+    }
+
+
+    /**
+     * Stores a response unless its game was invalidated since it was
+     * computed.
+     *
+     * @param operation request operation
+     * @param gameId finished game the response is about
+     * @param userId player the response is for, or {@link #ANY_USER}
+     * @param response successful response to share
+     * @param generation {@link #generation(int)} read before computing it
+     * @return entry wrapping the response, stored or not
+     */
+    public Entry put(
+        String operation,
+        int gameId,
+        int userId,
+        Response response,
+        long generation
+    ) {
+        Entry entry = new Entry(response);
+
+        Segment segment = this.segments.get(gameId);
+        if (segment == null || segment.generation != generation) { return entry; }
+
+        // Racing an invalidation, the entry lands in a dropped segment: harmless
+        if (segment.entries.put(new Key(operation, userId), entry) == null) {
+            if (this.count.incrementAndGet() > this.maxEntries) { evict(); }
+        }
+
+        return entry;
+    }
+
+
+    /**
+     * Drops every entry about a game.
+     *
+     * @param gameId game whose state or rotation status changed
+     */
+    public void invalidate(int gameId) {
+        Segment dropped = this.segments.remove(gameId);
+        if (dropped != null) { this.count.addAndGet(-dropped.entries.size()); }
+    }
+
+
+    /** @return number of cached entries */
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments.values()) { size += segment.entries.size(); }
+        return size;
+    }
+
+
+    private Segment newSegment() { return new Segment(this.generations.incrementAndGet()); }
+
+
+    /**
+     * Evicts the least recently used entries down to seven eighths of the
+     * bound. Skipped if another thread is already evicting.
+     */
+    private void evict() {
+        if (!this.evicting.tryLock()) { return; }
+
+        try {
+            List<Victim> candidates = new ArrayList<>();
+            for (Segment segment : this.segments.values()) {
+                for (Map.Entry<Key, Entry> cached : segment.entries.entrySet()) {
+                    candidates.add(new Victim(segment, cached.getKey(), cached.getValue()));
+                }
+            }
+
+            if (candidates.size() <= this.maxEntries) {
+                this.count.set(candidates.size());
+                return;
+            }
+
+            int excess = candidates.size() - (this.maxEntries - this.maxEntries / 8);
+
+            candidates.sort(Comparator.comparingLong(victim -> victim.lastUsed));
+            int removed = 0;
+            for (int i = 0; i < excess; i++) {
+                Victim victim = candidates.get(i);
+                if (victim.segment.entries.remove(victim.key, victim.entry)) { removed++; }
+            }
+            this.count.set(candidates.size() - removed);
+        }
+        finally { this.evicting.unlock(); }
+    }
+
+
+    /** Entries of one game, replaced as a whole on invalidation. */
+    private static final class Segment {
+        /** Distinguishes this segment from the game's earlier and later ones. */
+        private final long generation;
+
+        private final ConcurrentHashMap<Key, Entry> entries;
+
+
+        private Segment(long generation) {
+            this.generation = generation;
+            this.entries = new ConcurrentHashMap<>();
+        }
+    }
+
+
+    /** Eviction candidate, with its time of use read once for the sort. */
+    private static final class Victim {
+        private final Segment segment;
+        private final Key key;
+        private final Entry entry;
+        private final long lastUsed;
+
+
+        private Victim(Segment segment, Key key, Entry entry) {
+            this.segment = segment;
+            this.key = key;
+            this.entry = entry;
+            this.lastUsed = entry.lastUsed;
+        }
+    }
+
+
+    /** Shared response with its encodings, each built on first use. */
+    public static final class Entry {
+        private final Response response;
+
+        /** {@link System#nanoTime()} of the last store or hit, for eviction. */
+        private volatile long lastUsed;
+
+        /** Untagged newline-terminated JSON, or null until first needed. */
+        private volatile byte[] line;
+
+        /** Untagged binary frame, or null until first needed. */
+        private volatile byte[] frame;
+
+
+        private Entry(Response response) {
+            this.response = Objects.requireNonNull(response, "response is required");
+            this.lastUsed = System.nanoTime();
+        }
+
+
+        /** @return shared response, never to be mutated */
+        public Response getResponse() { return this.response; }
+
+
+        /** @return untagged JSON line; callers must not modify it */
+        byte[] line() {
+            byte[] bytes = this.line;
+            if (bytes == null) {
+                // Racing threads encode the same bytes, either copy will do
+                bytes = ClientHandler.encodeLine(this.response, null);
+                this.line = bytes;
+            }
+
+            return bytes;
+        }
+
+
+        /** @return untagged binary frame; callers must not modify it */
+        byte[] frame() {
+            byte[] bytes = this.frame;
+            if (bytes == null) {
+                bytes = BinaryProtocol.encodeResponse(this.response, null);
+                this.frame = bytes;
+            }
+
+            return bytes;
+        }
+    }
+
+
+    /** Entry key within a game's segment. */
+    private static final class Key {
+        private final String operation;
+        private final int userId;
+
+
+        private Key(String operation, int userId) {
+            this.operation = operation;
+            this.userId = userId;
+        }
+
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key
+                && this.userId == key.userId
+                && this.operation.equals(key.operation);
+        }
+
+
+        @Override
+        public int hashCode() { return this.operation.hashCode() * 31 + this.userId; }
+    }
+}
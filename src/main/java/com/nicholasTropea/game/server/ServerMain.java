@@ -5,8 +5,9 @@ import com.nicholasTropea.game.config.ServerConfig;
 /**
  * Main entry point for the game server.
  * 
- * Starts the {@link NetworkManager} in a separate thread to handle
- * client connections in parallel to the main thread.
+ * Starts the {@link NetworkManager} (or the non-blocking
+ * {@link NioNetworkManager}, depending on configuration) in a separate
+ * thread to handle client connections in parallel to the main thread.
  * 
  * @author Nicholas Riccardo Tropea
  */
@@ -24,23 +25,51 @@ public class ServerMain {
         System.out.println("=".repeat(60));
         System.out.println("Starting server on port " + config.getTcpPort() + "...");
 
+        KeyValueStore store = config.getStorageEngine() == ServerConfig.StorageEngine.LOG
+            ? new LogStructuredStore(config.getStoreFilePath())
+            : null;
+
         ServerRuntime runtime = new ServerRuntime(
-            new PlayerRepository(config.getPlayersFilePath()),
-            new GameRepository(config.getGamesFilePath()),
-            new SessionManager(),
-            config.getRoundDurationMillis(),
-            config.getSessionAutosaveSeconds(),
-               config.getGameStatesFilePath(),
-               config.getGameRoundStateFilePath()
+            new PlayerRepository(config.getPlayersFilePath(), store),
+            new GameRepository(
+                config.getGamesFilePath(),
+                config.getGamesCatalogFilePath()
+            ),
+            new SessionManager(config.getResidentHistoryUsers()),
+            ServerRuntime.Options.of(config).store(store)
         );
         
         Runtime.getRuntime().addShutdownHook(new Thread(runtime::close));
 
-        NetworkManager netManager = new NetworkManager(config.getTcpPort(), runtime);
+        Runnable netManager = createNetworkManager(config, runtime);
         new Thread(netManager).start();
         
         System.out.println("Server started successfully!");
         System.out.println("Waiting for client connections...");
         System.out.println("=".repeat(60));
     }
+
+
+    /**
+     * Creates the TCP listener matching the configured network mode.
+     *
+     * @param config loaded server configuration
+     * @param runtime shared server runtime
+     * @return listener to run on its own thread
+     */
+    private static Runnable createNetworkManager(
+        ServerConfig config,
+        ServerRuntime runtime
+    ) {
+        return switch (config.getNetworkMode()) {
+            case CLASSIC -> new NetworkManager(config.getTcpPort(), runtime);
+            case VIRTUAL -> new NetworkManager(config.getTcpPort(), runtime, true);
+            case NIO -> new NioNetworkManager(
+                config.getTcpPort(),
+                config.getNioReactorThreads(),
+                config.getNioWorkerThreads(),
+                runtime
+            );
+        };
+    }
 }
\ No newline at end of file
@@ -6,6 +6,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import com.nicholasTropea.game.config.ServerConfig;
+import com.nicholasTropea.game.model.Player;
+
 /**
  * Aggregates shared server-side services and repositories.
  *
@@ -13,6 +16,128 @@ import java.util.concurrent.TimeUnit;
  * dependency injection into connection handlers.
  */
 public class ServerRuntime implements AutoCloseable {
+    /**
+     * Tuning and storage settings of a runtime.
+     *
+     * <p>Defaults match the shipped {@code server.properties}; the two state
+     * file paths have no default and must be set.
+     */
+    public static final class Options {
+        private long roundDurationMillis = 600_000L;
+        private long sessionAutosaveSeconds = 15L;
+        private long journalCheckpointBytes = 4L << 20;
+        private int udpSenderChannels = 4;
+        private int responseCacheEntries = 4096;
+        private String gameStatesFilePath;
+        private String gameRoundStateFilePath;
+        private KeyValueStore store;
+
+
+        /**
+         * Copies the runtime settings of a loaded configuration.
+         *
+         * <p>The store is not opened here; set it with {@link #store}.
+         *
+         * @param config loaded server configuration
+         * @return options of that configuration
+         */
+        public static Options of(ServerConfig config) {
+            return new Options()
+                .roundDurationMillis(config.getRoundDurationMillis())
+                .sessionAutosaveSeconds(config.getSessionAutosaveSeconds())
+                .journalCheckpointBytes(config.getJournalCheckpointBytes())
+                .udpSenderChannels(config.getUdpSenderChannels())
+                .responseCacheEntries(config.getResponseCacheEntries())
+                .gameStatesFilePath(config.getGameStatesFilePath())
+                .gameRoundStateFilePath(config.getGameRoundStateFilePath());
+        }
+
+
+        /**
+         * @param value global round duration in milliseconds
+         * @return these options
+         */
+        public Options roundDurationMillis(long value) {
+            this.roundDurationMillis = value;
+            return this;
+        }
+
+
+        /**
+         * @param value autosave period in seconds
+         * @return these options
+         */
+        public Options sessionAutosaveSeconds(long value) {
+            this.sessionAutosaveSeconds = value;
+            return this;
+        }
+
+
+        /**
+         * @param value journal size, or store garbage, that triggers a
+         *        checkpoint or compaction at the next autosave
+         * @return these options
+         */
+        public Options journalCheckpointBytes(long value) {
+            this.journalCheckpointBytes = value;
+            return this;
+        }
+
+
+        /**
+         * @param value datagram channels used for notification fan-out
+         * @return these options
+         */
+        public Options udpSenderChannels(int value) {
+            this.udpSenderChannels = value;
+            return this;
+        }
+
+
+        /**
+         * @param value cached finished-game responses, 0 to disable
+         * @return these options
+         */
+        public Options responseCacheEntries(int value) {
+            this.responseCacheEntries = value;
+            return this;
+        }
+
+
+        /**
+         * @param value path to game states JSON storage
+         * @return these options
+         */
+        public Options gameStatesFilePath(String value) {
+            this.gameStatesFilePath = value;
+            return this;
+        }
+
+
+        /**
+         * @param value path to game round state JSON storage
+         * @return these options
+         */
+        public Options gameRoundStateFilePath(String value) {
+            this.gameRoundStateFilePath = value;
+            return this;
+        }
+
+
+        /**
+         * @param value store behind the repositories, also given to the
+         *        player repository, or null to keep the JSON files; player
+         *        histories are paged in from it, and it is closed with the
+         *        runtime
+         * @return these options
+         */
+        public Options store(KeyValueStore value) {
+            this.store = value;
+            return this;
+        }
+    }
+
+
     /** Repository for player persistence and credential validation. */
     private final PlayerRepository playerRepository;
 
@@ -40,26 +165,32 @@ public class ServerRuntime implements AutoCloseable {
     /** Autosave period in seconds loaded from configuration. */
     private final long sessionAutosaveSeconds;
 
+    /** Journal size that triggers a checkpoint at the next autosave, per journal. */
+    private final long journalCheckpointBytes;
+
+    /** Global ranking kept up to date as game scores change. */
+    private final LeaderboardIndex leaderboardIndex;
+
+    /** Cache of responses about games that left the rotation. */
+    private final ResponseCache responseCache;
+
+    /** Store behind the repositories, or null when they use JSON files. */
+    private final KeyValueStore store;
+
 
     /**
-     * Creates a runtime with explicit dependencies and autosave configuration.
+     * Creates a runtime with explicit dependencies and settings.
      *
      * @param playerRepository player repository
      * @param gameRepository game repository
      * @param sessionManager session manager
-     * @param roundDurationMillis global round duration in milliseconds
-     * @param sessionAutosaveSeconds autosave period in seconds
-     * @param gameStatesFilePath path to game states JSON storage
-     * @param gameRoundStateFilePath path to game round state JSON storage
+     * @param options round, autosave, cache and storage settings
      */
     public ServerRuntime(
         PlayerRepository playerRepository,
         GameRepository gameRepository,
         SessionManager sessionManager,
-        long roundDurationMillis,
-        long sessionAutosaveSeconds,
-        String gameStatesFilePath,
-        String gameRoundStateFilePath
+        Options options
     ) {
         this.playerRepository = Objects.requireNonNull(
             playerRepository,
@@ -73,8 +204,15 @@ public class ServerRuntime implements AutoCloseable {
             sessionManager,
             "sessionManager is required"
         );
+        Objects.requireNonNull(options, "options are required");
+        KeyValueStore store = options.store;
+        this.store = store;
         this.gameRoundStateRepository = new GameRoundStateRepository(
-            gameRoundStateFilePath
+            Objects.requireNonNull(
+                options.gameRoundStateFilePath,
+                "gameRoundStateFilePath is required"
+            ),
+            store
         );
 
         GameRoundCoordinator.RoundStateSnapshot roundStateSnapshot =
@@ -82,12 +220,19 @@ public class ServerRuntime implements AutoCloseable {
 
         this.gameRoundCoordinator = new GameRoundCoordinator(
             this.gameRepository,
-            roundDurationMillis,
+            options.roundDurationMillis,
             roundStateSnapshot
         );
-        this.udpNotificationService = new UdpNotificationService();
-        this.sessionStateRepository = new SessionStateRepository(gameStatesFilePath);
-        this.sessionAutosaveSeconds = sessionAutosaveSeconds;
+        this.udpNotificationService = new UdpNotificationService(
+            options.udpSenderChannels
+        );
+        this.sessionStateRepository = new SessionStateRepository(
+            Objects.requireNonNull(options.gameStatesFilePath, "gameStatesFilePath is required"),
+            this.gameRepository,
+            store
+        );
+        this.sessionAutosaveSeconds = options.sessionAutosaveSeconds;
+        this.journalCheckpointBytes = options.journalCheckpointBytes;
         this.persistenceScheduler = Executors.newSingleThreadScheduledExecutor(
             runnable -> {
                 Thread thread = new Thread(runnable, "Session Persistence");
@@ -96,9 +241,21 @@ public class ServerRuntime implements AutoCloseable {
             }
         );
 
+        this.leaderboardIndex = new LeaderboardIndex();
+        this.responseCache = new ResponseCache(options.responseCacheEntries);
+
         restoreSessionState();
+        this.sessionManager.setStateJournal(this.sessionStateRepository);
+        buildLeaderboardIndex();
         startSessionStateAutosave();
 
+        // Registered first so notified clients never read a stale entry
+        this.gameRoundCoordinator.addRoundTransitionListener(
+            (previousGameId, nextGameId, roundNumber) -> {
+                this.responseCache.invalidate(previousGameId);
+                this.responseCache.invalidate(nextGameId);
+            }
+        );
         this.gameRoundCoordinator.addRoundTransitionListener(
             (previousGameId, nextGameId, roundNumber) ->
                 this.udpNotificationService.broadcastRoundEnded(
@@ -134,16 +291,69 @@ public class ServerRuntime implements AutoCloseable {
     }
 
 
-    /** Restores persisted session state into SessionManager. */
+    /** @return incrementally maintained leaderboard */
+    public LeaderboardIndex getLeaderboardIndex() { return this.leaderboardIndex; }
+
+
+    /** @return cache of finished-game responses */
+    public ResponseCache getResponseCache() { return this.responseCache; }
+
+
+    /**
+     * Restores persisted session state into SessionManager.
+     *
+     * <p>With a store, histories are paged in on demand: the states are
+     * streamed once to rebuild the game aggregates and player summaries,
+     * and none of them is kept.
+     */
     private void restoreSessionState() {
+        if (this.store != null) {
+            long start = System.nanoTime();
+            this.sessionManager.importSnapshots(List.of(), this.gameRepository);
+            this.sessionManager.setHistorySource(
+                this.sessionStateRepository,
+                this.gameRepository
+            );
+
+            int visited = this.sessionStateRepository.forEachHistory(
+                history -> this.sessionManager.importSummaries(history, this.gameRepository)
+            );
+
+            if (visited > 0) {
+                System.out.println(
+                    "Summarized " + visited + " stored game states in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms"
+                );
+            }
+            return;
+        }
+
         List<SessionManager.GameStateSnapshot> snapshots =
             this.sessionStateRepository.loadSnapshots();
 
-        this.sessionManager.importSnapshots(snapshots);
+        long start = System.nanoTime();
+        this.sessionManager.importSnapshots(snapshots, this.gameRepository);
 
         if (!snapshots.isEmpty()) {
             System.out.println(
-                "Restored " + snapshots.size() + " persisted game-state snapshots"
+                "Restored " + snapshots.size() + " persisted game-state snapshots in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms"
+            );
+        }
+    }
+
+
+    /** Seeds the leaderboard with every registered player's total score. */
+    private void buildLeaderboardIndex() {
+        for (Player player : this.playerRepository.getAllPlayers()) {
+            int totalScore = this.sessionManager
+                .getSummary(player.getUserId())
+                .getTotalScore();
+
+            this.leaderboardIndex.put(
+                player.getUserId(),
+                player.getNickname(),
+                totalScore
             );
         }
     }
@@ -160,12 +370,30 @@ public class ServerRuntime implements AutoCloseable {
     }
 
 
-    /** Persists session state while guarding against scheduler termination. */
+    /**
+     * Checkpoints session state and players once enough has been journaled,
+     * or compacts the store once it holds as much garbage, and persists the
+     * round state, guarding against scheduler termination.
+     */
     private void persistSessionStateSafely() {
         try {
-            List<SessionManager.GameStateSnapshot> snapshots =
-                this.sessionManager.exportSnapshots();
-            this.sessionStateRepository.persistSnapshots(snapshots);
+            if (
+                this.sessionStateRepository.getJournalSize()
+                    >= this.journalCheckpointBytes
+            ) {
+                checkpointSessionState();
+            }
+
+            if (this.playerRepository.getJournalSize() >= this.journalCheckpointBytes) {
+                this.playerRepository.checkpoint();
+            }
+
+            if (
+                this.store != null
+                && this.store.getGarbageBytes() >= this.journalCheckpointBytes
+            ) {
+                this.store.compact();
+            }
 
             GameRoundCoordinator.RoundStateSnapshot roundSnapshot =
                 this.gameRoundCoordinator.exportSnapshot();
@@ -177,12 +405,89 @@ public class ServerRuntime implements AutoCloseable {
     }
 
 
-    /** Closes runtime resources. */
+    /** Folds the game-state journal into a fresh checkpoint. */
+    private void checkpointSessionState() {
+        this.sessionStateRepository.checkpoint(
+            () -> this.sessionManager.exportSnapshots(this.gameRepository)
+        );
+    }
+
+
+    /**
+     * Closes runtime resources.
+     *
+     * <p>With a store, the checkpoints export its contents to the JSON files,
+     * which keeps them usable if the server is switched back to them.
+     *
+     * <p>A running autosave is waited for rather than interrupted: an
+     * interrupt during {@link java.nio.channels.FileChannel} I/O closes the
+     * channel, leaving the final checkpoint a closed store or journal.
+     */
     @Override
     public void close() {
+        this.persistenceScheduler.shutdown();
+        boolean interrupted = awaitPersistence();
+        boolean export = this.store != null;
+
+        try {
+            if (export || this.sessionStateRepository.getJournalSize() > 0) {
+                checkpointSessionState();
+            }
+        }
+        catch (RuntimeException ex) {
+            System.err.println("Session checkpoint error: " + ex.getMessage());
+        }
+
+        try {
+            if (export || this.playerRepository.getJournalSize() > 0) {
+                this.playerRepository.checkpoint();
+            }
+        }
+        catch (RuntimeException ex) {
+            System.err.println("Player checkpoint error: " + ex.getMessage());
+        }
+
         persistSessionStateSafely();
-        this.persistenceScheduler.shutdownNow();
+
+        if (export) {
+            try {
+                this.gameRoundStateRepository.exportSnapshot(
+                    this.gameRoundCoordinator.exportSnapshot()
+                );
+            }
+            catch (RuntimeException ex) {
+                System.err.println("Round state export error: " + ex.getMessage());
+            }
+        }
+
+        this.sessionManager.setStateJournal(null);
+        this.sessionStateRepository.close();
+        this.playerRepository.close();
+        if (this.store != null) { this.store.close(); }
         this.udpNotificationService.close();
         this.gameRoundCoordinator.close();
+
+        // Restored only now, so the final checkpoint's I/O is not interrupted
+        if (interrupted) { Thread.currentThread().interrupt(); }
+    }
+
+
+    /**
+     * Waits for the persistence scheduler to finish its running task.
+     *
+     * @return true if the calling thread was interrupted while waiting
+     */
+    private boolean awaitPersistence() {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                if (this.persistenceScheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                    return interrupted;
+                }
+                System.err.println("Waiting for the running autosave before closing");
+            }
+            catch (InterruptedException ex) { interrupted = true; }
+        }
     }
 }
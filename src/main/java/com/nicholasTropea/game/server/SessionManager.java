@@ -1,12 +1,15 @@
 package com.nicholasTropea.game.server;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import com.nicholasTropea.game.model.PlayerGameState;
 
@@ -15,9 +18,30 @@ import com.nicholasTropea.game.model.PlayerGameState;
  *
  * <p>Each active session maps a userId to their current game state.
  * Sessions are created on login and removed on logout or disconnect.
+ *
+ * <p>Only unfinished states live in per-user maps. A state that finishes is
+ * moved into a {@link FinishedGameStore}, and later lookups of that game
+ * rebuild it from the store.
+ *
+ * <p>Lookups read the concurrent maps directly. Mutations of one user's
+ * sessions and game states are serialized by a lock stripe chosen from the
+ * userId, so different players practically never contend. Exports visit
+ * users one at a time under their stripe and never stop the whole server.
+ *
+ * <p>With a {@link HistorySource} installed, histories are paged in instead:
+ * every state of a user, finished or not, is read from the source the first
+ * time it is needed and kept in the user's map while the user is resident.
+ * At most {@code maxResidentUsers} users stay resident; beyond that the
+ * least recently used users without an active session are evicted, and
+ * only their {@link PlayerSummary} is kept.
  */
 public class SessionManager {
-    /** Immutable persisted snapshot for one user-game state entry. */
+    /**
+     * Immutable persisted snapshot for one user-game state entry.
+     *
+     * <p>Snapshots carry word lists, the persisted form; live states keep
+     * the compact encoding of {@link PlayerGameState}.
+     */
     public static final class GameStateSnapshot {
         private final int userId;
         private final int gameId;
@@ -85,9 +109,9 @@ public class SessionManager {
         /** @return stored score */
         public int getScore() { return this.score; }
 
-        /** @return snapshot remaining words */
+        /** @return snapshot remaining words, empty if the record had none */
         public List<String> getRemainingWords() {
-            return List.copyOf(this.remainingWords);
+            return this.remainingWords == null ? List.of() : List.copyOf(this.remainingWords);
         }
 
 
@@ -118,7 +142,7 @@ public class SessionManager {
         private final float averageScore;
 
 
-        private GameAggregates(
+        GameAggregates(
             int participants,
             int activePlayers,
             int finishedPlayers,
@@ -150,24 +174,150 @@ public class SessionManager {
     }
 
 
+    /**
+     * Receives player state transitions so they can be made durable.
+     *
+     * <p>Calls happen with the user's stripe held, so the state is read
+     * consistently and one user's transitions are recorded in order. They
+     * must not block on I/O; instead they return the wait for durability,
+     * which the session manager runs after releasing the stripe so that
+     * concurrent transitions share one sync.
+     */
+    public interface StateJournal {
+        /** Journal that discards every transition. */
+        StateJournal NONE = new StateJournal() {
+            @Override
+            public Runnable sessionOpened(PlayerGameState state) { return () -> { }; }
+
+            @Override
+            public Runnable proposalApplied(PlayerGameState state, int group) {
+                return () -> { };
+            }
+        };
+
+
+        /**
+         * Records a newly created state.
+         *
+         * @param state created state, with its shuffled word order
+         * @return action waiting until the record is durable
+         */
+        Runnable sessionOpened(PlayerGameState state);
+
+
+        /**
+         * Records the outcome of a proposal.
+         *
+         * @param state state after the proposal
+         * @param group guessed group index, or -1 for a wrong proposal
+         * @return action waiting until the record is durable
+         */
+        Runnable proposalApplied(PlayerGameState state, int group);
+    }
+
+
+    /**
+     * Reads the persisted history of one user, for lazy paging.
+     *
+     * <p>Called with the user's stripe held.
+     */
+    public interface HistorySource {
+        /**
+         * Loads every persisted state of a user.
+         *
+         * @param userId player user identifier
+         * @return snapshots of the user's states, empty if none exist
+         */
+        List<GameStateSnapshot> loadHistory(int userId);
+    }
+
+
+    /** Number of lock stripes, a power of two. */
+    private static final int STRIPES = 64;
+
+
     /** Active sessions indexed by userId. */
     private final Map<Integer, PlayerGameState> activeSessions;
 
     /**
-     * All known game states per user, keyed by gameId.
+     * Unfinished game states per user, keyed by gameId.
      *
      * <p>This allows restoring state when a player logs out and logs in again
-     * during the same global round.
+     * during the same global round. A user's map is dropped once all their
+     * states are finished. With a history source the map holds finished
+     * states too, and its presence marks the user as resident.
      */
     private final Map<Integer, Map<Integer, PlayerGameState>> userGameStates;
 
+    /** Finished game states, in columnar form. */
+    private final FinishedGameStore finishedGames;
+
+    /**
+     * Per-user lock stripes guarding compound updates and state mutation.
+     *
+     * <p>Virtual threads blocked on them unmount from their carrier, which a
+     * {@code synchronized} monitor would not allow.
+     */
+    private final ReentrantLock[] stripes;
+
+    /** Running per-game counters updated on every state transition. */
+    private final GameAggregateIndex gameAggregates;
+
+    /** Destination of state transitions, a no-op until persistence is wired. */
+    private volatile StateJournal journal;
+
+    /** Source paging histories in, or null when every history is resident. */
+    private volatile HistorySource historySource;
+
+    /** Game catalog used to rebuild paged-in states. */
+    private volatile GameRepository historyGames;
+
+    /** Largest number of resident users with a history source. */
+    private final int maxResidentUsers;
+
+    /**
+     * Resident users, guarded by {@link #residentLock}.
+     *
+     * <p>Access-ordered, so the eldest entry is the user loaded or read
+     * least recently.
+     */
+    private final LinkedHashMap<Integer, Boolean> residentUsers;
+
+    /** Guards {@link #residentUsers}; taken after a user stripe, never before. */
+    private final ReentrantLock residentLock;
+
+    /** Summaries of users whose history is not resident. */
+    private final Map<Integer, PlayerSummary> summaries;
+
+
+    /**
+     * Creates a new session manager keeping every history resident.
+     */
+    public SessionManager() { this(Integer.MAX_VALUE); }
+
 
     /**
      * Creates a new session manager.
+     *
+     * @param maxResidentUsers largest number of users whose history stays in
+     *        memory once a {@link HistorySource} is installed
      */
-    public SessionManager() {
+    public SessionManager(int maxResidentUsers) {
+        if (maxResidentUsers < 1) {
+            throw new IllegalArgumentException("maxResidentUsers must be positive");
+        }
+
+        this.maxResidentUsers = maxResidentUsers;
+        this.residentUsers = new LinkedHashMap<>(16, 0.75f, true);
+        this.residentLock = new ReentrantLock();
+        this.summaries = new ConcurrentHashMap<>();
         this.activeSessions = new ConcurrentHashMap<>();
         this.userGameStates = new ConcurrentHashMap<>();
+        this.finishedGames = new FinishedGameStore();
+        this.stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) { this.stripes[i] = new ReentrantLock(); }
+        this.gameAggregates = new GameAggregateIndex();
+        this.journal = StateJournal.NONE;
     }
 
 
@@ -179,20 +329,30 @@ public class SessionManager {
      *
      * @param userId player user identifier
      * @param currentGameId current global game id
-     * @param initialWords current game words used for first-time state creation
      * @return error message if user already logged in, null on success
      */
-    public synchronized String openSessionForCurrentGame(
-        int userId,
-        int currentGameId,
-        List<String> initialWords
-    ) {
-        if (this.activeSessions.containsKey(userId)) {
-            return "connection already logged in";
+    public String openSessionForCurrentGame(int userId, int currentGameId) {
+        Runnable commit = null;
+
+        ReentrantLock stripe = stripeFor(userId);
+        stripe.lock();
+        try {
+            if (this.activeSessions.containsKey(userId)) {
+                return "connection already logged in";
+            }
+
+            PlayerGameState state = findState(userId, currentGameId);
+            if (state == null) {
+                state = createState(userId, currentGameId);
+                commit = this.journal.sessionOpened(state);
+            }
+
+            this.activeSessions.put(userId, state);
         }
+        finally { stripe.unlock(); }
 
-        PlayerGameState state = getOrCreateState(userId, currentGameId, initialWords);
-        this.activeSessions.put(userId, state);
+        if (commit != null) { commit.run(); }
+        trimResidents();
         return null;
     }
 
@@ -203,7 +363,7 @@ public class SessionManager {
      * @param userId player user identifier
      * @return game state or null if no active session
      */
-    public synchronized PlayerGameState getSession(int userId) {
+    public PlayerGameState getSession(int userId) {
         return this.activeSessions.get(userId);
     }
 
@@ -211,31 +371,64 @@ public class SessionManager {
     /**
      * Gets the state for a specific user/game pair.
      *
+     * <p>A finished state is rebuilt from the finished-game store, so the
+     * returned object is a copy that must not be mutated. The user's history
+     * is paged in if needed.
+     *
      * @param userId player user identifier
      * @param gameId game identifier
      * @return state for that game, or null if absent
      */
-    public synchronized PlayerGameState getStateForGame(int userId, int gameId) {
-        Map<Integer, PlayerGameState> statesByGame = this.userGameStates.get(userId);
-        if (statesByGame == null) { return null; }
+    public PlayerGameState getStateForGame(int userId, int gameId) {
+        PlayerGameState state = withUserLock(userId, () -> findState(userId, gameId));
+        trimResidents();
+        return state;
+    }
 
-        return statesByGame.get(gameId);
+
+    /**
+     * Returns the results of all known games of a player.
+     *
+     * <p>The user's history is paged in if needed.
+     *
+     * @param userId player user identifier
+     * @return history ordered by ascending gameId, empty if none exist
+     */
+    public FinishedGameStore.PlayerHistory getHistoryForUser(int userId) {
+        FinishedGameStore.PlayerHistory history = withUserLock(
+            userId,
+            () -> historyOf(userId, residentStatesOf(userId))
+        );
+        trimResidents();
+        return history;
     }
 
 
     /**
-     * Returns all known states for a player ordered by ascending gameId.
+     * Returns the totals of a player's history.
+     *
+     * <p>Computed from the history when it is resident, otherwise the summary
+     * kept when it was evicted; never pages the history in.
      *
      * @param userId player user identifier
-     * @return ordered list of game states, empty if none exist
+     * @return summary of the player's games
      */
-    public synchronized List<PlayerGameState> getStatesForUser(int userId) {
-        Map<Integer, PlayerGameState> statesByGame = this.userGameStates.get(userId);
-        if (statesByGame == null || statesByGame.isEmpty()) { return List.of(); }
+    public PlayerSummary getSummary(int userId) {
+        return withUserLock(userId, () -> {
+            Map<Integer, PlayerGameState> statesByGame = this.userGameStates.get(userId);
+            if (statesByGame == null && this.historySource != null) {
+                return this.summaries.getOrDefault(userId, PlayerSummary.EMPTY);
+            }
+            return PlayerSummary.of(historyOf(userId, statesByGame));
+        });
+    }
+
 
-        List<PlayerGameState> states = new ArrayList<>(statesByGame.values());
-        states.sort(Comparator.comparingInt(PlayerGameState::getGameId));
-        return states;
+    /** @return number of users whose history is resident in paged mode */
+    public int getResidentUserCount() {
+        this.residentLock.lock();
+        try { return this.residentUsers.size(); }
+        finally { this.residentLock.unlock(); }
     }
 
 
@@ -244,26 +437,37 @@ public class SessionManager {
      *
      * <p>If the user is logged in and the round changed, the active session is
      * moved to the state of {@code currentGameId}. Existing state is restored
-     * if present; otherwise a new one is created.
+     * if present; otherwise a new one is created. The common case, a session
+     * already on the current game, takes no lock.
      *
      * @param userId player user identifier
      * @param currentGameId current global game id
-     * @param initialWords words of current game for first-time state creation
      * @return active state for current game, or null if user is not logged in
      */
-    public synchronized PlayerGameState ensureCurrentGameSession(
-        int userId,
-        int currentGameId,
-        List<String> initialWords
-    ) {
+    public PlayerGameState ensureCurrentGameSession(int userId, int currentGameId) {
         PlayerGameState active = this.activeSessions.get(userId);
-        if (active == null) { return null; }
+        if (active == null || active.getGameId() == currentGameId) { return active; }
 
-        if (active.getGameId() == currentGameId) { return active; }
+        PlayerGameState updated;
+        Runnable commit = null;
 
-        PlayerGameState updated = getOrCreateState(userId, currentGameId, initialWords);
-        this.activeSessions.put(userId, updated);
-        
+        ReentrantLock stripe = stripeFor(userId);
+        stripe.lock();
+        try {
+            active = this.activeSessions.get(userId);
+            if (active == null || active.getGameId() == currentGameId) { return active; }
+
+            updated = findState(userId, currentGameId);
+            if (updated == null) {
+                updated = createState(userId, currentGameId);
+                commit = this.journal.sessionOpened(updated);
+            }
+            this.activeSessions.put(userId, updated);
+        }
+        finally { stripe.unlock(); }
+
+        if (commit != null) { commit.run(); }
+        trimResidents();
         return updated;
     }
 
@@ -273,7 +477,7 @@ public class SessionManager {
      *
      * @param userId player user identifier
      */
-    public synchronized void removeSession(int userId) {
+    public void removeSession(int userId) {
         this.activeSessions.remove(userId);
     }
 
@@ -284,7 +488,7 @@ public class SessionManager {
      * @param userId player user identifier
      * @return true if session exists
      */
-    public synchronized boolean hasSession(int userId) {
+    public boolean hasSession(int userId) {
         return this.activeSessions.containsKey(userId);
     }
 
@@ -300,69 +504,168 @@ public class SessionManager {
 
 
     /**
-     * Computes aggregate statistics for the provided game.
+     * Returns aggregate statistics for the provided game.
+     *
+     * <p>Answered in O(1) from running counters, without taking any lock.
      *
      * @param gameId game identifier
      * @return immutable aggregate snapshot for that game
      */
-    public synchronized GameAggregates getGameAggregates(int gameId) {
-        int participants = 0;
-        int activePlayers = 0;
-        int finishedPlayers = 0;
-        int wonPlayers = 0;
-        int totalScore = 0;
+    public GameAggregates getGameAggregates(int gameId) {
+        return this.gameAggregates.snapshot(gameId);
+    }
 
-        // Map of played games of stored players
-        for (Map<Integer, PlayerGameState> statesByGame : this.userGameStates.values()) {
-            PlayerGameState state = statesByGame.get(gameId);
-            if (state == null) { continue; } // Check if he played gameId game
 
-            participants++;
-            totalScore += state.getScore();
+    /**
+     * Applies a correct proposal and journals the transition.
+     *
+     * @param state player game state
+     * @param group index of the guessed group
+     * @param score new score value
+     * @param won true if this proposal wins the game
+     * @return score difference, to be applied to the leaderboard
+     */
+    public int applyCorrectProposal(
+        PlayerGameState state,
+        int group,
+        int score,
+        boolean won
+    ) {
+        Runnable[] commit = new Runnable[1];
+        int delta = withUserLock(state.getUserId(), () -> {
+            state.addGuessedGroup(group);
+            state.incrementCorrectProposals();
+
+            int change = updateScore(state, score);
+            if (won) { complete(state, true); }
+            commit[0] = this.journal.proposalApplied(state, group);
+            return change;
+        });
+
+        commit[0].run();
+        return delta;
+    }
 
-            if (state.isFinished()) { finishedPlayers++; }
-            else { activePlayers++; }
 
-            if (state.getFinalState() == PlayerGameState.GameResult.WON) { wonPlayers++; }
-        }
+    /**
+     * Applies a wrong proposal and journals the transition.
+     *
+     * @param state player game state
+     * @param score new score value
+     * @param lost true if this proposal loses the game
+     * @return score difference, to be applied to the leaderboard
+     */
+    public int applyWrongProposal(PlayerGameState state, int score, boolean lost) {
+        Runnable[] commit = new Runnable[1];
+        int delta = withUserLock(state.getUserId(), () -> {
+            state.incrementErrorCount();
+
+            int change = updateScore(state, score);
+            if (lost) { complete(state, false); }
+            commit[0] = this.journal.proposalApplied(state, -1);
+            return change;
+        });
+
+        commit[0].run();
+        return delta;
+    }
 
-        float averageScore = participants == 0
-            ? 0.0f
-            : (float) totalScore / participants;
 
-        return new GameAggregates(
-            participants,
-            activePlayers,
-            finishedPlayers,
-            wonPlayers,
-            averageScore
-        );
+    /**
+     * Installs the journal receiving state transitions.
+     *
+     * <p>Set after restoring persisted state so that the import itself is not
+     * journaled.
+     *
+     * @param journal journal to use, null to disable journaling
+     */
+    public void setStateJournal(StateJournal journal) {
+        this.journal = journal == null ? StateJournal.NONE : journal;
+    }
+
+
+    /**
+     * Pages histories in from a source instead of keeping them all resident.
+     *
+     * <p>Call before {@link #importSummaries}, at startup. From then on
+     * {@link #exportSnapshots} only sees resident users; the source is
+     * expected to be the persistent copy.
+     *
+     * @param source reads the persisted states of one user
+     * @param games game catalog used to rebuild paged-in states
+     */
+    public void setHistorySource(HistorySource source, GameRepository games) {
+        this.historyGames = games;
+        this.historySource = source;
+    }
+
+
+    /**
+     * Rebuilds the game aggregates and the summary of one user from their
+     * persisted states, without keeping the states.
+     *
+     * <p>The startup counterpart of {@link #importSnapshots} with a history
+     * source: after resetting with an empty {@link #importSnapshots}, call
+     * once per user before connections are accepted.
+     *
+     * @param history every snapshot of one user
+     * @param games game catalog used to encode word lists
+     */
+    public void importSummaries(List<GameStateSnapshot> history, GameRepository games) {
+        if (history.isEmpty()) { return; }
+
+        int userId = history.get(0).getUserId();
+        withUserLock(userId, () -> {
+            List<PlayerGameState> states = new ArrayList<>(history.size());
+            for (GameStateSnapshot snapshot : history) {
+                PlayerGameState restored = restoreState(snapshot, games);
+                if (restored == null) { continue; }
+
+                states.add(restored);
+                this.gameAggregates.recordRestored(restored);
+            }
+
+            this.summaries.put(
+                userId,
+                PlayerSummary.of(this.finishedGames.historyOf(userId, states))
+            );
+            return null;
+        });
     }
 
 
     /**
      * Exports all known user-game states for persistence.
      *
+     * <p>The iteration is weakly consistent: each user is copied under their
+     * own stripe, so every snapshot is internally consistent, but users are
+     * not frozen relative to each other. Transitions racing with the export
+     * are also in the journal.
+     *
+     * <p>Word lists are built from the games here; states of games missing
+     * from the catalog are exported without words. Finished states are
+     * rebuilt from the store, with their remaining words in catalog order.
+     *
+     * @param games game catalog used to materialize word lists
      * @return immutable list of snapshots
      */
-    public synchronized List<GameStateSnapshot> exportSnapshots() {
+    public List<GameStateSnapshot> exportSnapshots(GameRepository games) {
         List<GameStateSnapshot> snapshots = new ArrayList<>();
 
-        for (Map<Integer, PlayerGameState> statesByGame : this.userGameStates.values()) {
-            for (PlayerGameState state : statesByGame.values()) {
-                snapshots.add(
-                    new GameStateSnapshot(
-                        state.getUserId(),
-                        state.getGameId(),
-                        state.getCorrectProposals(),
-                        state.getErrorCount(),
-                        state.getScore(),
-                        state.getRemainingWords(),
-                        state.getGuessedGroups(),
-                        state.getFinalState()
-                    )
-                );
-            }
+        for (
+            Map.Entry<Integer, Map<Integer, PlayerGameState>> entry
+                : this.userGameStates.entrySet()
+        ) {
+            withUserLock(entry.getKey(), () -> {
+                for (PlayerGameState state : entry.getValue().values()) {
+                    snapshots.add(toSnapshot(state, games));
+                }
+                return null;
+            });
+        }
+
+        for (PlayerGameState state : this.finishedGames.materializeAll()) {
+            snapshots.add(toSnapshot(state, games));
         }
 
         snapshots.sort(
@@ -371,72 +674,399 @@ public class SessionManager {
                 .thenComparingInt(GameStateSnapshot::getGameId)
         );
 
-        return List.copyOf(snapshots);
+        // A state finishing mid-export is seen both unfinished and in the
+        // store; the sort is stable, so the finished copy comes last.
+        List<GameStateSnapshot> unique = new ArrayList<>(snapshots.size());
+        for (GameStateSnapshot snapshot : snapshots) {
+            int last = unique.size() - 1;
+            if (
+                last >= 0
+                && unique.get(last).getUserId() == snapshot.getUserId()
+                && unique.get(last).getGameId() == snapshot.getGameId()
+            ) {
+                unique.set(last, snapshot);
+            }
+            else { unique.add(snapshot); }
+        }
+
+        return List.copyOf(unique);
     }
 
 
     /**
      * Imports persisted snapshots and rebuilds in-memory state maps.
      *
+     * <p>Per-game aggregate counters are rebuilt from the same snapshots.
+     * Meant for startup, before connections are accepted. Snapshots of games
+     * missing from the catalog are skipped.
+     *
+     * <p>Snapshots are partitioned by the lock stripe of their user and the
+     * partitions are restored in parallel on the common fork/join pool.
+     * The calling thread holds every stripe for the whole import, so each
+     * partition owns its users and the workers take no user locks.
+     *
      * @param snapshots snapshots loaded from persistent storage
+     * @param games game catalog used to encode word lists
      */
-    public synchronized void importSnapshots(List<GameStateSnapshot> snapshots) {
-        this.activeSessions.clear();
-        this.userGameStates.clear();
+    public void importSnapshots(List<GameStateSnapshot> snapshots, GameRepository games) {
+        for (ReentrantLock stripe : this.stripes) { stripe.lock(); }
+        try {
+            this.activeSessions.clear();
+            this.userGameStates.clear();
+            this.finishedGames.clear();
+            this.gameAggregates.clear();
+            this.summaries.clear();
+
+            this.residentLock.lock();
+            try { this.residentUsers.clear(); }
+            finally { this.residentLock.unlock(); }
+
+            if (snapshots == null || snapshots.isEmpty()) { return; }
+
+            List<List<GameStateSnapshot>> partitions = new ArrayList<>(STRIPES);
+            for (int i = 0; i < STRIPES; i++) { partitions.add(new ArrayList<>()); }
+            for (GameStateSnapshot snapshot : snapshots) {
+                partitions.get(stripeIndex(snapshot.getUserId())).add(snapshot);
+            }
 
-        if (snapshots == null || snapshots.isEmpty()) { return; }
+            partitions.parallelStream().forEach(partition -> restore(partition, games));
+        }
+        finally {
+            for (ReentrantLock stripe : this.stripes) { stripe.unlock(); }
+        }
+    }
 
-        for (GameStateSnapshot snapshot : snapshots) {
-            List<String> remainingWords = snapshot.getRemainingWords();
-            if (remainingWords == null) { remainingWords = List.of(); }
 
-            PlayerGameState restored = new PlayerGameState(
-                snapshot.getUserId(),
-                snapshot.getGameId(),
-                remainingWords
-            );
+    /**
+     * Restores the snapshots of one stripe partition.
+     *
+     * @param partition snapshots whose users share a stripe
+     * @param games game catalog used to encode word lists
+     */
+    private void restore(List<GameStateSnapshot> partition, GameRepository games) {
+        List<PlayerGameState> finished = new ArrayList<>();
 
-            restored.restoreProgress(
-                snapshot.getCorrectProposals(),
-                snapshot.getErrorCount(),
-                snapshot.getScore(),
-                remainingWords,
-                snapshot.getGuessedGroups(),
-                snapshot.getFinalState()
-            );
+        for (GameStateSnapshot snapshot : partition) {
+            PlayerGameState restored = restoreState(snapshot, games);
+            if (restored == null) { continue; }
+
+            if (restored.isFinished()) { finished.add(restored); }
+            else { statesOf(snapshot.getUserId()).put(snapshot.getGameId(), restored); }
+            this.gameAggregates.recordRestored(restored);
+        }
+
+        this.finishedGames.appendAll(finished);
+    }
+
+
+    /**
+     * Rebuilds a live state from its snapshot.
+     *
+     * @param snapshot persisted state
+     * @param games game catalog used to encode word lists
+     * @return restored state, or null if the game is not in the catalog
+     */
+    private static PlayerGameState restoreState(
+        GameStateSnapshot snapshot,
+        GameRepository games
+    ) {
+        ProposalMatcher matcher = games.getMatcher(snapshot.getGameId());
+        if (matcher == null) { return null; }
+
+        List<String> remainingWords = snapshot.getRemainingWords();
+        PlayerGameState restored = new PlayerGameState(
+            snapshot.getUserId(),
+            snapshot.getGameId(),
+            matcher.wordOrderOf(remainingWords)
+        );
+
+        restored.restoreProgress(
+            snapshot.getCorrectProposals(),
+            snapshot.getErrorCount(),
+            snapshot.getScore(),
+            matcher.maskOf(remainingWords),
+            matcher.groupsOf(snapshot.getGuessedGroups()),
+            snapshot.getFinalState()
+        );
+        return restored;
+    }
+
+
+    /**
+     * Sets a new score on a state and updates the game aggregates.
+     *
+     * @param state player game state
+     * @param score new score value
+     * @return score difference
+     */
+    private int updateScore(PlayerGameState state, int score) {
+        int delta = score - state.getScore();
+        state.setScore(score);
+        this.gameAggregates.recordScoreChange(state.getGameId(), delta);
+        return delta;
+    }
 
-            Map<Integer, PlayerGameState> statesByGame = this.userGameStates
-                .computeIfAbsent(snapshot.getUserId(), key -> new HashMap<>());
 
-            statesByGame.put(snapshot.getGameId(), restored);
+    /**
+     * Marks a state as finished, moves it to the finished-game store and
+     * updates the game aggregates.
+     *
+     * <p>Called with the user's stripe held. The state object stays valid
+     * for callers that still reference it, such as the active session. With
+     * a history source the state stays in the user's map, which is evicted
+     * as a whole.
+     *
+     * @param state player game state
+     * @param won true for a win, false for a loss
+     */
+    private void complete(PlayerGameState state, boolean won) {
+        if (state.isFinished()) { return; }
+
+        if (won) { state.completeAsWon(); }
+        else { state.completeAsLost(); }
+
+        if (this.historySource == null) {
+            int userId = state.getUserId();
+            Map<Integer, PlayerGameState> statesByGame = this.userGameStates.get(userId);
+            if (statesByGame != null) {
+                statesByGame.remove(state.getGameId());
+                if (statesByGame.isEmpty()) { this.userGameStates.remove(userId); }
+            }
+            this.finishedGames.append(state);
         }
+
+        this.gameAggregates.recordFinished(state.getGameId(), won);
+    }
+
+
+    /**
+     * Converts a state to its persisted form.
+     *
+     * @param state player game state
+     * @param games game catalog used to materialize word lists
+     * @return snapshot of the state
+     */
+    private static GameStateSnapshot toSnapshot(PlayerGameState state, GameRepository games) {
+        ProposalMatcher matcher = games.getMatcher(state.getGameId());
+
+        return new GameStateSnapshot(
+            state.getUserId(),
+            state.getGameId(),
+            state.getCorrectProposals(),
+            state.getErrorCount(),
+            state.getScore(),
+            matcher == null ? null : matcher.remainingWords(state),
+            matcher == null ? null : matcher.guessedGroups(state),
+            state.getFinalState()
+        );
+    }
+
+
+    /**
+     * Runs an action while holding the stripe of a user.
+     *
+     * @param userId player user identifier
+     * @param action action to run
+     * @return action result
+     */
+    private <T> T withUserLock(int userId, Supplier<T> action) {
+        ReentrantLock stripe = stripeFor(userId);
+        stripe.lock();
+        try { return action.get(); }
+        finally { stripe.unlock(); }
+    }
+
+
+    /**
+     * Selects the lock stripe of a user.
+     *
+     * @param userId player user identifier
+     * @return stripe lock
+     */
+    private ReentrantLock stripeFor(int userId) {
+        return this.stripes[stripeIndex(userId)];
     }
 
 
     /**
-     * Gets an existing state or creates a new one for user/game pair.
+     * Maps a user to a stripe index.
+     *
+     * @param userId player user identifier
+     * @return index into the stripe array
+     */
+    private static int stripeIndex(int userId) {
+        int hash = userId * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+
+    /**
+     * Looks up the state of a user/game pair, unfinished or finished.
+     *
+     * <p>Called with the user's stripe held.
      *
      * @param userId player user identifier
      * @param gameId game identifier
-     * @param initialWords words to initialize newly created game state
-     * @return existing or newly created player game state
+     * @return existing state, or null
+     */
+    private PlayerGameState findState(int userId, int gameId) {
+        Map<Integer, PlayerGameState> statesByGame = residentStatesOf(userId);
+        PlayerGameState state = statesByGame == null ? null : statesByGame.get(gameId);
+        return state != null ? state : this.finishedGames.find(userId, gameId);
+    }
+
+
+    /**
+     * Builds a user's history from their finished rows and map.
+     *
+     * <p>Called with the user's stripe held.
+     *
+     * @param userId player user identifier
+     * @param statesByGame the user's state map, or null
+     * @return history ordered by ascending gameId
      */
-    private PlayerGameState getOrCreateState(
+    private FinishedGameStore.PlayerHistory historyOf(
         int userId,
-        int gameId,
-        List<String> initialWords
+        Map<Integer, PlayerGameState> statesByGame
     ) {
-        Map<Integer, PlayerGameState> statesByGame =
-            this.userGameStates.computeIfAbsent(userId, key -> new HashMap<>());
+        return this.finishedGames.historyOf(
+            userId,
+            statesByGame == null ? List.of() : statesByGame.values()
+        );
+    }
+
+
+    /**
+     * Returns the state map of a user, paging the history in from the
+     * history source if the user is not resident.
+     *
+     * <p>Called with the user's stripe held. Without a source this is a
+     * plain lookup.
+     *
+     * @param userId player user identifier
+     * @return the user's state map, or null if it has none
+     */
+    private Map<Integer, PlayerGameState> residentStatesOf(int userId) {
+        Map<Integer, PlayerGameState> statesByGame = this.userGameStates.get(userId);
+        HistorySource source = this.historySource;
+        if (source == null) { return statesByGame; }
+
+        if (statesByGame == null) {
+            statesByGame = new ConcurrentHashMap<>();
+            for (GameStateSnapshot snapshot : source.loadHistory(userId)) {
+                PlayerGameState restored = restoreState(snapshot, this.historyGames);
+                if (restored != null) { statesByGame.put(restored.getGameId(), restored); }
+            }
+
+            this.userGameStates.put(userId, statesByGame);
+            this.summaries.remove(userId);
+        }
+
+        this.residentLock.lock();
+        try { this.residentUsers.put(userId, Boolean.TRUE); }
+        finally { this.residentLock.unlock(); }
+
+        return statesByGame;
+    }
+
+
+    /**
+     * Evicts the least recently used users without an active session until
+     * at most {@code maxResidentUsers} remain.
+     *
+     * <p>Called with no stripe held. Logged-in users are skipped and moved
+     * to the young end, so the resident set can stay above the bound while
+     * they are all active.
+     */
+    private void trimResidents() {
+        if (this.historySource == null) { return; }
+
+        while (true) {
+            Integer victim = null;
+
+            this.residentLock.lock();
+            try {
+                if (this.residentUsers.size() <= this.maxResidentUsers) { return; }
+
+                List<Integer> skipped = new ArrayList<>();
+                Iterator<Integer> eldest = this.residentUsers.keySet().iterator();
+                while (victim == null && eldest.hasNext()) {
+                    Integer userId = eldest.next();
+                    if (this.activeSessions.containsKey(userId)) { skipped.add(userId); }
+                    else { victim = userId; }
+                }
+
+                for (Integer userId : skipped) { this.residentUsers.get(userId); }
+            }
+            finally { this.residentLock.unlock(); }
+
+            if (victim == null || !evict(victim)) { return; }
+        }
+    }
+
+
+    /**
+     * Drops the history of a user, keeping only its summary.
+     *
+     * @param userId player user identifier
+     * @return false if the user logged in meanwhile
+     */
+    private boolean evict(int userId) {
+        return withUserLock(userId, () -> {
+            if (this.activeSessions.containsKey(userId)) { return false; }
+
+            Map<Integer, PlayerGameState> statesByGame = this.userGameStates.remove(userId);
+            if (statesByGame != null && !statesByGame.isEmpty()) {
+                this.summaries.put(userId, PlayerSummary.of(historyOf(userId, statesByGame)));
+            }
+
+            this.residentLock.lock();
+            try { this.residentUsers.remove(userId); }
+            finally { this.residentLock.unlock(); }
+            return true;
+        });
+    }
 
-        PlayerGameState existing = statesByGame.get(gameId);
-        if (existing != null) {return existing; }
 
-        List<String> shuffledWords = new ArrayList<>(initialWords);
-        Collections.shuffle(shuffledWords);
+    /**
+     * Returns the game-state map of a user, creating it if needed.
+     *
+     * @param userId player user identifier
+     * @return concurrent map of states keyed by gameId
+     */
+    private Map<Integer, PlayerGameState> statesOf(int userId) {
+        return this.userGameStates.computeIfAbsent(
+            userId,
+            key -> new ConcurrentHashMap<>()
+        );
+    }
+
+
+    /**
+     * Creates a new state with a shuffled word order for a user/game pair.
+     *
+     * <p>Called with the user's stripe held.
+     *
+     * @param userId player user identifier
+     * @param gameId game identifier
+     * @return newly created player game state
+     */
+    private PlayerGameState createState(int userId, int gameId) {
+        int[] order = new int[16];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < order.length; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
 
-        PlayerGameState created = new PlayerGameState(userId, gameId, shuffledWords);
-        statesByGame.put(gameId, created);
+        PlayerGameState created = new PlayerGameState(
+            userId,
+            gameId,
+            PlayerGameState.packWordOrder(order)
+        );
+        statesOf(userId).put(gameId, created);
+        this.gameAggregates.recordParticipant(gameId);
 
         return created;
     }
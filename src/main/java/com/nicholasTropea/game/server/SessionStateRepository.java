@@ -1,75 +1,233 @@
 package com.nicholasTropea.game.server;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
-/** Persists and restores historical session/game states. */
-public class SessionStateRepository {
-    /** JSON serializer/deserializer. */
+import com.nicholasTropea.game.model.PlayerGameState;
+
+/**
+ * Persists and restores historical session/game states.
+ *
+ * <p>State is stored as a compacted checkpoint (the JSON snapshot file) plus
+ * an append-only journal next to it ({@code <storagePath>.journal}). Every
+ * state transition queues one JSON line while the user's stripe is held and
+ * is durable once the returned action has run; {@link #checkpoint(Supplier)}
+ * folds the journal back into the snapshot file. Journal events carry absolute counters, so
+ * replaying an event already covered by the checkpoint is harmless.
+ *
+ * <p>Given a {@link KeyValueStore}, every transition instead rewrites the
+ * {@code state/<userId>/<gameId>} record of the state, and the JSON file is
+ * only imported into an empty store and exported by
+ * {@link #checkpoint(Supplier)}. The records of one user are contiguous in
+ * key order, so the store also serves as the {@link SessionManager}'s
+ * {@link SessionManager.HistorySource}.
+ */
+public class SessionStateRepository
+    implements SessionManager.StateJournal, SessionManager.HistorySource {
+    /** Journal event types. */
+    private static final String OPENED = "opened";
+    private static final String CORRECT = "correct";
+    private static final String WRONG = "wrong";
+
+    /** Store key prefix of state records. */
+    private static final String KEY_PREFIX = "state/";
+
+    /** JSON serializer/deserializer for the checkpoint file. */
     private final Gson gson;
 
+    /** Compact serializer for single-line journal events. */
+    private final Gson journalGson;
+
     /** Storage file location. */
     private final Path storageFile;
 
+    /** Journal of transitions since the last checkpoint, null with a store. */
+    private final GroupCommitLog journal;
+
+    /** Store holding the state records, or null to use the JSON file. */
+    private final KeyValueStore store;
+
+    /** Game catalog turning compact states into journaled word lists. */
+    private final GameRepository games;
 
 
     /**
      * Creates repository with explicit storage path.
      *
      * @param storagePath JSON file path
+     * @param games game catalog of the journaled states
+     */
+    public SessionStateRepository(String storagePath, GameRepository games) {
+        this(storagePath, games, null);
+    }
+
+
+    /**
+     * Creates repository backed by a key-value store.
+     *
+     * @param storagePath JSON file imported into an empty store and exported
+     *        at checkpoints
+     * @param games game catalog of the stored states
+     * @param store store holding the states, or null to use the JSON file
      */
-    public SessionStateRepository(String storagePath) {
+    public SessionStateRepository(
+        String storagePath,
+        GameRepository games,
+        KeyValueStore store
+    ) {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.journalGson = new Gson();
         this.storageFile = Path.of(storagePath);
+        this.store = store;
+        this.journal = store != null
+            ? null
+            : new GroupCommitLog(journalFile(), "Game State Journal");
+        this.games = games;
     }
 
 
     /**
-     * Loads persisted snapshots from storage.
+     * Loads the checkpoint and replays the journal on top of it.
+     *
+     * <p>A torn last line, left by a crash during an append, ends the replay
+     * of its segment. With a store, states are read from the store, and the
+     * checkpoint and journal are imported only if it holds none.
      *
-     * @return list of snapshots, empty when file is absent/empty
+     * @return list of snapshots, empty when nothing was persisted
      */
     public synchronized List<SessionManager.GameStateSnapshot> loadSnapshots() {
-        try {
-            if (!Files.exists(this.storageFile)) {
-                Path parent = this.storageFile.getParent();
-                if (parent != null) { Files.createDirectories(parent); }
-                
-                return List.of();
-            }
+        if (this.store != null) {
+            List<SessionManager.GameStateSnapshot> stored = loadStored();
+            if (!stored.isEmpty()) { return stored; }
+        }
 
-            String content = Files.readString(this.storageFile, StandardCharsets.UTF_8);
-            if (content.trim().isEmpty()) { return List.of(); }
+        Map<Long, ReplayState> states = loadCheckpoint();
 
-            StorageData data = this.gson.fromJson(content, StorageData.class);
-            if (data == null || data.snapshots == null) { return List.of(); }
+        int replayed = 0;
+        for (Path segment : GroupCommitLog.segmentsOf(journalFile())) {
+            replayed += replay(segment, states);
+        }
 
-            return new ArrayList<>(data.snapshots);
+        if (replayed > 0) {
+            System.out.println("Replayed " + replayed + " journaled game-state events");
         }
-        catch (IOException | RuntimeException ex) {
-            System.err.println("Failed to load game states: " + ex.getMessage());
-            return List.of();
+
+        List<SessionManager.GameStateSnapshot> snapshots = new ArrayList<>(states.size());
+        for (ReplayState state : states.values()) { snapshots.add(state.toSnapshot()); }
+
+        if (this.store != null && !snapshots.isEmpty()) { importIntoStore(snapshots); }
+        return snapshots;
+    }
+
+
+    /**
+     * Streams the persisted states one user at a time, for startup with
+     * histories paged in from the store.
+     *
+     * <p>Reads the store record by record, so only one user's states are in
+     * memory at a time; the JSON file is imported first if the store holds
+     * no state. Without a store, the loaded snapshots are grouped instead.
+     *
+     * @param action receives every snapshot of one user, never empty
+     * @return number of states visited
+     */
+    public synchronized int forEachHistory(
+        Consumer<List<SessionManager.GameStateSnapshot>> action
+    ) {
+        List<SessionManager.GameStateSnapshot> history = new ArrayList<>();
+        int[] visited = {0};
+
+        if (this.store != null) {
+            this.store.forEach(KEY_PREFIX, (key, value) -> {
+                SessionManager.GameStateSnapshot snapshot = parse(value);
+                if (snapshot == null) { return; }
+
+                if (
+                    !history.isEmpty()
+                    && history.get(0).getUserId() != snapshot.getUserId()
+                ) {
+                    action.accept(List.copyOf(history));
+                    history.clear();
+                }
+                history.add(snapshot);
+                visited[0]++;
+            });
+
+            if (!history.isEmpty()) { action.accept(List.copyOf(history)); }
+            if (visited[0] > 0) { return visited[0]; }
+        }
+
+        Map<Integer, List<SessionManager.GameStateSnapshot>> byUser = new LinkedHashMap<>();
+        for (SessionManager.GameStateSnapshot snapshot : loadSnapshots()) {
+            byUser.computeIfAbsent(snapshot.getUserId(), key -> new ArrayList<>()).add(snapshot);
+            visited[0]++;
         }
+        byUser.values().forEach(action);
+
+        return visited[0];
     }
 
 
     /**
-     * Persists provided snapshots atomically.
+     * Reads every stored state of one user with a prefix scan.
+     *
+     * @param userId player user identifier
+     * @return the user's snapshots, empty without a store
+     */
+    @Override
+    public List<SessionManager.GameStateSnapshot> loadHistory(int userId) {
+        if (this.store == null) { return List.of(); }
+
+        List<SessionManager.GameStateSnapshot> snapshots = new ArrayList<>();
+        this.store.forEach(KEY_PREFIX + userId + "/", (key, value) -> {
+            SessionManager.GameStateSnapshot snapshot = parse(value);
+            if (snapshot != null) { snapshots.add(snapshot); }
+        });
+        return snapshots;
+    }
+
+
+    /**
+     * Persists provided snapshots atomically as the new checkpoint.
      *
      * @param snapshots session snapshots to store
      */
     public synchronized void persistSnapshots(
         List<SessionManager.GameStateSnapshot> snapshots
     ) {
+        writeCheckpoint(json -> {
+            for (SessionManager.GameStateSnapshot snapshot : snapshots) {
+                this.gson.toJson(snapshot, SessionManager.GameStateSnapshot.class, json);
+            }
+        });
+    }
+
+
+    /**
+     * Writes a checkpoint file atomically, streaming its snapshots.
+     *
+     * @param snapshots writes each snapshot into the open array
+     */
+    private void writeCheckpoint(Consumer<JsonWriter> snapshots) {
         try {
             Path parent = this.storageFile.getParent();
             if (parent != null) { Files.createDirectories(parent); }
@@ -78,9 +236,16 @@ public class SessionStateRepository {
                 this.storageFile.getFileName() + ".tmp"
             );
 
-            StorageData data = new StorageData(snapshots);
-            String json = this.gson.toJson(data);
-            Files.writeString(tempFile, json, StandardCharsets.UTF_8);
+            try (
+                BufferedWriter out = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)
+            ) {
+                JsonWriter json = this.gson.newJsonWriter(out);
+                json.beginObject().name("snapshots").beginArray();
+                snapshots.accept(json);
+                json.endArray().endObject();
+                json.flush();
+            }
+
             Files.move(
                 tempFile,
                 this.storageFile,
@@ -88,20 +253,374 @@ public class SessionStateRepository {
                 StandardCopyOption.ATOMIC_MOVE
             );
         }
-        catch (IOException ex) {
+        catch (IOException | JsonIOException ex) {
             throw new IllegalStateException("Could not persist game states", ex);
         }
     }
 
 
-    /** Root JSON structure for storage format. */ 
-    private static final class StorageData {
-        @SerializedName("snapshots")
-        private final List<SessionManager.GameStateSnapshot> snapshots;
+    /**
+     * Compacts the journal into a new checkpoint.
+     *
+     * <p>The journal is rotated before exporting, so every transition is
+     * either in the exported snapshots or in the new journal segment (or
+     * both). The rotated segment is deleted only once the checkpoint is on
+     * disk. With a store, its states are only exported to the JSON file,
+     * streamed record by record so the export needs no more memory than one
+     * state.
+     *
+     * @param exporter supplies the current snapshots, unused with a store
+     */
+    public synchronized void checkpoint(
+        Supplier<List<SessionManager.GameStateSnapshot>> exporter
+    ) {
+        if (this.store != null) {
+            writeCheckpoint(json -> this.store.forEach(KEY_PREFIX, (key, value) -> {
+                SessionManager.GameStateSnapshot snapshot = parse(value);
+                if (snapshot != null) {
+                    this.gson.toJson(snapshot, SessionManager.GameStateSnapshot.class, json);
+                }
+            }));
+            return;
+        }
+
+        this.journal.rotate();
+        persistSnapshots(exporter.get());
+        this.journal.discardPreviousSegment();
+    }
+
+
+    /** @return bytes journaled since the last checkpoint, 0 with a store */
+    public long getJournalSize() { return this.journal == null ? 0L : this.journal.size(); }
+
+
+    /** Flushes and closes the journal; a store is closed by its owner. */
+    public void close() {
+        if (this.journal != null) { this.journal.close(); }
+    }
+
+
+    @Override
+    public Runnable sessionOpened(PlayerGameState state) {
+        if (this.store != null) { return putState(state); }
+
+        JournalEvent event = new JournalEvent(OPENED, state);
+        ProposalMatcher matcher = this.games.getMatcher(state.getGameId());
+        event.words = matcher == null ? null : matcher.remainingWords(state);
+        return enqueue(event);
+    }
+
+
+    @Override
+    public Runnable proposalApplied(PlayerGameState state, int group) {
+        if (this.store != null) { return putState(state); }
+
+        JournalEvent event = new JournalEvent(group < 0 ? WRONG : CORRECT, state);
+        ProposalMatcher matcher = this.games.getMatcher(state.getGameId());
+        event.words = group < 0 || matcher == null ? null : matcher.getGroupWords(group);
+        return enqueue(event);
+    }
+
+
+    private Runnable enqueue(JournalEvent event) {
+        return this.journal.enqueue(this.journalGson.toJson(event))::await;
+    }
+
+
+    /**
+     * Rewrites the store record of a state.
+     *
+     * <p>Called with the user's stripe held, so records of one user reach
+     * the store in transition order and a history paged in under the
+     * stripe always sees them.
+     *
+     * @param state state after the transition
+     * @return action waiting until the record is durable
+     */
+    private Runnable putState(PlayerGameState state) {
+        ProposalMatcher matcher = this.games.getMatcher(state.getGameId());
+        SessionManager.GameStateSnapshot snapshot = new SessionManager.GameStateSnapshot(
+            state.getUserId(),
+            state.getGameId(),
+            state.getCorrectProposals(),
+            state.getErrorCount(),
+            state.getScore(),
+            matcher == null ? null : matcher.remainingWords(state),
+            matcher == null ? null : matcher.guessedGroups(state),
+            state.getFinalState()
+        );
+
+        this.store.put(key(snapshot), this.journalGson.toJson(snapshot));
+        return this.store::sync;
+    }
+
+
+    /** @return every state record of the store, in key order */
+    private List<SessionManager.GameStateSnapshot> loadStored() {
+        List<SessionManager.GameStateSnapshot> snapshots = new ArrayList<>();
+        this.store.forEach(KEY_PREFIX, (key, value) -> {
+            SessionManager.GameStateSnapshot snapshot = parse(value);
+            if (snapshot != null) { snapshots.add(snapshot); }
+        });
+        return snapshots;
+    }
+
+
+    private SessionManager.GameStateSnapshot parse(String value) {
+        return this.journalGson.fromJson(value, SessionManager.GameStateSnapshot.class);
+    }
 
 
-        private StorageData(List<SessionManager.GameStateSnapshot> snapshots) {
-            this.snapshots = snapshots == null ? List.of() : List.copyOf(snapshots);
+    /**
+     * Copies states loaded from the JSON file into the empty store.
+     *
+     * <p>The journal is deleted once the store is synced, so a later export
+     * is not overridden by older events if the JSON file is used again.
+     *
+     * @param snapshots loaded states
+     */
+    private void importIntoStore(List<SessionManager.GameStateSnapshot> snapshots) {
+        for (SessionManager.GameStateSnapshot snapshot : snapshots) {
+            this.store.put(key(snapshot), this.journalGson.toJson(snapshot));
+        }
+        this.store.sync();
+
+        try {
+            for (Path segment : GroupCommitLog.segmentsOf(journalFile())) {
+                Files.delete(segment);
+            }
+        }
+        catch (IOException ex) {
+            System.err.println("Could not delete imported game-state journal: " + ex.getMessage());
+        }
+
+        System.out.println("Imported " + snapshots.size() + " game states into the store");
+    }
+
+
+    private Path journalFile() {
+        return this.storageFile.resolveSibling(this.storageFile.getFileName() + ".journal");
+    }
+
+
+    private static String key(SessionManager.GameStateSnapshot snapshot) {
+        return KEY_PREFIX + snapshot.getUserId() + "/" + snapshot.getGameId();
+    }
+
+
+    /**
+     * Streams the checkpoint file into replay states, one snapshot at a time.
+     *
+     * @return replay states keyed by user/game, empty when the file is absent
+     *         or unreadable
+     */
+    private Map<Long, ReplayState> loadCheckpoint() {
+        Map<Long, ReplayState> states = new LinkedHashMap<>();
+        if (!Files.exists(this.storageFile)) { return states; }
+
+        try (StreamingJsonLoader loader = StreamingJsonLoader.open(this.storageFile)) {
+            if (loader.isBlank()) { return states; }
+
+            JsonReader reader = loader.reader();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"snapshots".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    SessionManager.GameStateSnapshot snapshot = this.gson.fromJson(
+                        reader,
+                        SessionManager.GameStateSnapshot.class
+                    );
+                    if (snapshot == null) { continue; }
+
+                    ReplayState state = new ReplayState(snapshot);
+                    states.put(key(state.userId, state.gameId), state);
+                    loader.recordLoaded();
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+
+            return states;
+        }
+        catch (IOException | RuntimeException ex) {
+            System.err.println("Failed to load game states: " + ex.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+
+    /**
+     * Applies the events of one journal segment.
+     *
+     * @param segment journal segment
+     * @param states replay states keyed by user/game
+     * @return number of applied events
+     */
+    private int replay(Path segment, Map<Long, ReplayState> states) {
+        int applied = 0;
+
+        try (
+            BufferedReader reader = Files.newBufferedReader(
+                segment,
+                StandardCharsets.UTF_8
+            )
+        ) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) { continue; }
+
+                JournalEvent event;
+                try { event = this.journalGson.fromJson(line, JournalEvent.class); }
+                catch (JsonParseException ex) {
+                    System.err.println("Ignoring torn journal record in " + segment);
+                    break;
+                }
+
+                if (event != null && apply(event, states)) { applied++; }
+            }
+        }
+        catch (IOException ex) {
+            System.err.println(
+                "Failed to replay journal " + segment + ": " + ex.getMessage()
+            );
+        }
+
+        return applied;
+    }
+
+
+    /**
+     * Applies one event, idempotently.
+     *
+     * @param event journal event
+     * @param states replay states keyed by user/game
+     * @return true if the event was recognized
+     */
+    private static boolean apply(JournalEvent event, Map<Long, ReplayState> states) {
+        long key = key(event.userId, event.gameId);
+        ReplayState state = states.get(key);
+
+        if (OPENED.equals(event.type)) {
+            if (state == null) { states.put(key, new ReplayState(event)); }
+            return true;
+        }
+
+        if (state == null) { return false; }
+
+        if (CORRECT.equals(event.type)) {
+            if (event.words != null && !state.guessedGroups.contains(event.words)) {
+                state.guessedGroups.add(List.copyOf(event.words));
+                state.remainingWords.removeAll(event.words);
+            }
+        }
+        else if (!WRONG.equals(event.type)) { return false; }
+
+        state.correctProposals = event.correctProposals;
+        state.errorCount = event.errorCount;
+        state.score = event.score;
+        state.finalState = event.finalState;
+        return true;
+    }
+
+
+    private static long key(int userId, int gameId) {
+        return ((long) userId << 32) | (gameId & 0xFFFFFFFFL);
+    }
+
+
+    /** One journal line, with absolute counters after the transition. */
+    private static final class JournalEvent {
+        @SerializedName("type")
+        private String type;
+
+        @SerializedName("userId")
+        private int userId;
+
+        @SerializedName("gameId")
+        private int gameId;
+
+        @SerializedName("words")
+        private List<String> words;
+
+        @SerializedName("correctProposals")
+        private int correctProposals;
+
+        @SerializedName("errorCount")
+        private int errorCount;
+
+        @SerializedName("score")
+        private int score;
+
+        @SerializedName("finalState")
+        private PlayerGameState.GameResult finalState;
+
+
+        private JournalEvent(String type, PlayerGameState state) {
+            this.type = type;
+            this.userId = state.getUserId();
+            this.gameId = state.getGameId();
+            this.correctProposals = state.getCorrectProposals();
+            this.errorCount = state.getErrorCount();
+            this.score = state.getScore();
+            this.finalState = state.getFinalState();
+        }
+    }
+
+
+    /** Mutable state rebuilt while replaying the journal. */
+    private static final class ReplayState {
+        private final int userId;
+        private final int gameId;
+        private final List<String> remainingWords;
+        private final List<List<String>> guessedGroups;
+        private int correctProposals;
+        private int errorCount;
+        private int score;
+        private PlayerGameState.GameResult finalState;
+
+
+        private ReplayState(SessionManager.GameStateSnapshot snapshot) {
+            this.userId = snapshot.getUserId();
+            this.gameId = snapshot.getGameId();
+            this.remainingWords = new ArrayList<>(snapshot.getRemainingWords());
+            this.guessedGroups = new ArrayList<>(snapshot.getGuessedGroups());
+            this.correctProposals = snapshot.getCorrectProposals();
+            this.errorCount = snapshot.getErrorCount();
+            this.score = snapshot.getScore();
+            this.finalState = snapshot.getFinalState();
+        }
+
+
+        private ReplayState(JournalEvent opened) {
+            this.userId = opened.userId;
+            this.gameId = opened.gameId;
+            this.remainingWords = opened.words == null
+                ? new ArrayList<>()
+                : new ArrayList<>(opened.words);
+            this.guessedGroups = new ArrayList<>();
+            this.correctProposals = opened.correctProposals;
+            this.errorCount = opened.errorCount;
+            this.score = opened.score;
+            this.finalState = opened.finalState;
+        }
+
+
+        private SessionManager.GameStateSnapshot toSnapshot() {
+            return new SessionManager.GameStateSnapshot(
+                this.userId,
+                this.gameId,
+                this.correctProposals,
+                this.errorCount,
+                this.score,
+                this.remainingWords,
+                this.guessedGroups,
+                this.finalState
+            );
         }
     }
 }
@@ -0,0 +1,177 @@
+package com.nicholasTropea.game.server;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Streams a JSON storage file record by record and reports load progress.
+ *
+ * <p>The file is read through a buffered channel into a {@link JsonReader},
+ * so callers decode, validate and insert one record at a time and peak
+ * memory no longer depends on the file size. Callers call
+ * {@link #recordLoaded()} after each record; progress is printed at most
+ * once per second and a summary with the load rate is printed by
+ * {@link #close()}.
+ */
+public final class StreamingJsonLoader implements Closeable {
+    private static final int BUFFER_CHARS = 1 << 16;
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** Counts the bytes consumed from the underlying stream. */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) { super(in); }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) { this.count++; }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) { this.count += read; }
+            return read;
+        }
+    }
+
+
+    private final String label;
+    private final long totalBytes;
+    private final CountingInputStream bytes;
+    private final BufferedReader text;
+    private final JsonReader reader;
+    private final long startNanos;
+    private long nextReportNanos;
+    private int records;
+
+
+    private StreamingJsonLoader(InputStream in, long totalBytes, String label) {
+        this.label = label;
+        this.totalBytes = totalBytes;
+        this.bytes = new CountingInputStream(in);
+        this.text = new BufferedReader(
+            new InputStreamReader(this.bytes, StandardCharsets.UTF_8),
+            BUFFER_CHARS
+        );
+        this.reader = new JsonReader(this.text);
+        this.startNanos = System.nanoTime();
+        this.nextReportNanos = this.startNanos + PROGRESS_INTERVAL_NANOS;
+    }
+
+
+    /**
+     * Opens a file for streaming.
+     *
+     * @param path JSON file path
+     * @return loader positioned at the start of the document
+     * @throws IOException if the file cannot be opened
+     */
+    public static StreamingJsonLoader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new StreamingJsonLoader(
+            Channels.newInputStream(channel),
+            channel.size(),
+            path.getFileName().toString()
+        );
+    }
+
+
+    /**
+     * Wraps an already open stream, such as a classpath resource.
+     *
+     * @param in JSON byte stream, closed with the loader
+     * @param label name used in progress messages
+     * @return loader positioned at the start of the document
+     */
+    public static StreamingJsonLoader open(InputStream in, String label) {
+        return new StreamingJsonLoader(in, -1L, label);
+    }
+
+
+    /** @return reader positioned at the current record */
+    public JsonReader reader() { return this.reader; }
+
+
+    /**
+     * Checks whether the document contains only whitespace.
+     *
+     * @return true if there is nothing to read
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean isBlank() throws IOException {
+        int c;
+        do {
+            this.text.mark(1);
+            c = this.text.read();
+        } while (c >= 0 && Character.isWhitespace(c));
+
+        if (c < 0) { return true; }
+
+        this.text.reset();
+        return false;
+    }
+
+
+    /** Counts one loaded record and prints progress when due. */
+    public void recordLoaded() {
+        this.records++;
+        if ((this.records & 0xFF) != 0) { return; }
+
+        long now = System.nanoTime();
+        if (now < this.nextReportNanos) { return; }
+
+        this.nextReportNanos = now + PROGRESS_INTERVAL_NANOS;
+        String percent = this.totalBytes > 0
+            ? String.format(Locale.ROOT, " (%d%%)", this.bytes.count * 100 / this.totalBytes)
+            : "";
+        System.out.println(
+            "Loading " + this.label + ": " + this.records + " records" + percent
+        );
+    }
+
+
+    /** @return records counted so far */
+    public int getRecords() { return this.records; }
+
+
+    /**
+     * Closes the file and prints the load summary.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+
+        if (this.records == 0) { return; }
+
+        double seconds = Math.max(System.nanoTime() - this.startNanos, 1L) / 1e9;
+        System.out.println(
+            String.format(
+                Locale.ROOT,
+                "Loaded %d records from %s in %d ms (%.0f records/s, %.1f MB/s)",
+                this.records,
+                this.label,
+                Math.round(seconds * 1000),
+                this.records / seconds,
+                this.bytes.count / seconds / (1 << 20)
+            )
+        );
+    }
+}
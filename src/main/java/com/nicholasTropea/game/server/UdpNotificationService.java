@@ -1,20 +1,42 @@
 package com.nicholasTropea.game.server;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
 
-/** Sends asynchronous UDP notifications to subscribed clients. */
+/**
+ * Sends asynchronous UDP notifications to subscribed clients.
+ *
+ * <p>Broadcasts return immediately: a dispatcher thread snapshots the
+ * subscribed endpoints, splits them into one batch per
+ * {@link DatagramChannel}, and sender threads push their batch out in
+ * parallel. Each round logs how many datagrams were sent and at what rate.
+ */
 public class UdpNotificationService implements AutoCloseable {
-    /** UDP socket used for outbound notification datagrams. */
-    private final DatagramSocket socket;
+    /** Outbound channels, one per sender thread. */
+    private final DatagramChannel[] channels;
+
+    /** Single thread ordering broadcasts and collecting their metrics. */
+    private final ExecutorService dispatcher;
+
+    /** Threads sending one batch each, one per channel. */
+    private final ExecutorService senders;
 
     /** JSON serializer for notification payloads. */
     private final Gson gson;
@@ -23,13 +45,35 @@ public class UdpNotificationService implements AutoCloseable {
     private final Map<Integer, UdpEndpoint> endpoints;
 
 
-    /** Creates a new UDP notification service. */
-    public UdpNotificationService() {
-        try { this.socket = new DatagramSocket(); }
+    /**
+     * Creates a new UDP notification service.
+     *
+     * @param senderChannels number of datagram channels used for fan-out
+     */
+    public UdpNotificationService(int senderChannels) {
+        if (senderChannels <= 0) {
+            throw new IllegalArgumentException("senderChannels must be > 0");
+        }
+
+        this.channels = new DatagramChannel[senderChannels];
+        try {
+            for (int i = 0; i < senderChannels; i++) {
+                this.channels[i] = DatagramChannel.open();
+            }
+        }
         catch (IOException ex) {
-            throw new IllegalStateException("Cannot create UDP socket", ex);
+            closeChannels();
+            throw new IllegalStateException("Cannot create UDP channel", ex);
         }
 
+        this.dispatcher = Executors.newSingleThreadExecutor(
+            runnable -> daemon(runnable, "UDP Dispatcher")
+        );
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(
+            senderChannels,
+            runnable -> daemon(runnable, "UDP Sender-" + senderIndex.incrementAndGet())
+        );
         this.gson = new Gson();
         this.endpoints = new ConcurrentHashMap<>();
     }
@@ -56,7 +100,9 @@ public class UdpNotificationService implements AutoCloseable {
 
 
     /**
-     * Broadcasts a round-ended notification to all subscribed users.
+     * Queues a round-ended notification for all subscribed users.
+     *
+     * <p>Returns without waiting for any datagram to be sent.
      *
      * @param previousGameId game that ended
      * @param nextGameId game that started
@@ -76,54 +122,142 @@ public class UdpNotificationService implements AutoCloseable {
         String json = this.gson.toJson(payload);
         byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
 
-        for (UdpEndpoint endpoint : this.endpoints.values()) {
-            sendDatagram(bytes, endpoint);
+        try { this.dispatcher.execute(() -> fanOut(bytes, roundNumber)); }
+        catch (RejectedExecutionException ex) {
+            System.err.println(
+                "UDP notifications closed, round " + roundNumber + " skipped"
+            );
         }
     }
 
 
-    /** Closes underlying UDP socket. */
+    /** Stops the pipeline, dropping queued broadcasts, and closes the channels. */
     @Override
-    public void close() { this.socket.close(); }
+    public void close() {
+        this.dispatcher.shutdownNow();
+        this.senders.shutdownNow();
+
+        try { this.dispatcher.awaitTermination(1, TimeUnit.SECONDS); }
+        catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+
+        closeChannels();
+    }
 
 
     /**
-     * Sends a UDP datagram to one endpoint.
+     * Sends one payload to every subscribed endpoint and logs the send rate.
+     *
+     * <p>Runs on the dispatcher thread.
      *
      * @param bytes payload bytes
-     * @param endpoint target endpoint
+     * @param roundNumber round being announced, for the metrics line
      */
-    private void sendDatagram(byte[] bytes, UdpEndpoint endpoint) {
-        DatagramPacket packet = new DatagramPacket(
-            bytes,
-            bytes.length,
-            endpoint.address,
-            endpoint.port
-        );
+    private void fanOut(byte[] bytes, long roundNumber) {
+        List<UdpEndpoint> targets = new ArrayList<>(this.endpoints.values());
+        if (targets.isEmpty()) { return; }
 
-        try { this.socket.send(packet); }
-        catch (IOException ex) {
-            System.err.println(
-                "Failed to send UDP notification to "
-                + endpoint.address
-                + ":"
-                + endpoint.port
-                + " - "
-                + ex.getMessage()
+        long start = System.nanoTime();
+        int batches = Math.min(this.channels.length, targets.size());
+        CountDownLatch done = new CountDownLatch(batches);
+        AtomicInteger sent = new AtomicInteger();
+
+        for (int i = 0; i < batches; i++) {
+            DatagramChannel channel = this.channels[i];
+            List<UdpEndpoint> batch = targets.subList(
+                i * targets.size() / batches,
+                (i + 1) * targets.size() / batches
             );
+
+            try {
+                this.senders.execute(() -> {
+                    try { sent.addAndGet(sendBatch(channel, bytes, batch)); }
+                    finally { done.countDown(); }
+                });
+            }
+            catch (RejectedExecutionException ex) { return; }
+        }
+
+        try { done.await(); }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
         }
+
+        long elapsedNanos = Math.max(1L, System.nanoTime() - start);
+        System.out.println(
+            "Round " + roundNumber + " notifications: "
+            + sent.get() + "/" + targets.size() + " sent over "
+            + batches + " channels in " + (elapsedNanos / 1_000_000L) + " ms ("
+            + (sent.get() * 1_000_000_000L / elapsedNanos) + " datagrams/s)"
+        );
+    }
+
+
+    /**
+     * Sends a payload to a batch of endpoints over one channel.
+     *
+     * @param channel channel owned by the calling sender thread
+     * @param bytes payload bytes
+     * @param batch target endpoints
+     * @return number of datagrams sent
+     */
+    private static int sendBatch(
+        DatagramChannel channel,
+        byte[] bytes,
+        List<UdpEndpoint> batch
+    ) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int sent = 0;
+
+        for (UdpEndpoint endpoint : batch) {
+            buffer.rewind();
+
+            try {
+                channel.send(buffer, endpoint.address);
+                sent++;
+            }
+            catch (IOException ex) {
+                if (!channel.isOpen()) { break; }
+
+                System.err.println(
+                    "Failed to send UDP notification to "
+                    + endpoint.address
+                    + " - "
+                    + ex.getMessage()
+                );
+            }
+        }
+
+        return sent;
+    }
+
+
+    private void closeChannels() {
+        for (DatagramChannel channel : this.channels) {
+            if (channel == null) { continue; }
+
+            try { channel.close(); }
+            catch (IOException ex) {
+                System.err.println("UDP channel close error: " + ex.getMessage());
+            }
+        }
+    }
+
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
     }
 
 
     /** UDP endpoint descriptor. */
     private static final class UdpEndpoint {
-        private final InetAddress address;
-        private final int port;
+        private final InetSocketAddress address;
 
 
         private UdpEndpoint(InetAddress address, int port) {
-            this.address = address;
-            this.port = port;
+            this.address = new InetSocketAddress(address, port);
         }
     }
 
@@ -0,0 +1,120 @@
+package com.nicholasTropea.game.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class BatchRequestTest {
+    private static final Gson CODEC = new GsonBuilder()
+        .registerTypeHierarchyAdapter(Request.class, new RequestTypeAdapter())
+        .registerTypeHierarchyAdapter(Response.class, new ResponseTypeAdapter())
+        .create();
+
+
+    @Test
+    void roundTripsInBothProtocols() throws IOException {
+        BatchRequest batch = new BatchRequest(
+            List.of(
+                new SubmitProposalRequest(List.of("SNOW", "HAIL", "RAIN", "SLEET")),
+                new GameInfoRequest(true),
+                new PlayerStatsRequest()
+            )
+        );
+        batch.setId(4);
+
+        String json = CODEC.toJson(batch, Request.class);
+        assertTrue(json.startsWith("{\"operation\":\"batch\",\"id\":4,\"requests\":[{"), json);
+
+        BatchRequest fromJson = (BatchRequest) CODEC.fromJson(json, Request.class);
+        BatchRequest fromBinary = (BatchRequest) BinaryProtocol.decodeRequest(
+            payload(BinaryProtocol.encodeRequest(batch))
+        );
+
+        for (BatchRequest decoded : List.of(fromJson, fromBinary)) {
+            assertEquals(4, decoded.getId().intValue());
+            assertEquals(3, decoded.getRequests().size());
+            assertEquals(
+                List.of("SNOW", "HAIL", "RAIN", "SLEET"),
+                ((SubmitProposalRequest) decoded.getRequests().get(0)).getWords()
+            );
+            assertTrue(((GameInfoRequest) decoded.getRequests().get(1)).isCurrent());
+            assertInstanceOf(PlayerStatsRequest.class, decoded.getRequests().get(2));
+        }
+
+        BatchResponse reply = BatchResponse.success(
+            List.of(SubmitProposalResponse.success(true, "Weather"), GameInfoResponse.error("x"))
+        );
+        BatchResponse replyFromJson = (BatchResponse) CODEC.fromJson(
+            CODEC.toJson(reply, Response.class),
+            Response.class
+        );
+        BatchResponse replyFromBinary = (BatchResponse) BinaryProtocol.decodeResponse(
+            payload(BinaryProtocol.encodeResponse(reply))
+        );
+
+        for (BatchResponse decoded : List.of(replyFromJson, replyFromBinary)) {
+            assertTrue(decoded.isSuccess());
+            SubmitProposalResponse first = (SubmitProposalResponse) decoded.getResponses().get(0);
+            assertEquals("Weather", first.getGroupName());
+            assertEquals("x", decoded.getResponses().get(1).getError());
+        }
+    }
+
+
+    @Test
+    void rejectsMalformedBatches() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRequest(List.of()));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new BatchRequest(List.of(new LoginRequest("a", "secret1")))
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new BatchRequest(
+                Collections.nCopies(BatchRequest.MAX_REQUESTS + 1, new PlayerStatsRequest())
+            )
+        );
+
+        // Decoded JSON is checked by the handler instead
+        BatchRequest nested = (BatchRequest) CODEC.fromJson(
+            "{\"operation\":\"batch\",\"requests\":[{\"operation\":\"batch\",\"requests\":[]}]}",
+            Request.class
+        );
+        assertEquals(
+            "operation not allowed in batch: batch",
+            BatchRequest.validate(nested.getRequests())
+        );
+        assertNotNull(BatchRequest.validate(null));
+
+        // A binary batch frame whose only element is itself a batch
+        byte[] inner = BinaryProtocol.encodeRequest(
+            new BatchRequest(List.of(new PlayerStatsRequest()))
+        );
+        byte[] wrapped = new byte[2 + inner.length];
+        wrapped[0] = payload(inner)[0]; // batch opcode
+        wrapped[1] = 2; // one element, stored plus one
+        System.arraycopy(inner, 0, wrapped, 2, inner.length);
+        assertThrows(IllegalArgumentException.class, () -> BinaryProtocol.decodeRequest(wrapped));
+    }
+
+
+    /** Strips the length prefix through the stream reader. */
+    private static byte[] payload(byte[] frame) throws IOException {
+        return BinaryProtocol.readFrame(new ByteArrayInputStream(frame), frame.length);
+    }
+}
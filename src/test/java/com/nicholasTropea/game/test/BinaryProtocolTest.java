@@ -0,0 +1,167 @@
+package com.nicholasTropea.game.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nicholasTropea.game.model.LeaderboardRecord;
+import com.nicholasTropea.game.model.MistakeHistogram;
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class BinaryProtocolTest {
+    @Test
+    void roundTripsRequests() throws IOException {
+        LoginRequest login = (LoginRequest) roundTrip(
+            new LoginRequest("caf\u00E9", "secret1", 40000)
+        );
+        assertEquals("caf\u00E9", login.getUsername());
+        assertEquals("secret1", login.getPassword());
+        assertEquals(40000, login.getUdpPort().intValue());
+        assertNull(((LoginRequest) roundTrip(new LoginRequest("a", "secret1"))).getUdpPort());
+
+        SubmitProposalRequest proposal = (SubmitProposalRequest) roundTrip(
+            new SubmitProposalRequest(List.of("SNOW", "HAIL", "RAIN", "SLEET"))
+        );
+        assertEquals(List.of("SNOW", "HAIL", "RAIN", "SLEET"), proposal.getWords());
+
+        GameInfoRequest info = (GameInfoRequest) roundTrip(new GameInfoRequest(911));
+        assertEquals(911, info.getGameId().intValue());
+        assertNull(info.getId());
+
+        GameInfoRequest tagged = new GameInfoRequest(911);
+        tagged.setId(300);
+        assertEquals(300, roundTrip(tagged).getId().intValue());
+        assertTrue(((GameStatsRequest) roundTrip(new GameStatsRequest(true))).isCurrent());
+        assertEquals(
+            5,
+            ((LeaderboardRequest) roundTrip(new LeaderboardRequest(5))).getKTopPlayers().intValue()
+        );
+        assertEquals("logout", roundTrip(new LogoutRequest()).getOperation());
+    }
+
+
+    @Test
+    void roundTripsResponses() throws IOException {
+        GameInfoResponse info = (GameInfoResponse) roundTrip(
+            GameInfoResponse.success(
+                true,
+                -1L,
+                List.of("A", "B"),
+                null,
+                List.of(List.of("C", "D", "E", "F")),
+                2,
+                6
+            )
+        );
+        assertTrue(info.isActive());
+        assertEquals(-1L, info.getTimeLeft().longValue());
+        assertEquals(List.of("A", "B"), info.getWordsLeft());
+        assertNull(info.getSolution());
+        assertEquals(List.of(List.of("C", "D", "E", "F")), info.getGuessedGroups());
+        assertEquals(2, info.getErrors().intValue());
+
+        PlayerStatsResponse stats = (PlayerStatsResponse) roundTrip(
+            PlayerStatsResponse.success(
+                3, 1, 0, 2, 0.75f, 0.25f, 1, 2,
+                new MistakeHistogram(2, 1, 0, 0, 1, 0)
+            )
+        );
+        assertEquals(0.75f, stats.getWinRate().floatValue());
+        assertArrayEquals(new int[] {2, 1, 0, 0, 1, 0}, stats.getHistogram().getCounts());
+
+        LeaderboardResponse board = (LeaderboardResponse) roundTrip(
+            LeaderboardResponse.success(List.of(new LeaderboardRecord("p", 1, -4)))
+        );
+        assertEquals(-4, board.getRecords().get(0).getPoints());
+
+        Response taggedReply = LeaderboardResponse.success(List.of());
+        taggedReply.setId(0);
+        assertEquals(0, roundTrip(taggedReply).getId().intValue());
+
+        SubmitProposalResponse error = (SubmitProposalResponse) roundTrip(
+            SubmitProposalResponse.error("user not logged in")
+        );
+        assertFalse(error.isSuccess());
+        assertEquals("user not logged in", error.getError());
+        assertNull(error.getResult());
+    }
+
+
+    @Test
+    void rejectsMalformedFrames() throws IOException {
+        byte[] payload = payload(BinaryProtocol.encodeRequest(new LogoutRequest()));
+
+        byte[] trailing = Arrays.copyOf(payload, payload.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> BinaryProtocol.decodeRequest(trailing));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> BinaryProtocol.decodeRequest(new byte[] {(byte) 0x7F})
+        );
+
+        byte[] login = payload(BinaryProtocol.encodeRequest(new LoginRequest("a", "secret1")));
+        byte[] truncated = Arrays.copyOf(login, login.length - 2);
+        assertThrows(IllegalArgumentException.class, () -> BinaryProtocol.decodeRequest(truncated));
+
+        byte[] badPreface = BinaryProtocol.PREFACE.clone();
+        badPreface[1] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> BinaryProtocol.acknowledge(badPreface));
+    }
+
+
+    @Test
+    void rejectsLengthsOutsideThirtyOneBits() throws IOException {
+        // 0x80000000 and a sixth header byte, both must fail instead of wrapping
+        byte[][] headers = {
+            {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08},
+            {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x81, 0x00}
+        };
+
+        for (byte[] header : headers) {
+            assertThrows(
+                IOException.class,
+                () -> BinaryProtocol.readFrame(new ByteArrayInputStream(header), 1024)
+            );
+
+            BinaryProtocol.LengthDecoder decoder = new BinaryProtocol.LengthDecoder();
+            assertThrows(IllegalArgumentException.class, () -> {
+                for (byte b : header) {
+                    if (decoder.accept(b)) { break; }
+                }
+            });
+        }
+
+        // The largest 31-bit length still decodes
+        BinaryProtocol.LengthDecoder decoder = new BinaryProtocol.LengthDecoder();
+        byte[] largest = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        for (int i = 0; i < 4; i++) { assertFalse(decoder.accept(largest[i])); }
+        assertTrue(decoder.accept(largest[4]));
+        assertEquals(Integer.MAX_VALUE, decoder.length());
+    }
+
+
+    private static Request roundTrip(Request req) throws IOException {
+        return BinaryProtocol.decodeRequest(payload(BinaryProtocol.encodeRequest(req)));
+    }
+
+
+    private static Response roundTrip(Response resp) throws IOException {
+        return BinaryProtocol.decodeResponse(payload(BinaryProtocol.encodeResponse(resp)));
+    }
+
+
+    /** Strips the length prefix through the stream reader, checking nothing is left. */
+    private static byte[] payload(byte[] frame) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(frame);
+        byte[] payload = BinaryProtocol.readFrame(in, frame.length);
+        assertEquals(0, in.available());
+        return payload;
+    }
+}
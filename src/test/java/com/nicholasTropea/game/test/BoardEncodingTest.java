@@ -0,0 +1,98 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.BoardEncoding;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+import com.nicholasTropea.game.net.responses.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class BoardEncodingTest {
+    private static final Gson CODEC = new GsonBuilder()
+        .registerTypeHierarchyAdapter(Request.class, new RequestTypeAdapter())
+        .registerTypeHierarchyAdapter(Response.class, new ResponseTypeAdapter())
+        .create();
+
+    private static final List<List<String>> GROUPS = List.of(
+        List.of("SNOW", "HAIL", "RAIN", "SLEET"),
+        List.of("HEAT", "BUCKS", "JAZZ", "NETS"),
+        List.of("CAF\u00C9", "<TAG>", "\"QUOTE\"", "A&B"),
+        List.of("OPTION", "RETURN", "SHIFT", "TAB")
+    );
+
+    private static final BoardEncoding BOARD = new BoardEncoding(7, GROUPS);
+
+
+    @Test
+    void splicesTheSameBytesAsTheCodecs() {
+        LoginResponse login = LoginResponse.success(
+            7,
+            List.of("TAB", "CAF\u00C9", "HEAT", "A&B", "SHIFT", "<TAG>", "BUCKS", "JAZZ",
+                "NETS", "OPTION", "\"QUOTE\"", "RETURN"),
+            List.of(GROUPS.get(0)),
+            123_456L,
+            2,
+            -2
+        );
+        GameInfoResponse active = GameInfoResponse.success(
+            true,
+            5_000L,
+            List.of("SNOW", "<TAG>", "HAIL", "A&B"),
+            null,
+            List.of(GROUPS.get(1), GROUPS.get(3)),
+            0,
+            12
+        );
+        GameInfoResponse finished = GameInfoResponse.success(
+            false,
+            0L,
+            null,
+            GROUPS,
+            List.of(GROUPS.get(2)),
+            4,
+            -10
+        );
+
+        for (Response resp : List.of(login, active, finished)) {
+            for (Integer id : new Integer[] {null, 0, 300}) {
+                resp.setId(id);
+                String json = CODEC.toJson(resp, Response.class) + "\n";
+
+                assertEquals(json, new String(BOARD.line(resp, id), StandardCharsets.UTF_8));
+                assertArrayEquals(BinaryProtocol.encodeResponse(resp), BOARD.frame(resp, id));
+            }
+        }
+    }
+
+
+    @Test
+    void leavesOtherResponsesToTheCodecs() {
+        LoginResponse otherGame = LoginResponse.success(8, List.of("SNOW"), List.of(), 1L, 0, 0);
+        LoginResponse foreignWord = LoginResponse.success(7, List.of("MOON"), List.of(), 1L, 0, 0);
+        GameInfoResponse foreignGroup = GameInfoResponse.success(
+            false,
+            null,
+            null,
+            List.of(List.of("SNOW", "HAIL", "RAIN", "MOON")),
+            List.of(),
+            0,
+            0
+        );
+
+        assertNull(BOARD.line(otherGame, null));
+        assertNull(BOARD.frame(foreignWord, 1));
+        assertNull(BOARD.line(foreignGroup, null));
+        assertNull(BOARD.frame(LoginResponse.error("username not found"), null));
+        assertNull(BOARD.line(LeaderboardResponse.success(List.of()), null));
+    }
+}
@@ -0,0 +1,82 @@
+package com.nicholasTropea.game.test;
+
+import java.util.List;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+import com.nicholasTropea.game.server.FinishedGameStore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class FinishedGameStoreTest {
+    private static final long ORDER = 0xFEDCBA9876543210L;
+
+
+    @Test
+    void findRebuildsFinishedState() {
+        FinishedGameStore store = new FinishedGameStore();
+        PlayerGameState won = new PlayerGameState(5, 12, ORDER);
+        won.addGuessedGroup(2);
+        won.addGuessedGroup(0);
+        won.addGuessedGroup(3);
+        won.incrementErrorCount();
+        won.setScore(16);
+        won.completeAsWon();
+        store.append(won);
+
+        PlayerGameState found = store.find(5, 12);
+        assertEquals(PlayerGameState.GameResult.WON, found.getFinalState());
+        assertEquals(3, found.getGuessedGroupCount());
+        assertEquals(0, found.getGuessedGroup(1));
+        assertEquals(PlayerGameState.groupMask(1), found.getRemainingMask());
+        assertEquals(1, found.getErrorCount());
+        assertEquals(16, found.getScore());
+        assertNull(store.find(5, 13));
+        assertNull(store.find(6, 12));
+    }
+
+
+    @Test
+    void historyMergesUnfinishedStatesInGameOrder() {
+        FinishedGameStore store = new FinishedGameStore();
+        for (int gameId : new int[] {9, 2, 7}) {
+            PlayerGameState state = new PlayerGameState(1, gameId, ORDER);
+            state.setScore(gameId);
+            state.completeAsLost();
+            store.append(state);
+            store.append(finished(2, gameId));
+        }
+
+        PlayerGameState current = new PlayerGameState(1, 4, ORDER);
+        FinishedGameStore.PlayerHistory history = store.historyOf(1, List.of(current));
+
+        assertEquals(4, history.size());
+        assertEquals(2, history.getGameId(0));
+        assertEquals(4, history.getGameId(1));
+        assertEquals(PlayerGameState.GameResult.NOT_FINISHED, history.getResult(1));
+        assertEquals(9, history.getGameId(3));
+        assertEquals(18, history.getTotalScore());
+        assertTrue(store.historyOf(3, List.of()).isEmpty());
+    }
+
+
+    @Test
+    void growsPastInitialCapacity() {
+        FinishedGameStore store = new FinishedGameStore();
+        for (int userId = 0; userId < 3000; userId++) {
+            store.append(finished(userId, userId % 900));
+        }
+
+        assertEquals(3000, store.size());
+        assertEquals(2999 % 900, store.find(2999, 2999 % 900).getGameId());
+        assertEquals(1, store.historyOf(1500, List.of()).size());
+        assertEquals(3000, store.materializeAll().size());
+    }
+
+
+    private static PlayerGameState finished(int userId, int gameId) {
+        PlayerGameState state = new PlayerGameState(userId, gameId, ORDER);
+        state.completeAsWon();
+        return state;
+    }
+}
@@ -0,0 +1,73 @@
+package com.nicholasTropea.game.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.server.GameCatalogFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class GameCatalogFileTest {
+    @Test
+    void roundTripsGamesSortedById() throws IOException {
+        Game first = game(42, "SNOW", "HAIL", "RAIN", "SLEET");
+        Game second = game(7, "SNOW", "CAF\u00C9", "JAZZ", "NETS");
+        Path file = Files.createTempFile("catalog", ".bin");
+
+        try {
+            GameCatalogFile.write(List.of(first, second), file, 123L, 456L);
+            GameCatalogFile catalog = GameCatalogFile.open(file);
+
+            assertEquals(2, catalog.size());
+            assertEquals(7, catalog.gameIdAt(0));
+            assertEquals(1, catalog.indexOf(42));
+            assertEquals(-1, catalog.indexOf(8));
+            assertTrue(catalog.isBuiltFrom(123L, 456L));
+            assertFalse(catalog.isBuiltFrom(123L, 457L));
+
+            Game decoded = catalog.decode(0);
+            assertEquals(7, decoded.getId());
+            assertEquals("THEME 1", decoded.getGroups().get(1).getTheme());
+            assertEquals(
+                List.of("CAF\u00C9", "CAF\u00C91", "CAF\u00C92", "CAF\u00C93"),
+                decoded.getGroups().get(1).getWords()
+            );
+        }
+        finally { Files.deleteIfExists(file); }
+    }
+
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("catalog", ".bin");
+
+        try {
+            GameCatalogFile.write(List.of(game(1, "A", "B", "C", "D")), file, 1L, 1L);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+            assertThrows(IOException.class, () -> GameCatalogFile.open(file));
+        }
+        finally { Files.deleteIfExists(file); }
+    }
+
+
+    /** Builds a game whose group {@code g} is the word {@code heads[g]} plus 3 suffixed copies. */
+    private static Game game(int id, String... heads) {
+        List<Game.Group> groups = new ArrayList<>();
+        for (int g = 0; g < heads.length; g++) {
+            String head = heads[g];
+            groups.add(
+                new Game.Group("THEME " + g, List.of(head, head + 1, head + 2, head + 3))
+            );
+        }
+
+        return new Game(id, groups);
+    }
+}
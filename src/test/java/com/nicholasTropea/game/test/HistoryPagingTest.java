@@ -0,0 +1,155 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+import com.nicholasTropea.game.server.GameRepository;
+import com.nicholasTropea.game.server.LogStructuredStore;
+import com.nicholasTropea.game.server.PlayerSummary;
+import com.nicholasTropea.game.server.SessionManager;
+import com.nicholasTropea.game.server.SessionStateRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HistoryPagingTest {
+    @Test
+    void evictsInactiveUsersAndPagesThemBackIn(@TempDir Path dir) {
+        GameRepository games = games(dir);
+        LogStructuredStore store = new LogStructuredStore(dir.resolve("store.log").toString());
+        SessionStateRepository repository = repository(dir, games, store);
+
+        try {
+            SessionManager sessions = pagedSessions(repository, games, 2);
+
+            for (int userId = 1; userId <= 5; userId++) {
+                win(sessions, userId, 0);
+                assertNull(sessions.openSessionForCurrentGame(userId, 1));
+                sessions.removeSession(userId);
+            }
+            assertEquals(2, sessions.getResidentUserCount());
+
+            // Evicted users keep their totals without being loaded
+            PlayerSummary summary = sessions.getSummary(1);
+            assertEquals(4, summary.getTotalScore());
+            assertEquals(1, summary.getSolved());
+            assertEquals(1, summary.getUnfinished());
+            assertEquals(1, summary.getWonWithNoErrors());
+            assertEquals(2, sessions.getResidentUserCount());
+
+            PlayerGameState finished = sessions.getStateForGame(1, 0);
+            assertEquals(PlayerGameState.GameResult.WON, finished.getFinalState());
+            assertEquals(2, sessions.getHistoryForUser(1).size());
+            assertEquals(2, sessions.getResidentUserCount());
+
+            // Logged-in users are never evicted
+            for (int userId = 1; userId <= 4; userId++) {
+                assertNull(sessions.openSessionForCurrentGame(userId, 1));
+            }
+            assertEquals(4, sessions.getResidentUserCount());
+            PlayerGameState active = sessions.getSession(3);
+            sessions.applyWrongProposal(active, -1, false);
+            assertSame(active, sessions.getStateForGame(3, 1));
+
+            for (int userId = 1; userId <= 4; userId++) { sessions.removeSession(userId); }
+            sessions.getStateForGame(5, 1);
+            assertEquals(2, sessions.getResidentUserCount());
+
+            assertEquals(1, sessions.getHistoryForUser(3).getErrorCount(1));
+            assertEquals(3, sessions.getSummary(3).getTotalScore());
+        }
+        finally {
+            repository.close();
+            store.close();
+        }
+    }
+
+
+    @Test
+    void startupSummarizesWithoutLoadingHistories(@TempDir Path dir) {
+        GameRepository games = games(dir);
+        String file = dir.resolve("store.log").toString();
+
+        LogStructuredStore store = new LogStructuredStore(file);
+        SessionStateRepository repository = repository(dir, games, store);
+        SessionManager sessions = pagedSessions(repository, games, 100);
+        for (int userId = 1; userId <= 12; userId++) { win(sessions, userId, 0); }
+        assertNull(sessions.openSessionForCurrentGame(10, 1));
+        repository.close();
+        store.close();
+
+        LogStructuredStore reopened = new LogStructuredStore(file);
+        SessionStateRepository restored = repository(dir, games, reopened);
+        try {
+            SessionManager restarted = new SessionManager(100);
+            restarted.importSnapshots(List.of(), games);
+            restarted.setHistorySource(restored, games);
+            int visited = restored.forEachHistory(
+                history -> restarted.importSummaries(history, games)
+            );
+
+            assertEquals(13, visited);
+            assertEquals(0, restarted.getResidentUserCount());
+            assertEquals(12, restarted.getGameAggregates(0).getWonPlayers());
+            assertEquals(1, restarted.getGameAggregates(1).getActivePlayers());
+            assertEquals(4, restarted.getSummary(10).getTotalScore());
+            assertEquals(1, restarted.getSummary(10).getUnfinished());
+            assertSame(PlayerSummary.EMPTY, restarted.getSummary(99));
+
+            assertNull(restarted.openSessionForCurrentGame(10, 1));
+            assertEquals(1, restarted.getResidentUserCount());
+            assertEquals(2, restarted.getHistoryForUser(10).size());
+        }
+        finally {
+            restored.close();
+            reopened.close();
+        }
+    }
+
+
+    /** Logs a user into a game and wins it without errors, one point per group. */
+    private static void win(SessionManager sessions, int userId, int gameId) {
+        assertNull(sessions.openSessionForCurrentGame(userId, gameId));
+        PlayerGameState state = sessions.getSession(userId);
+        for (int group = 0; group < 4; group++) {
+            sessions.applyCorrectProposal(state, group, group + 1, group == 3);
+        }
+        sessions.removeSession(userId);
+    }
+
+
+    private static SessionManager pagedSessions(
+        SessionStateRepository repository,
+        GameRepository games,
+        int residentUsers
+    ) {
+        SessionManager sessions = new SessionManager(residentUsers);
+        sessions.importSnapshots(List.of(), games);
+        sessions.setHistorySource(repository, games);
+        sessions.setStateJournal(repository);
+        return sessions;
+    }
+
+
+    private static SessionStateRepository repository(
+        Path dir,
+        GameRepository games,
+        LogStructuredStore store
+    ) {
+        return new SessionStateRepository(
+            dir.resolve("gameStates.json").toString(),
+            games,
+            store
+        );
+    }
+
+
+    private static GameRepository games(Path dir) {
+        return new GameRepository(
+            "src/main/resources/data/games.json",
+            dir.resolve("games.bin").toString()
+        );
+    }
+}
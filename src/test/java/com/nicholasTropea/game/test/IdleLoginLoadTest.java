@@ -0,0 +1,161 @@
+package com.nicholasTropea.game.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+
+import com.nicholasTropea.game.server.GameRepository;
+import com.nicholasTropea.game.server.NetworkManager;
+import com.nicholasTropea.game.server.PlayerRepository;
+import com.nicholasTropea.game.server.ServerRuntime;
+import com.nicholasTropea.game.server.SessionManager;
+
+import static com.nicholasTropea.game.test.ServerFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Holds many concurrent idle logins against a virtual-thread server.
+ *
+ * <p>Disabled by default. Run with:
+ * <pre>
+ * mvn test -Dtest=IdleLoginLoadTest -Dconnections.loadTest=true \
+ *     -Dconnections.loadTest.clients=50000
+ * </pre>
+ * Both ends live in this JVM, so the open-files limit must exceed twice the
+ * client count. Clients spread over several loopback addresses to avoid
+ * exhausting the ephemeral port range of a single address pair.
+ */
+@EnabledIfSystemProperty(named = "connections.loadTest", matches = "true")
+public class IdleLoginLoadTest {
+    private static final String PASSWORD = "password";
+
+    private static final int MAX_CONCURRENT_CONNECTS = 512;
+
+
+    @Test
+    void holdsIdleLoginsOnVirtualThreads(@TempDir Path dir) throws Exception {
+        int clients = Integer.getInteger("connections.loadTest.clients", 50_000);
+        Path playersFile = dir.resolve("players.json");
+        seedPlayers(playersFile, clients);
+
+        ServerRuntime runtime = new ServerRuntime(
+            new PlayerRepository(playersFile.toString()),
+            new GameRepository("src/main/resources/data/games.json"),
+            new SessionManager(),
+            options(dir)
+        );
+
+        int port = freePort();
+        start(new NetworkManager(port, runtime, true), port);
+
+        Socket[] sockets = new Socket[clients];
+        AtomicInteger loggedIn = new AtomicInteger();
+        Semaphore connecting = new Semaphore(MAX_CONCURRENT_CONNECTS);
+        long start = System.nanoTime();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int index = i;
+                pool.submit(() -> {
+                    connecting.acquireUninterruptibly();
+                    try {
+                        sockets[index] = login(port, index);
+                        loggedIn.incrementAndGet();
+                    }
+                    catch (IOException ex) {
+                        System.err.println("client " + index + ": " + ex.getMessage());
+                    }
+                    finally { connecting.release(); }
+                });
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        System.gc();
+        Runtime jvm = Runtime.getRuntime();
+        long usedHeap = jvm.totalMemory() - jvm.freeMemory();
+        int platformThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        System.out.println(
+            "Idle logins: " + loggedIn.get() + "/" + clients
+            + " in " + elapsedMillis + " ms, heap used "
+            + (usedHeap / (1024 * 1024)) + " MiB ("
+            + (usedHeap / Math.max(1, clients)) + " B/client incl. client side)"
+            + ", platform threads " + platformThreads
+        );
+
+        try {
+            assertEquals(clients, loggedIn.get());
+            assertEquals(clients, runtime.getSessionManager().getActiveSessionCount());
+            assertTrue(platformThreads < 256, "handlers must not pin platform threads");
+        }
+        finally {
+            for (Socket socket : sockets) {
+                if (socket != null) { socket.close(); }
+            }
+            runtime.close();
+        }
+    }
+
+
+    private static Socket login(int port, int index) throws IOException {
+        byte[] loopback = {
+            127, 0, (byte) ((index / 250) % 250), (byte) (1 + index % 250)
+        };
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(InetAddress.getByAddress(loopback), port));
+
+        String request = "{\"operation\":\"login\",\"username\":\"load" + index
+            + "\",\"psw\":\"" + PASSWORD + "\",\"udpPort\":9}\n";
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+        );
+        String response = in.readLine();
+        if (response == null || !response.contains("\"success\":true")) {
+            socket.close();
+            throw new IOException("login failed: " + response);
+        }
+
+        return socket;
+    }
+
+
+    private static void seedPlayers(Path file, int count) throws IOException {
+        Map<String, Map<String, Object>> players = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> player = new LinkedHashMap<>();
+            player.put("userId", i + 1);
+            player.put("nickname", "load" + i);
+            player.put("password", PASSWORD);
+            players.put(String.valueOf(i + 1), player);
+        }
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("nextUserId", count + 1);
+        root.put("players", players);
+        Files.writeString(file, new Gson().toJson(root), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+package com.nicholasTropea.game.test;
+
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import com.nicholasTropea.game.model.LeaderboardRecord;
+import com.nicholasTropea.game.model.MistakeHistogram;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class JsonCodecTest {
+    private static final Gson CODEC = new GsonBuilder()
+        .registerTypeHierarchyAdapter(Request.class, new RequestTypeAdapter())
+        .registerTypeHierarchyAdapter(Response.class, new ResponseTypeAdapter())
+        .create();
+
+    /** Reflective encoding the streaming codec must stay compatible with. */
+    private static final Gson REFLECTIVE = new Gson();
+
+
+    @Test
+    void encodesLikeReflection() {
+        List<Object> messages = List.of(
+            new LoginRequest("caf\u00E9", "secret1", 40000),
+            new LeaderboardRequest(5),
+            new SubmitProposalRequest(List.of("SNOW", "HAIL", "RAIN", "SLEET")),
+            new UpdateCredentialsRequest("old", "secret1", "new", null),
+            new LogoutRequest(),
+            GameInfoResponse.success(
+                false,
+                null,
+                null,
+                List.of(List.of("A", "B", "C", "D")),
+                List.of(),
+                4,
+                -4
+            ),
+            GameStatsResponse.success(true, 1000L, 3, 1, 1, null, null),
+            LoginResponse.error("incorrect password"),
+            LeaderboardResponse.success(List.of(new LeaderboardRecord("p", 1, 12))),
+            PlayerStatsResponse.success(
+                3, 1, 0, 2, 0.75f, 0.25f, 1, 2,
+                new MistakeHistogram(2, 1, 0, 0, 1, 0)
+            ),
+            SubmitProposalResponse.success(true, "Weather"),
+            RegisterResponse.success()
+        );
+
+        for (Object message : messages) {
+            String json = CODEC.toJson(message);
+            assertTrue(json.startsWith("{\"operation\":"), json);
+            assertEquals(
+                JsonParser.parseString(REFLECTIVE.toJson(message)),
+                JsonParser.parseString(json),
+                message.getClass().getSimpleName()
+            );
+        }
+    }
+
+
+    @Test
+    void decodesBothFieldOrders() {
+        String legacy = REFLECTIVE.toJson(new LoginRequest("ann", "secret1", 40000));
+        assertTrue(legacy.endsWith("\"operation\":\"login\"}"), legacy);
+
+        String streamed = CODEC.toJson(new LoginRequest("ann", "secret1", 40000));
+        for (String json : List.of(legacy, streamed)) {
+            LoginRequest login = (LoginRequest) CODEC.fromJson(json, Request.class);
+            assertEquals("ann", login.getUsername());
+            assertEquals("secret1", login.getPassword());
+            assertEquals(40000, login.getUdpPort().intValue());
+        }
+
+        PlayerStatsResponse stats = (PlayerStatsResponse) CODEC.fromJson(
+            REFLECTIVE.toJson(
+                PlayerStatsResponse.success(
+                    3, 1, 0, 2, 0.75f, 0.25f, 1, 2,
+                    new MistakeHistogram(2, 1, 0, 0, 1, 0)
+                )
+            ),
+            Response.class
+        );
+        assertTrue(stats.isSuccess());
+        assertEquals(0.75f, stats.getWinRate().floatValue());
+        assertArrayEquals(new int[] {2, 1, 0, 0, 1, 0}, stats.getHistogram().getCounts());
+
+        LeaderboardResponse board = (LeaderboardResponse) CODEC.fromJson(
+            CODEC.toJson(LeaderboardResponse.success(List.of(new LeaderboardRecord("p", 2, -4)))),
+            Response.class
+        );
+        assertEquals(2, board.getRecords().get(0).getPosition());
+        assertEquals(-4, board.getRecords().get(0).getPoints());
+        assertNull(board.getId());
+
+        Request tagged = new PlayerStatsRequest();
+        tagged.setId(7);
+        String json = CODEC.toJson(tagged, Request.class);
+        assertTrue(json.startsWith("{\"operation\":\"requestPlayerStats\",\"id\":7"), json);
+        assertEquals(7, CODEC.fromJson(json, Request.class).getId().intValue());
+    }
+
+
+    @Test
+    void leavesValidationToHandlers() {
+        LoginRequest login = (LoginRequest) CODEC.fromJson(
+            "{\"operation\":\"login\",\"username\":\" \",\"psw\":\"x\",\"extra\":[1]}",
+            Request.class
+        );
+        assertEquals(" ", login.getUsername());
+        assertEquals("x", login.getPassword());
+        assertNull(login.getUdpPort());
+
+        SubmitProposalRequest proposal = (SubmitProposalRequest) CODEC.fromJson(
+            "{\"operation\":\"submitProposal\",\"words\":[\"A\"]}",
+            Request.class
+        );
+        assertEquals(List.of("A"), proposal.getWords());
+
+        assertThrows(
+            JsonParseException.class,
+            () -> CODEC.fromJson("{\"operation\":\"shutdown\"}", Request.class)
+        );
+        assertThrows(JsonParseException.class, () -> CODEC.fromJson("{}", Request.class));
+    }
+}
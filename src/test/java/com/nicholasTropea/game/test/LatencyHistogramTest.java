@@ -0,0 +1,50 @@
+package com.nicholasTropea.game.test;
+
+import com.nicholasTropea.game.client.LatencyHistogram;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram hist = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            hist.recordNanos(i * 1_000_000L);
+        }
+
+        assertEquals(1000, hist.getCount());
+        assertEquals(1_000_000L, hist.getMaxMicros());
+        assertEquals(500_500.0, hist.getMeanMicros(), 0.001);
+        assertEquals(500_000.0, hist.getValueAtPercentile(50.0), 500_000 * 0.035);
+        assertEquals(990_000.0, hist.getValueAtPercentile(99.0), 990_000 * 0.035);
+        assertEquals(1_000_000L, hist.getValueAtPercentile(100.0));
+    }
+
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram hist = new LatencyHistogram();
+        hist.recordNanos(3_000L);
+        hist.recordNanos(40_000L);
+
+        assertEquals(3L, hist.getValueAtPercentile(50.0));
+        assertEquals(40L, hist.getValueAtPercentile(100.0));
+    }
+
+
+    @Test
+    void drainMovesSamplesAndResets() {
+        LatencyHistogram interval = new LatencyHistogram();
+        LatencyHistogram total = new LatencyHistogram();
+        interval.recordNanos(5_000_000L);
+        interval.drainInto(total);
+        interval.recordNanos(7_000_000L);
+        interval.drainInto(total);
+
+        assertEquals(0, interval.getCount());
+        assertEquals(0L, interval.getValueAtPercentile(99.0));
+        assertEquals(2, total.getCount());
+        assertEquals(7_000L, total.getMaxMicros());
+    }
+}
@@ -0,0 +1,71 @@
+package com.nicholasTropea.game.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.nicholasTropea.game.model.LeaderboardRecord;
+import com.nicholasTropea.game.server.LeaderboardIndex;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class LeaderboardIndexTest {
+    @Test
+    void ranksByScoreThenUsername() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.put(1, "carol", 10);
+        index.put(2, "alice", 10);
+        index.put(3, "bob", 25);
+
+        List<LeaderboardRecord> top = index.top(10);
+        assertEquals(3, top.size());
+        assertEquals("bob", top.get(0).getUsername());
+        assertEquals("alice", top.get(1).getUsername());
+        assertEquals("carol", top.get(2).getUsername());
+        assertEquals(3, top.get(2).getPosition());
+
+        index.addScore(1, 20);
+        index.rename(2, "zed");
+        assertEquals(1, index.find("carol").getPosition());
+        assertEquals(30, index.find("carol").getPoints());
+        assertEquals(3, index.find("zed").getPosition());
+        assertNull(index.find("alice"));
+    }
+
+
+    @Test
+    void matchesFullSortAfterRandomUpdates() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Random random = new Random(42);
+        int players = 500;
+        int[] scores = new int[players];
+
+        for (int id = 0; id < players; id++) { index.put(id, "p" + id, 0); }
+
+        for (int step = 0; step < 5_000; step++) {
+            int id = random.nextInt(players);
+            int delta = random.nextInt(37) - 18;
+            scores[id] += delta;
+            index.addScore(id, delta);
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < players; id++) { expected.add(id); }
+        expected.sort(
+            Comparator.comparingInt((Integer id) -> scores[id])
+                      .reversed()
+                      .thenComparing(id -> "p" + id)
+        );
+
+        List<LeaderboardRecord> all = index.top(Integer.MAX_VALUE);
+        assertEquals(players, all.size());
+        for (int i = 0; i < players; i++) {
+            int id = expected.get(i);
+            assertEquals("p" + id, all.get(i).getUsername());
+            assertEquals(scores[id], all.get(i).getPoints());
+            assertEquals(i + 1, index.find("p" + id).getPosition());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.nicholasTropea.game.server.LogStructuredStore;
+import com.nicholasTropea.game.server.PlayerRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LogStructuredStoreTest {
+    @Test
+    void readsBackWritesAfterReopening(@TempDir Path dir) {
+        String file = dir.resolve("store.log").toString();
+
+        LogStructuredStore store = new LogStructuredStore(file);
+        store.put("state/1/4", "{\"score\":4}");
+        store.put("state/12/3", "{\"score\":3}");
+        store.put("state/1/2", "{\"score\":2}");
+        store.put("player/1", "{\"nickname\":\"caf\u00E9\"}");
+        store.put("state/1/2", "{\"score\":6}");
+        store.remove("state/1/4");
+        store.remove("state/9/9");
+        store.sync();
+        store.close();
+
+        LogStructuredStore reopened = new LogStructuredStore(file);
+        try {
+            assertEquals("{\"nickname\":\"caf\u00E9\"}", reopened.get("player/1"));
+            assertNull(reopened.get("state/1/4"));
+
+            Map<String, String> user = new LinkedHashMap<>();
+            reopened.forEach("state/1/", user::put);
+            assertEquals(Map.of("state/1/2", "{\"score\":6}"), user);
+        }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void cutsOffTornTail(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("store.log");
+
+        LogStructuredStore store = new LogStructuredStore(file.toString());
+        store.put("round", "{\"roundNumber\":7}");
+        store.close();
+
+        long intact = Files.size(file);
+        Files.write(file, new byte[] {0, 1, 2, 3, 0, 0, 0, 9}, StandardOpenOption.APPEND);
+
+        LogStructuredStore reopened = new LogStructuredStore(file.toString());
+        try {
+            assertEquals(intact, Files.size(file));
+            assertEquals("{\"roundNumber\":7}", reopened.get("round"));
+
+            reopened.put("round", "{\"roundNumber\":8}");
+            reopened.sync();
+        }
+        finally { reopened.close(); }
+
+        LogStructuredStore again = new LogStructuredStore(file.toString());
+        try { assertEquals("{\"roundNumber\":8}", again.get("round")); }
+        finally { again.close(); }
+    }
+
+
+    @Test
+    void compactionDropsGarbageWhileWritesContinue(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("store.log");
+        LogStructuredStore store = new LogStructuredStore(file.toString());
+
+        for (int version = 0; version < 50; version++) {
+            for (int user = 0; user < 20; user++) {
+                store.put("player/" + user, "{\"version\":" + version + "}");
+            }
+        }
+        assertTrue(store.getGarbageBytes() > 0);
+
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                int id = writer;
+                done.add(writers.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        store.put("state/" + id + "/" + i, "{\"score\":" + i + "}");
+                        store.sync();
+                    }
+                }));
+            }
+
+            store.compact();
+            for (Future<?> writer : done) { writer.get(); }
+        }
+        finally { writers.shutdownNow(); }
+
+        store.compact();
+        assertEquals(0, store.getGarbageBytes());
+        assertEquals("{\"version\":49}", store.get("player/7"));
+        store.close();
+
+        LogStructuredStore reopened = new LogStructuredStore(file.toString());
+        try {
+            List<String> keys = new ArrayList<>();
+            reopened.forEach("state/", (key, value) -> keys.add(key));
+            assertEquals(800, keys.size());
+            assertEquals("{\"score\":199}", reopened.get("state/3/199"));
+            assertEquals("{\"version\":49}", reopened.get("player/19"));
+        }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void repositoryImportsJsonIntoEmptyStore(@TempDir Path dir) throws Exception {
+        Path playersFile = dir.resolve("players.json");
+        String storeFile = dir.resolve("store.log").toString();
+
+        PlayerRepository json = new PlayerRepository(playersFile.toString());
+        assertNull(json.registerPlayer("alice", "pw1"));
+        json.checkpoint();
+        json.close();
+
+        LogStructuredStore store = new LogStructuredStore(storeFile);
+        PlayerRepository imported = new PlayerRepository(playersFile.toString(), store);
+        assertNull(imported.registerPlayer("bob", "pw2"));
+        assertEquals(0, imported.getJournalSize());
+        imported.close();
+        store.close();
+
+        // The store is authoritative once it holds players
+        Files.writeString(
+            playersFile,
+            "{\"nextUserId\":1,\"players\":{}}",
+            StandardCharsets.UTF_8
+        );
+
+        LogStructuredStore reopened = new LogStructuredStore(storeFile);
+        PlayerRepository stored = new PlayerRepository(playersFile.toString(), reopened);
+        try {
+            assertNull(stored.validateLogin("alice", "pw1"));
+            assertNull(stored.validateLogin("bob", "pw2"));
+            assertEquals(2, stored.getPlayerByUsername("bob").getUserId());
+
+            stored.checkpoint();
+            assertTrue(Files.readString(playersFile, StandardCharsets.UTF_8).contains("bob"));
+        }
+        finally {
+            stored.close();
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.nicholasTropea.game.test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.nicholasTropea.game.client.ServerConnection;
+import com.nicholasTropea.game.model.PlayerGameState;
+import com.nicholasTropea.game.net.BinaryProtocol;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.RequestTypeAdapter;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.ResponseTypeAdapter;
+import com.nicholasTropea.game.net.WireProtocol;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+import com.nicholasTropea.game.server.NioNetworkManager;
+import com.nicholasTropea.game.server.ServerRuntime;
+import com.nicholasTropea.game.server.SessionManager;
+
+import static com.nicholasTropea.game.test.ServerFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NioFramingTest {
+    private static final Gson CODEC = new GsonBuilder()
+        .registerTypeHierarchyAdapter(Request.class, new RequestTypeAdapter())
+        .registerTypeHierarchyAdapter(Response.class, new ResponseTypeAdapter())
+        .create();
+
+    /** Request size limit of the server, in bytes. */
+    private static final int MAX_REQUEST_BYTES = 64 * 1024;
+
+
+    @Test
+    void reassemblesRequestsSplitAcrossReads(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+
+        try {
+            int port = start(runtime);
+
+            try (Socket socket = connect(port)) {
+                OutputStream out = socket.getOutputStream();
+                byte[] login = concat(
+                    line(new RegisterRequest("lines", "password")),
+                    line(new LoginRequest("lines", "password", 9))
+                );
+                // Carriage returns are dropped with the newline
+                login[login.length - 1] = '\r';
+                trickle(out, concat(login, "\n".getBytes(StandardCharsets.UTF_8)), 3);
+                out.write(concat(line(new LeaderboardRequest(1)), line(new LogoutRequest())));
+                out.flush();
+
+                BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+                );
+                assertInstanceOf(RegisterResponse.class, success(in.readLine()));
+                assertInstanceOf(LoginResponse.class, success(in.readLine()));
+                assertInstanceOf(LeaderboardResponse.class, success(in.readLine()));
+                assertInstanceOf(LogoutResponse.class, success(in.readLine()));
+            }
+
+            try (Socket socket = connect(port)) {
+                OutputStream out = socket.getOutputStream();
+                InputStream in = socket.getInputStream();
+
+                trickle(out, BinaryProtocol.PREFACE, 4);
+                byte[] ack = in.readNBytes(BinaryProtocol.PREFACE.length - 1);
+                assertEquals(BinaryProtocol.VERSION, ack[ack.length - 1]);
+
+                trickle(out, concat(
+                    BinaryProtocol.encodeRequest(new RegisterRequest("frames", "password")),
+                    BinaryProtocol.encodeRequest(new LoginRequest("frames", "password", 9))
+                ), 1);
+                out.write(concat(
+                    BinaryProtocol.encodeRequest(new LeaderboardRequest(1)),
+                    BinaryProtocol.encodeRequest(new LogoutRequest())
+                ));
+                out.flush();
+
+                assertInstanceOf(RegisterResponse.class, success(in));
+                assertInstanceOf(LoginResponse.class, success(in));
+                assertInstanceOf(LeaderboardResponse.class, success(in));
+                assertInstanceOf(LogoutResponse.class, success(in));
+            }
+        }
+        finally { runtime.close(); }
+    }
+
+
+    @Test
+    void closesConnectionsSendingOversizeRequests(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+
+        try {
+            int port = start(runtime);
+
+            try (Socket socket = connect(port)) {
+                byte[] line = new byte[MAX_REQUEST_BYTES + 1];
+                Arrays.fill(line, (byte) 'x');
+                assertClosedAfter(socket, line);
+            }
+
+            try (Socket socket = connect(port)) {
+                socket.getOutputStream().write(BinaryProtocol.PREFACE);
+                assertEquals(
+                    BinaryProtocol.PREFACE.length - 1,
+                    socket.getInputStream().readNBytes(BinaryProtocol.PREFACE.length - 1).length
+                );
+                assertClosedAfter(socket, frameHeader(MAX_REQUEST_BYTES + 1));
+            }
+        }
+        finally { runtime.close(); }
+    }
+
+
+    @Test
+    void releasesSessionsClosedMidRequest(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+        SessionManager sessions = runtime.getSessionManager();
+
+        try {
+            int port = start(runtime);
+
+            try (Socket socket = connect(port)) {
+                OutputStream out = socket.getOutputStream();
+                out.write(concat(
+                    line(new RegisterRequest("partial", "password")),
+                    line(new LoginRequest("partial", "password", 9))
+                ));
+                out.flush();
+                BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+                );
+                success(in.readLine());
+                success(in.readLine());
+                assertEquals(1, sessions.getActiveSessionCount());
+
+                out.write("{\"operation\":\"leader".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            awaitSessions(sessions, 0);
+
+            try (Socket socket = connect(port)) {
+                OutputStream out = socket.getOutputStream();
+                InputStream in = socket.getInputStream();
+                out.write(BinaryProtocol.PREFACE);
+                out.write(BinaryProtocol.encodeRequest(new LoginRequest("partial", "password", 9)));
+                out.flush();
+                in.readNBytes(BinaryProtocol.PREFACE.length - 1);
+                success(in);
+                assertEquals(1, sessions.getActiveSessionCount());
+
+                byte[] frame = BinaryProtocol.encodeRequest(new LeaderboardRequest(1));
+                out.write(Arrays.copyOf(frame, frame.length - 1));
+                out.flush();
+            }
+            awaitSessions(sessions, 0);
+        }
+        finally { runtime.close(); }
+    }
+
+
+    @Test
+    void keepsServingClientsThatReadLate(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+        int requests = 10_000;
+
+        try {
+            int port = start(runtime);
+
+            int player = 0;
+            for (WireProtocol protocol : WireProtocol.values()) {
+                try (ServerConnection connection = login(port, protocol, "late" + player++)) {
+                    // Replies pile up past the server's buffer cap before any is read
+                    CompletableFuture<Void> sent = CompletableFuture.runAsync(() -> {
+                        try {
+                            for (int i = 0; i < requests; i++) {
+                                connection.send(new GameInfoRequest(true));
+                            }
+                        }
+                        catch (IOException ex) { throw new IllegalStateException(ex); }
+                    });
+                    Thread.sleep(500);
+
+                    for (int i = 0; i < requests; i++) {
+                        Response resp = connection.receive();
+                        assertInstanceOf(GameInfoResponse.class, resp);
+                        assertTrue(resp.isSuccess(), resp.getError());
+                    }
+                    sent.get(10, TimeUnit.SECONDS);
+                }
+            }
+        }
+        finally { runtime.close(); }
+    }
+
+
+    @Test
+    void stopsReadingWhileThePipelineIsFull(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+        SessionManager sessions = runtime.getSessionManager();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+
+        // Padded close to the line limit, so socket buffers alone cannot hold the flood
+        PlayerStatsRequest tagged = new PlayerStatsRequest();
+        tagged.setId(1);
+        String json = CODEC.toJson(tagged);
+        byte[] flood = ("{" + " ".repeat(MAX_REQUEST_BYTES - 1024) + json.substring(1) + "\n")
+            .getBytes(StandardCharsets.UTF_8);
+        int requests = 400;
+
+        try {
+            // More workers than one connection's shared requests can block
+            int port = freePort();
+            ServerFixture.start(new NioNetworkManager(port, 1, 16, runtime), port);
+
+            try (Socket socket = connect(port)) {
+                OutputStream out = socket.getOutputStream();
+                out.write(concat(
+                    line(new RegisterRequest("flood", "password")),
+                    line(new LoginRequest("flood", "password", 9))
+                ));
+                out.flush();
+                BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+                );
+                success(in.readLine());
+                success(in.readLine());
+
+                // Holds the player's lock, so their stats requests run slowly off the drain
+                int userId = runtime.getPlayerRepository().getPlayerByUsername("flood").getUserId();
+                sessions.setStateJournal(new LockedProposals(locked, released));
+                CompletableFuture<Integer> proposal = CompletableFuture.supplyAsync(
+                    () -> sessions.applyWrongProposal(sessions.getSession(userId), 0, false)
+                );
+                assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+                CompletableFuture<Void> sent = CompletableFuture.runAsync(() -> {
+                    try {
+                        for (int i = 0; i < requests; i++) { out.write(flood); }
+                        out.flush();
+                    }
+                    catch (IOException ex) { throw new IllegalStateException(ex); }
+                });
+                assertThrows(TimeoutException.class, () -> sent.get(2, TimeUnit.SECONDS));
+
+                released.countDown();
+                proposal.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < requests; i++) {
+                    assertInstanceOf(PlayerStatsResponse.class, success(in.readLine()));
+                }
+                sent.get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            released.countDown();
+            runtime.close();
+        }
+    }
+
+
+    private static int start(ServerRuntime runtime) throws IOException, InterruptedException {
+        int port = freePort();
+        ServerFixture.start(new NioNetworkManager(port, 1, 4, runtime), port);
+        return port;
+    }
+
+
+    private static Socket connect(int port) throws IOException {
+        Socket socket = new Socket("localhost", port);
+        socket.setSoTimeout(10_000);
+        socket.setTcpNoDelay(true);
+        return socket;
+    }
+
+
+    /** Writes bytes a few at a time, so the server reads them in pieces. */
+    private static void trickle(OutputStream out, byte[] bytes, int chunk) throws Exception {
+        for (int offset = 0; offset < bytes.length; offset += chunk) {
+            out.write(bytes, offset, Math.min(chunk, bytes.length - offset));
+            out.flush();
+            Thread.sleep(1);
+        }
+    }
+
+
+    /** Expects the server to close the connection once the bytes are sent. */
+    private static void assertClosedAfter(Socket socket, byte[] bytes) {
+        try {
+            socket.getOutputStream().write(bytes);
+            socket.getOutputStream().flush();
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        catch (IOException ex) {
+            // Reset by the server while writing or reading: closed as well
+        }
+    }
+
+
+    private static void awaitSessions(SessionManager sessions, int expected) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (sessions.getActiveSessionCount() == expected) { return; }
+            Thread.sleep(50);
+        }
+
+        assertEquals(expected, sessions.getActiveSessionCount());
+    }
+
+
+    private static Response success(String line) {
+        assertNotNull(line, "server closed the connection");
+        Response resp = CODEC.fromJson(line, Response.class);
+        assertTrue(resp.isSuccess(), resp.getError());
+        return resp;
+    }
+
+
+    private static Response success(InputStream in) throws IOException {
+        byte[] payload = BinaryProtocol.readFrame(in, BinaryProtocol.MAX_RESPONSE_BYTES);
+        assertNotNull(payload, "server closed the connection");
+        Response resp = BinaryProtocol.decodeResponse(payload);
+        assertTrue(resp.isSuccess(), resp.getError());
+        return resp;
+    }
+
+
+    private static byte[] line(Request req) {
+        return (CODEC.toJson(req) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /** @return variable-length header announcing a payload of the given size */
+    private static byte[] frameHeader(int length) {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        while ((length & ~0x7F) != 0) {
+            header.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        header.write(length);
+        return header.toByteArray();
+    }
+
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (byte[] part : parts) { joined.writeBytes(part); }
+        return joined.toByteArray();
+    }
+
+
+    /** Journal that keeps a proposal's user locked until released. */
+    private static final class LockedProposals implements SessionManager.StateJournal {
+        private final CountDownLatch locked;
+        private final CountDownLatch released;
+
+
+        private LockedProposals(CountDownLatch locked, CountDownLatch released) {
+            this.locked = locked;
+            this.released = released;
+        }
+
+
+        @Override
+        public Runnable sessionOpened(PlayerGameState state) { return () -> { }; }
+
+
+        @Override
+        public Runnable proposalApplied(PlayerGameState state, int group) {
+            // Recorded under the user's lock
+            this.locked.countDown();
+            try { this.released.await(10, TimeUnit.SECONDS); }
+            catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+            return () -> { };
+        }
+    }
+}
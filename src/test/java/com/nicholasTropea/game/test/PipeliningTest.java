@@ -0,0 +1,77 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.nicholasTropea.game.client.ServerConnection;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.WireProtocol;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+import com.nicholasTropea.game.server.NetworkManager;
+import com.nicholasTropea.game.server.NioNetworkManager;
+import com.nicholasTropea.game.server.ServerRuntime;
+
+import static com.nicholasTropea.game.test.ServerFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PipeliningTest {
+    @Test
+    void correlatesRepliesOnEveryTransport(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+
+        try {
+            int classic = freePort();
+            start(new NetworkManager(classic, runtime, false), classic);
+            int nio = freePort();
+            start(new NioNetworkManager(nio, 1, 4, runtime), nio);
+
+            int player = 0;
+            for (int port : List.of(classic, nio)) {
+                for (WireProtocol protocol : WireProtocol.values()) {
+                    try (ServerConnection connection = login(port, protocol, "pipe" + player++)) {
+                        assertTrue(connection.supportsPipelining());
+                        assertDashboard(connection.pipeline(dashboard()));
+
+                        // Untagged requests still get untagged, in-order replies
+                        connection.send(new LeaderboardRequest(1));
+                        Response resp = connection.receive();
+                        assertInstanceOf(LeaderboardResponse.class, resp);
+                        assertNull(resp.getId());
+                    }
+                }
+            }
+        }
+        finally { runtime.close(); }
+    }
+
+
+    private static List<Request> dashboard() {
+        return List.of(
+            new GameInfoRequest(true),
+            new GameStatsRequest(true),
+            new LeaderboardRequest(10),
+            new PlayerStatsRequest(),
+            new GameInfoRequest(true)
+        );
+    }
+
+
+    private static void assertDashboard(List<Response> replies) {
+        assertEquals(5, replies.size());
+        assertInstanceOf(GameInfoResponse.class, replies.get(0));
+        assertInstanceOf(GameStatsResponse.class, replies.get(1));
+        assertInstanceOf(LeaderboardResponse.class, replies.get(2));
+        assertInstanceOf(PlayerStatsResponse.class, replies.get(3));
+        assertInstanceOf(GameInfoResponse.class, replies.get(4));
+
+        for (Response resp : replies) {
+            assertTrue(resp.isSuccess(), resp.getError());
+            assertNotNull(resp.getId());
+        }
+        assertNotEquals(replies.get(0).getId(), replies.get(4).getId());
+    }
+}
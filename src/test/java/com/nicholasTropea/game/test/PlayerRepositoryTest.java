@@ -0,0 +1,147 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.nicholasTropea.game.server.PlayerRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PlayerRepositoryTest {
+    @Test
+    void replaysJournaledChangesWithoutCheckpoint(@TempDir Path dir) {
+        Path file = dir.resolve("players.json");
+
+        PlayerRepository repository = new PlayerRepository(file.toString());
+        assertNull(repository.registerPlayer("alice", "pw1"));
+        assertNull(repository.registerPlayer("bob", "pw2"));
+        assertNull(repository.updateCredentials("alice", "pw1", "carol", "pw3"));
+        assertNull(repository.updateCredentials("bob", "pw2", "", "pw4"));
+        repository.close();
+
+        assertFalse(Files.exists(file));
+
+        PlayerRepository reopened = new PlayerRepository(file.toString());
+        try {
+            assertEquals("username not found", reopened.validateLogin("alice", "pw1"));
+            assertNull(reopened.validateLogin("carol", "pw3"));
+            assertNull(reopened.validateLogin("bob", "pw4"));
+            assertEquals(1, reopened.getPlayerByUsername("carol").getUserId());
+
+            // Ids keep growing past the journaled players
+            assertNull(reopened.registerPlayer("alice", "pw5"));
+            assertEquals(3, reopened.getPlayerByUsername("alice").getUserId());
+        }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void checkpointFoldsJournalIntoSnapshot(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("players.json");
+
+        PlayerRepository repository = new PlayerRepository(file.toString());
+        assertNull(repository.registerPlayer("alice", "pw1"));
+        assertTrue(repository.getJournalSize() > 0);
+
+        repository.checkpoint();
+        assertEquals(0, repository.getJournalSize());
+        assertTrue(Files.readString(file, StandardCharsets.UTF_8).contains("alice"));
+
+        // Journaled after the checkpoint, replayed over the snapshot
+        assertNull(repository.updateCredentials("alice", "pw1", "bob", ""));
+        repository.close();
+
+        PlayerRepository reopened = new PlayerRepository(file.toString());
+        try {
+            assertNull(reopened.validateLogin("bob", "pw1"));
+            assertNull(reopened.getPlayerByUsername("alice"));
+            assertEquals(1, reopened.getAllPlayers().size());
+        }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void concurrentRegistrationsAreAllDurable(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("players.json");
+        int players = 200;
+
+        PlayerRepository repository = new PlayerRepository(file.toString());
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < players; i++) {
+                String username = "player" + i;
+                results.add(pool.submit(() -> repository.registerPlayer(username, "pw")));
+            }
+            for (Future<String> result : results) { assertNull(result.get()); }
+        }
+        finally {
+            pool.shutdownNow();
+            repository.close();
+        }
+
+        PlayerRepository reopened = new PlayerRepository(file.toString());
+        try {
+            assertEquals(players, reopened.getAllPlayers().size());
+            for (int i = 0; i < players; i++) {
+                assertNull(reopened.validateLogin("player" + i, "pw"));
+            }
+        }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void failedJournalWriteKeepsTheAcceptedChange(@TempDir Path dir) {
+        PlayerRepository repository = new PlayerRepository(dir.resolve("players.json").toString());
+        assertNull(repository.registerPlayer("alice", "pw1"));
+
+        // Closed journal: every record write fails
+        repository.close();
+        assertNull(repository.registerPlayer("bob", "pw2"));
+        assertNull(repository.updateCredentials("alice", "pw1", "carol", ""));
+
+        assertNull(repository.validateLogin("bob", "pw2"));
+        assertNull(repository.validateLogin("carol", "pw1"));
+        assertEquals("username not found", repository.validateLogin("alice", "pw1"));
+        assertEquals(
+            "username already registered",
+            repository.registerPlayer("bob", "pw3")
+        );
+    }
+
+
+    @Test
+    void tornLastRecordIsIgnored(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("players.json");
+
+        PlayerRepository repository = new PlayerRepository(file.toString());
+        assertNull(repository.registerPlayer("alice", "pw1"));
+        repository.close();
+
+        Files.writeString(
+            dir.resolve("players.json.journal"),
+            "{\"userId\":2,\"nickname\":\"bo",
+            StandardCharsets.UTF_8,
+            StandardOpenOption.APPEND
+        );
+
+        PlayerRepository reopened = new PlayerRepository(file.toString());
+        try {
+            assertNull(reopened.validateLogin("alice", "pw1"));
+            assertEquals(1, reopened.getAllPlayers().size());
+        }
+        finally { reopened.close(); }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nicholasTropea.game.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.nicholasTropea.game.model.Game;
+import com.nicholasTropea.game.model.PlayerGameState;
+import com.nicholasTropea.game.server.ProposalMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class ProposalMatcherTest {
+    private static final Game GAME = new Game(7, List.of(
+        new Game.Group("WET WEATHER", List.of("SNOW", "HAIL", "RAIN", "SLEET")),
+        new Game.Group("NBA TEAMS", List.of("HEAT", "BUCKS", "JAZZ", "NETS")),
+        new Game.Group("KEYBOARD KEYS", List.of("SHIFT", "TAB", "RETURN", "OPTION")),
+        new Game.Group("PALINDROMES", List.of("LEVEL", "KAYAK", "RACECAR", "MADAM"))
+    ));
+
+
+    @Test
+    void matchesGroupIgnoringCaseAndSurroundingSpaces() {
+        ProposalMatcher matcher = ProposalMatcher.compile(GAME);
+
+        int mask = matcher.proposalMask(Arrays.asList(" tab", "Shift ", "OPTION", "return"));
+        assertEquals(PlayerGameState.groupMask(2), mask);
+        assertEquals(2, matcher.groupOf(mask));
+        assertEquals("KEYBOARD KEYS", matcher.getTheme(2));
+        assertEquals(List.of("SHIFT", "TAB", "RETURN", "OPTION"), matcher.getGroupWords(2));
+    }
+
+
+    @Test
+    void mixedGroupsHaveNoMatch() {
+        ProposalMatcher matcher = ProposalMatcher.compile(GAME);
+
+        int mask = matcher.proposalMask(List.of("SNOW", "HAIL", "HEAT", "BUCKS"));
+        assertEquals(4, Integer.bitCount(mask));
+        assertEquals(-1, matcher.groupOf(mask));
+    }
+
+
+    @Test
+    void reportsMalformedProposals() {
+        ProposalMatcher matcher = ProposalMatcher.compile(GAME);
+
+        assertEquals(
+            ProposalMatcher.WRONG_SIZE,
+            matcher.proposalMask(List.of("SNOW", "HAIL", "RAIN"))
+        );
+        assertEquals(
+            ProposalMatcher.DUPLICATED_WORD,
+            matcher.proposalMask(List.of("SNOW", "snow", "RAIN", "SLEET"))
+        );
+        assertEquals(
+            ProposalMatcher.DUPLICATED_WORD,
+            matcher.proposalMask(List.of("FOG", "SNOW", "fog ", "SLEET"))
+        );
+        assertEquals(
+            ProposalMatcher.UNKNOWN_WORD,
+            matcher.proposalMask(Arrays.asList("FOG", "SNOW", null, "SLEET"))
+        );
+    }
+
+
+    @Test
+    void remainingWordsBecomeMask() {
+        ProposalMatcher matcher = ProposalMatcher.compile(GAME);
+        List<String> remaining = new ArrayList<>(matcher.getWords());
+        remaining.removeAll(matcher.getGroupWords(1));
+
+        int remainingMask = matcher.maskOf(remaining);
+        assertEquals(0xFFFF & ~PlayerGameState.groupMask(1), remainingMask);
+        assertEquals(16, matcher.getWords().size());
+        assertEquals(-1, matcher.idOf("MISSING"));
+    }
+
+
+    @Test
+    void compactStateRoundTripsThroughWordLists() {
+        ProposalMatcher matcher = ProposalMatcher.compile(GAME);
+        List<String> shown = List.of(
+            "JAZZ", "LEVEL", "TAB", "SNOW", "MADAM", "HEAT", "RETURN", "HAIL",
+            "KAYAK", "NETS", "SHIFT", "RAIN", "RACECAR", "BUCKS", "OPTION", "SLEET"
+        );
+        PlayerGameState state = new PlayerGameState(3, 7, matcher.wordOrderOf(shown));
+
+        state.addGuessedGroup(3);
+        state.addGuessedGroup(0);
+        state.addGuessedGroup(3);
+
+        assertEquals(
+            List.of("JAZZ", "TAB", "HEAT", "RETURN", "NETS", "SHIFT", "BUCKS", "OPTION"),
+            matcher.remainingWords(state)
+        );
+        assertEquals(
+            List.of(matcher.getGroupWords(3), matcher.getGroupWords(0)),
+            matcher.guessedGroups(state)
+        );
+        assertArrayEquals(
+            new int[] {3, 0},
+            matcher.groupsOf(matcher.guessedGroups(state))
+        );
+        assertEquals(
+            PlayerGameState.groupMask(1) | PlayerGameState.groupMask(2),
+            state.getRemainingMask()
+        );
+    }
+}
@@ -0,0 +1,183 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.nicholasTropea.game.client.ServerConnection;
+import com.nicholasTropea.game.model.PlayerGameState;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.WireProtocol;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.net.responses.*;
+import com.nicholasTropea.game.server.GameRoundCoordinator;
+import com.nicholasTropea.game.server.NetworkManager;
+import com.nicholasTropea.game.server.NioNetworkManager;
+import com.nicholasTropea.game.server.ResponseCache;
+import com.nicholasTropea.game.server.ServerRuntime;
+import com.nicholasTropea.game.server.SessionManager;
+
+import static com.nicholasTropea.game.test.ServerFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ResponseCacheTest {
+    @Test
+    void servesFinishedGameStatsFromCache(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir);
+        ResponseCache cache = runtime.getResponseCache();
+        int pastGame = runtime.getGameRoundCoordinator().getCurrentGameId() == 0 ? 1 : 0;
+
+        try {
+            int port = freePort();
+            start(new NioNetworkManager(port, 1, 4, runtime), port);
+
+            int player = 0;
+            for (WireProtocol protocol : WireProtocol.values()) {
+                try (ServerConnection connection = login(port, protocol, "cache" + player++)) {
+                    GameStatsResponse first = stats(
+                        ask(connection, new GameStatsRequest(pastGame))
+                    );
+                    assertEquals(1, cache.size());
+
+                    // Tagged replies of a cached response carry their own id
+                    List<Response> tagged = connection.pipeline(
+                        List.of(new GameStatsRequest(pastGame), new GameStatsRequest(pastGame))
+                    );
+                    assertNotEquals(tagged.get(0).getId(), tagged.get(1).getId());
+                    for (Response resp : tagged) {
+                        assertEquals(first.getTotalPlayers(), stats(resp).getTotalPlayers());
+                    }
+
+                    // Served again from the cached bytes, still untagged
+                    assertNull(stats(ask(connection, new GameStatsRequest(pastGame))).getId());
+
+                    // Errors are not cached
+                    assertFalse(ask(connection, new GameInfoRequest(pastGame)).isSuccess());
+                    assertEquals(1, cache.size());
+
+                    cache.invalidate(pastGame);
+                    assertEquals(0, cache.size());
+                }
+            }
+        }
+        finally { runtime.close(); }
+    }
+
+
+    @Test
+    void stateChangeInFinishedGameDropsItsEntries(@TempDir Path dir) throws Exception {
+        ServerRuntime runtime = runtime(dir, options(dir).roundDurationMillis(2_000L));
+        ResponseCache cache = runtime.getResponseCache();
+        GameRoundCoordinator rounds = runtime.getGameRoundCoordinator();
+
+        CountDownLatch rotated = new CountDownLatch(1);
+        CountDownLatch cached = new CountDownLatch(1);
+        // Registered after the runtime's own listener, so runs after its invalidation
+        rounds.addRoundTransitionListener((previous, next, round) -> rotated.countDown());
+        runtime.getSessionManager().setStateJournal(new HeldProposals(cached));
+
+        try {
+            int port = freePort();
+            start(new NetworkManager(port, runtime, false), port);
+
+            int game = rounds.getCurrentGameId();
+            List<String> group = runtime.getGameRepository().getMatcher(game).getGroupWords(0);
+            try (
+                ServerConnection late = login(port, WireProtocol.JSON, "late");
+                ServerConnection reader = login(port, WireProtocol.JSON, "reader")
+            ) {
+                assertEquals(1, rotated.getCount(), "logged in after the round ended");
+
+                // Applied in the round that ends while its journal record is held
+                late.send(new SubmitProposalRequest(group));
+                assertTrue(rotated.await(10, TimeUnit.SECONDS));
+
+                stats(ask(reader, new GameStatsRequest(game)));
+                assertEquals(1, cache.size());
+
+                cached.countDown();
+                assertTrue(late.receive().isSuccess());
+                assertEquals(0, cache.size());
+            }
+        }
+        finally {
+            cached.countDown();
+            runtime.close();
+        }
+    }
+
+
+    @Test
+    void refusesResponsesComputedAcrossAnInvalidation() {
+        ResponseCache cache = new ResponseCache(8);
+        Response resp = LeaderboardResponse.success(List.of());
+
+        long generation = cache.generation(3);
+        cache.invalidate(3);
+        ResponseCache.Entry refused = cache.put("leaderboard", 3, 1, resp, generation);
+        assertSame(resp, refused.getResponse());
+        assertNull(cache.get("leaderboard", 3, 1));
+        assertEquals(0, cache.size());
+
+        // Other games keep their generation
+        long other = cache.generation(4);
+        cache.invalidate(3);
+        cache.put("leaderboard", 4, 1, resp, other);
+        assertNotNull(cache.get("leaderboard", 4, 1));
+
+        long fresh = cache.generation(3);
+        ResponseCache.Entry stored = cache.put("leaderboard", 3, 1, resp, fresh);
+        assertSame(stored, cache.get("leaderboard", 3, 1));
+        assertEquals(2, cache.size());
+    }
+
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesBeyondTheBound() {
+        ResponseCache cache = new ResponseCache(8);
+        Response resp = LeaderboardResponse.success(List.of());
+
+        for (int userId = 1; userId <= 8; userId++) {
+            cache.put("gameInfo", 0, userId, resp, cache.generation(0));
+        }
+        assertNotNull(cache.get("gameInfo", 0, 1));
+
+        cache.put("gameInfo", 1, 1, resp, cache.generation(1));
+        assertEquals(7, cache.size());
+        assertNotNull(cache.get("gameInfo", 0, 1));
+        assertNotNull(cache.get("gameInfo", 1, 1));
+    }
+
+
+    private static GameStatsResponse stats(Response resp) {
+        assertInstanceOf(GameStatsResponse.class, resp);
+        assertTrue(resp.isSuccess(), resp.getError());
+        assertFalse(((GameStatsResponse) resp).isActive());
+        return (GameStatsResponse) resp;
+    }
+
+
+    /** Journal holding every proposal's durability wait until released. */
+    private static final class HeldProposals implements SessionManager.StateJournal {
+        private final CountDownLatch released;
+
+
+        private HeldProposals(CountDownLatch released) { this.released = released; }
+
+
+        @Override
+        public Runnable sessionOpened(PlayerGameState state) { return () -> { }; }
+
+
+        @Override
+        public Runnable proposalApplied(PlayerGameState state, int group) {
+            return () -> {
+                try { this.released.await(10, TimeUnit.SECONDS); }
+                catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+            };
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.nicholasTropea.game.test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.nicholasTropea.game.client.ServerConnection;
+import com.nicholasTropea.game.net.Request;
+import com.nicholasTropea.game.net.Response;
+import com.nicholasTropea.game.net.WireProtocol;
+import com.nicholasTropea.game.net.requests.*;
+import com.nicholasTropea.game.server.GameRepository;
+import com.nicholasTropea.game.server.PlayerRepository;
+import com.nicholasTropea.game.server.ServerRuntime;
+import com.nicholasTropea.game.server.SessionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runtime, server and client helpers shared by the end-to-end tests. */
+final class ServerFixture {
+    private ServerFixture() { }
+
+
+    /**
+     * @param dir temporary directory holding every data file
+     * @return options for a runtime whose round outlasts any test
+     */
+    static ServerRuntime.Options options(Path dir) {
+        return new ServerRuntime.Options()
+            .roundDurationMillis(3_600_000L)
+            .sessionAutosaveSeconds(3_600L)
+            .journalCheckpointBytes(1L << 20)
+            .udpSenderChannels(1)
+            .responseCacheEntries(64)
+            .gameStatesFilePath(dir.resolve("gameStates.json").toString())
+            .gameRoundStateFilePath(dir.resolve("gameRoundState.json").toString());
+    }
+
+
+    /**
+     * @param dir temporary directory holding every data file
+     * @return runtime without players and with {@link #options} defaults
+     */
+    static ServerRuntime runtime(Path dir) throws IOException {
+        return runtime(dir, options(dir));
+    }
+
+
+    /**
+     * @param dir temporary directory holding every data file
+     * @param options runtime settings
+     * @return runtime without players
+     */
+    static ServerRuntime runtime(Path dir, ServerRuntime.Options options) throws IOException {
+        Path playersFile = dir.resolve("players.json");
+        Files.writeString(
+            playersFile,
+            "{\"nextUserId\":1,\"players\":{}}",
+            StandardCharsets.UTF_8
+        );
+
+        return new ServerRuntime(
+            new PlayerRepository(playersFile.toString()),
+            new GameRepository(
+                "src/main/resources/data/games.json",
+                dir.resolve("games.bin").toString()
+            ),
+            new SessionManager(),
+            options
+        );
+    }
+
+
+    /** Runs a server on a daemon thread and waits until it accepts connections. */
+    static void start(Runnable server, int port) throws InterruptedException {
+        Thread thread = new Thread(server);
+        thread.setDaemon(true);
+        thread.start();
+        awaitListening(port);
+    }
+
+
+    static void awaitListening(int port) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try (Socket probe = new Socket("localhost", port)) { return; }
+            catch (IOException ex) { Thread.sleep(50); }
+        }
+
+        fail("server did not start listening on port " + port);
+    }
+
+
+    static int freePort() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) { return probe.getLocalPort(); }
+    }
+
+
+    /** Registers a new player and logs them into the current game. */
+    static ServerConnection login(
+        int port,
+        WireProtocol protocol,
+        String username
+    ) throws IOException {
+        ServerConnection connection = ServerConnection.open("localhost", port, protocol, 10_000);
+
+        connection.send(new RegisterRequest(username, "password"));
+        assertTrue(connection.receive().isSuccess());
+        connection.send(new LoginRequest(username, "password", 9));
+        assertTrue(connection.receive().isSuccess());
+        return connection;
+    }
+
+
+    static Response ask(ServerConnection connection, Request req) throws IOException {
+        connection.send(req);
+        return connection.receive();
+    }
+}
@@ -0,0 +1,213 @@
+package com.nicholasTropea.game.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.nicholasTropea.game.model.PlayerGameState;
+import com.nicholasTropea.game.server.GameRepository;
+import com.nicholasTropea.game.server.LogStructuredStore;
+import com.nicholasTropea.game.server.ProposalMatcher;
+import com.nicholasTropea.game.server.SessionManager;
+import com.nicholasTropea.game.server.SessionStateRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SessionStateRepositoryTest {
+    @Test
+    void replaysJournaledTransitionsWithoutCheckpoint(@TempDir Path dir) throws Exception {
+        GameRepository games = games(dir);
+        Path file = dir.resolve("gameStates.json");
+        ProposalMatcher matcher = games.getMatcher(0);
+
+        SessionStateRepository repository = new SessionStateRepository(file.toString(), games);
+        SessionManager sessions = new SessionManager();
+        sessions.setStateJournal(repository);
+
+        PlayerGameState playing = open(sessions, 1, 0);
+        sessions.applyCorrectProposal(playing, 2, 1, false);
+        sessions.applyWrongProposal(playing, 0, false);
+        sessions.applyCorrectProposal(playing, 0, 2, false);
+        List<String> remaining = matcher.remainingWords(playing);
+
+        PlayerGameState won = open(sessions, 2, 0);
+        for (int group = 0; group < 4; group++) {
+            sessions.applyCorrectProposal(won, group, group + 1, group == 3);
+        }
+        open(sessions, 3, 1);
+        repository.close();
+
+        assertFalse(Files.exists(file));
+        Files.writeString(
+            dir.resolve("gameStates.json.journal"),
+            "{\"type\":\"wrong\",\"userId\":1,\"gam",
+            StandardCharsets.UTF_8,
+            StandardOpenOption.APPEND
+        );
+
+        SessionStateRepository reopened = new SessionStateRepository(file.toString(), games);
+        try {
+            List<SessionManager.GameStateSnapshot> snapshots = sorted(reopened.loadSnapshots());
+            assertEquals(3, snapshots.size());
+
+            SessionManager.GameStateSnapshot first = snapshots.get(0);
+            assertEquals(2, first.getCorrectProposals());
+            assertEquals(1, first.getErrorCount());
+            assertEquals(2, first.getScore());
+            assertEquals(remaining, first.getRemainingWords());
+            assertEquals(
+                List.of(matcher.getGroupWords(2), matcher.getGroupWords(0)),
+                first.getGuessedGroups()
+            );
+            assertEquals(PlayerGameState.GameResult.NOT_FINISHED, first.getFinalState());
+
+            SessionManager.GameStateSnapshot second = snapshots.get(1);
+            assertEquals(PlayerGameState.GameResult.WON, second.getFinalState());
+            assertEquals(4, second.getScore());
+            assertTrue(second.getRemainingWords().isEmpty());
+
+            SessionManager.GameStateSnapshot third = snapshots.get(2);
+            assertEquals(1, third.getGameId());
+            assertEquals(16, third.getRemainingWords().size());
+            assertEquals(0, third.getCorrectProposals());
+        }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void checkpointsDuringTransitionsLoseAndRepeatNothing(@TempDir Path dir) throws Exception {
+        GameRepository games = games(dir);
+        Path file = dir.resolve("gameStates.json");
+
+        SessionStateRepository repository = new SessionStateRepository(file.toString(), games);
+        SessionManager sessions = new SessionManager();
+        sessions.setStateJournal(repository);
+
+        ExecutorService players = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int userId = 1; userId <= 8; userId++) {
+                int user = userId;
+                done.add(players.submit(() -> {
+                    for (int gameId = 0; gameId < 6; gameId++) {
+                        PlayerGameState state = open(sessions, user, gameId);
+                        sessions.applyCorrectProposal(state, 0, 1, false);
+                        sessions.applyWrongProposal(state, 0, false);
+                        sessions.applyCorrectProposal(state, 1, user, false);
+                        sessions.removeSession(user);
+                    }
+                }));
+            }
+
+            int checkpoints = 0;
+            while (!done.stream().allMatch(Future::isDone) || checkpoints == 0) {
+                repository.checkpoint(() -> sessions.exportSnapshots(games));
+                checkpoints++;
+            }
+            for (Future<?> player : done) { player.get(); }
+        }
+        finally { players.shutdownNow(); }
+
+        // Journaled after the last checkpoint, replayed over it
+        PlayerGameState late = open(sessions, 9, 0);
+        sessions.applyWrongProposal(late, 0, false);
+        assertTrue(repository.getJournalSize() > 0);
+        repository.close();
+
+        List<String> expected = describe(sessions.exportSnapshots(games));
+        assertEquals(49, expected.size());
+
+        SessionStateRepository reopened = new SessionStateRepository(file.toString(), games);
+        try { assertEquals(expected, describe(sorted(reopened.loadSnapshots()))); }
+        finally { reopened.close(); }
+    }
+
+
+    @Test
+    void storeCheckpointExportsEveryState(@TempDir Path dir) {
+        GameRepository games = games(dir);
+        Path file = dir.resolve("gameStates.json");
+        LogStructuredStore store = new LogStructuredStore(dir.resolve("store.log").toString());
+
+        SessionStateRepository stored = new SessionStateRepository(file.toString(), games, store);
+        SessionManager sessions = new SessionManager();
+        sessions.setStateJournal(stored);
+        for (int userId = 1; userId <= 20; userId++) {
+            PlayerGameState state = open(sessions, userId, userId % 3);
+            sessions.applyCorrectProposal(state, userId % 4, userId, false);
+        }
+
+        try {
+            stored.checkpoint(() -> {
+                throw new AssertionError("a store exports its own records");
+            });
+        }
+        finally {
+            stored.close();
+            store.close();
+        }
+
+        SessionStateRepository json = new SessionStateRepository(file.toString(), games);
+        try {
+            assertEquals(
+                describe(sessions.exportSnapshots(games)),
+                describe(sorted(json.loadSnapshots()))
+            );
+        }
+        finally { json.close(); }
+    }
+
+
+    private static PlayerGameState open(SessionManager sessions, int userId, int gameId) {
+        assertNull(sessions.openSessionForCurrentGame(userId, gameId));
+        return sessions.getSession(userId);
+    }
+
+
+    private static List<SessionManager.GameStateSnapshot> sorted(
+        List<SessionManager.GameStateSnapshot> snapshots
+    ) {
+        List<SessionManager.GameStateSnapshot> copy = new ArrayList<>(snapshots);
+        copy.sort(
+            Comparator
+                .comparingInt(SessionManager.GameStateSnapshot::getUserId)
+                .thenComparingInt(SessionManager.GameStateSnapshot::getGameId)
+        );
+        return copy;
+    }
+
+
+    private static List<String> describe(List<SessionManager.GameStateSnapshot> snapshots) {
+        List<String> described = new ArrayList<>();
+        for (SessionManager.GameStateSnapshot snapshot : snapshots) {
+            described.add(
+                snapshot.getUserId() + "/" + snapshot.getGameId()
+                + " correct=" + snapshot.getCorrectProposals()
+                + " errors=" + snapshot.getErrorCount()
+                + " score=" + snapshot.getScore()
+                + " " + snapshot.getFinalState()
+                + " " + snapshot.getRemainingWords()
+                + " " + snapshot.getGuessedGroups()
+            );
+        }
+        return described;
+    }
+
+
+    private static GameRepository games(Path dir) {
+        return new GameRepository(
+            "src/main/resources/data/games.json",
+            dir.resolve("games.bin").toString()
+        );
+    }
+}